@@ -17,9 +17,13 @@
  */
 package com.phloc.datetime;
 
+import java.text.DateFormatSymbols;
 import java.util.Calendar;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -31,7 +35,8 @@ import com.phloc.commons.lang.DateFormatSymbolsFactory;
 import com.phloc.commons.lang.EnumHelper;
 
 /**
- * Represents all known Gregorian Calendar days of a week as a type-safe enum
+ * Represents all known Gregorian Calendar days of a week as a type-safe enum.
+ * The localized names are cached per locale.
  *
  * @author Philip Helger
  */
@@ -45,6 +50,8 @@ public enum EDayOfWeek implements IHasSimpleIntID
   SATURDAY (DateTimeConstants.SATURDAY, Calendar.SATURDAY),
   SUNDAY (DateTimeConstants.SUNDAY, Calendar.SUNDAY);
 
+  private static final ConcurrentMap <Locale, PDTNameTable <EDayOfWeek>> s_aNameTables = new ConcurrentHashMap <Locale, PDTNameTable <EDayOfWeek>> ();
+
   private final int m_nJodaID;
   private final int m_nCalID;
 
@@ -75,16 +82,87 @@ public enum EDayOfWeek implements IHasSimpleIntID
     return m_nCalID;
   }
 
+  @Nonnull
+  private static PDTNameTable <EDayOfWeek> _getNameTable (@Nonnull final Locale aLocale)
+  {
+    if (aLocale == null)
+      throw new NullPointerException ("locale");
+
+    PDTNameTable <EDayOfWeek> ret = s_aNameTables.get (aLocale);
+    if (ret == null)
+    {
+      final DateFormatSymbols aDFS = DateFormatSymbolsFactory.getInstance (aLocale);
+      final String [] aLong = aDFS.getWeekdays ();
+      final String [] aShort = aDFS.getShortWeekdays ();
+      final EDayOfWeek [] aValues = values ();
+      final String [] aNames = new String [aValues.length];
+      final String [] aShortNames = new String [aValues.length];
+      for (final EDayOfWeek e : aValues)
+      {
+        aNames[e.ordinal ()] = ArrayHelper.getSafeElement (aLong, e.m_nCalID);
+        aShortNames[e.ordinal ()] = ArrayHelper.getSafeElement (aShort, e.m_nCalID);
+      }
+      ret = new PDTNameTable <EDayOfWeek> (aValues, aNames, aShortNames);
+      final PDTNameTable <EDayOfWeek> aOld = s_aNameTables.putIfAbsent (aLocale, ret);
+      if (aOld != null)
+        ret = aOld;
+    }
+    return ret;
+  }
+
   @Nullable
   public String getWeekdayName (@Nonnull final Locale aLocale)
   {
-    return ArrayHelper.getSafeElement (DateFormatSymbolsFactory.getInstance (aLocale).getWeekdays (), m_nCalID);
+    return _getNameTable (aLocale).getName (this);
   }
 
   @Nullable
   public String getWeekdayShortName (@Nonnull final Locale aLocale)
   {
-    return ArrayHelper.getSafeElement (DateFormatSymbolsFactory.getInstance (aLocale).getShortWeekdays (), m_nCalID);
+    return _getNameTable (aLocale).getShortName (this);
+  }
+
+  /**
+   * Find the day of week with the passed long or short name. The comparison is
+   * case insensitive.
+   * 
+   * @param sName
+   *        The name to search. May be <code>null</code>.
+   * @param aLocale
+   *        The locale of the name. May not be <code>null</code>.
+   * @return <code>null</code> if no such day of week exists.
+   */
+  @Nullable
+  public static EDayOfWeek getFromNameOrNull (@Nullable final String sName, @Nonnull final Locale aLocale)
+  {
+    return sName == null ? null : getFromNameOrNull (sName, 0, sName.length (), aLocale);
+  }
+
+  /**
+   * Find the day of week with the passed long or short name, e.g. within a line of
+   * user input. The comparison is case insensitive and nothing is allocated.
+   * 
+   * @param aText
+   *        The text containing the name. May not be <code>null</code>.
+   * @param nOfs
+   *        The offset of the name within the text.
+   * @param nLen
+   *        The length of the name.
+   * @param aLocale
+   *        The locale of the name. May not be <code>null</code>.
+   * @return <code>null</code> if no such day of week exists.
+   */
+  @Nullable
+  public static EDayOfWeek getFromNameOrNull (@Nonnull final CharSequence aText,
+                                              @Nonnegative final int nOfs,
+                                              @Nonnegative final int nLen,
+                                              @Nonnull final Locale aLocale)
+  {
+    if (aText == null)
+      throw new NullPointerException ("text");
+    if (nOfs < 0 || nLen < 0 || nOfs + nLen > aText.length ())
+      throw new IllegalArgumentException ("Illegal offset " + nOfs + " and length " + nLen);
+    return _getNameTable (aLocale).getFromName (aText, nOfs, nLen);
   }
 
   @Nullable
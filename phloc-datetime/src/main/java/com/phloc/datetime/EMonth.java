@@ -17,9 +17,13 @@
  */
 package com.phloc.datetime;
 
+import java.text.DateFormatSymbols;
 import java.util.Calendar;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -31,7 +35,8 @@ import com.phloc.commons.lang.DateFormatSymbolsFactory;
 import com.phloc.commons.lang.EnumHelper;
 
 /**
- * Represents all known Gregorian Calendar month as a type-safe enum
+ * Represents all known Gregorian Calendar month as a type-safe enum. The
+ * localized names are cached per locale.
  *
  * @author Philip Helger
  */
@@ -50,6 +55,8 @@ public enum EMonth implements IHasSimpleIntID
   NOVEMBER (DateTimeConstants.NOVEMBER, Calendar.NOVEMBER),
   DECEMBER (DateTimeConstants.DECEMBER, Calendar.DECEMBER);
 
+  private static final ConcurrentMap <Locale, PDTNameTable <EMonth>> s_aNameTables = new ConcurrentHashMap <Locale, PDTNameTable <EMonth>> ();
+
   private final int m_nJodaID;
   private final int m_nCalID;
 
@@ -80,16 +87,87 @@ public enum EMonth implements IHasSimpleIntID
     return m_nCalID;
   }
 
+  @Nonnull
+  private static PDTNameTable <EMonth> _getNameTable (@Nonnull final Locale aLocale)
+  {
+    if (aLocale == null)
+      throw new NullPointerException ("locale");
+
+    PDTNameTable <EMonth> ret = s_aNameTables.get (aLocale);
+    if (ret == null)
+    {
+      final DateFormatSymbols aDFS = DateFormatSymbolsFactory.getInstance (aLocale);
+      final String [] aLong = aDFS.getMonths ();
+      final String [] aShort = aDFS.getShortMonths ();
+      final EMonth [] aValues = values ();
+      final String [] aNames = new String [aValues.length];
+      final String [] aShortNames = new String [aValues.length];
+      for (final EMonth e : aValues)
+      {
+        aNames[e.ordinal ()] = ArrayHelper.getSafeElement (aLong, e.m_nCalID);
+        aShortNames[e.ordinal ()] = ArrayHelper.getSafeElement (aShort, e.m_nCalID);
+      }
+      ret = new PDTNameTable <EMonth> (aValues, aNames, aShortNames);
+      final PDTNameTable <EMonth> aOld = s_aNameTables.putIfAbsent (aLocale, ret);
+      if (aOld != null)
+        ret = aOld;
+    }
+    return ret;
+  }
+
   @Nullable
   public String getMonthName (@Nonnull final Locale aLocale)
   {
-    return ArrayHelper.getSafeElement (DateFormatSymbolsFactory.getInstance (aLocale).getMonths (), m_nCalID);
+    return _getNameTable (aLocale).getName (this);
   }
 
   @Nullable
   public String getMonthShortName (@Nonnull final Locale aLocale)
   {
-    return ArrayHelper.getSafeElement (DateFormatSymbolsFactory.getInstance (aLocale).getShortMonths (), m_nCalID);
+    return _getNameTable (aLocale).getShortName (this);
+  }
+
+  /**
+   * Find the month with the passed long or short name. The comparison is
+   * case insensitive.
+   * 
+   * @param sName
+   *        The name to search. May be <code>null</code>.
+   * @param aLocale
+   *        The locale of the name. May not be <code>null</code>.
+   * @return <code>null</code> if no such month exists.
+   */
+  @Nullable
+  public static EMonth getFromNameOrNull (@Nullable final String sName, @Nonnull final Locale aLocale)
+  {
+    return sName == null ? null : getFromNameOrNull (sName, 0, sName.length (), aLocale);
+  }
+
+  /**
+   * Find the month with the passed long or short name, e.g. within a line of
+   * user input. The comparison is case insensitive and nothing is allocated.
+   * 
+   * @param aText
+   *        The text containing the name. May not be <code>null</code>.
+   * @param nOfs
+   *        The offset of the name within the text.
+   * @param nLen
+   *        The length of the name.
+   * @param aLocale
+   *        The locale of the name. May not be <code>null</code>.
+   * @return <code>null</code> if no such month exists.
+   */
+  @Nullable
+  public static EMonth getFromNameOrNull (@Nonnull final CharSequence aText,
+                                          @Nonnegative final int nOfs,
+                                          @Nonnegative final int nLen,
+                                          @Nonnull final Locale aLocale)
+  {
+    if (aText == null)
+      throw new NullPointerException ("text");
+    if (nOfs < 0 || nLen < 0 || nOfs + nLen > aText.length ())
+      throw new IllegalArgumentException ("Illegal offset " + nOfs + " and length " + nLen);
+    return _getNameTable (aLocale).getFromName (aText, nOfs, nLen);
   }
 
   @Nullable
@@ -27,7 +27,6 @@ import javax.annotation.concurrent.Immutable;
 
 import org.joda.time.Chronology;
 import org.joda.time.DateTime;
-import org.joda.time.DateTimeUtils;
 import org.joda.time.DateTimeZone;
 import org.joda.time.IllegalInstantException;
 import org.joda.time.LocalDate;
@@ -39,6 +38,7 @@ import org.slf4j.LoggerFactory;
 
 import com.phloc.commons.annotations.PresentForCodeCoverage;
 import com.phloc.datetime.config.PDTConfig;
+import com.phloc.datetime.format.PDTISOFastParser;
 
 /**
  * This class contains methods for creating date and time objects.
@@ -56,22 +56,28 @@ public final class PDTFactory
   private PDTFactory ()
   {}
 
+  @Nonnull
+  private static Chronology _getChronology (@Nonnull final TimeZone aTimeZone)
+  {
+    return PDTConfig.getDefaultChronology (DateTimeZone.forTimeZone (aTimeZone));
+  }
+
   @Nonnull
   public static DateTime getCurrentDateTime ()
   {
-    return new DateTime (PDTConfig.getDefaultChronology ());
+    return new DateTime (getCurrentMillis (), PDTConfig.getDefaultChronology ());
   }
 
   @Nonnull
   public static DateTime getCurrentDateTimeUTC ()
   {
-    return new DateTime (PDTConfig.getDefaultChronologyUTC ());
+    return new DateTime (getCurrentMillis (), PDTConfig.getDefaultChronologyUTC ());
   }
 
   @Nonnull
   public static MutableDateTime getCurrentMutableDateTime ()
   {
-    return new MutableDateTime (PDTConfig.getDefaultChronology ());
+    return new MutableDateTime (getCurrentMillis (), PDTConfig.getDefaultChronology ());
   }
 
   @Nonnull
@@ -151,10 +157,20 @@ public final class PDTFactory
     }
   }
 
+  /**
+   * Parse string using ISO format. The common fixed formats are handled by
+   * {@link PDTISOFastParser}, everything else is handled by Joda.
+   *
+   * @param sDateTime
+   *        A date time in the format yyyy-MM-ddTHH:mm:ss.SSSZZ
+   * @return the {@link DateTime}
+   */
   @Nonnull
   public static DateTime createDateTime (@Nonnull final String sDateTime)
   {
-    return new DateTime (sDateTime, PDTConfig.getDefaultChronology ());
+    final Chronology aChronology = PDTConfig.getDefaultChronology ();
+    final DateTime ret = PDTISOFastParser.parseDateTime (sDateTime, aChronology);
+    return ret != null ? ret : new DateTime (sDateTime, aChronology);
   }
 
   @Nonnull
@@ -166,15 +182,13 @@ public final class PDTFactory
   @Nonnull
   public static DateTime createDateTime (@Nonnull final Date aDate, @Nonnull final TimeZone aTimeZone)
   {
-    return new DateTime (aDate, PDTConfig.getDefaultChronology ().withZone (DateTimeZone.forTimeZone (aTimeZone)));
+    return new DateTime (aDate, _getChronology (aTimeZone));
   }
 
   @Nonnull
   public static DateTime createDateTime (@Nonnull final Calendar aCalendar)
   {
-    return new DateTime (aCalendar,
-                         PDTConfig.getDefaultChronology ()
-                                  .withZone (DateTimeZone.forTimeZone (aCalendar.getTimeZone ())));
+    return new DateTime (aCalendar, _getChronology (aCalendar.getTimeZone ()));
   }
 
   @Nonnull
@@ -220,7 +234,8 @@ public final class PDTFactory
   @Nonnull
   public static LocalDate getCurrentLocalDate ()
   {
-    return new LocalDate (getLocalChronology ());
+    // Cached per configuration until the next day starts
+    return PDTConfig.getCachedLocalDate (getCurrentMillis ());
   }
 
   @Nonnull
@@ -236,7 +251,8 @@ public final class PDTFactory
   }
 
   /**
-   * Parse string using ISO format
+   * Parse string using ISO format. The common fixed formats are handled by
+   * {@link PDTISOFastParser}, everything else is handled by Joda.
    *
    * @param sDate
    *        A date in the format yyyy-MM-dd
@@ -245,7 +261,9 @@ public final class PDTFactory
   @Nonnull
   public static LocalDate createLocalDate (@Nonnull final String sDate)
   {
-    return new LocalDate (sDate, getLocalChronology ());
+    final Chronology aChronology = getLocalChronology ();
+    final LocalDate ret = PDTISOFastParser.parseLocalDate (sDate, aChronology);
+    return ret != null ? ret : new LocalDate (sDate, aChronology);
   }
 
   /**
@@ -259,7 +277,7 @@ public final class PDTFactory
   public static LocalDate createLocalDate (@Nonnull final Calendar aCalendar)
   {
     return new LocalDate (aCalendar,
-                          getLocalChronology ().withZone (DateTimeZone.forTimeZone (aCalendar.getTimeZone ())));
+                          _getChronology (aCalendar.getTimeZone ()));
   }
 
   @Nonnull
@@ -271,7 +289,7 @@ public final class PDTFactory
   @Nonnull
   public static LocalDate createLocalDate (@Nonnull final Date aDate, final TimeZone aTimeZone)
   {
-    return new LocalDate (aDate, getLocalChronology ().withZone (DateTimeZone.forTimeZone (aTimeZone)));
+    return new LocalDate (aDate, _getChronology (aTimeZone));
   }
 
   @Nonnull
@@ -289,7 +307,7 @@ public final class PDTFactory
   @Nonnull
   public static LocalTime getCurrentLocalTime ()
   {
-    return new LocalTime (getLocalChronology ());
+    return new LocalTime (getCurrentMillis (), getLocalChronology ());
   }
 
   @Nonnull
@@ -321,7 +339,8 @@ public final class PDTFactory
   }
 
   /**
-   * Parse string using ISO format
+   * Parse string using ISO format. The common fixed formats are handled by
+   * {@link PDTISOFastParser}, everything else is handled by Joda.
    *
    * @param sTime
    *        A time in the format HH:mm:ss.SSSZZ
@@ -330,7 +349,9 @@ public final class PDTFactory
   @Nonnull
   public static LocalTime createLocalTime (@Nonnull final String sTime)
   {
-    return new LocalTime (sTime, getLocalChronology ());
+    final Chronology aChronology = getLocalChronology ();
+    final LocalTime ret = PDTISOFastParser.parseLocalTime (sTime, aChronology);
+    return ret != null ? ret : new LocalTime (sTime, aChronology);
   }
 
   @Nonnull
@@ -342,14 +363,14 @@ public final class PDTFactory
   @Nonnull
   public static LocalTime createLocalTime (@Nonnull final Date aDate, @Nonnull final TimeZone aTimeZone)
   {
-    return new LocalTime (aDate, getLocalChronology ().withZone (DateTimeZone.forTimeZone (aTimeZone)));
+    return new LocalTime (aDate, _getChronology (aTimeZone));
   }
 
   @Nonnull
   public static LocalTime createLocalTime (@Nonnull final Calendar aCalendar)
   {
     return new LocalTime (aCalendar,
-                          getLocalChronology ().withZone (DateTimeZone.forTimeZone (aCalendar.getTimeZone ())));
+                          _getChronology (aCalendar.getTimeZone ()));
   }
 
   @Nonnull
@@ -367,7 +388,7 @@ public final class PDTFactory
   @Nonnull
   public static LocalDateTime getCurrentLocalDateTime ()
   {
-    return new LocalDateTime (getLocalChronology ());
+    return new LocalDateTime (getCurrentMillis (), getLocalChronology ());
   }
 
   /**
@@ -380,7 +401,9 @@ public final class PDTFactory
   @Nonnull
   public static LocalDateTime createLocalDateTime (@Nonnull final String sDateTime)
   {
-    return new LocalDateTime (sDateTime, getLocalChronology ());
+    final Chronology aChronology = getLocalChronology ();
+    final LocalDateTime ret = PDTISOFastParser.parseLocalDateTime (sDateTime, aChronology);
+    return ret != null ? ret : new LocalDateTime (sDateTime, aChronology);
   }
 
   @Nonnull
@@ -494,13 +517,13 @@ public final class PDTFactory
   public static LocalDateTime createLocalDateTime (@Nonnull final Calendar aCalendar)
   {
     return new LocalDateTime (aCalendar,
-                              getLocalChronology ().withZone (DateTimeZone.forTimeZone (aCalendar.getTimeZone ())));
+                              _getChronology (aCalendar.getTimeZone ()));
   }
 
   @Nonnegative
   public static long getCurrentMillis ()
   {
-    return DateTimeUtils.currentTimeMillis ();
+    return PDTConfig.getClock ().getCurrentMillis ();
   }
 
   @Nonnegative
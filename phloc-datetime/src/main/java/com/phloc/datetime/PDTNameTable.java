@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The localized long and short names of all constants of an enum for a single
+ * locale, together with a reverse lookup from name to constant. Used by
+ * {@link EMonth} and {@link EDayOfWeek} to cache the names per locale.
+ * 
+ * @author Philip Helger
+ * @param <E>
+ *        The enum type
+ */
+@Immutable
+final class PDTNameTable <E extends Enum <E>>
+{
+  private final String [] m_aNames;
+  private final String [] m_aShortNames;
+  private final PDTNameTrie <E> m_aTrie = new PDTNameTrie <E> ();
+
+  /**
+   * Constructor
+   * 
+   * @param aValues
+   *        All enum constants. May not be <code>null</code>.
+   * @param aNames
+   *        The long names, indexed by the ordinal. May not be
+   *        <code>null</code>.
+   * @param aShortNames
+   *        The short names, indexed by the ordinal. May not be
+   *        <code>null</code>.
+   */
+  PDTNameTable (@Nonnull final E [] aValues, @Nonnull final String [] aNames, @Nonnull final String [] aShortNames)
+  {
+    m_aNames = aNames;
+    m_aShortNames = aShortNames;
+    for (final E e : aValues)
+    {
+      m_aTrie.add (aNames[e.ordinal ()], e);
+      m_aTrie.add (aShortNames[e.ordinal ()], e);
+    }
+  }
+
+  @Nullable
+  String getName (@Nonnull final E e)
+  {
+    return m_aNames[e.ordinal ()];
+  }
+
+  @Nullable
+  String getShortName (@Nonnull final E e)
+  {
+    return m_aShortNames[e.ordinal ()];
+  }
+
+  @Nullable
+  E getFromName (@Nonnull final CharSequence aName, final int nOfs, final int nLen)
+  {
+    return m_aTrie.get (aName, nOfs, nLen);
+  }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A case insensitive trie mapping names to values. The lookup does not
+ * allocate and takes time proportional to the length of the name. Names that
+ * are mapped to different values are ambiguous and are not found.<br>
+ * Instances must not be modified after they were published to other threads.
+ * 
+ * @author Philip Helger
+ * @param <E>
+ *        The value type
+ */
+@NotThreadSafe
+final class PDTNameTrie <E>
+{
+  private static final class Node
+  {
+    private char [] m_aChars = new char [0];
+    private Node [] m_aChildren = new Node [0];
+    private Object m_aValue;
+    private boolean m_bAmbiguous;
+
+    @Nullable
+    Node getChild (final char c)
+    {
+      final char [] aChars = m_aChars;
+      for (int i = 0; i < aChars.length; ++i)
+        if (aChars[i] == c)
+          return m_aChildren[i];
+      return null;
+    }
+
+    @Nonnull
+    Node getOrCreateChild (final char c)
+    {
+      Node ret = getChild (c);
+      if (ret == null)
+      {
+        final int nLen = m_aChars.length;
+        final char [] aChars = new char [nLen + 1];
+        System.arraycopy (m_aChars, 0, aChars, 0, nLen);
+        aChars[nLen] = c;
+        final Node [] aChildren = new Node [nLen + 1];
+        System.arraycopy (m_aChildren, 0, aChildren, 0, nLen);
+        ret = new Node ();
+        aChildren[nLen] = ret;
+        m_aChars = aChars;
+        m_aChildren = aChildren;
+      }
+      return ret;
+    }
+  }
+
+  private final Node m_aRoot = new Node ();
+
+  PDTNameTrie ()
+  {}
+
+  private static char _fold (final char c)
+  {
+    // Upper and lower case to handle characters like the Turkish dotless i
+    return Character.toLowerCase (Character.toUpperCase (c));
+  }
+
+  /**
+   * Add a new name.
+   * 
+   * @param sName
+   *        The name to add. May be <code>null</code> or empty in which case
+   *        nothing happens.
+   * @param aValue
+   *        The value to map to. May not be <code>null</code>.
+   */
+  void add (@Nullable final String sName, @Nonnull final E aValue)
+  {
+    if (aValue == null)
+      throw new NullPointerException ("value");
+    if (sName == null || sName.length () == 0)
+      return;
+
+    Node aNode = m_aRoot;
+    for (int i = 0; i < sName.length (); ++i)
+      aNode = aNode.getOrCreateChild (_fold (sName.charAt (i)));
+    if (aNode.m_aValue == null)
+      aNode.m_aValue = aValue;
+    else
+      if (!aNode.m_aValue.equals (aValue))
+        aNode.m_bAmbiguous = true;
+  }
+
+  /**
+   * Find the value of the passed name.
+   * 
+   * @param aName
+   *        The source text. May not be <code>null</code>.
+   * @param nOfs
+   *        The offset of the name within the text.
+   * @param nLen
+   *        The length of the name.
+   * @return <code>null</code> if no such name is present or if it is
+   *         ambiguous.
+   */
+  @Nullable
+  @SuppressWarnings ("unchecked")
+  E get (@Nonnull final CharSequence aName, final int nOfs, final int nLen)
+  {
+    Node aNode = m_aRoot;
+    for (int i = 0; i < nLen && aNode != null; ++i)
+      aNode = aNode.getChild (_fold (aName.charAt (nOfs + i)));
+    if (aNode == null || aNode.m_bAmbiguous)
+      return null;
+    return (E) aNode.m_aValue;
+  }
+}
@@ -24,6 +24,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
+import org.joda.time.Chronology;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeConstants;
 import org.joda.time.Days;
@@ -602,4 +603,58 @@ public final class PDTUtils
   {
     return Days.daysBetween (aDate1, aDate2).getDays ();
   }
+
+  /**
+   * Check if the passed year, month and day denote an existing date in the
+   * passed chronology, without creating any object. For years &ge;
+   * {@link CPDT#LAST_JULIAN_YEAR} the Gregorian rules are applied directly,
+   * for older years the chronology is asked.
+   *
+   * @param nYear
+   *        Year
+   * @param nMonth
+   *        Month of year (1-12)
+   * @param nDay
+   *        Day of month (1-31)
+   * @param aChronology
+   *        The chronology to be used for years before
+   *        {@link CPDT#LAST_JULIAN_YEAR}. May not be <code>null</code>.
+   * @return <code>true</code> if the date exists, <code>false</code>
+   *         otherwise.
+   */
+  public static boolean isValidDate (final int nYear,
+                                     final int nMonth,
+                                     final int nDay,
+                                     @Nonnull final Chronology aChronology)
+  {
+    if (nMonth < DateTimeConstants.JANUARY || nMonth > DateTimeConstants.DECEMBER || nDay < 1)
+      return false;
+    if (nYear >= CPDT.LAST_JULIAN_YEAR)
+    {
+      switch (nMonth)
+      {
+        case DateTimeConstants.FEBRUARY:
+          final boolean bLeap = (nYear % 4 == 0) && (nYear % 100 != 0 || nYear % 400 == 0);
+          return nDay <= (bLeap ? 29 : 28);
+        case DateTimeConstants.APRIL:
+        case DateTimeConstants.JUNE:
+        case DateTimeConstants.SEPTEMBER:
+        case DateTimeConstants.NOVEMBER:
+          return nDay <= 30;
+        default:
+          return nDay <= 31;
+      }
+    }
+
+    // Rare case: let the chronology decide (cutover, no year 0 etc.)
+    try
+    {
+      aChronology.withUTC ().getDateTimeMillis (nYear, nMonth, nDay, 0);
+      return true;
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      return false;
+    }
+  }
 }
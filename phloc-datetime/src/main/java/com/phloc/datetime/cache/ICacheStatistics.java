@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.cache;
+
+import javax.annotation.Nonnegative;
+
+/**
+ * Read-only view on the usage statistics of a cache.
+ * 
+ * @author Philip Helger
+ */
+public interface ICacheStatistics
+{
+  /**
+   * @return The number of entries currently contained in the cache. Always
+   *         &ge; 0.
+   */
+  @Nonnegative
+  int getSize ();
+
+  /**
+   * @return The maximum number of entries the cache may contain. Always &gt;
+   *         0.
+   */
+  @Nonnegative
+  int getMaxSize ();
+
+  /**
+   * @return The number of lookups that found an entry. Always &ge; 0.
+   */
+  @Nonnegative
+  long getHitCount ();
+
+  /**
+   * @return The number of lookups that did not find an entry. Always &ge; 0.
+   */
+  @Nonnegative
+  long getMissCount ();
+
+  /**
+   * @return The number of entries that were removed because the cache was
+   *         full. Always &ge; 0.
+   */
+  @Nonnegative
+  long getEvictionCount ();
+}
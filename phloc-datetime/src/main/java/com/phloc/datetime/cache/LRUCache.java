@@ -0,0 +1,271 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.phloc.commons.string.ToStringGenerator;
+
+/**
+ * A thread-safe cache with a maximum number of entries. If the cache is full,
+ * an entry that was not used recently is removed ("clock" or "second chance"
+ * approximation of LRU): each lookup marks the entry as referenced, and the
+ * eviction hand removes the next unreferenced entry while clearing the marks
+ * of the referenced entries it passes. The hand keeps its position between
+ * evictions and wraps around at the end of the map, so all entries are
+ * examined in turn. Lookups take no lock; only adding an entry to a full cache
+ * does. The number of hits, misses and evictions is recorded.
+ * 
+ * @author Philip Helger
+ * @param <KEYTYPE>
+ *        Cache key type
+ * @param <VALUETYPE>
+ *        Cache value type
+ */
+@ThreadSafe
+public final class LRUCache <KEYTYPE, VALUETYPE> implements ICacheStatistics
+{
+  private static final class Entry <VALUETYPE>
+  {
+    private final VALUETYPE m_aValue;
+    private volatile boolean m_bReferenced = false;
+
+    Entry (@Nonnull final VALUETYPE aValue)
+    {
+      m_aValue = aValue;
+    }
+
+    void touch ()
+    {
+      // Avoid writing shared memory if already referenced
+      if (!m_bReferenced)
+        m_bReferenced = true;
+    }
+  }
+
+  private final ConcurrentMap <KEYTYPE, Entry <VALUETYPE>> m_aMap = new ConcurrentHashMap <KEYTYPE, Entry <VALUETYPE>> ();
+  // Only for eviction
+  private final Lock m_aEvictionLock = new ReentrantLock ();
+  // The clock hand - guarded by m_aEvictionLock
+  private Iterator <Map.Entry <KEYTYPE, Entry <VALUETYPE>>> m_aHand;
+  private volatile int m_nMaxSize;
+  private final LongAdder m_aHitCount = new LongAdder ();
+  private final LongAdder m_aMissCount = new LongAdder ();
+  private final LongAdder m_aEvictionCount = new LongAdder ();
+
+  /**
+   * Constructor
+   * 
+   * @param nMaxSize
+   *        The maximum number of entries. Must be &gt; 0.
+   */
+  public LRUCache (@Nonnegative final int nMaxSize)
+  {
+    if (nMaxSize <= 0)
+      throw new IllegalArgumentException ("Illegal max size: " + nMaxSize);
+    m_nMaxSize = nMaxSize;
+  }
+
+  /**
+   * Get the cached value for the passed key and mark it as recently used.
+   * 
+   * @param aKey
+   *        The key to look up. May not be <code>null</code>.
+   * @return <code>null</code> if no such entry is contained.
+   */
+  @Nullable
+  public VALUETYPE get (@Nonnull final KEYTYPE aKey)
+  {
+    final Entry <VALUETYPE> aEntry = m_aMap.get (aKey);
+    if (aEntry == null)
+    {
+      m_aMissCount.increment ();
+      return null;
+    }
+    m_aHitCount.increment ();
+    aEntry.touch ();
+    return aEntry.m_aValue;
+  }
+
+  /**
+   * Remove entries until the maximum size is reached.
+   * 
+   * @param aKeyToKeep
+   *        The key that was just added and should not be removed. May be
+   *        <code>null</code>.
+   */
+  private void _evict (@Nullable final KEYTYPE aKeyToKeep)
+  {
+    m_aEvictionLock.lock ();
+    try
+    {
+      while (m_aMap.size () > m_nMaxSize)
+      {
+        if (m_aHand == null || !m_aHand.hasNext ())
+        {
+          // Wrap around - the iterator is weakly consistent and tolerates
+          // concurrent modifications
+          m_aHand = m_aMap.entrySet ().iterator ();
+          if (!m_aHand.hasNext ())
+            break;
+        }
+        final Map.Entry <KEYTYPE, Entry <VALUETYPE>> aMapEntry = m_aHand.next ();
+        if (aMapEntry.getKey ().equals (aKeyToKeep))
+          continue;
+        final Entry <VALUETYPE> aEntry = aMapEntry.getValue ();
+        if (aEntry.m_bReferenced)
+        {
+          // Second chance
+          aEntry.m_bReferenced = false;
+        }
+        else
+          if (m_aMap.remove (aMapEntry.getKey (), aEntry))
+            m_aEvictionCount.increment ();
+      }
+    }
+    finally
+    {
+      m_aEvictionLock.unlock ();
+    }
+  }
+
+  /**
+   * Add the passed value, if no value is present for the passed key. If the
+   * cache is full afterwards, an entry that was not used recently is removed.
+   * 
+   * @param aKey
+   *        The key to use. May not be <code>null</code>.
+   * @param aValue
+   *        The value to be added. May not be <code>null</code>.
+   * @return The value contained in the cache after the call. This is the
+   *         previously contained value if another thread added a value in the
+   *         meantime, or the passed value otherwise. Never <code>null</code>.
+   */
+  @Nonnull
+  public VALUETYPE putIfAbsent (@Nonnull final KEYTYPE aKey, @Nonnull final VALUETYPE aValue)
+  {
+    if (aValue == null)
+      throw new NullPointerException ("value");
+
+    final Entry <VALUETYPE> aOld = m_aMap.putIfAbsent (aKey, new Entry <VALUETYPE> (aValue));
+    if (aOld != null)
+    {
+      aOld.touch ();
+      return aOld.m_aValue;
+    }
+    if (m_aMap.size () > m_nMaxSize)
+      _evict (aKey);
+    return aValue;
+  }
+
+  /**
+   * Change the maximum number of entries. If the new maximum is smaller than
+   * the current number of entries, the entries not used recently are removed.
+   * 
+   * @param nMaxSize
+   *        The new maximum number of entries. Must be &gt; 0.
+   */
+  public void setMaxSize (@Nonnegative final int nMaxSize)
+  {
+    if (nMaxSize <= 0)
+      throw new IllegalArgumentException ("Illegal max size: " + nMaxSize);
+
+    m_nMaxSize = nMaxSize;
+    _evict (null);
+  }
+
+  /**
+   * Remove all entries. The statistics are not modified.
+   */
+  public void clear ()
+  {
+    m_aEvictionLock.lock ();
+    try
+    {
+      m_aMap.clear ();
+      // Don't keep references to removed entries
+      m_aHand = null;
+    }
+    finally
+    {
+      m_aEvictionLock.unlock ();
+    }
+  }
+
+  /**
+   * Reset the hit, miss and eviction counters to 0.
+   */
+  public void resetStatistics ()
+  {
+    m_aHitCount.reset ();
+    m_aMissCount.reset ();
+    m_aEvictionCount.reset ();
+  }
+
+  @Nonnegative
+  public int getSize ()
+  {
+    return m_aMap.size ();
+  }
+
+  @Nonnegative
+  public int getMaxSize ()
+  {
+    return m_nMaxSize;
+  }
+
+  @Nonnegative
+  public long getHitCount ()
+  {
+    return m_aHitCount.sum ();
+  }
+
+  @Nonnegative
+  public long getMissCount ()
+  {
+    return m_aMissCount.sum ();
+  }
+
+  @Nonnegative
+  public long getEvictionCount ()
+  {
+    return m_aEvictionCount.sum ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("size", getSize ())
+                                       .append ("maxSize", m_nMaxSize)
+                                       .append ("hits", getHitCount ())
+                                       .append ("misses", getMissCount ())
+                                       .append ("evictions", getEvictionCount ())
+                                       .toString ();
+  }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.clock;
+
+import java.io.Closeable;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.phloc.commons.string.ToStringGenerator;
+
+/**
+ * A clock that trades precision for speed: a background daemon thread reads
+ * the time of a base clock every tick and publishes it, so that reading the
+ * time is a simple field access. The returned time lags behind by at most one
+ * tick (plus scheduling delays). Call {@link #close()} to stop the background
+ * thread when the clock is no longer needed.
+ * 
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class CoarseClock implements IClock, Closeable
+{
+  /** The default tick duration in milliseconds */
+  public static final long DEFAULT_TICK_MILLIS = 10;
+
+  private final IClock m_aBaseClock;
+  private final long m_nTickMillis;
+  private final Thread m_aTicker;
+  private volatile long m_nCurrentMillis;
+  private volatile boolean m_bClosed = false;
+
+  /**
+   * Constructor using the {@link SystemClock} and
+   * {@link #DEFAULT_TICK_MILLIS}.
+   */
+  public CoarseClock ()
+  {
+    this (SystemClock.getInstance (), DEFAULT_TICK_MILLIS);
+  }
+
+  /**
+   * Constructor.
+   * 
+   * @param aBaseClock
+   *        The clock to take the time from. May not be <code>null</code>.
+   * @param nTickMillis
+   *        The milliseconds between two updates. Must be &gt; 0.
+   */
+  public CoarseClock (@Nonnull final IClock aBaseClock, @Nonnegative final long nTickMillis)
+  {
+    if (aBaseClock == null)
+      throw new NullPointerException ("baseClock");
+    if (nTickMillis <= 0)
+      throw new IllegalArgumentException ("Tick must be > 0: " + nTickMillis);
+    m_aBaseClock = aBaseClock;
+    m_nTickMillis = nTickMillis;
+    m_nCurrentMillis = aBaseClock.getCurrentMillis ();
+    m_aTicker = new Thread (new Runnable ()
+    {
+      public void run ()
+      {
+        _tick ();
+      }
+    }, "phloc-datetime-CoarseClock");
+    m_aTicker.setDaemon (true);
+    m_aTicker.start ();
+  }
+
+  private void _tick ()
+  {
+    while (!m_bClosed)
+    {
+      m_nCurrentMillis = m_aBaseClock.getCurrentMillis ();
+      try
+      {
+        Thread.sleep (m_nTickMillis);
+      }
+      catch (final InterruptedException ex)
+      {
+        // close was called
+        Thread.currentThread ().interrupt ();
+        break;
+      }
+    }
+  }
+
+  @Nonnull
+  public IClock getBaseClock ()
+  {
+    return m_aBaseClock;
+  }
+
+  @Nonnegative
+  public long getTickMillis ()
+  {
+    return m_nTickMillis;
+  }
+
+  public long getCurrentMillis ()
+  {
+    return m_nCurrentMillis;
+  }
+
+  public boolean isClosed ()
+  {
+    return m_bClosed;
+  }
+
+  /**
+   * Stop the background thread. Afterwards the time is no longer updated.
+   */
+  public void close ()
+  {
+    if (!m_bClosed)
+    {
+      m_bClosed = true;
+      m_aTicker.interrupt ();
+    }
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("baseClock", m_aBaseClock)
+                                       .append ("tickMillis", m_nTickMillis)
+                                       .append ("closed", m_bClosed)
+                                       .toString ();
+  }
+}
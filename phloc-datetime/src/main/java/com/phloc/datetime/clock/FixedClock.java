@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.clock;
+
+import javax.annotation.concurrent.Immutable;
+
+import com.phloc.commons.hash.HashCodeGenerator;
+import com.phloc.commons.string.ToStringGenerator;
+
+/**
+ * A clock that always returns the same time. Primarily meant for testing.
+ * 
+ * @author Philip Helger
+ */
+@Immutable
+public final class FixedClock implements IClock
+{
+  private final long m_nMillis;
+
+  public FixedClock (final long nMillis)
+  {
+    m_nMillis = nMillis;
+  }
+
+  public long getCurrentMillis ()
+  {
+    return m_nMillis;
+  }
+
+  @Override
+  public boolean equals (final Object o)
+  {
+    if (o == this)
+      return true;
+    if (!(o instanceof FixedClock))
+      return false;
+    final FixedClock rhs = (FixedClock) o;
+    return m_nMillis == rhs.m_nMillis;
+  }
+
+  @Override
+  public int hashCode ()
+  {
+    return new HashCodeGenerator (this).append (m_nMillis).getHashCode ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("millis", m_nMillis).toString ();
+  }
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.clock;
+
+/**
+ * Source of the current time used by {@link com.phloc.datetime.PDTFactory}
+ * and everything built upon it. The clock to use is configured via
+ * {@link com.phloc.datetime.config.PDTConfig#setClock(IClock)}.
+ * Implementations must be thread-safe.
+ * 
+ * @author Philip Helger
+ */
+public interface IClock
+{
+  /**
+   * @return The current time as milliseconds since 1970-01-01T00:00:00Z.
+   */
+  long getCurrentMillis ();
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.clock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import com.phloc.commons.hash.HashCodeGenerator;
+import com.phloc.commons.string.ToStringGenerator;
+
+/**
+ * A clock that adds a constant offset to the time of another clock. Useful
+ * for testing time dependent behaviour without stopping the time.
+ * 
+ * @author Philip Helger
+ */
+@Immutable
+public final class OffsetClock implements IClock
+{
+  private final IClock m_aBaseClock;
+  private final long m_nOffsetMillis;
+
+  /**
+   * Constructor using the {@link SystemClock} as the base clock.
+   * 
+   * @param nOffsetMillis
+   *        The milliseconds to add. May be negative.
+   */
+  public OffsetClock (final long nOffsetMillis)
+  {
+    this (SystemClock.getInstance (), nOffsetMillis);
+  }
+
+  /**
+   * Constructor.
+   * 
+   * @param aBaseClock
+   *        The clock to take the time from. May not be <code>null</code>.
+   * @param nOffsetMillis
+   *        The milliseconds to add. May be negative.
+   */
+  public OffsetClock (@Nonnull final IClock aBaseClock, final long nOffsetMillis)
+  {
+    if (aBaseClock == null)
+      throw new NullPointerException ("baseClock");
+    m_aBaseClock = aBaseClock;
+    m_nOffsetMillis = nOffsetMillis;
+  }
+
+  @Nonnull
+  public IClock getBaseClock ()
+  {
+    return m_aBaseClock;
+  }
+
+  public long getOffsetMillis ()
+  {
+    return m_nOffsetMillis;
+  }
+
+  public long getCurrentMillis ()
+  {
+    return m_aBaseClock.getCurrentMillis () + m_nOffsetMillis;
+  }
+
+  @Override
+  public boolean equals (final Object o)
+  {
+    if (o == this)
+      return true;
+    if (!(o instanceof OffsetClock))
+      return false;
+    final OffsetClock rhs = (OffsetClock) o;
+    return m_aBaseClock.equals (rhs.m_aBaseClock) && m_nOffsetMillis == rhs.m_nOffsetMillis;
+  }
+
+  @Override
+  public int hashCode ()
+  {
+    return new HashCodeGenerator (this).append (m_aBaseClock).append (m_nOffsetMillis).getHashCode ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("baseClock", m_aBaseClock)
+                                       .append ("offsetMillis", m_nOffsetMillis)
+                                       .toString ();
+  }
+}
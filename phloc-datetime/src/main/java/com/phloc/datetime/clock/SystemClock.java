@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.clock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import org.joda.time.DateTimeUtils;
+
+import com.phloc.commons.string.ToStringGenerator;
+
+/**
+ * The default clock that queries the system time on every call. It uses
+ * {@link DateTimeUtils#currentTimeMillis()} so that the Joda time millis
+ * provider is still honoured.
+ * 
+ * @author Philip Helger
+ */
+@Immutable
+public final class SystemClock implements IClock
+{
+  private static final SystemClock s_aInstance = new SystemClock ();
+
+  private SystemClock ()
+  {}
+
+  @Nonnull
+  public static SystemClock getInstance ()
+  {
+    return s_aInstance;
+  }
+
+  public long getCurrentMillis ()
+  {
+    return DateTimeUtils.currentTimeMillis ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).toString ();
+  }
+}
@@ -17,14 +17,13 @@
  */
 package com.phloc.datetime.config;
 
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-
 import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.ThreadSafe;
 
 import org.joda.time.Chronology;
 import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
 import org.joda.time.chrono.GJChronology;
 import org.joda.time.chrono.ISOChronology;
 import org.slf4j.Logger;
@@ -32,10 +31,16 @@ import org.slf4j.LoggerFactory;
 
 import com.phloc.commons.annotations.PresentForCodeCoverage;
 import com.phloc.commons.state.ESuccess;
+import com.phloc.datetime.clock.IClock;
+import com.phloc.datetime.clock.SystemClock;
 
 /**
  * This class provides the most basic settings for date time operating: the
- * date-time-zone and the chronology to use.
+ * date-time-zone and the chronology to use. All settings are held in a single
+ * immutable object that is replaced as a whole on modification, so reading
+ * them requires no locking. The settings can be overridden for the current
+ * thread with a {@link PDTConfigScope}; the setters always modify the global
+ * settings.
  *
  * @author Philip Helger
  */
@@ -47,10 +52,80 @@ public final class PDTConfig
    */
   public static final String DEFAULT_DATETIMEZONEID = "Europe/Vienna";
 
+  /**
+   * A local date together with the time range it is valid for.
+   */
+  @Immutable
+  private static final class CachedDate
+  {
+    private final LocalDate m_aDate;
+    // First millisecond of the day in the chronology's zone
+    private final long m_nStartMillis;
+    // First millisecond of the next day
+    private final long m_nEndMillis;
+
+    CachedDate (@Nonnull final Chronology aChronology, final long nMillis)
+    {
+      m_aDate = new LocalDate (nMillis, aChronology);
+      // Considers days not starting at midnight because of DST
+      final DateTimeZone aZone = aChronology.getZone ();
+      m_nStartMillis = m_aDate.toDateTimeAtStartOfDay (aZone).getMillis ();
+      m_nEndMillis = m_aDate.plusDays (1).toDateTimeAtStartOfDay (aZone).getMillis ();
+    }
+
+    boolean isValidFor (final long nMillis)
+    {
+      return nMillis >= m_nStartMillis && nMillis < m_nEndMillis;
+    }
+  }
+
+  /**
+   * The current settings together with the chronologies derived from them.
+   * Apart from the cached local date, all fields are immutable.
+   */
+  @ThreadSafe
+  static final class Settings
+  {
+    private final DateTimeZone m_aDateTimeZone;
+    private final boolean m_bUseISOChronology;
+    private final Chronology m_aChronology;
+    private final Chronology m_aChronologyUTC;
+    private final DateTimeZone m_aSystemDateTimeZone;
+    private final Chronology m_aChronologyWithoutDateTimeZone;
+    // Replaced as a whole - no locking needed
+    private volatile CachedDate m_aCachedDate;
+
+    Settings (@Nonnull final DateTimeZone aDateTimeZone,
+              final boolean bUseISOChronology,
+              @Nonnull final DateTimeZone aSystemDateTimeZone)
+    {
+      m_aDateTimeZone = aDateTimeZone;
+      m_bUseISOChronology = bUseISOChronology;
+      m_aSystemDateTimeZone = aSystemDateTimeZone;
+      if (bUseISOChronology)
+      {
+        m_aChronology = ISOChronology.getInstance (aDateTimeZone);
+        m_aChronologyUTC = ISOChronology.getInstanceUTC ();
+        m_aChronologyWithoutDateTimeZone = ISOChronology.getInstance (aSystemDateTimeZone);
+      }
+      else
+      {
+        m_aChronology = GJChronology.getInstance (aDateTimeZone);
+        m_aChronologyUTC = GJChronology.getInstanceUTC ();
+        m_aChronologyWithoutDateTimeZone = GJChronology.getInstance (aSystemDateTimeZone);
+      }
+    }
+  }
+
   private static final Logger s_aLogger = LoggerFactory.getLogger (PDTConfig.class);
-  private static final ReadWriteLock s_aRWLock = new ReentrantReadWriteLock ();
-  private static DateTimeZone s_aDateTimeZone = DateTimeZone.forID (DEFAULT_DATETIMEZONEID);
-  private static volatile boolean s_bUseISOChronology = false;
+  // Only writers synchronize on this object
+  private static final Object s_aWriteLock = new Object ();
+  // Replaced as a whole - no locking needed for reading
+  private static volatile Settings s_aSettings = new Settings (DateTimeZone.forID (DEFAULT_DATETIMEZONEID),
+                                                                    false,
+                                                                    DateTimeZone.getDefault ());
+
+  private static volatile IClock s_aClock = SystemClock.getInstance ();
 
   @PresentForCodeCoverage
   @SuppressWarnings ("unused")
@@ -59,6 +134,17 @@ public final class PDTConfig
   private PDTConfig ()
   {}
 
+  /**
+   * @return The settings of the current {@link PDTConfigScope} or the global
+   *         settings if no scope is active.
+   */
+  @Nonnull
+  private static Settings _getSettings ()
+  {
+    final Settings aScopedSettings = PDTConfigScope.getCurrentSettingsOrNull ();
+    return aScopedSettings != null ? aScopedSettings : s_aSettings;
+  }
+
   /**
    * Set the default date time zone to use.
    *
@@ -69,12 +155,11 @@ public final class PDTConfig
   @Nonnull
   public static ESuccess setDefaultDateTimeZoneID (final String sDateTimeZoneID)
   {
-    s_aRWLock.writeLock ().lock ();
+    DateTimeZone aDateTimeZone;
     try
     {
       // Try to resolve ID -> throws IAE if unknown
-      s_aDateTimeZone = DateTimeZone.forID (sDateTimeZoneID);
-      return ESuccess.SUCCESS;
+      aDateTimeZone = DateTimeZone.forID (sDateTimeZoneID);
     }
     catch (final IllegalArgumentException ex)
     {
@@ -82,10 +167,12 @@ public final class PDTConfig
       s_aLogger.warn ("Unsupported dateTimeZone ID '" + sDateTimeZoneID + "'");
       return ESuccess.FAILURE;
     }
-    finally
+
+    synchronized (s_aWriteLock)
     {
-      s_aRWLock.writeLock ().unlock ();
+      s_aSettings = new Settings (aDateTimeZone, s_aSettings.m_bUseISOChronology, DateTimeZone.getDefault ());
     }
+    return ESuccess.SUCCESS;
   }
 
   /**
@@ -95,15 +182,7 @@ public final class PDTConfig
   @Nonnull
   public static DateTimeZone getDefaultDateTimeZone ()
   {
-    s_aRWLock.readLock ().lock ();
-    try
-    {
-      return s_aDateTimeZone;
-    }
-    finally
-    {
-      s_aRWLock.readLock ().unlock ();
-    }
+    return _getSettings ().m_aDateTimeZone;
   }
 
   /**
@@ -117,12 +196,17 @@ public final class PDTConfig
 
   public static boolean isUseISOChronology ()
   {
-    return s_bUseISOChronology;
+    return _getSettings ().m_bUseISOChronology;
   }
 
   public static void setUseISOChronology (final boolean bUse)
   {
-    s_bUseISOChronology = bUse;
+    synchronized (s_aWriteLock)
+    {
+      final Settings aSettings = s_aSettings;
+      if (aSettings.m_bUseISOChronology != bUse)
+        s_aSettings = new Settings (aSettings.m_aDateTimeZone, bUse, DateTimeZone.getDefault ());
+    }
   }
 
   /**
@@ -132,9 +216,26 @@ public final class PDTConfig
   @Nonnull
   public static Chronology getDefaultChronology ()
   {
-    if (s_bUseISOChronology)
-      return ISOChronology.getInstance (getDefaultDateTimeZone ());
-    return GJChronology.getInstance (getDefaultDateTimeZone ());
+    return _getSettings ().m_aChronology;
+  }
+
+  /**
+   * Get the default chronology for the passed date time zone. For the default
+   * date time zone and UTC the precomputed chronologies are returned.
+   * 
+   * @param aDateTimeZone
+   *        The date time zone to use. May not be <code>null</code>.
+   * @return The default chronology with the passed date time zone
+   */
+  @Nonnull
+  public static Chronology getDefaultChronology (@Nonnull final DateTimeZone aDateTimeZone)
+  {
+    final Settings aSettings = _getSettings ();
+    if (aDateTimeZone.equals (aSettings.m_aDateTimeZone))
+      return aSettings.m_aChronology;
+    if (aDateTimeZone.equals (DateTimeZone.UTC))
+      return aSettings.m_aChronologyUTC;
+    return aSettings.m_aChronology.withZone (aDateTimeZone);
   }
 
   /**
@@ -143,9 +244,25 @@ public final class PDTConfig
   @Nonnull
   public static Chronology getDefaultChronologyWithoutDateTimeZone ()
   {
-    if (s_bUseISOChronology)
-      return ISOChronology.getInstance ();
-    return GJChronology.getInstance ();
+    final Settings aSettings = _getSettings ();
+    final DateTimeZone aSystemDateTimeZone = DateTimeZone.getDefault ();
+    if (aSystemDateTimeZone == aSettings.m_aSystemDateTimeZone)
+      return aSettings.m_aChronologyWithoutDateTimeZone;
+    if (aSettings != s_aSettings)
+    {
+      // Scoped settings are not modified
+      return aSettings.m_aChronologyUTC.withZone (aSystemDateTimeZone);
+    }
+
+    // The system date time zone was changed in the meantime
+    synchronized (s_aWriteLock)
+    {
+      final Settings aNewSettings = new Settings (s_aSettings.m_aDateTimeZone,
+                                                  s_aSettings.m_bUseISOChronology,
+                                                  aSystemDateTimeZone);
+      s_aSettings = aNewSettings;
+      return aNewSettings.m_aChronologyWithoutDateTimeZone;
+    }
   }
 
   /**
@@ -154,8 +271,53 @@ public final class PDTConfig
   @Nonnull
   public static Chronology getDefaultChronologyUTC ()
   {
-    if (s_bUseISOChronology)
-      return ISOChronology.getInstanceUTC ();
-    return GJChronology.getInstanceUTC ();
+    return _getSettings ().m_aChronologyUTC;
+  }
+
+  /**
+   * Get the local date of the passed instant in the default chronology. The
+   * last result is cached per settings snapshot (the global settings and each
+   * {@link PDTConfigScope} have their own), until the instant is outside the
+   * cached day. This is meant for repeated lookups of the current date.
+   * 
+   * @param nMillis
+   *        The milliseconds since the epoch.
+   * @return The local date of the passed instant. Never <code>null</code>.
+   */
+  @Nonnull
+  public static LocalDate getCachedLocalDate (final long nMillis)
+  {
+    final Settings aSettings = _getSettings ();
+    CachedDate aCachedDate = aSettings.m_aCachedDate;
+    if (aCachedDate == null || !aCachedDate.isValidFor (nMillis))
+    {
+      // A new day was started
+      aCachedDate = new CachedDate (aSettings.m_aChronology, nMillis);
+      aSettings.m_aCachedDate = aCachedDate;
+    }
+    return aCachedDate.m_aDate;
+  }
+
+  /**
+   * @return The clock used to determine the current date and time. Never
+   *         <code>null</code>. The default is {@link SystemClock}.
+   */
+  @Nonnull
+  public static IClock getClock ()
+  {
+    return s_aClock;
+  }
+
+  /**
+   * Set the clock used to determine the current date and time.
+   * 
+   * @param aClock
+   *        The clock to use. May not be <code>null</code>.
+   */
+  public static void setClock (@Nonnull final IClock aClock)
+  {
+    if (aClock == null)
+      throw new NullPointerException ("clock");
+    s_aClock = aClock;
   }
 }
@@ -0,0 +1,295 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.config;
+
+import java.io.Closeable;
+import java.util.concurrent.Callable;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.joda.time.DateTimeZone;
+
+/**
+ * A per thread override of the date time zone and chronology settings of
+ * {@link PDTConfig}. While a scope is open, all methods of {@link PDTConfig}
+ * and therefore also of the factory, formatting and parsing classes use the
+ * settings of the scope instead of the global ones on the opening thread.
+ * Scopes can be nested and must be closed in the reverse order of opening on
+ * the thread that opened them:
+ * 
+ * <pre>
+ * try (final PDTConfigScope aScope = PDTConfigScope.open (aTenantZone))
+ * {
+ *   ...
+ * }
+ * </pre>
+ * 
+ * Alternatively use {@link #call(DateTimeZone, Callable)} or
+ * {@link #run(DateTimeZone, Runnable)}. To hand the current scope over to
+ * other threads (e.g. an executor) use {@link #wrap(Runnable)} or
+ * {@link #wrap(Callable)}. Looking up the settings only reads the
+ * {@link ThreadLocal} of the current thread, so there is no state shared
+ * between threads.
+ * 
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class PDTConfigScope implements Closeable
+{
+  private static final ThreadLocal <PDTConfigScope> s_aCurrent = new ThreadLocal <PDTConfigScope> ();
+
+  private final DateTimeZone m_aDateTimeZone;
+  private final boolean m_bUseISOChronology;
+  private final PDTConfig.Settings m_aSettings;
+  private final PDTConfigScope m_aPrevious;
+  private final Thread m_aThread;
+  private boolean m_bClosed = false;
+
+  private PDTConfigScope (@Nonnull final DateTimeZone aDateTimeZone,
+                          final boolean bUseISOChronology,
+                          @Nonnull final PDTConfig.Settings aSettings)
+  {
+    m_aDateTimeZone = aDateTimeZone;
+    m_bUseISOChronology = bUseISOChronology;
+    m_aSettings = aSettings;
+    m_aPrevious = s_aCurrent.get ();
+    m_aThread = Thread.currentThread ();
+    s_aCurrent.set (this);
+  }
+
+  /**
+   * @return The date time zone used in this scope. Never <code>null</code>.
+   */
+  @Nonnull
+  public DateTimeZone getDateTimeZone ()
+  {
+    return m_aDateTimeZone;
+  }
+
+  /**
+   * @return <code>true</code> if the ISO chronology is used in this scope,
+   *         <code>false</code> if the GJ chronology is used.
+   */
+  public boolean isUseISOChronology ()
+  {
+    return m_bUseISOChronology;
+  }
+
+  public boolean isClosed ()
+  {
+    return m_bClosed;
+  }
+
+  /**
+   * Close this scope and restore the settings that were active before. Closing
+   * an already closed scope has no effect.
+   * 
+   * @throws IllegalStateException
+   *         If called from another thread than the opening one or if a nested
+   *         scope is still open.
+   */
+  public void close ()
+  {
+    if (m_bClosed)
+      return;
+    if (Thread.currentThread () != m_aThread)
+      throw new IllegalStateException ("Scope must be closed by the thread that opened it");
+    if (s_aCurrent.get () != this)
+      throw new IllegalStateException ("A nested scope is still open");
+    m_bClosed = true;
+    if (m_aPrevious != null)
+      s_aCurrent.set (m_aPrevious);
+    else
+      s_aCurrent.remove ();
+  }
+
+  /**
+   * @return The settings of the scope open in the current thread or
+   *         <code>null</code> if no scope is open.
+   */
+  @Nullable
+  static PDTConfig.Settings getCurrentSettingsOrNull ()
+  {
+    final PDTConfigScope aScope = s_aCurrent.get ();
+    return aScope == null ? null : aScope.m_aSettings;
+  }
+
+  /**
+   * @return The scope open in the current thread or <code>null</code> if no
+   *         scope is open.
+   */
+  @Nullable
+  public static PDTConfigScope getCurrentOrNull ()
+  {
+    return s_aCurrent.get ();
+  }
+
+  /**
+   * Open a new scope for the current thread using the passed date time zone
+   * and the chronology type currently configured.
+   * 
+   * @param aDateTimeZone
+   *        The date time zone to use. May not be <code>null</code>.
+   * @return The opened scope that must be closed by the caller. Never
+   *         <code>null</code>.
+   */
+  @Nonnull
+  public static PDTConfigScope open (@Nonnull final DateTimeZone aDateTimeZone)
+  {
+    return open (aDateTimeZone, PDTConfig.isUseISOChronology ());
+  }
+
+  /**
+   * Open a new scope for the current thread.
+   * 
+   * @param aDateTimeZone
+   *        The date time zone to use. May not be <code>null</code>.
+   * @param bUseISOChronology
+   *        <code>true</code> to use the ISO chronology, <code>false</code> to
+   *        use the GJ chronology.
+   * @return The opened scope that must be closed by the caller. Never
+   *         <code>null</code>.
+   */
+  @Nonnull
+  public static PDTConfigScope open (@Nonnull final DateTimeZone aDateTimeZone, final boolean bUseISOChronology)
+  {
+    if (aDateTimeZone == null)
+      throw new NullPointerException ("dateTimeZone");
+    return new PDTConfigScope (aDateTimeZone,
+                               bUseISOChronology,
+                               new PDTConfig.Settings (aDateTimeZone, bUseISOChronology, DateTimeZone.getDefault ()));
+  }
+
+  /**
+   * Call the passed callable within a scope using the passed date time zone.
+   * 
+   * @param aDateTimeZone
+   *        The date time zone to use. May not be <code>null</code>.
+   * @param aCallable
+   *        The callable to be invoked. May not be <code>null</code>.
+   * @return The result of the callable.
+   * @throws Exception
+   *         If the callable throws an exception
+   */
+  @Nullable
+  public static <T> T call (@Nonnull final DateTimeZone aDateTimeZone, @Nonnull final Callable <T> aCallable) throws Exception
+  {
+    final PDTConfigScope aScope = open (aDateTimeZone);
+    try
+    {
+      return aCallable.call ();
+    }
+    finally
+    {
+      aScope.close ();
+    }
+  }
+
+  /**
+   * Run the passed runnable within a scope using the passed date time zone.
+   * 
+   * @param aDateTimeZone
+   *        The date time zone to use. May not be <code>null</code>.
+   * @param aRunnable
+   *        The runnable to be invoked. May not be <code>null</code>.
+   */
+  public static void run (@Nonnull final DateTimeZone aDateTimeZone, @Nonnull final Runnable aRunnable)
+  {
+    final PDTConfigScope aScope = open (aDateTimeZone);
+    try
+    {
+      aRunnable.run ();
+    }
+    finally
+    {
+      aScope.close ();
+    }
+  }
+
+  /**
+   * Wrap the passed runnable so that it runs with the settings of the scope
+   * that is open in the current thread, independent of the thread that finally
+   * executes it. Use this when passing work to an executor.
+   * 
+   * @param aRunnable
+   *        The runnable to be wrapped. May not be <code>null</code>.
+   * @return The passed runnable if no scope is open in the current thread.
+   */
+  @Nonnull
+  public static Runnable wrap (@Nonnull final Runnable aRunnable)
+  {
+    final PDTConfigScope aCurrent = getCurrentOrNull ();
+    if (aCurrent == null)
+      return aRunnable;
+    final DateTimeZone aDateTimeZone = aCurrent.m_aDateTimeZone;
+    final boolean bUseISOChronology = aCurrent.m_bUseISOChronology;
+    final PDTConfig.Settings aSettings = aCurrent.m_aSettings;
+    return new Runnable ()
+    {
+      public void run ()
+      {
+        final PDTConfigScope aScope = new PDTConfigScope (aDateTimeZone, bUseISOChronology, aSettings);
+        try
+        {
+          aRunnable.run ();
+        }
+        finally
+        {
+          aScope.close ();
+        }
+      }
+    };
+  }
+
+  /**
+   * Wrap the passed callable so that it runs with the settings of the scope
+   * that is open in the current thread, independent of the thread that finally
+   * executes it. Use this when passing work to an executor.
+   * 
+   * @param aCallable
+   *        The callable to be wrapped. May not be <code>null</code>.
+   * @return The passed callable if no scope is open in the current thread.
+   */
+  @Nonnull
+  public static <T> Callable <T> wrap (@Nonnull final Callable <T> aCallable)
+  {
+    final PDTConfigScope aCurrent = getCurrentOrNull ();
+    if (aCurrent == null)
+      return aCallable;
+    final DateTimeZone aDateTimeZone = aCurrent.m_aDateTimeZone;
+    final boolean bUseISOChronology = aCurrent.m_bUseISOChronology;
+    final PDTConfig.Settings aSettings = aCurrent.m_aSettings;
+    return new Callable <T> ()
+    {
+      public T call () throws Exception
+      {
+        final PDTConfigScope aScope = new PDTConfigScope (aDateTimeZone, bUseISOChronology, aSettings);
+        try
+        {
+          return aCallable.call ();
+        }
+        finally
+        {
+          aScope.close ();
+        }
+      }
+    };
+  }
+}
@@ -0,0 +1,294 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.config;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.joda.time.format.DateTimeFormatter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.phloc.commons.annotations.PresentForCodeCoverage;
+import com.phloc.commons.annotations.ReturnsMutableCopy;
+import com.phloc.datetime.EAmPm;
+import com.phloc.datetime.EDayOfWeek;
+import com.phloc.datetime.EMonth;
+import com.phloc.datetime.PDTFactory;
+import com.phloc.datetime.format.PDTFormatPatterns;
+import com.phloc.datetime.format.PDTFormatter;
+import com.phloc.datetime.format.PeriodFormatMultilingual;
+import com.phloc.datetime.format.SerializableDateTimeFormatter.EFormatStyle;
+import com.phloc.datetime.xml.PDTXMLConverter;
+
+/**
+ * Eagerly initializes and caches everything this library lazily creates upon
+ * first usage: the configured chronologies and time zone, the locale specific
+ * month, weekday and AM/PM names, the style and pattern based formatters incl.
+ * their locale specific symbols, the format patterns, the period formatters
+ * and the XML datatype factory. This is meant to be called upon application
+ * startup so that the first request does not need to pay for the
+ * initialization.
+ * 
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class PDTWarmup
+{
+  /**
+   * The single warm up steps in the order of execution.
+   */
+  public static enum EStep
+  {
+    /** Time zone and chronologies from {@link PDTConfig} */
+    CONFIG,
+    /**
+     * The locale specific names of {@link EMonth}, {@link EDayOfWeek} and
+     * {@link EAmPm}
+     */
+    NAMES,
+    /** The format patterns of {@link PDTFormatPatterns} */
+    FORMAT_PATTERNS,
+    /** The style based formatters of {@link PDTFormatter} */
+    STYLE_FORMATTERS,
+    /** The pattern based formatters of {@link PDTFormatter} */
+    PATTERN_FORMATTERS,
+    /** The formatters of {@link PeriodFormatMultilingual} */
+    PERIOD_FORMATTERS,
+    /** The datatype factory of {@link PDTXMLConverter} */
+    XML;
+  }
+
+  private static final Logger s_aLogger = LoggerFactory.getLogger (PDTWarmup.class);
+
+  @PresentForCodeCoverage
+  @SuppressWarnings ("unused")
+  private static final PDTWarmup s_aInstance = new PDTWarmup ();
+
+  private PDTWarmup ()
+  {}
+
+  @Nonnull
+  private static DateTime _getSampleDateTime ()
+  {
+    // Use a day with two digit values to touch all printers
+    return PDTFactory.createDateTime (2012, 12, 24, 23, 59, 58, 999);
+  }
+
+  private static void _warmFormatter (@Nonnull final DateTimeFormatter aFormatter, @Nonnull final DateTime aSample)
+  {
+    // Style formatters resolve their pattern and the formatters load their
+    // symbols upon first printing
+    aFormatter.print (aSample);
+  }
+
+  private static void _warmStyle (@Nonnull final EFormatStyle eStyle,
+                                  @Nullable final Locale aLocale,
+                                  @Nonnull final DateTime aSample)
+  {
+    switch (eStyle)
+    {
+      case SHORT:
+        _warmFormatter (PDTFormatter.getShortFormatterDate (aLocale), aSample);
+        _warmFormatter (PDTFormatter.getShortFormatterTime (aLocale), aSample);
+        _warmFormatter (PDTFormatter.getShortFormatterDateTime (aLocale), aSample);
+        break;
+      case MEDIUM:
+        _warmFormatter (PDTFormatter.getMediumFormatterDate (aLocale), aSample);
+        _warmFormatter (PDTFormatter.getMediumFormatterTime (aLocale), aSample);
+        _warmFormatter (PDTFormatter.getMediumFormatterDateTime (aLocale), aSample);
+        break;
+      case LONG:
+        _warmFormatter (PDTFormatter.getLongFormatterDate (aLocale), aSample);
+        _warmFormatter (PDTFormatter.getLongFormatterTime (aLocale), aSample);
+        _warmFormatter (PDTFormatter.getLongFormatterDateTime (aLocale), aSample);
+        break;
+      case FULL:
+        _warmFormatter (PDTFormatter.getFullFormatterDate (aLocale), aSample);
+        _warmFormatter (PDTFormatter.getFullFormatterTime (aLocale), aSample);
+        _warmFormatter (PDTFormatter.getFullFormatterDateTime (aLocale), aSample);
+        break;
+      case NONE:
+        // Nothing to warm
+        break;
+      default:
+        throw new IllegalArgumentException ("Unsupported style " + eStyle);
+    }
+  }
+
+  private static void _runStep (@Nonnull final EStep eStep,
+                                @Nonnull final Iterable <Locale> aLocales,
+                                @Nonnull final Iterable <String> aPatterns,
+                                @Nonnull final Iterable <EFormatStyle> aStyles)
+  {
+    switch (eStep)
+    {
+      case CONFIG:
+      {
+        PDTConfig.getDefaultDateTimeZone ();
+        PDTConfig.getDefaultChronology ();
+        PDTConfig.getDefaultChronologyUTC ();
+        PDTConfig.getDefaultChronologyWithoutDateTimeZone ();
+        // Touch the field calculations of the chronologies
+        PDTFactory.getCurrentDateTime ().plusMonths (1).dayOfWeek ().get ();
+        final LocalDate aDate = PDTFactory.getCurrentLocalDate ();
+        aDate.plusDays (1).getDayOfWeek ();
+        break;
+      }
+      case NAMES:
+        for (final Locale aLocale : aLocales)
+        {
+          // Loads the DateFormatSymbols and builds the name lookup tables
+          EMonth.JANUARY.getMonthName (aLocale);
+          EDayOfWeek.MONDAY.getWeekdayName (aLocale);
+          EAmPm.AM.getDisplayName (aLocale);
+        }
+        break;
+      case FORMAT_PATTERNS:
+        PDTFormatPatterns.warmUp (aLocales);
+        break;
+      case STYLE_FORMATTERS:
+      {
+        final DateTime aSample = _getSampleDateTime ();
+        for (final Locale aLocale : aLocales)
+          for (final EFormatStyle eStyle : aStyles)
+            _warmStyle (eStyle, aLocale, aSample);
+        break;
+      }
+      case PATTERN_FORMATTERS:
+      {
+        final DateTime aSample = _getSampleDateTime ();
+        for (final String sPattern : aPatterns)
+          for (final Locale aLocale : aLocales)
+            _warmFormatter (PDTFormatter.getForPattern (sPattern, aLocale), aSample);
+        break;
+      }
+      case PERIOD_FORMATTERS:
+        for (final Locale aLocale : aLocales)
+        {
+          PeriodFormatMultilingual.getFormatterLong (aLocale);
+          PeriodFormatMultilingual.getFormatterShort (aLocale);
+          PeriodFormatMultilingual.getFormatterVeryShort (aLocale);
+        }
+        break;
+      case XML:
+        // Triggers the static initialization of the DatatypeFactory
+        PDTXMLConverter.createNewCalendar ();
+        break;
+      default:
+        throw new IllegalArgumentException ("Unsupported step " + eStep);
+    }
+  }
+
+  /**
+   * Initialize all caches for the passed locales, patterns and styles in the
+   * current thread.
+   * 
+   * @param aLocales
+   *        The display locales to be prepared. May not be <code>null</code>.
+   * @param aPatterns
+   *        The date time patterns to be prepared for each locale. May not be
+   *        <code>null</code>.
+   * @param aStyles
+   *        The formatter styles to be prepared for each locale. May not be
+   *        <code>null</code>.
+   * @return A map from each executed step to the time it took in nanoseconds.
+   *         Never <code>null</code>.
+   * @throws IllegalArgumentException
+   *         If one of the patterns is invalid
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public static Map <EStep, Long> prepare (@Nonnull final Iterable <Locale> aLocales,
+                                           @Nonnull final Iterable <String> aPatterns,
+                                           @Nonnull final Iterable <EFormatStyle> aStyles)
+  {
+    if (aLocales == null)
+      throw new NullPointerException ("locales");
+    if (aPatterns == null)
+      throw new NullPointerException ("patterns");
+    if (aStyles == null)
+      throw new NullPointerException ("styles");
+
+    final Map <EStep, Long> ret = new EnumMap <EStep, Long> (EStep.class);
+    long nTotal = 0;
+    for (final EStep eStep : EStep.values ())
+    {
+      final long nStart = System.nanoTime ();
+      _runStep (eStep, aLocales, aPatterns, aStyles);
+      final long nDuration = System.nanoTime () - nStart;
+      ret.put (eStep, Long.valueOf (nDuration));
+      nTotal += nDuration;
+      if (s_aLogger.isDebugEnabled ())
+        s_aLogger.debug ("Warm up step " + eStep + " took " + nDuration / 1000000 + "ms");
+    }
+    s_aLogger.info ("Warm up took " + nTotal / 1000000 + "ms");
+    return ret;
+  }
+
+  /**
+   * Initialize all caches for the passed locales, patterns and styles in a
+   * new daemon thread.
+   * 
+   * @param aLocales
+   *        The display locales to be prepared. May not be <code>null</code>.
+   * @param aPatterns
+   *        The date time patterns to be prepared for each locale. May not be
+   *        <code>null</code>.
+   * @param aStyles
+   *        The formatter styles to be prepared for each locale. May not be
+   *        <code>null</code>.
+   * @return The future delivering the result of
+   *         {@link #prepare(Iterable, Iterable, Iterable)}. Never
+   *         <code>null</code>.
+   */
+  @Nonnull
+  public static Future <Map <EStep, Long>> prepareInBackground (@Nonnull final Iterable <Locale> aLocales,
+                                                               @Nonnull final Iterable <String> aPatterns,
+                                                               @Nonnull final Iterable <EFormatStyle> aStyles)
+  {
+    if (aLocales == null)
+      throw new NullPointerException ("locales");
+    if (aPatterns == null)
+      throw new NullPointerException ("patterns");
+    if (aStyles == null)
+      throw new NullPointerException ("styles");
+
+    final FutureTask <Map <EStep, Long>> aTask = new FutureTask <Map <EStep, Long>> (new Callable <Map <EStep, Long>> ()
+    {
+      public Map <EStep, Long> call ()
+      {
+        return prepare (aLocales, aPatterns, aStyles);
+      }
+    });
+    final Thread aThread = new Thread (aTask, "phloc-datetime-warmup");
+    aThread.setDaemon (true);
+    aThread.start ();
+    return aTask;
+  }
+}
@@ -26,6 +26,7 @@ import com.phloc.commons.equals.EqualsUtils;
 import com.phloc.commons.hash.HashCodeGenerator;
 import com.phloc.commons.state.EChange;
 import com.phloc.commons.string.ToStringGenerator;
+import com.phloc.datetime.PDTFactory;
 
 /**
  * Default implementation of {@link IExpirable}
@@ -51,7 +52,7 @@ public final class Expirable implements IExpirable
 
   public boolean isExpired ()
   {
-    return isExpirationDefined () && getExpirationDateTime ().isBeforeNow ();
+    return isExpirationDefined () && getExpirationDateTime ().isBefore (PDTFactory.getCurrentMillis ());
   }
 
   @Nullable
@@ -26,6 +26,7 @@ import com.phloc.commons.equals.EqualsUtils;
 import com.phloc.commons.hash.HashCodeGenerator;
 import com.phloc.commons.state.EChange;
 import com.phloc.commons.string.ToStringGenerator;
+import com.phloc.datetime.PDTFactory;
 
 /**
  * Default implementation of {@link IExpirableWithReplacement}
@@ -55,7 +56,7 @@ public final class ExpirableWithReplacement <DATATYPE> implements IExpirableWith
 
   public boolean isExpired ()
   {
-    return isExpirationDefined () && getExpirationDateTime ().isBeforeNow ();
+    return isExpirationDefined () && getExpirationDateTime ().isBefore (PDTFactory.getCurrentMillis ());
   }
 
   @Nullable
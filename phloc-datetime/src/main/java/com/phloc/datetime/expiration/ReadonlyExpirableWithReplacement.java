@@ -24,6 +24,7 @@ import org.joda.time.DateTime;
 import com.phloc.commons.equals.EqualsUtils;
 import com.phloc.commons.hash.HashCodeGenerator;
 import com.phloc.commons.string.ToStringGenerator;
+import com.phloc.datetime.PDTFactory;
 
 /**
  * Default implementation of {@link IReadonlyExpirableWithReplacement}
@@ -51,7 +52,7 @@ public final class ReadonlyExpirableWithReplacement <DATATYPE> implements IReado
 
   public boolean isExpired ()
   {
-    return isExpirationDefined () && getExpirationDateTime ().isBeforeNow ();
+    return isExpirationDefined () && getExpirationDateTime ().isBefore (PDTFactory.getCurrentMillis ());
   }
 
   @Nullable
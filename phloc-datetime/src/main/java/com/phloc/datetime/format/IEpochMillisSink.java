@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+/**
+ * Callback interface for {@link PDTStreamingParser} receiving the parsed values
+ * as primitive epoch milliseconds.
+ * 
+ * @author Philip Helger
+ */
+public interface IEpochMillisSink
+{
+  /**
+   * Called for each successfully parsed value.
+   * 
+   * @param nRecordIndex
+   *        The 0-based index of the parsed value within the stream.
+   * @param nEpochMillis
+   *        The parsed value in milliseconds since 1970-01-01T00:00:00Z.
+   */
+  void onValue (@Nonnegative long nRecordIndex, long nEpochMillis);
+
+  /**
+   * Called for each value that could not be parsed.
+   * 
+   * @param nRecordIndex
+   *        The 0-based index of the value within the stream.
+   * @param aBuffer
+   *        The buffer containing the value. Only valid for the duration of the
+   *        call. Never <code>null</code>.
+   * @param nOfs
+   *        The offset of the value within the buffer.
+   * @param nLen
+   *        The length of the value.
+   */
+  void onInvalid (@Nonnegative long nRecordIndex,
+                  @Nonnull CharSequence aBuffer,
+                  @Nonnegative int nOfs,
+                  @Nonnegative int nLen);
+}
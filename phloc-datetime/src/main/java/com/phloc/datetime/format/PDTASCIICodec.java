@@ -0,0 +1,910 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.joda.time.LocalTime;
+
+import com.phloc.commons.annotations.PresentForCodeCoverage;
+import com.phloc.datetime.PDTFactory;
+import com.phloc.datetime.PDTUtils;
+import com.phloc.datetime.config.PDTConfig;
+import com.phloc.datetime.io.PDTIOHelper;
+
+/**
+ * Encode and decode dates and times as ASCII bytes directly into and from a
+ * <code>byte[]</code> or a {@link ByteBuffer}, without creating an
+ * intermediate {@link String}. Supported are the fixed width ISO-8601 formats
+ * and the patterns from {@link PDTIOHelper}:
+ * <ul>
+ * <li>ISO date: <code>yyyy-MM-dd</code></li>
+ * <li>ISO time: <code>HH:mm:ss.SSS</code></li>
+ * <li>ISO local date time: <code>yyyy-MM-ddTHH:mm:ss.SSS</code></li>
+ * <li>ISO date time: <code>yyyy-MM-ddTHH:mm:ss.SSSZ</code> or
+ * <code>yyyy-MM-ddTHH:mm:ss.SSS&#177;hh:mm</code></li>
+ * <li>{@link PDTIOHelper#PATTERN_DATE}, {@link PDTIOHelper#PATTERN_TIME} and
+ * {@link PDTIOHelper#PATTERN_DATETIME}</li>
+ * </ul>
+ * Only years between 0 and 9999 can be encoded. The <code>byte[]</code>
+ * writing methods return the index after the last written byte, the
+ * {@link ByteBuffer} methods use and advance the buffer position. The reading
+ * methods return <code>null</code> if the bytes do not contain a valid value.
+ * 
+ * @author Philip Helger
+ */
+@Immutable
+public final class PDTASCIICodec
+{
+  /** Length of an ISO date */
+  public static final int LENGTH_ISO_DATE = 10;
+  /** Length of an ISO time */
+  public static final int LENGTH_ISO_TIME = 12;
+  /** Length of an ISO local date time */
+  public static final int LENGTH_ISO_LOCAL_DATETIME = LENGTH_ISO_DATE + 1 + LENGTH_ISO_TIME;
+  /** Length of an ISO date time in UTC ("Z" suffix) */
+  public static final int LENGTH_ISO_DATETIME_UTC = LENGTH_ISO_LOCAL_DATETIME + 1;
+  /** Length of an ISO date time with an offset ("+hh:mm" suffix) */
+  public static final int LENGTH_ISO_DATETIME_OFFSET = LENGTH_ISO_LOCAL_DATETIME + 6;
+  /** Length of {@link PDTIOHelper#PATTERN_DATE} */
+  public static final int LENGTH_FILENAME_DATE = PDTIOHelper.PATTERN_DATE.length ();
+  /** Length of {@link PDTIOHelper#PATTERN_TIME} */
+  public static final int LENGTH_FILENAME_TIME = PDTIOHelper.PATTERN_TIME.length ();
+  /** Length of {@link PDTIOHelper#PATTERN_DATETIME} */
+  public static final int LENGTH_FILENAME_DATETIME = PDTIOHelper.PATTERN_DATETIME.length ();
+
+  /** Returned by the millisecond reading methods for invalid input */
+  public static final long ILLEGAL_MILLIS = Long.MIN_VALUE;
+
+  private static final int ILLEGAL = -1;
+  private static final int MAX_LENGTH = LENGTH_ISO_DATETIME_OFFSET;
+
+  /** Per thread scratch buffer for the {@link ByteBuffer} methods */
+  private static final ThreadLocal <byte []> s_aScratch = new ThreadLocal <byte []> ()
+  {
+    @Override
+    protected byte [] initialValue ()
+    {
+      return new byte [MAX_LENGTH];
+    }
+  };
+
+  @PresentForCodeCoverage
+  @SuppressWarnings ("unused")
+  private static final PDTASCIICodec s_aInstance = new PDTASCIICodec ();
+
+  private PDTASCIICodec ()
+  {}
+
+  private static void _checkYear (final int nYear)
+  {
+    if (nYear < 0 || nYear > 9999)
+      throw new IllegalArgumentException ("Only years between 0 and 9999 can be encoded: " + nYear);
+  }
+
+  private static int _write2 (@Nonnull final byte [] aBuf, final int nOfs, final int nValue)
+  {
+    aBuf[nOfs] = (byte) ('0' + nValue / 10);
+    aBuf[nOfs + 1] = (byte) ('0' + nValue % 10);
+    return nOfs + 2;
+  }
+
+  private static int _write3 (@Nonnull final byte [] aBuf, final int nOfs, final int nValue)
+  {
+    aBuf[nOfs] = (byte) ('0' + nValue / 100);
+    return _write2 (aBuf, nOfs + 1, nValue % 100);
+  }
+
+  private static int _write4 (@Nonnull final byte [] aBuf, final int nOfs, final int nValue)
+  {
+    return _write2 (aBuf, _write2 (aBuf, nOfs, nValue / 100), nValue % 100);
+  }
+
+  private static int _writeDate (@Nonnull final byte [] aBuf,
+                                 final int nOfs,
+                                 final int nYear,
+                                 final int nMonth,
+                                 final int nDay,
+                                 final boolean bISO)
+  {
+    _checkYear (nYear);
+    int nIndex = _write4 (aBuf, nOfs, nYear);
+    if (bISO)
+      aBuf[nIndex++] = '-';
+    nIndex = _write2 (aBuf, nIndex, nMonth);
+    if (bISO)
+      aBuf[nIndex++] = '-';
+    return _write2 (aBuf, nIndex, nDay);
+  }
+
+  private static int _writeTime (@Nonnull final byte [] aBuf,
+                                 final int nOfs,
+                                 final int nHour,
+                                 final int nMinute,
+                                 final int nSecond,
+                                 final int nMilli,
+                                 final boolean bISO)
+  {
+    int nIndex = _write2 (aBuf, nOfs, nHour);
+    if (bISO)
+      aBuf[nIndex++] = ':';
+    nIndex = _write2 (aBuf, nIndex, nMinute);
+    if (bISO)
+      aBuf[nIndex++] = ':';
+    nIndex = _write2 (aBuf, nIndex, nSecond);
+    if (bISO)
+    {
+      aBuf[nIndex++] = '.';
+      nIndex = _write3 (aBuf, nIndex, nMilli);
+    }
+    return nIndex;
+  }
+
+  private static int _writeOffset (@Nonnull final byte [] aBuf, final int nOfs, final int nOffsetMillis)
+  {
+    if (nOffsetMillis == 0)
+    {
+      aBuf[nOfs] = 'Z';
+      return nOfs + 1;
+    }
+    int nOffsetMinutes = nOffsetMillis / 60000;
+    if (nOffsetMinutes < 0)
+    {
+      aBuf[nOfs] = '-';
+      nOffsetMinutes = -nOffsetMinutes;
+    }
+    else
+      aBuf[nOfs] = '+';
+    final int nIndex = _write2 (aBuf, nOfs + 1, nOffsetMinutes / 60);
+    aBuf[nIndex] = ':';
+    return _write2 (aBuf, nIndex + 1, nOffsetMinutes % 60);
+  }
+
+  private static int _read2 (@Nonnull final byte [] aBuf, final int nOfs)
+  {
+    final int n1 = aBuf[nOfs] - '0';
+    final int n2 = aBuf[nOfs + 1] - '0';
+    if (n1 < 0 || n1 > 9 || n2 < 0 || n2 > 9)
+      return ILLEGAL;
+    return n1 * 10 + n2;
+  }
+
+  private static int _read3 (@Nonnull final byte [] aBuf, final int nOfs)
+  {
+    final int n1 = aBuf[nOfs] - '0';
+    final int n2 = _read2 (aBuf, nOfs + 1);
+    if (n1 < 0 || n1 > 9 || n2 < 0)
+      return ILLEGAL;
+    return n1 * 100 + n2;
+  }
+
+  /**
+   * Load the passed number of bytes (at most 8) into a long, the first byte
+   * becoming the least significant byte ("little endian").
+   */
+  private static long _load (@Nonnull final byte [] aBuf, final int nOfs, @Nonnegative final int nCount)
+  {
+    long ret = 0;
+    for (int i = nCount - 1; i >= 0; --i)
+      ret = (ret << 8) | (aBuf[nOfs + i] & 0xffL);
+    return ret;
+  }
+
+  /**
+   * @return <code>true</code> if all 8 bytes of the passed value are ASCII
+   *         digits. The high nibble of each byte must be 3 and adding 6 to a
+   *         digit byte must not overflow into the high nibble.
+   */
+  private static boolean _isDigits8 (final long nValue)
+  {
+    return ((nValue & 0xf0f0f0f0f0f0f0f0L) | (((nValue + 0x0606060606060606L) & 0xf0f0f0f0f0f0f0f0L) >>> 4)) == 0x3333333333333333L;
+  }
+
+  /**
+   * Convert 8 ASCII digits loaded via {@link #_load(byte[], int, int)} to their
+   * numeric value by combining neighbouring digits, then neighbouring pairs,
+   * then neighbouring quadruples in a single register. The passed value must
+   * have been checked with {@link #_isDigits8(long)}.
+   */
+  private static int _parse8 (final long nValue)
+  {
+    long n = nValue - 0x3030303030303030L;
+    n = (n * 10 + (n >>> 8)) & 0x00ff00ff00ff00ffL;
+    n = (n * 100 + (n >>> 16)) & 0x0000ffff0000ffffL;
+    n = (n * 10000 + (n >>> 32)) & 0xffffffffL;
+    return (int) n;
+  }
+
+  /**
+   * @return The date encoded as <code>yyyyMMdd</code> or {@link #ILLEGAL}
+   */
+  private static int _readDate (@Nonnull final byte [] aBuf,
+                                final int nOfs,
+                                final boolean bISO,
+                                @Nonnull final Chronology aChronology)
+  {
+    long nDigits;
+    if (bISO)
+    {
+      // "yyyy-MM-" and "dd" -> "yyyyMMdd"
+      final long nHead = _load (aBuf, nOfs, 8);
+      if (((nHead >>> 32) & 0xff) != '-' || (nHead >>> 56) != '-')
+        return ILLEGAL;
+      nDigits = (nHead & 0xffffffffL) | ((nHead >>> 8) & 0x0000ffff00000000L) | (_load (aBuf, nOfs + 8, 2) << 48);
+    }
+    else
+      nDigits = _load (aBuf, nOfs, 8);
+    if (!_isDigits8 (nDigits))
+      return ILLEGAL;
+    final int nDate = _parse8 (nDigits);
+    if (!PDTUtils.isValidDate (nDate / 10000, (nDate / 100) % 100, nDate % 100, aChronology))
+      return ILLEGAL;
+    return nDate;
+  }
+
+  /**
+   * @return The milliseconds of the day or {@link #ILLEGAL}
+   */
+  private static int _readTime (@Nonnull final byte [] aBuf, final int nOfs, final boolean bISO)
+  {
+    long nDigits;
+    int nMilli = 0;
+    if (bISO)
+    {
+      // "HH:mm:ss" -> "00HHmmss"
+      final long nHead = _load (aBuf, nOfs, 8);
+      if (((nHead >>> 16) & 0xff) != ':' || ((nHead >>> 40) & 0xff) != ':' || aBuf[nOfs + 8] != '.')
+        return ILLEGAL;
+      nDigits = 0x3030L |
+                ((nHead & 0xffffL) << 16) |
+                ((nHead << 8) & 0x0000ffff00000000L) |
+                (nHead & 0xffff000000000000L);
+      nMilli = _read3 (aBuf, nOfs + 9);
+      if (nMilli < 0)
+        return ILLEGAL;
+    }
+    else
+      nDigits = 0x3030L | (_load (aBuf, nOfs, 6) << 16);
+    if (!_isDigits8 (nDigits))
+      return ILLEGAL;
+    final int nTime = _parse8 (nDigits);
+    final int nHour = nTime / 10000;
+    final int nMinute = (nTime / 100) % 100;
+    final int nSecond = nTime % 100;
+    if (nHour > 23 || nMinute > 59 || nSecond > 59)
+      return ILLEGAL;
+    return ((nHour * 60 + nMinute) * 60 + nSecond) * 1000 + nMilli;
+  }
+
+  @Nonnull
+  private static LocalDateTime _createLocalDateTime (final int nDate,
+                                                     final int nMillisOfDay,
+                                                     @Nonnull final Chronology aChronology)
+  {
+    return new LocalDateTime (nDate / 10000,
+                              (nDate / 100) % 100,
+                              nDate % 100,
+                              nMillisOfDay / 3600000,
+                              (nMillisOfDay / 60000) % 60,
+                              (nMillisOfDay / 1000) % 60,
+                              nMillisOfDay % 1000,
+                              aChronology);
+  }
+
+  @Nonnull
+  private static byte [] _getScratch ()
+  {
+    return s_aScratch.get ();
+  }
+
+  @Nonnull
+  private static byte [] _readIntoScratch (@Nonnull final ByteBuffer aBB, @Nonnegative final int nLength)
+  {
+    final byte [] aScratch = _getScratch ();
+    aBB.get (aScratch, 0, nLength);
+    return aScratch;
+  }
+
+  // --- ISO date ---
+
+  /**
+   * Write the passed date as <code>yyyy-MM-dd</code>.
+   * 
+   * @param aDate
+   *        The date to write. May not be <code>null</code>.
+   * @param aBuf
+   *        The buffer to write to. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first byte to write.
+   * @return The index after the last written byte.
+   */
+  public static int writeISODate (@Nonnull final LocalDate aDate, @Nonnull final byte [] aBuf, final int nOfs)
+  {
+    return _writeDate (aBuf, nOfs, aDate.getYear (), aDate.getMonthOfYear (), aDate.getDayOfMonth (), true);
+  }
+
+  public static void writeISODate (@Nonnull final LocalDate aDate, @Nonnull final ByteBuffer aBB)
+  {
+    final byte [] aScratch = _getScratch ();
+    aBB.put (aScratch, 0, writeISODate (aDate, aScratch, 0));
+  }
+
+  /**
+   * Read a date in the format <code>yyyy-MM-dd</code>.
+   * 
+   * @param aBuf
+   *        The buffer to read from. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first byte to read.
+   * @return <code>null</code> if the bytes do not represent a valid date.
+   */
+  @Nullable
+  public static LocalDate readISODate (@Nonnull final byte [] aBuf, final int nOfs)
+  {
+    final Chronology aChronology = PDTFactory.getLocalChronology ();
+    final int nDate = _readDate (aBuf, nOfs, true, aChronology);
+    if (nDate == ILLEGAL)
+      return null;
+    return new LocalDate (nDate / 10000, (nDate / 100) % 100, nDate % 100, aChronology);
+  }
+
+  @Nullable
+  public static LocalDate readISODate (@Nonnull final ByteBuffer aBB)
+  {
+    return readISODate (_readIntoScratch (aBB, LENGTH_ISO_DATE), 0);
+  }
+
+  // --- ISO time ---
+
+  /**
+   * Write the passed time as <code>HH:mm:ss.SSS</code>.
+   * 
+   * @param aTime
+   *        The time to write. May not be <code>null</code>.
+   * @param aBuf
+   *        The buffer to write to. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first byte to write.
+   * @return The index after the last written byte.
+   */
+  public static int writeISOTime (@Nonnull final LocalTime aTime, @Nonnull final byte [] aBuf, final int nOfs)
+  {
+    return _writeTime (aBuf,
+                       nOfs,
+                       aTime.getHourOfDay (),
+                       aTime.getMinuteOfHour (),
+                       aTime.getSecondOfMinute (),
+                       aTime.getMillisOfSecond (),
+                       true);
+  }
+
+  public static void writeISOTime (@Nonnull final LocalTime aTime, @Nonnull final ByteBuffer aBB)
+  {
+    final byte [] aScratch = _getScratch ();
+    aBB.put (aScratch, 0, writeISOTime (aTime, aScratch, 0));
+  }
+
+  /**
+   * Read a time in the format <code>HH:mm:ss.SSS</code>.
+   * 
+   * @param aBuf
+   *        The buffer to read from. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first byte to read.
+   * @return <code>null</code> if the bytes do not represent a valid time.
+   */
+  @Nullable
+  public static LocalTime readISOTime (@Nonnull final byte [] aBuf, final int nOfs)
+  {
+    final int nMillisOfDay = _readTime (aBuf, nOfs, true);
+    if (nMillisOfDay == ILLEGAL)
+      return null;
+    return new LocalTime (nMillisOfDay / 3600000,
+                          (nMillisOfDay / 60000) % 60,
+                          (nMillisOfDay / 1000) % 60,
+                          nMillisOfDay % 1000,
+                          PDTFactory.getLocalChronology ());
+  }
+
+  @Nullable
+  public static LocalTime readISOTime (@Nonnull final ByteBuffer aBB)
+  {
+    return readISOTime (_readIntoScratch (aBB, LENGTH_ISO_TIME), 0);
+  }
+
+  // --- ISO local date time ---
+
+  /**
+   * Write the passed local date time as <code>yyyy-MM-ddTHH:mm:ss.SSS</code>.
+   * 
+   * @param aDateTime
+   *        The local date time to write. May not be <code>null</code>.
+   * @param aBuf
+   *        The buffer to write to. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first byte to write.
+   * @return The index after the last written byte.
+   */
+  public static int writeISOLocalDateTime (@Nonnull final LocalDateTime aDateTime,
+                                           @Nonnull final byte [] aBuf,
+                                           final int nOfs)
+  {
+    int nIndex = _writeDate (aBuf,
+                             nOfs,
+                             aDateTime.getYear (),
+                             aDateTime.getMonthOfYear (),
+                             aDateTime.getDayOfMonth (),
+                             true);
+    aBuf[nIndex++] = 'T';
+    return _writeTime (aBuf,
+                       nIndex,
+                       aDateTime.getHourOfDay (),
+                       aDateTime.getMinuteOfHour (),
+                       aDateTime.getSecondOfMinute (),
+                       aDateTime.getMillisOfSecond (),
+                       true);
+  }
+
+  public static void writeISOLocalDateTime (@Nonnull final LocalDateTime aDateTime, @Nonnull final ByteBuffer aBB)
+  {
+    final byte [] aScratch = _getScratch ();
+    aBB.put (aScratch, 0, writeISOLocalDateTime (aDateTime, aScratch, 0));
+  }
+
+  /**
+   * Read a local date time in the format <code>yyyy-MM-ddTHH:mm:ss.SSS</code>.
+   * 
+   * @param aBuf
+   *        The buffer to read from. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first byte to read.
+   * @return <code>null</code> if the bytes do not represent a valid local date
+   *         time.
+   */
+  @Nullable
+  public static LocalDateTime readISOLocalDateTime (@Nonnull final byte [] aBuf, final int nOfs)
+  {
+    final Chronology aChronology = PDTFactory.getLocalChronology ();
+    final int nDate = _readDate (aBuf, nOfs, true, aChronology);
+    if (nDate == ILLEGAL || aBuf[nOfs + LENGTH_ISO_DATE] != 'T')
+      return null;
+    final int nMillisOfDay = _readTime (aBuf, nOfs + LENGTH_ISO_DATE + 1, true);
+    if (nMillisOfDay == ILLEGAL)
+      return null;
+    return _createLocalDateTime (nDate, nMillisOfDay, aChronology);
+  }
+
+  @Nullable
+  public static LocalDateTime readISOLocalDateTime (@Nonnull final ByteBuffer aBB)
+  {
+    return readISOLocalDateTime (_readIntoScratch (aBB, LENGTH_ISO_LOCAL_DATETIME), 0);
+  }
+
+  // --- ISO date time ---
+
+  /**
+   * Write the passed date time as <code>yyyy-MM-ddTHH:mm:ss.SSSZ</code> if the
+   * offset is 0 or as <code>yyyy-MM-ddTHH:mm:ss.SSS&#177;hh:mm</code>
+   * otherwise. The fields are written in the time zone of the passed object.
+   * 
+   * @param aDateTime
+   *        The date time to write. May not be <code>null</code>.
+   * @param aBuf
+   *        The buffer to write to. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first byte to write.
+   * @return The index after the last written byte.
+   */
+  public static int writeISODateTime (@Nonnull final DateTime aDateTime, @Nonnull final byte [] aBuf, final int nOfs)
+  {
+    int nIndex = _writeDate (aBuf,
+                             nOfs,
+                             aDateTime.getYear (),
+                             aDateTime.getMonthOfYear (),
+                             aDateTime.getDayOfMonth (),
+                             true);
+    aBuf[nIndex++] = 'T';
+    nIndex = _writeTime (aBuf,
+                         nIndex,
+                         aDateTime.getHourOfDay (),
+                         aDateTime.getMinuteOfHour (),
+                         aDateTime.getSecondOfMinute (),
+                         aDateTime.getMillisOfSecond (),
+                         true);
+    return _writeOffset (aBuf, nIndex, aDateTime.getZone ().getOffset (aDateTime.getMillis ()));
+  }
+
+  public static void writeISODateTime (@Nonnull final DateTime aDateTime, @Nonnull final ByteBuffer aBB)
+  {
+    final byte [] aScratch = _getScratch ();
+    aBB.put (aScratch, 0, writeISODateTime (aDateTime, aScratch, 0));
+  }
+
+  /**
+   * Read a date time in the format <code>yyyy-MM-ddTHH:mm:ss.SSSZ</code> or
+   * <code>yyyy-MM-ddTHH:mm:ss.SSS&#177;hh:mm</code> as milliseconds since the
+   * epoch, without creating any object. The fields are interpreted in the
+   * default chronology.
+   * 
+   * @param aBuf
+   *        The buffer to read from. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first byte to read.
+   * @param nLength
+   *        The number of bytes to read. Must be either
+   *        {@link #LENGTH_ISO_DATETIME_UTC} or
+   *        {@link #LENGTH_ISO_DATETIME_OFFSET}.
+   * @return {@link #ILLEGAL_MILLIS} if the bytes do not represent a valid date
+   *         time.
+   */
+  public static long readISODateTimeMillis (@Nonnull final byte [] aBuf, final int nOfs, final int nLength)
+  {
+    return _readISODateTimeMillis (aBuf, nOfs, nLength, PDTConfig.getDefaultChronology ());
+  }
+
+  private static long _readISODateTimeMillis (@Nonnull final byte [] aBuf,
+                                              final int nOfs,
+                                              final int nLength,
+                                              @Nonnull final Chronology aChronology)
+  {
+    final int nDate = _readDate (aBuf, nOfs, true, aChronology);
+    if (nDate == ILLEGAL || aBuf[nOfs + LENGTH_ISO_DATE] != 'T')
+      return ILLEGAL_MILLIS;
+    final int nMillisOfDay = _readTime (aBuf, nOfs + LENGTH_ISO_DATE + 1, true);
+    if (nMillisOfDay == ILLEGAL)
+      return ILLEGAL_MILLIS;
+
+    final int nOffsetIndex = nOfs + LENGTH_ISO_LOCAL_DATETIME;
+    int nOffsetMillis;
+    if (nLength == LENGTH_ISO_DATETIME_UTC)
+    {
+      if (aBuf[nOffsetIndex] != 'Z')
+        return ILLEGAL_MILLIS;
+      nOffsetMillis = 0;
+    }
+    else
+      if (nLength == LENGTH_ISO_DATETIME_OFFSET)
+      {
+        final byte nSign = aBuf[nOffsetIndex];
+        if ((nSign != '+' && nSign != '-') || aBuf[nOffsetIndex + 3] != ':')
+          return ILLEGAL_MILLIS;
+        final int nHours = _read2 (aBuf, nOffsetIndex + 1);
+        final int nMinutes = _read2 (aBuf, nOffsetIndex + 4);
+        if (nHours < 0 || nHours > 23 || nMinutes < 0 || nMinutes > 59)
+          return ILLEGAL_MILLIS;
+        nOffsetMillis = (nHours * 60 + nMinutes) * 60000;
+        if (nSign == '-')
+          nOffsetMillis = -nOffsetMillis;
+      }
+      else
+        return ILLEGAL_MILLIS;
+
+    final long nLocalMillis = aChronology.withUTC ().getDateTimeMillis (nDate / 10000,
+                                                                        (nDate / 100) % 100,
+                                                                        nDate % 100,
+                                                                        nMillisOfDay);
+    return nLocalMillis - nOffsetMillis;
+  }
+
+  /**
+   * Read a date time in the format <code>yyyy-MM-ddTHH:mm:ss.SSSZ</code> or
+   * <code>yyyy-MM-ddTHH:mm:ss.SSS&#177;hh:mm</code> from the current position
+   * of the passed buffer as milliseconds since the epoch. The length is
+   * determined by the byte following the milliseconds. Heap buffers are read
+   * in place.
+   * 
+   * @param aBB
+   *        The buffer to read from. May not be <code>null</code>.
+   * @return {@link #ILLEGAL_MILLIS} if the bytes do not represent a valid date
+   *         time.
+   * @throws BufferUnderflowException
+   *         If the buffer has not enough bytes remaining. The position is not
+   *         changed in this case.
+   */
+  public static long readISODateTimeMillis (@Nonnull final ByteBuffer aBB)
+  {
+    return _readISODateTimeMillis (aBB, PDTConfig.getDefaultChronology ());
+  }
+
+  private static long _readISODateTimeMillis (@Nonnull final ByteBuffer aBB, @Nonnull final Chronology aChronology)
+  {
+    // At least the suffix byte must be present
+    if (aBB.remaining () <= LENGTH_ISO_LOCAL_DATETIME)
+      throw new BufferUnderflowException ();
+    final int nPos = aBB.position ();
+    final byte nSuffix = aBB.get (nPos + LENGTH_ISO_LOCAL_DATETIME);
+    final int nLength = nSuffix == 'Z' ? LENGTH_ISO_DATETIME_UTC : LENGTH_ISO_DATETIME_OFFSET;
+    if (aBB.hasArray ())
+    {
+      if (aBB.remaining () < nLength)
+        throw new BufferUnderflowException ();
+      aBB.position (nPos + nLength);
+      return _readISODateTimeMillis (aBB.array (), aBB.arrayOffset () + nPos, nLength, aChronology);
+    }
+    return _readISODateTimeMillis (_readIntoScratch (aBB, nLength), 0, nLength, aChronology);
+  }
+
+  /**
+   * Read a date time in the format <code>yyyy-MM-ddTHH:mm:ss.SSSZ</code> or
+   * <code>yyyy-MM-ddTHH:mm:ss.SSS&#177;hh:mm</code>. The returned object uses
+   * the default chronology.
+   * 
+   * @param aBuf
+   *        The buffer to read from. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first byte to read.
+   * @param nLength
+   *        The number of bytes to read. Must be either
+   *        {@link #LENGTH_ISO_DATETIME_UTC} or
+   *        {@link #LENGTH_ISO_DATETIME_OFFSET}.
+   * @return <code>null</code> if the bytes do not represent a valid date time.
+   */
+  @Nullable
+  public static DateTime readISODateTime (@Nonnull final byte [] aBuf, final int nOfs, final int nLength)
+  {
+    final Chronology aChronology = PDTConfig.getDefaultChronology ();
+    final long nMillis = _readISODateTimeMillis (aBuf, nOfs, nLength, aChronology);
+    return nMillis == ILLEGAL_MILLIS ? null : new DateTime (nMillis, aChronology);
+  }
+
+  /**
+   * Read a date time in the format <code>yyyy-MM-ddTHH:mm:ss.SSSZ</code> or
+   * <code>yyyy-MM-ddTHH:mm:ss.SSS&#177;hh:mm</code> from the current position
+   * of the passed buffer. The length is determined by the byte following the
+   * milliseconds.
+   * 
+   * @param aBB
+   *        The buffer to read from. May not be <code>null</code>.
+   * @return <code>null</code> if the bytes do not represent a valid date time.
+   * @throws BufferUnderflowException
+   *         If the buffer has not enough bytes remaining. The position is not
+   *         changed in this case.
+   */
+  @Nullable
+  public static DateTime readISODateTime (@Nonnull final ByteBuffer aBB)
+  {
+    final Chronology aChronology = PDTConfig.getDefaultChronology ();
+    final long nMillis = _readISODateTimeMillis (aBB, aChronology);
+    return nMillis == ILLEGAL_MILLIS ? null : new DateTime (nMillis, aChronology);
+  }
+
+  // --- PDTIOHelper date ---
+
+  /**
+   * Write the passed date as {@link PDTIOHelper#PATTERN_DATE}.
+   * 
+   * @param aDate
+   *        The date to write. May not be <code>null</code>.
+   * @param aBuf
+   *        The buffer to write to. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first byte to write.
+   * @return The index after the last written byte.
+   */
+  public static int writeDateForFilename (@Nonnull final LocalDate aDate, @Nonnull final byte [] aBuf, final int nOfs)
+  {
+    return _writeDate (aBuf, nOfs, aDate.getYear (), aDate.getMonthOfYear (), aDate.getDayOfMonth (), false);
+  }
+
+  public static void writeDateForFilename (@Nonnull final LocalDate aDate, @Nonnull final ByteBuffer aBB)
+  {
+    final byte [] aScratch = _getScratch ();
+    aBB.put (aScratch, 0, writeDateForFilename (aDate, aScratch, 0));
+  }
+
+  /**
+   * Read a date in the format {@link PDTIOHelper#PATTERN_DATE}.
+   * 
+   * @param aBuf
+   *        The buffer to read from. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first byte to read.
+   * @return <code>null</code> if the bytes do not represent a valid date.
+   */
+  @Nullable
+  public static LocalDate readDateForFilename (@Nonnull final byte [] aBuf, final int nOfs)
+  {
+    final Chronology aChronology = PDTFactory.getLocalChronology ();
+    final int nDate = _readDate (aBuf, nOfs, false, aChronology);
+    if (nDate == ILLEGAL)
+      return null;
+    return new LocalDate (nDate / 10000, (nDate / 100) % 100, nDate % 100, aChronology);
+  }
+
+  @Nullable
+  public static LocalDate readDateForFilename (@Nonnull final ByteBuffer aBB)
+  {
+    return readDateForFilename (_readIntoScratch (aBB, LENGTH_FILENAME_DATE), 0);
+  }
+
+  // --- PDTIOHelper time ---
+
+  /**
+   * Write the passed time as {@link PDTIOHelper#PATTERN_TIME}.
+   * 
+   * @param aTime
+   *        The time to write. May not be <code>null</code>.
+   * @param aBuf
+   *        The buffer to write to. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first byte to write.
+   * @return The index after the last written byte.
+   */
+  public static int writeTimeForFilename (@Nonnull final LocalTime aTime, @Nonnull final byte [] aBuf, final int nOfs)
+  {
+    return _writeTime (aBuf,
+                       nOfs,
+                       aTime.getHourOfDay (),
+                       aTime.getMinuteOfHour (),
+                       aTime.getSecondOfMinute (),
+                       0,
+                       false);
+  }
+
+  public static void writeTimeForFilename (@Nonnull final LocalTime aTime, @Nonnull final ByteBuffer aBB)
+  {
+    final byte [] aScratch = _getScratch ();
+    aBB.put (aScratch, 0, writeTimeForFilename (aTime, aScratch, 0));
+  }
+
+  /**
+   * Read a time in the format {@link PDTIOHelper#PATTERN_TIME}.
+   * 
+   * @param aBuf
+   *        The buffer to read from. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first byte to read.
+   * @return <code>null</code> if the bytes do not represent a valid time.
+   */
+  @Nullable
+  public static LocalTime readTimeForFilename (@Nonnull final byte [] aBuf, final int nOfs)
+  {
+    final int nMillisOfDay = _readTime (aBuf, nOfs, false);
+    if (nMillisOfDay == ILLEGAL)
+      return null;
+    return new LocalTime (nMillisOfDay / 3600000,
+                          (nMillisOfDay / 60000) % 60,
+                          (nMillisOfDay / 1000) % 60,
+                          0,
+                          PDTFactory.getLocalChronology ());
+  }
+
+  @Nullable
+  public static LocalTime readTimeForFilename (@Nonnull final ByteBuffer aBB)
+  {
+    return readTimeForFilename (_readIntoScratch (aBB, LENGTH_FILENAME_TIME), 0);
+  }
+
+  // --- PDTIOHelper date time ---
+
+  private static int _writeDateTimeForFilename (@Nonnull final byte [] aBuf,
+                                                final int nOfs,
+                                                final int nYear,
+                                                final int nMonth,
+                                                final int nDay,
+                                                final int nHour,
+                                                final int nMinute,
+                                                final int nSecond)
+  {
+    final int nIndex = _writeDate (aBuf, nOfs, nYear, nMonth, nDay, false);
+    aBuf[nIndex] = '_';
+    return _writeTime (aBuf, nIndex + 1, nHour, nMinute, nSecond, 0, false);
+  }
+
+  /**
+   * Write the passed local date time as {@link PDTIOHelper#PATTERN_DATETIME}.
+   * 
+   * @param aDateTime
+   *        The local date time to write. May not be <code>null</code>.
+   * @param aBuf
+   *        The buffer to write to. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first byte to write.
+   * @return The index after the last written byte.
+   */
+  public static int writeDateTimeForFilename (@Nonnull final LocalDateTime aDateTime,
+                                              @Nonnull final byte [] aBuf,
+                                              final int nOfs)
+  {
+    return _writeDateTimeForFilename (aBuf,
+                                      nOfs,
+                                      aDateTime.getYear (),
+                                      aDateTime.getMonthOfYear (),
+                                      aDateTime.getDayOfMonth (),
+                                      aDateTime.getHourOfDay (),
+                                      aDateTime.getMinuteOfHour (),
+                                      aDateTime.getSecondOfMinute ());
+  }
+
+  public static void writeDateTimeForFilename (@Nonnull final LocalDateTime aDateTime, @Nonnull final ByteBuffer aBB)
+  {
+    final byte [] aScratch = _getScratch ();
+    aBB.put (aScratch, 0, writeDateTimeForFilename (aDateTime, aScratch, 0));
+  }
+
+  /**
+   * Write the passed date time as {@link PDTIOHelper#PATTERN_DATETIME}. The
+   * fields are written in the time zone of the passed object.
+   * 
+   * @param aDateTime
+   *        The date time to write. May not be <code>null</code>.
+   * @param aBuf
+   *        The buffer to write to. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first byte to write.
+   * @return The index after the last written byte.
+   */
+  public static int writeDateTimeForFilename (@Nonnull final DateTime aDateTime,
+                                              @Nonnull final byte [] aBuf,
+                                              final int nOfs)
+  {
+    return _writeDateTimeForFilename (aBuf,
+                                      nOfs,
+                                      aDateTime.getYear (),
+                                      aDateTime.getMonthOfYear (),
+                                      aDateTime.getDayOfMonth (),
+                                      aDateTime.getHourOfDay (),
+                                      aDateTime.getMinuteOfHour (),
+                                      aDateTime.getSecondOfMinute ());
+  }
+
+  public static void writeDateTimeForFilename (@Nonnull final DateTime aDateTime, @Nonnull final ByteBuffer aBB)
+  {
+    final byte [] aScratch = _getScratch ();
+    aBB.put (aScratch, 0, writeDateTimeForFilename (aDateTime, aScratch, 0));
+  }
+
+  /**
+   * Read a local date time in the format {@link PDTIOHelper#PATTERN_DATETIME}.
+   * 
+   * @param aBuf
+   *        The buffer to read from. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first byte to read.
+   * @return <code>null</code> if the bytes do not represent a valid local date
+   *         time.
+   */
+  @Nullable
+  public static LocalDateTime readDateTimeForFilename (@Nonnull final byte [] aBuf, final int nOfs)
+  {
+    final Chronology aChronology = PDTFactory.getLocalChronology ();
+    final int nDate = _readDate (aBuf, nOfs, false, aChronology);
+    if (nDate == ILLEGAL || aBuf[nOfs + LENGTH_FILENAME_DATE] != '_')
+      return null;
+    final int nMillisOfDay = _readTime (aBuf, nOfs + LENGTH_FILENAME_DATE + 1, false);
+    if (nMillisOfDay == ILLEGAL)
+      return null;
+    return _createLocalDateTime (nDate, nMillisOfDay, aChronology);
+  }
+
+  @Nullable
+  public static LocalDateTime readDateTimeForFilename (@Nonnull final ByteBuffer aBB)
+  {
+    return readDateTimeForFilename (_readIntoScratch (aBB, LENGTH_FILENAME_DATETIME), 0);
+  }
+}
@@ -0,0 +1,674 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeUtils;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.DateTimeParser;
+import org.joda.time.format.DateTimeParserBucket;
+
+import com.phloc.commons.annotations.PresentForCodeCoverage;
+import com.phloc.commons.string.StringHelper;
+import com.phloc.datetime.config.PDTConfig;
+
+/**
+ * Parse many values at once into primitive arrays of epoch milliseconds or
+ * epoch days. Instead of returning <code>null</code> for each value that cannot
+ * be parsed, all invalid indices are collected in a {@link BitSet} and the
+ * respective target array element is set to 0.<br>
+ * The results are identical to
+ * {@link PDTFromString#parseDateTime(String, DateTimeFormatter)}, but the
+ * milliseconds are computed directly from a reused parser bucket, without
+ * creating a {@link DateTime} or a {@link PDTParseResult} per value.
+ * Optionally the work is split across the threads of an
+ * {@link ExecutorService}; a {@link ForkJoinPool} splits the work recursively.
+ * Parallel {@link Stream}s are parsed in the common fork join pool.
+ * 
+ * @author Philip Helger
+ */
+@Immutable
+public final class PDTBulkParser
+{
+  /** The minimum number of values per parallel chunk */
+  public static final int MIN_PARALLEL_CHUNK_SIZE = 1024;
+
+  /**
+   * Abstraction of the primitive target array
+   */
+  private abstract static class AbstractTarget
+  {
+    abstract int getLength ();
+
+    /**
+     * @param nIndex
+     *        Target index
+     * @param nMillis
+     *        The parsed epoch milliseconds
+     * @param nOffsetMillis
+     *        The offset of the time zone of the parsed value at that instant
+     */
+    abstract void set (int nIndex, long nMillis, int nOffsetMillis);
+
+    abstract void setInvalid (int nIndex);
+  }
+
+  private static final class EpochMillisTarget extends AbstractTarget
+  {
+    private final long [] m_aTarget;
+
+    EpochMillisTarget (@Nonnull final long [] aTarget)
+    {
+      if (aTarget == null)
+        throw new NullPointerException ("target");
+      m_aTarget = aTarget;
+    }
+
+    @Override
+    int getLength ()
+    {
+      return m_aTarget.length;
+    }
+
+    @Override
+    void set (final int nIndex, final long nMillis, final int nOffsetMillis)
+    {
+      m_aTarget[nIndex] = nMillis;
+    }
+
+    @Override
+    void setInvalid (final int nIndex)
+    {
+      m_aTarget[nIndex] = 0;
+    }
+  }
+
+  private static final class EpochDaysTarget extends AbstractTarget
+  {
+    private final int [] m_aTarget;
+
+    EpochDaysTarget (@Nonnull final int [] aTarget)
+    {
+      if (aTarget == null)
+        throw new NullPointerException ("target");
+      m_aTarget = aTarget;
+    }
+
+    @Override
+    int getLength ()
+    {
+      return m_aTarget.length;
+    }
+
+    @Override
+    void set (final int nIndex, final long nMillis, final int nOffsetMillis)
+    {
+      m_aTarget[nIndex] = _getEpochDay (nMillis + nOffsetMillis);
+    }
+
+    @Override
+    void setInvalid (final int nIndex)
+    {
+      m_aTarget[nIndex] = 0;
+    }
+  }
+
+  /**
+   * Parses single values with a reused bucket. Same logic as
+   * {@link PDTFromString#parseDateTime(String, DateTimeFormatter)}. One
+   * instance per thread. The default chronology for the DST gap correction is
+   * passed in, because it must be resolved on the calling thread, where a
+   * {@link com.phloc.datetime.config.PDTConfigScope} may be open.
+   */
+  @NotThreadSafe
+  private static final class Worker
+  {
+    private final DateTimeFormatter m_aDF;
+    private final DateTimeParser m_aParser;
+    private final Chronology m_aChronology;
+    private final Chronology m_aDefaultChronology;
+    private final DateTimeParserBucket m_aBucket;
+    // Result of the last successful parse
+    private long m_nMillis;
+    private int m_nOffsetMillis;
+
+    Worker (@Nonnull final DateTimeFormatter aDF, @Nonnull final Chronology aDefaultChronology)
+    {
+      m_aDF = aDF;
+      m_aDefaultChronology = aDefaultChronology;
+      m_aParser = aDF.getParser ();
+      if (m_aParser == null)
+        throw new UnsupportedOperationException ("Parsing not supported by " + aDF);
+      // Same chronology selection as in DateTimeFormatter
+      Chronology aChrono = DateTimeUtils.getChronology (aDF.getChronology ());
+      if (aDF.getZone () != null)
+        aChrono = aChrono.withZone (aDF.getZone ());
+      m_aChronology = aChrono;
+      // Parse the fields as local values - the zone is applied afterwards
+      m_aBucket = new DateTimeParserBucket (0L,
+                                            aChrono.withUTC (),
+                                            aDF.getLocale (),
+                                            aDF.getPivotYear (),
+                                            aDF.getDefaultYear ());
+    }
+
+    private void _setResult (final long nMillis, @Nonnull final DateTimeZone aZone)
+    {
+      m_nMillis = nMillis;
+      // The resulting date time is always converted to the formatter zone
+      final DateTimeZone aRealZone = m_aDF.getZone () != null ? m_aDF.getZone () : aZone;
+      m_nOffsetMillis = aRealZone.getOffset (nMillis);
+    }
+
+    /**
+     * @return <code>true</code> if parsing succeeded. The results are in
+     *         {@link #m_nMillis} and {@link #m_nOffsetMillis}.
+     */
+    boolean parse (@Nullable final CharSequence aValue)
+    {
+      if (!StringHelper.hasText (aValue))
+        return false;
+
+      final String sValue = aValue.toString ();
+      final DateTimeParserBucket aBucket = m_aBucket;
+      aBucket.reset ();
+      aBucket.setZone (null);
+      if (m_aParser.parseInto (aBucket, sValue, 0) != sValue.length ())
+        return false;
+
+      final Integer aParsedOffset = aBucket.getOffsetInteger ();
+      final DateTimeZone aParsedZone = aBucket.getZone ();
+      long nMillis;
+      try
+      {
+        nMillis = aBucket.computeMillis (true, sValue);
+      }
+      catch (final IllegalArgumentException ex)
+      {
+        return false;
+      }
+
+      if (aParsedOffset != null)
+      {
+        // millis are already UTC
+        _setResult (nMillis,
+                    m_aDF.isOffsetParsed () ? DateTimeZone.forOffsetMillis (aParsedOffset.intValue ())
+                                           : m_aChronology.getZone ());
+      }
+      else
+        if (aParsedZone != null)
+        {
+          // millis are already UTC
+          _setResult (nMillis, aParsedZone);
+        }
+        else
+        {
+          // Convert local millis to UTC by offset lookup
+          final DateTimeZone aZone = m_aChronology.getZone ();
+          final int nOffset = aZone.getOffsetFromLocal (nMillis);
+          final long nUTCMillis = nMillis - nOffset;
+          if (aZone.getOffset (nUTCMillis) != nOffset)
+          {
+            // Local time does not exist (DST gap) - start of the day in the
+            // default time zone, without conversion to the formatter zone
+            final LocalDate aLD = new LocalDate (new LocalDate (nMillis, m_aChronology.withUTC ()),
+                                                 m_aDefaultChronology);
+            final DateTimeZone aDefaultZone = m_aDefaultChronology.getZone ();
+            m_nMillis = aLD.toDateTimeAtStartOfDay (aDefaultZone).getMillis ();
+            m_nOffsetMillis = aDefaultZone.getOffset (m_nMillis);
+          }
+          else
+          {
+            m_nMillis = nUTCMillis;
+            m_nOffsetMillis = m_aDF.getZone () != null ? m_aDF.getZone ().getOffset (nUTCMillis) : nOffset;
+          }
+        }
+      return true;
+    }
+  }
+
+  /**
+   * Recursively split parsing for a {@link ForkJoinPool}. The leaves are
+   * aligned to chunks of {@link #MIN_PARALLEL_CHUNK_SIZE} values and store the
+   * invalid indices of their chunk relative to the chunk start.
+   */
+  private static final class ParseTask extends RecursiveAction
+  {
+    private static final long serialVersionUID = 1L;
+
+    private final List <? extends CharSequence> m_aValues;
+    private final DateTimeFormatter m_aDF;
+    private final Chronology m_aDefaultChronology;
+    private final transient AbstractTarget m_aTarget;
+    private final BitSet [] m_aChunkInvalid;
+    private final int m_nFirstChunk;
+    private final int m_nLastChunk;
+
+    ParseTask (@Nonnull final List <? extends CharSequence> aValues,
+               @Nonnull final DateTimeFormatter aDF,
+               @Nonnull final Chronology aDefaultChronology,
+               @Nonnull final AbstractTarget aTarget,
+               @Nonnull final BitSet [] aChunkInvalid,
+               final int nFirstChunk,
+               final int nLastChunk)
+    {
+      m_aValues = aValues;
+      m_aDF = aDF;
+      m_aDefaultChronology = aDefaultChronology;
+      m_aTarget = aTarget;
+      m_aChunkInvalid = aChunkInvalid;
+      m_nFirstChunk = nFirstChunk;
+      m_nLastChunk = nLastChunk;
+    }
+
+    @Override
+    protected void compute ()
+    {
+      if (m_nLastChunk - m_nFirstChunk == 1)
+      {
+        final int nStart = m_nFirstChunk * MIN_PARALLEL_CHUNK_SIZE;
+        final int nEnd = Math.min (nStart + MIN_PARALLEL_CHUNK_SIZE, m_aValues.size ());
+        m_aChunkInvalid[m_nFirstChunk] = _parseRange (m_aValues,
+                                                      nStart,
+                                                      nEnd,
+                                                      m_aDF,
+                                                      m_aDefaultChronology,
+                                                      m_aTarget);
+      }
+      else
+      {
+        final int nMiddle = (m_nFirstChunk + m_nLastChunk) >>> 1;
+        invokeAll (new ParseTask (m_aValues,
+                                  m_aDF,
+                                  m_aDefaultChronology,
+                                  m_aTarget,
+                                  m_aChunkInvalid,
+                                  m_nFirstChunk,
+                                  nMiddle),
+                   new ParseTask (m_aValues,
+                                  m_aDF,
+                                  m_aDefaultChronology,
+                                  m_aTarget,
+                                  m_aChunkInvalid,
+                                  nMiddle,
+                                  m_nLastChunk));
+      }
+    }
+  }
+
+  @PresentForCodeCoverage
+  @SuppressWarnings ("unused")
+  private static final PDTBulkParser s_aInstance = new PDTBulkParser ();
+
+  private PDTBulkParser ()
+  {}
+
+  private static int _getEpochDay (final long nLocalMillis)
+  {
+    long nDays = nLocalMillis / DateTimeConstants.MILLIS_PER_DAY;
+    if (nLocalMillis < 0 && nDays * DateTimeConstants.MILLIS_PER_DAY != nLocalMillis)
+      --nDays;
+    return (int) nDays;
+  }
+
+  /**
+   * Get the epoch day (days since 1970-01-01) of the local date of the passed
+   * date time in its own time zone. This is the same date as returned by
+   * {@link DateTime#toLocalDate()}.
+   * 
+   * @param aDT
+   *        The date time to use. May not be <code>null</code>.
+   * @return The epoch day. Negative for dates before 1970.
+   */
+  public static int getEpochDay (@Nonnull final DateTime aDT)
+  {
+    final long nMillis = aDT.getMillis ();
+    return _getEpochDay (nMillis + aDT.getZone ().getOffset (nMillis));
+  }
+
+  /**
+   * @return The invalid indices relative to <code>nStart</code>. Never
+   *         <code>null</code>.
+   */
+  @Nonnull
+  private static BitSet _parseRange (@Nonnull final List <? extends CharSequence> aValues,
+                                     final int nStart,
+                                     final int nEnd,
+                                     @Nonnull final DateTimeFormatter aDF,
+                                     @Nonnull final Chronology aDefaultChronology,
+                                     @Nonnull final AbstractTarget aTarget)
+  {
+    // Sized to the range - each parallel chunk has its own BitSet because
+    // BitSet is not thread-safe
+    final BitSet aInvalid = new BitSet (nEnd - nStart);
+    final Worker aWorker = new Worker (aDF, aDefaultChronology);
+    for (int i = nStart; i < nEnd; ++i)
+    {
+      if (aWorker.parse (aValues.get (i)))
+        aTarget.set (i, aWorker.m_nMillis, aWorker.m_nOffsetMillis);
+      else
+      {
+        aTarget.setInvalid (i);
+        aInvalid.set (i - nStart);
+      }
+    }
+    return aInvalid;
+  }
+
+  private static void _mergeInto (@Nonnull final BitSet aInvalid,
+                                  final int nStart,
+                                  @Nonnull final BitSet aChunkInvalid)
+  {
+    for (int i = aChunkInvalid.nextSetBit (0); i >= 0; i = aChunkInvalid.nextSetBit (i + 1))
+      aInvalid.set (nStart + i);
+  }
+
+  @Nonnull
+  private static BitSet _parse (@Nonnull final List <? extends CharSequence> aValues,
+                                @Nonnull final DateTimeFormatter aDF,
+                                @Nonnull final AbstractTarget aTarget,
+                                @Nullable final ExecutorService aExecutor)
+  {
+    if (aValues == null)
+      throw new NullPointerException ("values");
+    if (aDF == null)
+      throw new NullPointerException ("dateTimeFormatter");
+    final int nCount = aValues.size ();
+    if (aTarget.getLength () < nCount)
+      throw new IllegalArgumentException ("The target array is too small: " +
+                                          aTarget.getLength () +
+                                          " but " +
+                                          nCount +
+                                          " values are present");
+
+    // Resolved on the calling thread, so that an open PDTConfigScope is
+    // considered in all threads
+    final Chronology aDefaultChronology = PDTConfig.getDefaultChronology ();
+
+    if (aExecutor instanceof ForkJoinPool && nCount > MIN_PARALLEL_CHUNK_SIZE)
+    {
+      final int nChunks = (nCount + MIN_PARALLEL_CHUNK_SIZE - 1) / MIN_PARALLEL_CHUNK_SIZE;
+      final BitSet [] aChunkInvalid = new BitSet [nChunks];
+      ((ForkJoinPool) aExecutor).invoke (new ParseTask (aValues,
+                                                        aDF,
+                                                        aDefaultChronology,
+                                                        aTarget,
+                                                        aChunkInvalid,
+                                                        0,
+                                                        nChunks));
+      final BitSet aInvalid = new BitSet (nCount);
+      for (int i = 0; i < nChunks; ++i)
+        _mergeInto (aInvalid, i * MIN_PARALLEL_CHUNK_SIZE, aChunkInvalid[i]);
+      return aInvalid;
+    }
+
+    final int nChunks = aExecutor == null ? 1 : Math.min (Runtime.getRuntime ().availableProcessors (),
+                                                          nCount / MIN_PARALLEL_CHUNK_SIZE);
+    if (nChunks <= 1)
+      return _parseRange (aValues, 0, nCount, aDF, aDefaultChronology, aTarget);
+
+    final int nChunkSize = (nCount + nChunks - 1) / nChunks;
+    final List <Future <BitSet>> aFutures = new ArrayList <Future <BitSet>> (nChunks);
+    for (int nStart = 0; nStart < nCount; nStart += nChunkSize)
+    {
+      final int nRealStart = nStart;
+      final int nRealEnd = Math.min (nStart + nChunkSize, nCount);
+      aFutures.add (aExecutor.submit (new Callable <BitSet> ()
+      {
+        public BitSet call ()
+        {
+          return _parseRange (aValues, nRealStart, nRealEnd, aDF, aDefaultChronology, aTarget);
+        }
+      }));
+    }
+
+    final BitSet aInvalid = new BitSet (nCount);
+    try
+    {
+      int nStart = 0;
+      for (final Future <BitSet> aFuture : aFutures)
+      {
+        _mergeInto (aInvalid, nStart, aFuture.get ());
+        nStart += nChunkSize;
+      }
+    }
+    catch (final InterruptedException ex)
+    {
+      Thread.currentThread ().interrupt ();
+      throw new IllegalStateException ("Interrupted while parsing", ex);
+    }
+    catch (final ExecutionException ex)
+    {
+      final Throwable aCause = ex.getCause ();
+      if (aCause instanceof RuntimeException)
+        throw (RuntimeException) aCause;
+      throw new IllegalStateException ("Failed to parse", aCause);
+    }
+    return aInvalid;
+  }
+
+  @Nonnull
+  private static BitSet _parse (@Nonnull final Stream <? extends CharSequence> aValues,
+                                @Nonnull final DateTimeFormatter aDF,
+                                @Nonnull final AbstractTarget aTarget)
+  {
+    if (aValues == null)
+      throw new NullPointerException ("values");
+    // The index of each value is needed, so the stream is materialized
+    final boolean bParallel = aValues.isParallel ();
+    final List <? extends CharSequence> aList = aValues.collect (Collectors.toList ());
+    return _parse (aList, aDF, aTarget, bParallel ? ForkJoinPool.commonPool () : null);
+  }
+
+  /**
+   * @return The passed values as a list with constant time index access. Only
+   *         {@link RandomAccess} lists are used as is, all other iterables are
+   *         copied.
+   */
+  @Nonnull
+  private static <T extends CharSequence> List <T> _asList (@Nonnull final Iterable <T> aValues)
+  {
+    if (aValues == null)
+      throw new NullPointerException ("values");
+    if (aValues instanceof List <?> && aValues instanceof RandomAccess)
+      return (List <T>) aValues;
+    final List <T> ret = aValues instanceof Collection <?> ? new ArrayList <T> (((Collection <?>) aValues).size ())
+                                                          : new ArrayList <T> ();
+    for (final T aValue : aValues)
+      ret.add (aValue);
+    return ret;
+  }
+
+  /**
+   * Parse all values into epoch milliseconds.
+   * 
+   * @param aValues
+   *        The values to parse. May not be <code>null</code> but may contain
+   *        <code>null</code> elements.
+   * @param aDF
+   *        The formatter to use. May not be <code>null</code>.
+   * @param aTarget
+   *        The target array. Must have at least as many elements as values are
+   *        present.
+   * @param aExecutor
+   *        An optional executor service. If it is not <code>null</code> and
+   *        enough values are present, parsing is split into one chunk per
+   *        available processor. A {@link ForkJoinPool} splits recursively.
+   * @return A bit set with all indices that could not be parsed. Never
+   *         <code>null</code>.
+   */
+  @Nonnull
+  public static BitSet parseEpochMillis (@Nonnull final Iterable <? extends CharSequence> aValues,
+                                         @Nonnull final DateTimeFormatter aDF,
+                                         @Nonnull final long [] aTarget,
+                                         @Nullable final ExecutorService aExecutor)
+  {
+    return _parse (_asList (aValues), aDF, new EpochMillisTarget (aTarget), aExecutor);
+  }
+
+  @Nonnull
+  public static BitSet parseEpochMillis (@Nonnull final Iterable <? extends CharSequence> aValues,
+                                         @Nonnull final String sPattern,
+                                         @Nonnull final long [] aTarget)
+  {
+    return parseEpochMillis (aValues, PDTFormatter.getForPattern (sPattern), aTarget, null);
+  }
+
+  /**
+   * Parse all values of the passed stream into epoch milliseconds. The values
+   * are collected first, as the index of each value is required. A parallel
+   * stream is parsed in the common {@link ForkJoinPool}.
+   * 
+   * @param aValues
+   *        The values to parse. May not be <code>null</code> but may contain
+   *        <code>null</code> elements.
+   * @param aDF
+   *        The formatter to use. May not be <code>null</code>.
+   * @param aTarget
+   *        The target array. Must have at least as many elements as values are
+   *        present.
+   * @return A bit set with all indices that could not be parsed. Never
+   *         <code>null</code>.
+   */
+  @Nonnull
+  public static BitSet parseEpochMillis (@Nonnull final Stream <? extends CharSequence> aValues,
+                                         @Nonnull final DateTimeFormatter aDF,
+                                         @Nonnull final long [] aTarget)
+  {
+    return _parse (aValues, aDF, new EpochMillisTarget (aTarget));
+  }
+
+  @Nonnull
+  public static BitSet parseEpochMillis (@Nonnull final String [] aValues,
+                                         @Nonnull final DateTimeFormatter aDF,
+                                         @Nonnull final long [] aTarget,
+                                         @Nullable final ExecutorService aExecutor)
+  {
+    return _parse (Arrays.asList (aValues), aDF, new EpochMillisTarget (aTarget), aExecutor);
+  }
+
+  @Nonnull
+  public static BitSet parseEpochMillis (@Nonnull final String [] aValues,
+                                         @Nonnull final String sPattern,
+                                         @Nonnull final long [] aTarget)
+  {
+    return parseEpochMillis (aValues, PDTFormatter.getForPattern (sPattern), aTarget, null);
+  }
+
+  /**
+   * Parse all values into epoch days (days since 1970-01-01) of the local
+   * date, as returned by
+   * {@link PDTFromString#getLocalDateFromString(String, DateTimeFormatter)}.
+   * 
+   * @param aValues
+   *        The values to parse. May not be <code>null</code> but may contain
+   *        <code>null</code> elements.
+   * @param aDF
+   *        The formatter to use. May not be <code>null</code>.
+   * @param aTarget
+   *        The target array. Must have at least as many elements as values are
+   *        present.
+   * @param aExecutor
+   *        An optional executor service. If it is not <code>null</code> and
+   *        enough values are present, parsing is split into one chunk per
+   *        available processor. A {@link ForkJoinPool} splits recursively.
+   * @return A bit set with all indices that could not be parsed. Never
+   *         <code>null</code>.
+   */
+  @Nonnull
+  public static BitSet parseEpochDays (@Nonnull final Iterable <? extends CharSequence> aValues,
+                                       @Nonnull final DateTimeFormatter aDF,
+                                       @Nonnull final int [] aTarget,
+                                       @Nullable final ExecutorService aExecutor)
+  {
+    return _parse (_asList (aValues), aDF, new EpochDaysTarget (aTarget), aExecutor);
+  }
+
+  @Nonnull
+  public static BitSet parseEpochDays (@Nonnull final Iterable <? extends CharSequence> aValues,
+                                       @Nonnull final String sPattern,
+                                       @Nonnull final int [] aTarget)
+  {
+    return parseEpochDays (aValues, PDTFormatter.getForPattern (sPattern), aTarget, null);
+  }
+
+  /**
+   * Parse all values of the passed stream into epoch days. The values are
+   * collected first, as the index of each value is required. A parallel stream
+   * is parsed in the common {@link ForkJoinPool}.
+   * 
+   * @param aValues
+   *        The values to parse. May not be <code>null</code> but may contain
+   *        <code>null</code> elements.
+   * @param aDF
+   *        The formatter to use. May not be <code>null</code>.
+   * @param aTarget
+   *        The target array. Must have at least as many elements as values are
+   *        present.
+   * @return A bit set with all indices that could not be parsed. Never
+   *         <code>null</code>.
+   */
+  @Nonnull
+  public static BitSet parseEpochDays (@Nonnull final Stream <? extends CharSequence> aValues,
+                                       @Nonnull final DateTimeFormatter aDF,
+                                       @Nonnull final int [] aTarget)
+  {
+    return _parse (aValues, aDF, new EpochDaysTarget (aTarget));
+  }
+
+  @Nonnull
+  public static BitSet parseEpochDays (@Nonnull final String [] aValues,
+                                       @Nonnull final DateTimeFormatter aDF,
+                                       @Nonnull final int [] aTarget,
+                                       @Nullable final ExecutorService aExecutor)
+  {
+    return _parse (Arrays.asList (aValues), aDF, new EpochDaysTarget (aTarget), aExecutor);
+  }
+
+  @Nonnull
+  public static BitSet parseEpochDays (@Nonnull final String [] aValues,
+                                       @Nonnull final String sPattern,
+                                       @Nonnull final int [] aTarget)
+  {
+    return parseEpochDays (aValues, PDTFormatter.getForPattern (sPattern), aTarget, null);
+  }
+}
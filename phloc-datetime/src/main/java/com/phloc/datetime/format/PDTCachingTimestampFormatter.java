@@ -0,0 +1,275 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import java.util.Locale;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTimeConstants;
+import org.joda.time.ReadableInstant;
+import org.joda.time.format.DateTimeFormatter;
+
+import com.phloc.commons.annotations.Nonempty;
+import com.phloc.commons.string.ToStringGenerator;
+import com.phloc.datetime.config.PDTConfig;
+
+/**
+ * Formatter for timestamps, e.g. in log files, where most consecutive values
+ * are within the same second. The pattern must end with a fraction of second
+ * field (e.g. <code>yyyy-MM-dd HH:mm:ss.SSS</code>). The rendered text
+ * without the fraction is cached for the last formatted second, so that only
+ * the fraction digits need to be appended for other instants within that
+ * second. The output is identical to
+ * {@link PDTToString#getAsString(String, ReadableInstant, Locale)}.<br>
+ * The default chronology of {@link PDTConfig} is resolved on each call, so
+ * configuration changes and an open
+ * {@link com.phloc.datetime.config.PDTConfigScope} are considered. The cached
+ * second is only reused if the chronology is unchanged.
+ * 
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class PDTCachingTimestampFormatter
+{
+  /**
+   * The text of a single second in a single chronology.
+   */
+  @Immutable
+  private static final class SecondText
+  {
+    private final Chronology m_aChronology;
+    private final DateTimeFormatter m_aFormatter;
+    private final long m_nEpochSecond;
+    private final String m_sPrefix;
+
+    SecondText (@Nonnull final DateTimeFormatter aFormatter, final long nEpochSecond, @Nonnull final String sPrefix)
+    {
+      m_aChronology = aFormatter.getChronology ();
+      m_aFormatter = aFormatter;
+      m_nEpochSecond = nEpochSecond;
+      m_sPrefix = sPrefix;
+    }
+  }
+
+  private final String m_sPattern;
+  private final Locale m_aDisplayLocale;
+  private final int m_nFractionDigits;
+  // Replaced as a whole - no locking needed
+  private volatile SecondText m_aLast;
+
+  /**
+   * Constructor using no specific display locale.
+   * 
+   * @param sPattern
+   *        The pattern to use. Must end with a fraction of second field and
+   *        may not contain other fraction of second fields.
+   * @throws IllegalArgumentException
+   *         If the pattern is invalid
+   */
+  public PDTCachingTimestampFormatter (@Nonnull @Nonempty final String sPattern)
+  {
+    this (sPattern, null);
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param sPattern
+   *        The pattern to use. Must end with a fraction of second field and
+   *        may not contain other fraction of second fields.
+   * @param aDisplayLocale
+   *        The display locale to use. May be <code>null</code>.
+   * @throws IllegalArgumentException
+   *         If the pattern is invalid
+   */
+  public PDTCachingTimestampFormatter (@Nonnull @Nonempty final String sPattern, @Nullable final Locale aDisplayLocale)
+  {
+    if (sPattern == null)
+      throw new NullPointerException ("pattern");
+    m_nFractionDigits = getTrailingFractionDigits (sPattern);
+    if (m_nFractionDigits == 0)
+      throw new IllegalArgumentException ("The pattern '" +
+                                          sPattern +
+                                          "' must end with its only fraction of second field");
+    // Throws an IllegalArgumentException if the pattern is invalid
+    PDTFormatter.getForPattern (sPattern, aDisplayLocale);
+    m_sPattern = sPattern;
+    m_aDisplayLocale = aDisplayLocale;
+  }
+
+  /**
+   * Get the number of digits of the fraction of second field the passed
+   * pattern ends with.
+   * 
+   * @param sPattern
+   *        The pattern to check. May not be <code>null</code>.
+   * @return 0 if the pattern does not end with a fraction of second field or if
+   *         it contains another fraction of second field. This means it cannot
+   *         be used with this class.
+   */
+  @Nonnegative
+  public static int getTrailingFractionDigits (@Nonnull final String sPattern)
+  {
+    // Find the last unquoted 'S' run and ensure it is the only one
+    final int nLen = sPattern.length ();
+    boolean bInQuote = false;
+    int nRunStart = -1;
+    int nRuns = 0;
+    for (int i = 0; i < nLen; ++i)
+    {
+      final char c = sPattern.charAt (i);
+      if (c == '\'')
+        bInQuote = !bInQuote;
+      else
+        if (!bInQuote && c == 'S' && (i == 0 || sPattern.charAt (i - 1) != 'S'))
+        {
+          nRunStart = i;
+          nRuns++;
+        }
+    }
+    if (nRuns != 1 || bInQuote)
+      return 0;
+    for (int i = nRunStart; i < nLen; ++i)
+      if (sPattern.charAt (i) != 'S')
+        return 0;
+    return nLen - nRunStart;
+  }
+
+  /**
+   * @return The pattern used. Never <code>null</code>.
+   */
+  @Nonnull
+  @Nonempty
+  public String getPattern ()
+  {
+    return m_sPattern;
+  }
+
+  @Nonnull
+  private String _getPrefix (final long nEpochSecond)
+  {
+    final Chronology aChronology = PDTConfig.getDefaultChronology ();
+    final SecondText aLast = m_aLast;
+    DateTimeFormatter aFormatter;
+    // The default chronologies are precomputed, so identity is sufficient
+    if (aLast != null && aLast.m_aChronology == aChronology)
+    {
+      if (aLast.m_nEpochSecond == nEpochSecond)
+        return aLast.m_sPrefix;
+      aFormatter = aLast.m_aFormatter;
+    }
+    else
+      aFormatter = PDTFormatter.getForPattern (m_sPattern, m_aDisplayLocale);
+
+    // Render the full second and cut the fraction
+    final String sFull = aFormatter.print (nEpochSecond * DateTimeConstants.MILLIS_PER_SECOND);
+    final String sPrefix = sFull.substring (0, sFull.length () - m_nFractionDigits);
+    m_aLast = new SecondText (aFormatter, nEpochSecond, sPrefix);
+    return sPrefix;
+  }
+
+  private void _appendFraction (@Nonnull final StringBuilder aSB, final int nMillisOfSecond)
+  {
+    switch (m_nFractionDigits)
+    {
+      case 1:
+        aSB.append ((char) ('0' + nMillisOfSecond / 100));
+        break;
+      case 2:
+        aSB.append ((char) ('0' + nMillisOfSecond / 100)).append ((char) ('0' + nMillisOfSecond / 10 % 10));
+        break;
+      default:
+        aSB.append ((char) ('0' + nMillisOfSecond / 100))
+           .append ((char) ('0' + nMillisOfSecond / 10 % 10))
+           .append ((char) ('0' + nMillisOfSecond % 10));
+        // More digits than millisecond precision are always 0
+        for (int i = 3; i < m_nFractionDigits; ++i)
+          aSB.append ('0');
+        break;
+    }
+  }
+
+  /**
+   * Print the passed instant to the passed {@link StringBuilder}.
+   * 
+   * @param aSB
+   *        The string builder to append to. May not be <code>null</code>.
+   * @param nMillis
+   *        The milliseconds since the epoch.
+   * @return The passed string builder
+   */
+  @Nonnull
+  public StringBuilder printTo (@Nonnull final StringBuilder aSB, final long nMillis)
+  {
+    if (aSB == null)
+      throw new NullPointerException ("stringBuilder");
+
+    // Floor division, as the fraction is always positive
+    long nEpochSecond = nMillis / DateTimeConstants.MILLIS_PER_SECOND;
+    int nMillisOfSecond = (int) (nMillis % DateTimeConstants.MILLIS_PER_SECOND);
+    if (nMillisOfSecond < 0)
+    {
+      nEpochSecond--;
+      nMillisOfSecond += DateTimeConstants.MILLIS_PER_SECOND;
+    }
+    aSB.append (_getPrefix (nEpochSecond));
+    _appendFraction (aSB, nMillisOfSecond);
+    return aSB;
+  }
+
+  /**
+   * Get the passed instant as a string.
+   * 
+   * @param nMillis
+   *        The milliseconds since the epoch.
+   * @return The formatted string. Never <code>null</code>.
+   */
+  @Nonnull
+  public String getAsString (final long nMillis)
+  {
+    return printTo (new StringBuilder (m_sPattern.length () + 8), nMillis).toString ();
+  }
+
+  /**
+   * Get the passed instant as a string.
+   * 
+   * @param aInstant
+   *        The instant to format. May be <code>null</code>.
+   * @return <code>null</code> if the passed instant is <code>null</code>.
+   */
+  @Nullable
+  public String getAsString (@Nullable final ReadableInstant aInstant)
+  {
+    return aInstant == null ? null : getAsString (aInstant.getMillis ());
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("pattern", m_sPattern)
+                                       .appendIfNotNull ("displayLocale", m_aDisplayLocale)
+                                       .append ("fractionDigits", m_nFractionDigits)
+                                       .toString ();
+  }
+}
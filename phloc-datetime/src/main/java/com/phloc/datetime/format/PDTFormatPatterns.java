@@ -20,21 +20,87 @@ package com.phloc.datetime.format;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
-import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
 
 import com.phloc.commons.annotations.PresentForCodeCoverage;
+import com.phloc.commons.hash.HashCodeGenerator;
+import com.phloc.commons.string.ToStringGenerator;
 
 /**
  * Create common {@link DateFormat} patterns to format date, time and datetime
- * objects.
+ * objects. As creating a {@link DateFormat} is expensive, the resulting
+ * patterns are cached per kind, style and locale.
  * 
  * @author Philip Helger
  */
-@Immutable
+@ThreadSafe
 public final class PDTFormatPatterns
 {
+  private static final int KIND_DATE = 0;
+  private static final int KIND_TIME = 1;
+  private static final int KIND_DATETIME = 2;
+
+  private static final int [] ALL_STYLES = new int [] { DateFormat.SHORT,
+                                                        DateFormat.MEDIUM,
+                                                        DateFormat.LONG,
+                                                        DateFormat.FULL };
+
+  /**
+   * The key for the pattern cache
+   */
+  private static final class PatternKey
+  {
+    private final int m_nKind;
+    private final int m_nStyle;
+    private final Locale m_aDisplayLocale;
+    // Status vars
+    private final int m_nHashCode;
+
+    PatternKey (final int nKind, final int nStyle, @Nonnull final Locale aDisplayLocale)
+    {
+      m_nKind = nKind;
+      m_nStyle = nStyle;
+      m_aDisplayLocale = aDisplayLocale;
+      m_nHashCode = new HashCodeGenerator (this).append (nKind)
+                                                .append (nStyle)
+                                                .append (aDisplayLocale)
+                                                .getHashCode ();
+    }
+
+    @Override
+    public boolean equals (final Object o)
+    {
+      if (o == this)
+        return true;
+      if (!(o instanceof PatternKey))
+        return false;
+      final PatternKey rhs = (PatternKey) o;
+      return m_nKind == rhs.m_nKind && m_nStyle == rhs.m_nStyle && m_aDisplayLocale.equals (rhs.m_aDisplayLocale);
+    }
+
+    @Override
+    public int hashCode ()
+    {
+      return m_nHashCode;
+    }
+
+    @Override
+    public String toString ()
+    {
+      return new ToStringGenerator (this).append ("kind", m_nKind)
+                                         .append ("style", m_nStyle)
+                                         .append ("displayLocale", m_aDisplayLocale)
+                                         .toString ();
+    }
+  }
+
+  private static final ConcurrentMap <PatternKey, String> s_aCache = new ConcurrentHashMap <PatternKey, String> ();
+
   @PresentForCodeCoverage
   @SuppressWarnings ("unused")
   private static final PDTFormatPatterns s_aInstance = new PDTFormatPatterns ();
@@ -43,10 +109,79 @@ public final class PDTFormatPatterns
   {}
 
   @Nonnull
-  private static String _getPatternDate (final int nStyle, @Nonnull final Locale aDisplayLocale)
+  private static String _createPattern (final int nKind, final int nStyle, @Nonnull final Locale aDisplayLocale)
   {
     // Not nice but it works
-    return ((SimpleDateFormat) DateFormat.getDateInstance (nStyle, aDisplayLocale)).toPattern ();
+    switch (nKind)
+    {
+      case KIND_DATE:
+        return ((SimpleDateFormat) DateFormat.getDateInstance (nStyle, aDisplayLocale)).toPattern ();
+      case KIND_TIME:
+        return ((SimpleDateFormat) DateFormat.getTimeInstance (nStyle, aDisplayLocale)).toPattern ();
+      default:
+        return ((SimpleDateFormat) DateFormat.getDateTimeInstance (nStyle, nStyle, aDisplayLocale)).toPattern ();
+    }
+  }
+
+  @Nonnull
+  private static String _getPattern (final int nKind, final int nStyle, @Nonnull final Locale aDisplayLocale)
+  {
+    if (aDisplayLocale == null)
+      throw new NullPointerException ("displayLocale");
+
+    final PatternKey aKey = new PatternKey (nKind, nStyle, aDisplayLocale);
+    String ret = s_aCache.get (aKey);
+    if (ret == null)
+    {
+      // Creating the same pattern twice in parallel does not harm
+      ret = _createPattern (nKind, nStyle, aDisplayLocale);
+      s_aCache.put (aKey, ret);
+    }
+    return ret;
+  }
+
+  /**
+   * Fill the pattern cache for all kinds and styles of the passed locales, so
+   * that later calls do not need to create a {@link DateFormat}. This is e.g.
+   * helpful upon application startup.
+   * 
+   * @param aDisplayLocales
+   *        The locales to be warmed. May not be <code>null</code>.
+   */
+  public static void warmUp (@Nonnull final Iterable <Locale> aDisplayLocales)
+  {
+    if (aDisplayLocales == null)
+      throw new NullPointerException ("displayLocales");
+    for (final Locale aDisplayLocale : aDisplayLocales)
+      for (final int nStyle : ALL_STYLES)
+      {
+        _getPattern (KIND_DATE, nStyle, aDisplayLocale);
+        _getPattern (KIND_TIME, nStyle, aDisplayLocale);
+        _getPattern (KIND_DATETIME, nStyle, aDisplayLocale);
+      }
+  }
+
+  /**
+   * @return The number of cached patterns.
+   */
+  @Nonnegative
+  public static int getCacheSize ()
+  {
+    return s_aCache.size ();
+  }
+
+  /**
+   * Remove all cached patterns.
+   */
+  public static void clearCache ()
+  {
+    s_aCache.clear ();
+  }
+
+  @Nonnull
+  private static String _getPatternDate (final int nStyle, @Nonnull final Locale aDisplayLocale)
+  {
+    return _getPattern (KIND_DATE, nStyle, aDisplayLocale);
   }
 
   @Nonnull
@@ -82,8 +217,7 @@ public final class PDTFormatPatterns
   @Nonnull
   private static String _getPatternTime (final int nStyle, @Nonnull final Locale aDisplayLocale)
   {
-    // Not nice but it works
-    return ((SimpleDateFormat) DateFormat.getTimeInstance (nStyle, aDisplayLocale)).toPattern ();
+    return _getPattern (KIND_TIME, nStyle, aDisplayLocale);
   }
 
   @Nonnull
@@ -119,8 +253,7 @@ public final class PDTFormatPatterns
   @Nonnull
   private static String _getPatternDateTime (final int nStyle, @Nonnull final Locale aDisplayLocale)
   {
-    // Not nice but it works
-    return ((SimpleDateFormat) DateFormat.getDateTimeInstance (nStyle, nStyle, aDisplayLocale)).toPattern ();
+    return _getPattern (KIND_DATETIME, nStyle, aDisplayLocale);
   }
 
   @Nonnull
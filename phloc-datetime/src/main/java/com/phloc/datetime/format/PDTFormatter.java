@@ -18,26 +18,118 @@
 package com.phloc.datetime.format;
 
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
 
+import org.joda.time.Chronology;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
+import com.phloc.commons.annotations.Nonempty;
 import com.phloc.commons.annotations.PresentForCodeCoverage;
+import com.phloc.commons.equals.EqualsUtils;
+import com.phloc.commons.hash.HashCodeGenerator;
+import com.phloc.commons.string.ToStringGenerator;
+import com.phloc.datetime.cache.ICacheStatistics;
+import com.phloc.datetime.cache.LRUCache;
 import com.phloc.datetime.config.PDTConfig;
 
 /**
  * Create common {@link DateTimeFormatter} objects used for printing and parsing
- * date and time objects.
+ * date and time objects.<br>
+ * The style based formatters are cached per style, display locale and
+ * chronology, as {@link DateTimeFormatter} objects are immutable and can
+ * therefore be shared. Pattern based formatters are cached in a bounded LRU
+ * cache with the same key.
  * 
  * @author Philip Helger
  */
-@Immutable
+@ThreadSafe
 public final class PDTFormatter
 {
+  /**
+   * Key for the formatter cache, consisting of the style or pattern, the
+   * display locale and the chronology.
+   */
+  @Immutable
+  private static final class FormatterKey
+  {
+    private final String m_sStyleOrPattern;
+    private final Locale m_aDisplayLocale;
+    private final Chronology m_aChronology;
+    // Status vars
+    private final int m_nHashCode;
+
+    FormatterKey (@Nonnull @Nonempty final String sStyleOrPattern,
+                  @Nullable final Locale aDisplayLocale,
+                  @Nonnull final Chronology aChronology)
+    {
+      m_sStyleOrPattern = sStyleOrPattern;
+      m_aDisplayLocale = aDisplayLocale;
+      m_aChronology = aChronology;
+      m_nHashCode = new HashCodeGenerator (this).append (sStyleOrPattern)
+                                                .append (aDisplayLocale)
+                                                .append (aChronology)
+                                                .getHashCode ();
+    }
+
+    @Override
+    public boolean equals (final Object o)
+    {
+      if (o == this)
+        return true;
+      if (!(o instanceof FormatterKey))
+        return false;
+      final FormatterKey rhs = (FormatterKey) o;
+      return EqualsUtils.equals (m_sStyleOrPattern, rhs.m_sStyleOrPattern) &&
+             EqualsUtils.equals (m_aDisplayLocale, rhs.m_aDisplayLocale) &&
+             m_aChronology.equals (rhs.m_aChronology);
+    }
+
+    @Override
+    public int hashCode ()
+    {
+      return m_nHashCode;
+    }
+
+    @Override
+    public String toString ()
+    {
+      return new ToStringGenerator (this).append ("styleOrPattern", m_sStyleOrPattern)
+                                         .append ("displayLocale", m_aDisplayLocale)
+                                         .append ("chronology", m_aChronology)
+                                         .toString ();
+    }
+  }
+
+  /** The default maximum number of cached pattern based formatters */
+  public static final int DEFAULT_PATTERN_CACHE_MAX_SIZE = 1000;
+
+  /**
+   * Joda style strings as used by {@link DateTimeFormat#forStyle(String)}.
+   */
+  private static final String STYLE_SHORT_DATE = "S-";
+  private static final String STYLE_MEDIUM_DATE = "M-";
+  private static final String STYLE_LONG_DATE = "L-";
+  private static final String STYLE_FULL_DATE = "F-";
+  private static final String STYLE_SHORT_TIME = "-S";
+  private static final String STYLE_MEDIUM_TIME = "-M";
+  private static final String STYLE_LONG_TIME = "-L";
+  private static final String STYLE_FULL_TIME = "-F";
+  private static final String STYLE_SHORT_DATETIME = "SS";
+  private static final String STYLE_MEDIUM_DATETIME = "MM";
+  private static final String STYLE_LONG_DATETIME = "LL";
+  private static final String STYLE_FULL_DATETIME = "FF";
+
+  private static final ConcurrentMap <FormatterKey, DateTimeFormatter> s_aStyleCache = new ConcurrentHashMap <FormatterKey, DateTimeFormatter> ();
+  private static final LRUCache <FormatterKey, DateTimeFormatter> s_aPatternCache = new LRUCache <FormatterKey, DateTimeFormatter> (DEFAULT_PATTERN_CACHE_MAX_SIZE);
+
   @PresentForCodeCoverage
   @SuppressWarnings ("unused")
   private static final PDTFormatter s_aInstance = new PDTFormatter ();
@@ -45,6 +137,56 @@ public final class PDTFormatter
   private PDTFormatter ()
   {}
 
+  /**
+   * Remove all cached formatters. Because the cache is keyed by chronology,
+   * this is not needed when the settings of {@link PDTConfig} change - it
+   * only releases memory.
+   */
+  public static void clearCache ()
+  {
+    s_aStyleCache.clear ();
+    s_aPatternCache.clear ();
+  }
+
+  /**
+   * Change the maximum number of cached pattern based formatters. The default
+   * is {@link #DEFAULT_PATTERN_CACHE_MAX_SIZE}.
+   * 
+   * @param nMaxSize
+   *        The new maximum size. Must be &gt; 0.
+   */
+  public static void setPatternCacheMaxSize (@Nonnegative final int nMaxSize)
+  {
+    s_aPatternCache.setMaxSize (nMaxSize);
+  }
+
+  /**
+   * @return The hit, miss and eviction statistics of the pattern based
+   *         formatter cache. Never <code>null</code>.
+   */
+  @Nonnull
+  public static ICacheStatistics getPatternCacheStatistics ()
+  {
+    return s_aPatternCache;
+  }
+
+  @Nonnull
+  private static DateTimeFormatter _getStyleFormatter (@Nonnull @Nonempty final String sStyle,
+                                                       @Nullable final Locale aDisplayLocale)
+  {
+    final Chronology aChronology = PDTConfig.getDefaultChronology ();
+    final FormatterKey aKey = new FormatterKey (sStyle, aDisplayLocale, aChronology);
+    DateTimeFormatter ret = s_aStyleCache.get (aKey);
+    if (ret == null)
+    {
+      ret = DateTimeFormat.forStyle (sStyle).withLocale (aDisplayLocale).withChronology (aChronology);
+      final DateTimeFormatter aOld = s_aStyleCache.putIfAbsent (aKey, ret);
+      if (aOld != null)
+        ret = aOld;
+    }
+    return ret;
+  }
+
   /**
    * Assign the passed display locale and the default chronology to the passed
    * date time formatter.
@@ -86,7 +228,7 @@ public final class PDTFormatter
   @Nonnull
   public static DateTimeFormatter getShortFormatterDate (@Nullable final Locale aDisplayLocale)
   {
-    return getWithLocaleAndChrono (DateTimeFormat.shortDate (), aDisplayLocale);
+    return _getStyleFormatter (STYLE_SHORT_DATE, aDisplayLocale);
   }
 
   /**
@@ -99,7 +241,7 @@ public final class PDTFormatter
   @Nonnull
   public static DateTimeFormatter getMediumFormatterDate (@Nullable final Locale aDisplayLocale)
   {
-    return getWithLocaleAndChrono (DateTimeFormat.mediumDate (), aDisplayLocale);
+    return _getStyleFormatter (STYLE_MEDIUM_DATE, aDisplayLocale);
   }
 
   /**
@@ -112,7 +254,7 @@ public final class PDTFormatter
   @Nonnull
   public static DateTimeFormatter getLongFormatterDate (@Nullable final Locale aDisplayLocale)
   {
-    return getWithLocaleAndChrono (DateTimeFormat.longDate (), aDisplayLocale);
+    return _getStyleFormatter (STYLE_LONG_DATE, aDisplayLocale);
   }
 
   /**
@@ -125,7 +267,7 @@ public final class PDTFormatter
   @Nonnull
   public static DateTimeFormatter getFullFormatterDate (@Nullable final Locale aDisplayLocale)
   {
-    return getWithLocaleAndChrono (DateTimeFormat.fullDate (), aDisplayLocale);
+    return _getStyleFormatter (STYLE_FULL_DATE, aDisplayLocale);
   }
 
   /**
@@ -152,7 +294,7 @@ public final class PDTFormatter
   @Nonnull
   public static DateTimeFormatter getShortFormatterTime (@Nullable final Locale aDisplayLocale)
   {
-    return getWithLocaleAndChrono (DateTimeFormat.shortTime (), aDisplayLocale);
+    return _getStyleFormatter (STYLE_SHORT_TIME, aDisplayLocale);
   }
 
   /**
@@ -165,7 +307,7 @@ public final class PDTFormatter
   @Nonnull
   public static DateTimeFormatter getMediumFormatterTime (@Nullable final Locale aDisplayLocale)
   {
-    return getWithLocaleAndChrono (DateTimeFormat.mediumTime (), aDisplayLocale);
+    return _getStyleFormatter (STYLE_MEDIUM_TIME, aDisplayLocale);
   }
 
   /**
@@ -178,7 +320,7 @@ public final class PDTFormatter
   @Nonnull
   public static DateTimeFormatter getLongFormatterTime (@Nullable final Locale aDisplayLocale)
   {
-    return getWithLocaleAndChrono (DateTimeFormat.longTime (), aDisplayLocale);
+    return _getStyleFormatter (STYLE_LONG_TIME, aDisplayLocale);
   }
 
   /**
@@ -191,7 +333,7 @@ public final class PDTFormatter
   @Nonnull
   public static DateTimeFormatter getFullFormatterTime (@Nullable final Locale aDisplayLocale)
   {
-    return getWithLocaleAndChrono (DateTimeFormat.fullTime (), aDisplayLocale);
+    return _getStyleFormatter (STYLE_FULL_TIME, aDisplayLocale);
   }
 
   /**
@@ -218,7 +360,7 @@ public final class PDTFormatter
   @Nonnull
   public static DateTimeFormatter getShortFormatterDateTime (@Nullable final Locale aDisplayLocale)
   {
-    return getWithLocaleAndChrono (DateTimeFormat.shortDateTime (), aDisplayLocale);
+    return _getStyleFormatter (STYLE_SHORT_DATETIME, aDisplayLocale);
   }
 
   /**
@@ -231,7 +373,7 @@ public final class PDTFormatter
   @Nonnull
   public static DateTimeFormatter getMediumFormatterDateTime (@Nullable final Locale aDisplayLocale)
   {
-    return getWithLocaleAndChrono (DateTimeFormat.mediumDateTime (), aDisplayLocale);
+    return _getStyleFormatter (STYLE_MEDIUM_DATETIME, aDisplayLocale);
   }
 
   /**
@@ -244,7 +386,7 @@ public final class PDTFormatter
   @Nonnull
   public static DateTimeFormatter getLongFormatterDateTime (@Nullable final Locale aDisplayLocale)
   {
-    return getWithLocaleAndChrono (DateTimeFormat.longDateTime (), aDisplayLocale);
+    return _getStyleFormatter (STYLE_LONG_DATETIME, aDisplayLocale);
   }
 
   /**
@@ -257,7 +399,7 @@ public final class PDTFormatter
   @Nonnull
   public static DateTimeFormatter getFullFormatterDateTime (@Nullable final Locale aDisplayLocale)
   {
-    return getWithLocaleAndChrono (DateTimeFormat.fullDateTime (), aDisplayLocale);
+    return _getStyleFormatter (STYLE_FULL_DATETIME, aDisplayLocale);
   }
 
   /**
@@ -291,6 +433,15 @@ public final class PDTFormatter
   @Nonnull
   public static DateTimeFormatter getForPattern (@Nonnull final String sPattern, @Nullable final Locale aDisplayLocale) throws IllegalArgumentException
   {
-    return getWithLocaleAndChrono (DateTimeFormat.forPattern (sPattern), aDisplayLocale);
+    final Chronology aChronology = PDTConfig.getDefaultChronology ();
+    final FormatterKey aKey = new FormatterKey (sPattern, aDisplayLocale, aChronology);
+    DateTimeFormatter ret = s_aPatternCache.get (aKey);
+    if (ret == null)
+    {
+      // Throws an IllegalArgumentException if the pattern is invalid
+      ret = DateTimeFormat.forPattern (sPattern).withLocale (aDisplayLocale).withChronology (aChronology);
+      ret = s_aPatternCache.putIfAbsent (aKey, ret);
+    }
+    return ret;
   }
 }
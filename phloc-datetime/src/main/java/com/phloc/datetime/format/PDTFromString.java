@@ -23,11 +23,16 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
+import org.joda.time.Chronology;
 import org.joda.time.DateTime;
+import org.joda.time.DateTimeUtils;
+import org.joda.time.DateTimeZone;
 import org.joda.time.LocalDate;
 import org.joda.time.LocalDateTime;
 import org.joda.time.LocalTime;
 import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.DateTimeParser;
+import org.joda.time.format.DateTimeParserBucket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,36 +64,207 @@ public final class PDTFromString
     return getDateTimeFromString (sValue, PDTFormatter.getForPattern (sPattern, null));
   }
 
-  @Nullable
-  public static DateTime getDateTimeFromString (@Nullable final String sValue, @Nonnull final DateTimeFormatter aDF)
+  /**
+   * Parse the passed string with the passed formatter without using exceptions
+   * for the regular control flow. The semantics are identical to
+   * {@link DateTimeFormatter#parseDateTime(String)}, except that a local time
+   * within a DST gap is corrected to the start of the day in the default time
+   * zone.
+   * 
+   * @param sValue
+   *        The string to parse. May be <code>null</code>.
+   * @param aDF
+   *        The formatter to use. May not be <code>null</code> and must be
+   *        capable of parsing.
+   * @return The parse result. Never <code>null</code>.
+   */
+  @Nonnull
+  public static PDTParseResult parseDateTime (@Nullable final String sValue, @Nonnull final DateTimeFormatter aDF)
   {
     if (aDF == null)
       throw new NullPointerException ("dateTimeFormatter");
+    final DateTimeParser aParser = aDF.getParser ();
+    if (aParser == null)
+      throw new UnsupportedOperationException ("Parsing not supported by " + aDF);
+
+    if (!StringHelper.hasText (sValue))
+      return PDTParseResult.createEmpty ();
+
+    // Same chronology selection as in DateTimeFormatter
+    Chronology aChrono = DateTimeUtils.getChronology (aDF.getChronology ());
+    if (aDF.getZone () != null)
+      aChrono = aChrono.withZone (aDF.getZone ());
+
+    // Parse the fields as local values - the zone is applied afterwards
+    final DateTimeParserBucket aBucket = new DateTimeParserBucket (0L,
+                                                                   aChrono.withUTC (),
+                                                                   aDF.getLocale (),
+                                                                   aDF.getPivotYear (),
+                                                                   aDF.getDefaultYear ());
+    aBucket.setZone (null);
+    final int nPos = aParser.parseInto (aBucket, sValue, 0);
+    if (nPos < 0)
+      return PDTParseResult.createFailure (PDTParseResult.EStatus.SYNTAX_ERROR, ~nPos);
+    if (nPos < sValue.length ())
+      return PDTParseResult.createFailure (PDTParseResult.EStatus.TRAILING_TEXT, nPos);
+
+    final Integer aParsedOffset = aBucket.getOffsetInteger ();
+    final DateTimeZone aParsedZone = aBucket.getZone ();
+    long nMillis;
+    try
+    {
+      // Only throws for field values out of range, or for a DST gap in a
+      // parsed time zone
+      nMillis = aBucket.computeMillis (true, sValue);
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      return PDTParseResult.createFailure (PDTParseResult.EStatus.INVALID_FIELD_VALUE,
+                                           PDTParseResult.NO_ERROR_INDEX);
+    }
 
-    if (StringHelper.hasText (sValue))
-      try
+    DateTime aDT;
+    if (aParsedOffset != null)
+    {
+      // millis are already UTC
+      if (aDF.isOffsetParsed ())
+        aChrono = aChrono.withZone (DateTimeZone.forOffsetMillis (aParsedOffset.intValue ()));
+      aDT = new DateTime (nMillis, aChrono);
+    }
+    else
+      if (aParsedZone != null)
       {
-        return aDF.parseDateTime (sValue);
+        // millis are already UTC
+        aDT = new DateTime (nMillis, aChrono.withZone (aParsedZone));
       }
-      catch (final IllegalArgumentException aEx1)
+      else
       {
-        // retry with local date (to work around DST gaps)
-        try
+        // Convert local millis to UTC by offset lookup
+        final DateTimeZone aZone = aChrono.getZone ();
+        final int nOffset = aZone.getOffsetFromLocal (nMillis);
+        final long nUTCMillis = nMillis - nOffset;
+        if (aZone.getOffset (nUTCMillis) != nOffset)
         {
-          final LocalDate aLD = new LocalDate (LocalDate.parse (sValue, aDF), PDTConfig.getDefaultChronology ());
-          final DateTime aCorrected = aLD.toDateTimeAtStartOfDay (PDTConfig.getDefaultDateTimeZone ());
-          s_aLogger.warn ("Correcting date time '" +
-                          sValue +
-                          "' to handle invalid instant (DST gap): --> " +
-                          aCorrected);
-          return aCorrected;
-        }
-        catch (final IllegalArgumentException aEx2)
-        {
-          s_aLogger.error ("Failed to parse date '" + sValue + "' with " + aDF, aEx2);
+          // Local time does not exist (DST gap)
+          final LocalDate aLD = new LocalDate (new LocalDate (nMillis, aChrono.withUTC ()),
+                                               PDTConfig.getDefaultChronology ());
+          return PDTParseResult.createCorrectedDSTGap (aLD.toDateTimeAtStartOfDay (PDTConfig.getDefaultDateTimeZone ()));
         }
+        aDT = new DateTime (nUTCMillis, aChrono);
       }
-    return null;
+
+    if (aDF.getZone () != null)
+      aDT = aDT.withZone (aDF.getZone ());
+    return PDTParseResult.createSuccess (aDT);
+  }
+
+  @Nonnull
+  public static PDTParseResult parseDateTime (@Nullable final String sValue, @Nonnull final String sPattern)
+  {
+    return parseDateTime (sValue, PDTFormatter.getForPattern (sPattern, null));
+  }
+
+  /**
+   * Check if the passed value can be parsed with the passed formatter. This is
+   * a cheaper alternative to checking the result of one of the
+   * <code>get...FromString</code> methods for <code>null</code>, as no result
+   * object is created and nothing is logged.
+   * 
+   * @param aValue
+   *        The value to check. May be <code>null</code>.
+   * @param aDF
+   *        The formatter to use. May not be <code>null</code> and must be
+   *        capable of parsing.
+   * @return <code>true</code> if parsing the value would deliver a
+   *         non-<code>null</code> result.
+   */
+  public static boolean isValid (@Nullable final CharSequence aValue, @Nonnull final DateTimeFormatter aDF)
+  {
+    if (aDF == null)
+      throw new NullPointerException ("dateTimeFormatter");
+    final DateTimeParser aParser = aDF.getParser ();
+    if (aParser == null)
+      throw new UnsupportedOperationException ("Parsing not supported by " + aDF);
+
+    if (!StringHelper.hasText (aValue))
+      return false;
+
+    // Same bucket setup as in parseDateTime - a DST gap is always corrected
+    final String sValue = aValue.toString ();
+    final Chronology aChrono = DateTimeUtils.getChronology (aDF.getChronology ());
+    final DateTimeParserBucket aBucket = new DateTimeParserBucket (0L,
+                                                                   aChrono.withUTC (),
+                                                                   aDF.getLocale (),
+                                                                   aDF.getPivotYear (),
+                                                                   aDF.getDefaultYear ());
+    aBucket.setZone (null);
+    if (aParser.parseInto (aBucket, sValue, 0) != sValue.length ())
+      return false;
+    try
+    {
+      aBucket.computeMillis (true, sValue);
+      return true;
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      return false;
+    }
+  }
+
+  /**
+   * Check if the passed value can be parsed with the passed pattern. For
+   * patterns consisting only of numeric year, month, day, hour, minute, second
+   * and fraction of second fields this check creates no object at all.
+   * 
+   * @param aValue
+   *        The value to check. May be <code>null</code>.
+   * @param sPattern
+   *        The pattern to use. May not be <code>null</code>.
+   * @return <code>true</code> if parsing the value would deliver a
+   *         non-<code>null</code> result.
+   * @throws IllegalArgumentException
+   *         If the pattern is invalid
+   */
+  public static boolean isValid (@Nullable final CharSequence aValue, @Nonnull final String sPattern)
+  {
+    if (sPattern == null)
+      throw new NullPointerException ("pattern");
+
+    final PDTNumericPatternValidator aValidator = PDTNumericPatternValidator.getOrNull (sPattern);
+    if (aValidator == null)
+      return isValid (aValue, PDTFormatter.getForPattern (sPattern, null));
+
+    return StringHelper.hasText (aValue) && aValidator.isValid (aValue, PDTConfig.getDefaultChronology ());
+  }
+
+  @Nullable
+  public static DateTime getDateTimeFromString (@Nullable final String sValue, @Nonnull final DateTimeFormatter aDF)
+  {
+    final PDTParseResult aResult = parseDateTime (sValue, aDF);
+    switch (aResult.getStatus ())
+    {
+      case SUCCESS:
+        return aResult.getDateTime ();
+      case CORRECTED_DST_GAP:
+        s_aLogger.warn ("Correcting date time '" +
+                        sValue +
+                        "' to handle invalid instant (DST gap): --> " +
+                        aResult.getDateTime ());
+        return aResult.getDateTime ();
+      case EMPTY:
+        return null;
+      default:
+        if (s_aLogger.isDebugEnabled ())
+          s_aLogger.debug ("Failed to parse date '" +
+                           sValue +
+                           "' with " +
+                           aDF +
+                           ": " +
+                           aResult.getStatus () +
+                           " at index " +
+                           aResult.getErrorIndex ());
+        return null;
+    }
   }
 
   /**
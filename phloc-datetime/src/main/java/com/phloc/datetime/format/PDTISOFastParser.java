@@ -0,0 +1,327 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.joda.time.LocalTime;
+
+import com.phloc.commons.annotations.PresentForCodeCoverage;
+import com.phloc.datetime.PDTUtils;
+
+/**
+ * A hand written parser for the most common fixed ISO-8601 shapes:
+ * <ul>
+ * <li><code>yyyy-MM-dd</code></li>
+ * <li><code>HH:mm[:ss[.S[S[S]]]]</code></li>
+ * <li><code>yyyy-MM-ddTHH:mm[:ss[.S[S[S]]]][Z|&#177;hh:mm]</code></li>
+ * </ul>
+ * The fields are read directly from the passed {@link CharSequence} without
+ * any intermediate objects. All methods return <code>null</code> if the input
+ * does not match one of the supported shapes or if a field is out of range, so
+ * that the caller can fall back to the generic Joda ISO parser which also
+ * creates the respective error message.
+ * 
+ * @author Philip Helger
+ */
+@Immutable
+public final class PDTISOFastParser
+{
+  /** Marker for "no time zone offset present" */
+  private static final int NO_OFFSET = Integer.MIN_VALUE;
+  /** Marker for "illegal input" */
+  private static final int ILLEGAL = -1;
+
+  private static final int LENGTH_DATE = 10;
+
+  @PresentForCodeCoverage
+  @SuppressWarnings ("unused")
+  private static final PDTISOFastParser s_aInstance = new PDTISOFastParser ();
+
+  private PDTISOFastParser ()
+  {}
+
+  private static int _digit (@Nonnull final CharSequence s, final int nIndex)
+  {
+    final int ret = s.charAt (nIndex) - '0';
+    return ret >= 0 && ret <= 9 ? ret : ILLEGAL;
+  }
+
+  private static int _parse2 (@Nonnull final CharSequence s, final int nIndex)
+  {
+    final int n1 = _digit (s, nIndex);
+    final int n2 = _digit (s, nIndex + 1);
+    if (n1 < 0 || n2 < 0)
+      return ILLEGAL;
+    return n1 * 10 + n2;
+  }
+
+  private static int _parse4 (@Nonnull final CharSequence s, final int nIndex)
+  {
+    final int n1 = _parse2 (s, nIndex);
+    final int n2 = _parse2 (s, nIndex + 2);
+    if (n1 < 0 || n2 < 0)
+      return ILLEGAL;
+    return n1 * 100 + n2;
+  }
+
+  /**
+   * Parse <code>yyyy-MM-dd</code> at the beginning of the passed string. The
+   * day is checked against the real length of the month (incl. leap years).
+   * 
+   * @return The date encoded as <code>yyyyMMdd</code> or {@link #ILLEGAL}.
+   */
+  private static int _parseDate (@Nonnull final CharSequence s, @Nonnull final Chronology aChronology)
+  {
+    if (s.length () < LENGTH_DATE || s.charAt (4) != '-' || s.charAt (7) != '-')
+      return ILLEGAL;
+    final int nYear = _parse4 (s, 0);
+    final int nMonth = _parse2 (s, 5);
+    final int nDay = _parse2 (s, 8);
+    if (nYear < 0 || !PDTUtils.isValidDate (nYear, nMonth, nDay, aChronology))
+      return ILLEGAL;
+    return nYear * 10000 + nMonth * 100 + nDay;
+  }
+
+  /**
+   * Parse <code>HH:mm[:ss[.S[S[S]]]]</code> from nStart (incl.) to nEnd
+   * (excl.).
+   * 
+   * @return The milliseconds of the day or {@link #ILLEGAL}.
+   */
+  private static int _parseTime (@Nonnull final CharSequence s, final int nStart, final int nEnd)
+  {
+    final int nLen = nEnd - nStart;
+    if (nLen != 5 && nLen != 8 && (nLen < 10 || nLen > 12))
+      return ILLEGAL;
+    if (s.charAt (nStart + 2) != ':')
+      return ILLEGAL;
+    final int nHour = _parse2 (s, nStart);
+    final int nMinute = _parse2 (s, nStart + 3);
+    if (nHour < 0 || nHour > 23 || nMinute < 0 || nMinute > 59)
+      return ILLEGAL;
+    int nSecond = 0;
+    int nMilli = 0;
+    if (nLen > 5)
+    {
+      if (s.charAt (nStart + 5) != ':')
+        return ILLEGAL;
+      nSecond = _parse2 (s, nStart + 6);
+      if (nSecond < 0 || nSecond > 59)
+        return ILLEGAL;
+      if (nLen > 8)
+      {
+        if (s.charAt (nStart + 8) != '.')
+          return ILLEGAL;
+        // 1-3 fraction digits
+        int nFactor = 100;
+        for (int i = nStart + 9; i < nEnd; ++i)
+        {
+          final int nDigit = _digit (s, i);
+          if (nDigit < 0)
+            return ILLEGAL;
+          nMilli += nDigit * nFactor;
+          nFactor /= 10;
+        }
+      }
+    }
+    return ((nHour * 60 + nMinute) * 60 + nSecond) * 1000 + nMilli;
+  }
+
+  /**
+   * Parse <code>&#177;hh:mm</code> at the passed index.
+   * 
+   * @return The offset in milliseconds or {@link #NO_OFFSET}.
+   */
+  private static int _parseOffset (@Nonnull final CharSequence s, final int nIndex)
+  {
+    final char cSign = s.charAt (nIndex);
+    if ((cSign != '+' && cSign != '-') || s.charAt (nIndex + 3) != ':')
+      return NO_OFFSET;
+    final int nHours = _parse2 (s, nIndex + 1);
+    final int nMinutes = _parse2 (s, nIndex + 4);
+    if (nHours < 0 || nHours > 23 || nMinutes < 0 || nMinutes > 59)
+      return NO_OFFSET;
+    final int nOffset = (nHours * 60 + nMinutes) * 60 * 1000;
+    return cSign == '-' ? -nOffset : nOffset;
+  }
+
+  /**
+   * Parse an ISO date in the format <code>yyyy-MM-dd</code>.
+   * 
+   * @param sDate
+   *        The string to parse. May be <code>null</code>.
+   * @param aChronology
+   *        The chronology to use. May not be <code>null</code>.
+   * @return <code>null</code> if the passed string is not supported by this
+   *         parser.
+   */
+  @Nullable
+  public static LocalDate parseLocalDate (@Nullable final CharSequence sDate, @Nonnull final Chronology aChronology)
+  {
+    if (sDate == null || sDate.length () != LENGTH_DATE)
+      return null;
+    final int nDate = _parseDate (sDate, aChronology);
+    if (nDate == ILLEGAL)
+      return null;
+    return new LocalDate (nDate / 10000, (nDate / 100) % 100, nDate % 100, aChronology);
+  }
+
+  /**
+   * Parse an ISO time in the format <code>HH:mm[:ss[.S[S[S]]]]</code>.
+   * 
+   * @param sTime
+   *        The string to parse. May be <code>null</code>.
+   * @param aChronology
+   *        The chronology to use. May not be <code>null</code>.
+   * @return <code>null</code> if the passed string is not supported by this
+   *         parser.
+   */
+  @Nullable
+  public static LocalTime parseLocalTime (@Nullable final CharSequence sTime, @Nonnull final Chronology aChronology)
+  {
+    if (sTime == null)
+      return null;
+    final int nMillisOfDay = _parseTime (sTime, 0, sTime.length ());
+    if (nMillisOfDay == ILLEGAL)
+      return null;
+    return new LocalTime (nMillisOfDay / 3600000,
+                          (nMillisOfDay / 60000) % 60,
+                          (nMillisOfDay / 1000) % 60,
+                          nMillisOfDay % 1000,
+                          aChronology);
+  }
+
+  /**
+   * Parse an ISO local date time in the format
+   * <code>yyyy-MM-dd[THH:mm[:ss[.S[S[S]]]]]</code>.
+   * 
+   * @param sDateTime
+   *        The string to parse. May be <code>null</code>.
+   * @param aChronology
+   *        The chronology to use. May not be <code>null</code>.
+   * @return <code>null</code> if the passed string is not supported by this
+   *         parser.
+   */
+  @Nullable
+  public static LocalDateTime parseLocalDateTime (@Nullable final CharSequence sDateTime,
+                                                  @Nonnull final Chronology aChronology)
+  {
+    if (sDateTime == null)
+      return null;
+    final int nDate = _parseDate (sDateTime, aChronology);
+    if (nDate == ILLEGAL)
+      return null;
+    int nMillisOfDay = 0;
+    final int nLen = sDateTime.length ();
+    if (nLen > LENGTH_DATE)
+    {
+      if (sDateTime.charAt (LENGTH_DATE) != 'T')
+        return null;
+      nMillisOfDay = _parseTime (sDateTime, LENGTH_DATE + 1, nLen);
+      if (nMillisOfDay == ILLEGAL)
+        return null;
+    }
+    return new LocalDateTime (nDate / 10000,
+                              (nDate / 100) % 100,
+                              nDate % 100,
+                              nMillisOfDay / 3600000,
+                              (nMillisOfDay / 60000) % 60,
+                              (nMillisOfDay / 1000) % 60,
+                              nMillisOfDay % 1000,
+                              aChronology);
+  }
+
+  /**
+   * Parse an ISO date time in the format
+   * <code>yyyy-MM-dd[THH:mm[:ss[.S[S[S]]]][Z|&#177;hh:mm]]</code>. If no
+   * offset is present, the date time is interpreted in the time zone of the
+   * passed chronology. The returned object always uses the passed chronology.
+   * 
+   * @param sDateTime
+   *        The string to parse. May be <code>null</code>.
+   * @param aChronology
+   *        The chronology to use. May not be <code>null</code>.
+   * @return <code>null</code> if the passed string is not supported by this
+   *         parser.
+   */
+  @Nullable
+  public static DateTime parseDateTime (@Nullable final CharSequence sDateTime, @Nonnull final Chronology aChronology)
+  {
+    if (sDateTime == null)
+      return null;
+    final int nDate = _parseDate (sDateTime, aChronology);
+    if (nDate == ILLEGAL)
+      return null;
+    final int nYear = nDate / 10000;
+    final int nMonth = (nDate / 100) % 100;
+    final int nDay = nDate % 100;
+
+    final int nLen = sDateTime.length ();
+    if (nLen == LENGTH_DATE)
+    {
+      // Start of day in the chronology's time zone
+      return new DateTime (nYear, nMonth, nDay, 0, 0, 0, 0, aChronology);
+    }
+    if (sDateTime.charAt (LENGTH_DATE) != 'T')
+      return null;
+
+    // Determine the optional offset at the end
+    int nOffset = NO_OFFSET;
+    int nTimeEnd = nLen;
+    if (sDateTime.charAt (nLen - 1) == 'Z')
+    {
+      nOffset = 0;
+      nTimeEnd = nLen - 1;
+    }
+    else
+      if (nLen - 6 > LENGTH_DATE + 1)
+      {
+        nOffset = _parseOffset (sDateTime, nLen - 6);
+        if (nOffset != NO_OFFSET)
+          nTimeEnd = nLen - 6;
+      }
+
+    final int nMillisOfDay = _parseTime (sDateTime, LENGTH_DATE + 1, nTimeEnd);
+    if (nMillisOfDay == ILLEGAL)
+      return null;
+
+    final int nHour = nMillisOfDay / 3600000;
+    final int nMinute = (nMillisOfDay / 60000) % 60;
+    final int nSecond = (nMillisOfDay / 1000) % 60;
+    final int nMilli = nMillisOfDay % 1000;
+    if (nOffset == NO_OFFSET)
+      return new DateTime (nYear, nMonth, nDay, nHour, nMinute, nSecond, nMilli, aChronology);
+
+    final long nMillis = aChronology.withUTC ().getDateTimeMillis (nYear,
+                                                                   nMonth,
+                                                                   nDay,
+                                                                   nHour,
+                                                                   nMinute,
+                                                                   nSecond,
+                                                                   nMilli) -
+                         nOffset;
+    return new DateTime (nMillis, aChronology);
+  }
+}
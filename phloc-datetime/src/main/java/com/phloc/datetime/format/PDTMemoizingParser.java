@@ -0,0 +1,328 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.joda.time.LocalTime;
+import org.joda.time.format.DateTimeFormatter;
+
+import com.phloc.commons.string.StringHelper;
+import com.phloc.commons.string.ToStringGenerator;
+import com.phloc.datetime.cache.ICacheStatistics;
+import com.phloc.datetime.cache.LRUCache;
+
+/**
+ * An opt-in memoizing layer on top of
+ * {@link PDTFromString#parseDateTime(String, DateTimeFormatter)} for inputs
+ * where the same strings occur over and over again. The parse results
+ * (including failures) of one formatter are stored in a bounded LRU cache,
+ * which is split into several independent stripes to reduce contention.
+ * Together with each result the derived {@link LocalDate},
+ * {@link LocalDateTime} and {@link LocalTime} values are cached on first use,
+ * so that the typed getters don't convert on every hit. As all Joda values are
+ * immutable, the cached values can be shared safely.<br>
+ * Values within a DST gap, that were corrected to the start of the day in the
+ * default time zone, are never cached, as the correction depends on the
+ * current configuration.
+ * 
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class PDTMemoizingParser implements ICacheStatistics
+{
+  /** The default maximum number of cached strings */
+  public static final int DEFAULT_MAX_SIZE = 10000;
+  /** The maximum number of stripes */
+  public static final int MAX_STRIPES = 16;
+
+  /**
+   * A parse result together with the derived local values. The derived values
+   * are computed lazily without synchronization - all Joda values are
+   * immutable so a value computed twice by concurrent threads is equal.
+   */
+  private static final class Entry
+  {
+    private final PDTParseResult m_aResult;
+    private LocalDate m_aLocalDate;
+    private LocalDateTime m_aLocalDateTime;
+    private LocalTime m_aLocalTime;
+
+    Entry (@Nonnull final PDTParseResult aResult)
+    {
+      m_aResult = aResult;
+    }
+
+    @Nullable
+    LocalDate getLocalDate ()
+    {
+      LocalDate ret = m_aLocalDate;
+      if (ret == null)
+      {
+        final DateTime aDT = m_aResult.getDateTime ();
+        if (aDT == null)
+          return null;
+        ret = aDT.toLocalDate ();
+        m_aLocalDate = ret;
+      }
+      return ret;
+    }
+
+    @Nullable
+    LocalDateTime getLocalDateTime ()
+    {
+      LocalDateTime ret = m_aLocalDateTime;
+      if (ret == null)
+      {
+        final DateTime aDT = m_aResult.getDateTime ();
+        if (aDT == null)
+          return null;
+        ret = aDT.toLocalDateTime ();
+        m_aLocalDateTime = ret;
+      }
+      return ret;
+    }
+
+    @Nullable
+    LocalTime getLocalTime ()
+    {
+      LocalTime ret = m_aLocalTime;
+      if (ret == null)
+      {
+        final DateTime aDT = m_aResult.getDateTime ();
+        if (aDT == null)
+          return null;
+        ret = aDT.toLocalTime ();
+        m_aLocalTime = ret;
+      }
+      return ret;
+    }
+  }
+
+  private static final Entry EMPTY = new Entry (PDTParseResult.createEmpty ());
+
+  private final DateTimeFormatter m_aDF;
+  private final LRUCache <String, Entry> [] m_aStripes;
+  private final int m_nStripeMask;
+
+  /**
+   * Constructor with the default maximum size.
+   * 
+   * @param aDF
+   *        The formatter to use. May not be <code>null</code>.
+   */
+  public PDTMemoizingParser (@Nonnull final DateTimeFormatter aDF)
+  {
+    this (aDF, DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param aDF
+   *        The formatter to use. May not be <code>null</code>.
+   * @param nMaxSize
+   *        The maximum number of cached strings. Must be &gt; 0.
+   */
+  @SuppressWarnings ("unchecked")
+  public PDTMemoizingParser (@Nonnull final DateTimeFormatter aDF, @Nonnegative final int nMaxSize)
+  {
+    if (aDF == null)
+      throw new NullPointerException ("dateTimeFormatter");
+    if (nMaxSize <= 0)
+      throw new IllegalArgumentException ("MaxSize must be > 0: " + nMaxSize);
+
+    // Power of 2 stripes with at least 16 entries each
+    final int nStripes = Math.max (1, Math.min (MAX_STRIPES, Integer.highestOneBit (nMaxSize / 16)));
+    final int nStripeMaxSize = (nMaxSize + nStripes - 1) / nStripes;
+    m_aDF = aDF;
+    m_aStripes = new LRUCache [nStripes];
+    for (int i = 0; i < nStripes; ++i)
+      m_aStripes[i] = new LRUCache <String, Entry> (nStripeMaxSize);
+    m_nStripeMask = nStripes - 1;
+  }
+
+  /**
+   * @return The formatter used for parsing. Never <code>null</code>.
+   */
+  @Nonnull
+  public DateTimeFormatter getFormatter ()
+  {
+    return m_aDF;
+  }
+
+  @Nonnull
+  private LRUCache <String, Entry> _getStripe (@Nonnull final String sValue)
+  {
+    final int nHash = sValue.hashCode ();
+    return m_aStripes[(nHash ^ (nHash >>> 16)) & m_nStripeMask];
+  }
+
+  @Nonnull
+  private Entry _getEntry (@Nullable final String sValue)
+  {
+    if (!StringHelper.hasText (sValue))
+      return EMPTY;
+
+    final LRUCache <String, Entry> aStripe = _getStripe (sValue);
+    final Entry aCached = aStripe.get (sValue);
+    if (aCached != null)
+      return aCached;
+    final Entry aEntry = new Entry (PDTFromString.parseDateTime (sValue, m_aDF));
+    if (aEntry.m_aResult.getStatus () == PDTParseResult.EStatus.CORRECTED_DST_GAP)
+    {
+      // Depends on the default time zone at the time of parsing
+      return aEntry;
+    }
+    return aStripe.putIfAbsent (sValue, aEntry);
+  }
+
+  /**
+   * Parse the passed value or return the previous result for the same value.
+   * 
+   * @param sValue
+   *        The value to parse. May be <code>null</code>.
+   * @return The parse result. Never <code>null</code>.
+   */
+  @Nonnull
+  public PDTParseResult parseDateTime (@Nullable final String sValue)
+  {
+    return _getEntry (sValue).m_aResult;
+  }
+
+  @Nullable
+  public DateTime getDateTimeFromString (@Nullable final String sValue)
+  {
+    return parseDateTime (sValue).getDateTime ();
+  }
+
+  @Nullable
+  public LocalDate getLocalDateFromString (@Nullable final String sValue)
+  {
+    return _getEntry (sValue).getLocalDate ();
+  }
+
+  @Nullable
+  public LocalDateTime getLocalDateTimeFromString (@Nullable final String sValue)
+  {
+    return _getEntry (sValue).getLocalDateTime ();
+  }
+
+  @Nullable
+  public LocalTime getLocalTimeFromString (@Nullable final String sValue)
+  {
+    return _getEntry (sValue).getLocalTime ();
+  }
+
+  /**
+   * Remove all cached values.
+   */
+  public void clear ()
+  {
+    for (final LRUCache <String, Entry> aStripe : m_aStripes)
+      aStripe.clear ();
+  }
+
+  /**
+   * Reset the hit, miss and eviction counters.
+   */
+  public void resetStatistics ()
+  {
+    for (final LRUCache <String, Entry> aStripe : m_aStripes)
+      aStripe.resetStatistics ();
+  }
+
+  @Nonnegative
+  public int getStripeCount ()
+  {
+    return m_aStripes.length;
+  }
+
+  @Nonnegative
+  public int getSize ()
+  {
+    int ret = 0;
+    for (final LRUCache <String, Entry> aStripe : m_aStripes)
+      ret += aStripe.getSize ();
+    return ret;
+  }
+
+  @Nonnegative
+  public int getMaxSize ()
+  {
+    int ret = 0;
+    for (final LRUCache <String, Entry> aStripe : m_aStripes)
+      ret += aStripe.getMaxSize ();
+    return ret;
+  }
+
+  @Nonnegative
+  public long getHitCount ()
+  {
+    long ret = 0;
+    for (final LRUCache <String, Entry> aStripe : m_aStripes)
+      ret += aStripe.getHitCount ();
+    return ret;
+  }
+
+  @Nonnegative
+  public long getMissCount ()
+  {
+    long ret = 0;
+    for (final LRUCache <String, Entry> aStripe : m_aStripes)
+      ret += aStripe.getMissCount ();
+    return ret;
+  }
+
+  @Nonnegative
+  public long getEvictionCount ()
+  {
+    long ret = 0;
+    for (final LRUCache <String, Entry> aStripe : m_aStripes)
+      ret += aStripe.getEvictionCount ();
+    return ret;
+  }
+
+  /**
+   * @return The ratio of hits to all lookups between 0 and 1. 0 if no lookup
+   *         was performed yet.
+   */
+  public double getHitRate ()
+  {
+    final long nHits = getHitCount ();
+    final long nTotal = nHits + getMissCount ();
+    return nTotal == 0 ? 0 : (double) nHits / nTotal;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("formatter", m_aDF)
+                                       .append ("stripes", m_aStripes.length)
+                                       .append ("size", getSize ())
+                                       .append ("maxSize", getMaxSize ())
+                                       .append ("hitRate", getHitRate ())
+                                       .toString ();
+  }
+}
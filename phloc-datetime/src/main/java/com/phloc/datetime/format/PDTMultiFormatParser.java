@@ -0,0 +1,235 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.joda.time.format.DateTimeFormatter;
+
+import com.phloc.commons.annotations.Nonempty;
+import com.phloc.commons.annotations.ReturnsMutableCopy;
+import com.phloc.commons.string.StringHelper;
+import com.phloc.commons.string.ToStringGenerator;
+
+/**
+ * Parser for values that may occur in several different formats, e.g. the
+ * values of a single column in an import file. For each registered pattern
+ * the shape (see {@link PDTPatternShape}) is precomputed, so that an input is
+ * only parsed with the patterns it can possibly match. Additionally the
+ * pattern that successfully parsed the last value is remembered and tried
+ * first for the next value. Use one instance per column.<br>
+ * Patterns with text or time zone fields cannot be reliably selected by shape
+ * and are tried only if no purely numeric pattern matched.
+ * 
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class PDTMultiFormatParser
+{
+  private static final int NO_WINNER = -1;
+
+  private final PDTPatternShape [] m_aShapes;
+  private final DateTimeFormatter [] m_aFormatters;
+  private final Locale m_aParseLocale;
+  private volatile int m_nLastWinner = NO_WINNER;
+
+  /**
+   * Constructor
+   * 
+   * @param aParseLocale
+   *        The locale to be used for parsing. May be <code>null</code>.
+   * @param aPatterns
+   *        The patterns to be used, in the order of preference. May neither be
+   *        <code>null</code> nor empty.
+   */
+  public PDTMultiFormatParser (@Nullable final Locale aParseLocale, @Nonnull @Nonempty final String... aPatterns)
+  {
+    if (aPatterns == null)
+      throw new NullPointerException ("patterns");
+    if (aPatterns.length == 0)
+      throw new IllegalArgumentException ("No patterns passed");
+
+    m_aShapes = new PDTPatternShape [aPatterns.length];
+    m_aFormatters = new DateTimeFormatter [aPatterns.length];
+    for (int i = 0; i < aPatterns.length; ++i)
+    {
+      m_aShapes[i] = new PDTPatternShape (aPatterns[i]);
+      m_aFormatters[i] = PDTFormatter.getForPattern (aPatterns[i], aParseLocale);
+    }
+    m_aParseLocale = aParseLocale;
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param aParseLocale
+   *        The locale to be used for parsing. May be <code>null</code>.
+   * @param aPatterns
+   *        The patterns to be used, in the order of preference. May neither be
+   *        <code>null</code> nor empty.
+   */
+  public PDTMultiFormatParser (@Nullable final Locale aParseLocale, @Nonnull @Nonempty final Collection <String> aPatterns)
+  {
+    this (aParseLocale, aPatterns.toArray (new String [aPatterns.size ()]));
+  }
+
+  /**
+   * @return The locale used for parsing. May be <code>null</code>.
+   */
+  @Nullable
+  public Locale getParseLocale ()
+  {
+    return m_aParseLocale;
+  }
+
+  /**
+   * @return A copy of all contained patterns in the order of preference. Never
+   *         <code>null</code>.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public List <String> getAllPatterns ()
+  {
+    final List <String> ret = new ArrayList <String> (m_aShapes.length);
+    for (final PDTPatternShape aShape : m_aShapes)
+      ret.add (aShape.getPattern ());
+    return ret;
+  }
+
+  /**
+   * @return The pattern that successfully parsed the last value or
+   *         <code>null</code> if no value was parsed yet.
+   */
+  @Nullable
+  public String getLastMatchingPattern ()
+  {
+    final int nLastWinner = m_nLastWinner;
+    return nLastWinner == NO_WINNER ? null : m_aShapes[nLastWinner].getPattern ();
+  }
+
+  @Nonnull
+  private PDTParseResult _parse (@Nonnull final String sValue, final int nIndex)
+  {
+    final PDTParseResult aResult = PDTFromString.parseDateTime (sValue, m_aFormatters[nIndex]);
+    if (aResult.isSuccess ())
+      m_nLastWinner = nIndex;
+    return aResult;
+  }
+
+  /**
+   * Parse the passed value with the first matching pattern.
+   * 
+   * @param sValue
+   *        The value to be parsed. May be <code>null</code>.
+   * @return The result of the successful parsing or the result of the last
+   *         failed attempt. Never <code>null</code>.
+   */
+  @Nonnull
+  public PDTParseResult parse (@Nullable final String sValue)
+  {
+    if (!StringHelper.hasText (sValue))
+      return PDTParseResult.createEmpty ();
+
+    final long nInputShape = PDTPatternShape.getInputShape (sValue);
+    PDTParseResult aResult = null;
+
+    // Try the last winner first
+    final int nLastWinner = m_nLastWinner;
+    if (nLastWinner != NO_WINNER)
+    {
+      final PDTPatternShape aShape = m_aShapes[nLastWinner];
+      if (!aShape.isStrict () || aShape.getShape () == nInputShape)
+      {
+        aResult = _parse (sValue, nLastWinner);
+        if (aResult.isSuccess ())
+          return aResult;
+      }
+    }
+
+    // All strict patterns with the same shape
+    for (int i = 0; i < m_aShapes.length; ++i)
+      if (i != nLastWinner && m_aShapes[i].isStrict () && m_aShapes[i].getShape () == nInputShape)
+      {
+        aResult = _parse (sValue, i);
+        if (aResult.isSuccess ())
+          return aResult;
+      }
+
+    // All non-strict patterns
+    for (int i = 0; i < m_aShapes.length; ++i)
+      if (i != nLastWinner && !m_aShapes[i].isStrict ())
+      {
+        aResult = _parse (sValue, i);
+        if (aResult.isSuccess ())
+          return aResult;
+      }
+
+    if (aResult == null)
+    {
+      // No pattern has a matching shape
+      return PDTParseResult.createFailure (PDTParseResult.EStatus.SYNTAX_ERROR, PDTParseResult.NO_ERROR_INDEX);
+    }
+    return aResult;
+  }
+
+  /**
+   * Parse the passed value with the first matching pattern.
+   * 
+   * @param sValue
+   *        The value to be parsed. May be <code>null</code>.
+   * @return <code>null</code> if the value could not be parsed by any pattern.
+   */
+  @Nullable
+  public DateTime getDateTimeFromString (@Nullable final String sValue)
+  {
+    return parse (sValue).getDateTime ();
+  }
+
+  @Nullable
+  public LocalDate getLocalDateFromString (@Nullable final String sValue)
+  {
+    final DateTime aDT = getDateTimeFromString (sValue);
+    return aDT == null ? null : aDT.toLocalDate ();
+  }
+
+  @Nullable
+  public LocalDateTime getLocalDateTimeFromString (@Nullable final String sValue)
+  {
+    final DateTime aDT = getDateTimeFromString (sValue);
+    return aDT == null ? null : aDT.toLocalDateTime ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("patterns", getAllPatterns ())
+                                       .append ("parseLocale", m_aParseLocale)
+                                       .append ("lastMatchingPattern", getLastMatchingPattern ())
+                                       .toString ();
+  }
+}
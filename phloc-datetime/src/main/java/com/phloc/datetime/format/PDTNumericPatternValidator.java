@@ -0,0 +1,360 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTimeConstants;
+
+import com.phloc.commons.string.ToStringGenerator;
+import com.phloc.datetime.PDTUtils;
+
+/**
+ * Validates strings against purely numeric Joda date time patterns (year with
+ * at least 3 digits, month, day, hour of day, minute, second and fraction of
+ * second fields plus literals) without creating any object. The accepted
+ * syntax and the range checks are identical to parsing with
+ * {@link org.joda.time.format.DateTimeFormat#forPattern(String)}. Patterns
+ * with other fields are not supported.
+ * 
+ * @author Philip Helger
+ */
+@Immutable
+final class PDTNumericPatternValidator
+{
+  private static final int LITERAL = -1;
+  private static final int FIELD_YEAR = 0;
+  private static final int FIELD_MONTH = 1;
+  private static final int FIELD_DAY = 2;
+  private static final int FIELD_HOUR = 3;
+  private static final int FIELD_MINUTE = 4;
+  private static final int FIELD_SECOND = 5;
+  private static final int FIELD_FRACTION = 6;
+  private static final int FIELD_COUNT = 7;
+
+  /** Joda default values for missing fields - year from DateTimeFormatter */
+  private static final int DEFAULT_YEAR = 2000;
+  /** Joda's maximum number of parsed digits for years */
+  private static final int MAX_YEAR_DIGITS = 9;
+
+  private static final PDTNumericPatternValidator NOT_SUPPORTED = new PDTNumericPatternValidator ("",
+                                                                                                  new int [0],
+                                                                                                  new int [0],
+                                                                                                  new char [0]);
+  private static final ConcurrentMap <String, PDTNumericPatternValidator> s_aCache = new ConcurrentHashMap <String, PDTNumericPatternValidator> ();
+
+  private final String m_sPattern;
+  // Per element: the field or LITERAL
+  private final int [] m_aFields;
+  // Per element: maximum number of digits for fields
+  private final int [] m_aMaxDigits;
+  // Per element: the literal character
+  private final char [] m_aLiterals;
+
+  private PDTNumericPatternValidator (@Nonnull final String sPattern,
+                                      @Nonnull final int [] aFields,
+                                      @Nonnull final int [] aMaxDigits,
+                                      @Nonnull final char [] aLiterals)
+  {
+    m_sPattern = sPattern;
+    m_aFields = aFields;
+    m_aMaxDigits = aMaxDigits;
+    m_aLiterals = aLiterals;
+  }
+
+  private static int _getField (final char c, final int nCount)
+  {
+    switch (c)
+    {
+      case 'y':
+        // Two digit years use pivot handling
+        return nCount == 2 ? LITERAL : FIELD_YEAR;
+      case 'M':
+        // Text months are locale dependent
+        return nCount <= 2 ? FIELD_MONTH : LITERAL;
+      case 'd':
+        return FIELD_DAY;
+      case 'H':
+        return FIELD_HOUR;
+      case 'm':
+        return FIELD_MINUTE;
+      case 's':
+        return FIELD_SECOND;
+      case 'S':
+        return FIELD_FRACTION;
+      default:
+        return LITERAL;
+    }
+  }
+
+  @Nullable
+  private static PDTNumericPatternValidator _create (@Nonnull final String sPattern)
+  {
+    if (sPattern.length () == 0)
+    {
+      // Invalid pattern - let Joda handle it
+      return null;
+    }
+
+    final List <int []> aElements = new ArrayList <int []> ();
+    final boolean [] aUsedFields = new boolean [FIELD_COUNT];
+    final int nLen = sPattern.length ();
+    int i = 0;
+    while (i < nLen)
+    {
+      final char c = sPattern.charAt (i);
+      if (c == '\'')
+      {
+        if (i + 1 < nLen && sPattern.charAt (i + 1) == '\'')
+        {
+          // Escaped single quote
+          aElements.add (new int [] { LITERAL, 0, '\'' });
+          i += 2;
+        }
+        else
+        {
+          // Quoted literal text
+          ++i;
+          while (true)
+          {
+            if (i >= nLen)
+            {
+              // Unterminated quote - let Joda handle it
+              return null;
+            }
+            final char cQuoted = sPattern.charAt (i);
+            if (cQuoted == '\'')
+            {
+              if (i + 1 < nLen && sPattern.charAt (i + 1) == '\'')
+              {
+                aElements.add (new int [] { LITERAL, 0, '\'' });
+                i += 2;
+                continue;
+              }
+              break;
+            }
+            aElements.add (new int [] { LITERAL, 0, cQuoted });
+            ++i;
+          }
+          // Skip closing quote
+          ++i;
+        }
+      }
+      else
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))
+        {
+          int nCount = 1;
+          while (i + nCount < nLen && sPattern.charAt (i + nCount) == c)
+            ++nCount;
+          final int nField = _getField (c, nCount);
+          if (nField == LITERAL || aUsedFields[nField])
+          {
+            // Unsupported or duplicate field
+            return null;
+          }
+          aUsedFields[nField] = true;
+          final int nMaxDigits;
+          if (nField == FIELD_FRACTION)
+            nMaxDigits = nCount;
+          else
+            if (nField == FIELD_YEAR)
+            {
+              // Joda uses the token length if the next token is numeric
+              final int nNext = i + nCount;
+              if (nNext < nLen && PDTPatternShape.isNumericField (sPattern.charAt (nNext), 1))
+                nMaxDigits = nCount;
+              else
+                nMaxDigits = MAX_YEAR_DIGITS;
+            }
+            else
+              nMaxDigits = Math.max (nCount, 2);
+          aElements.add (new int [] { nField, nMaxDigits, 0 });
+          i += nCount;
+        }
+        else
+        {
+          aElements.add (new int [] { LITERAL, 0, c });
+          ++i;
+        }
+    }
+
+    final int nElements = aElements.size ();
+    final int [] aFields = new int [nElements];
+    final int [] aMaxDigits = new int [nElements];
+    final char [] aLiterals = new char [nElements];
+    for (int j = 0; j < nElements; ++j)
+    {
+      final int [] aElement = aElements.get (j);
+      aFields[j] = aElement[0];
+      aMaxDigits[j] = aElement[1];
+      aLiterals[j] = (char) aElement[2];
+    }
+    return new PDTNumericPatternValidator (sPattern, aFields, aMaxDigits, aLiterals);
+  }
+
+  /**
+   * Get the validator for the passed pattern. Validators are cached.
+   * 
+   * @param sPattern
+   *        The pattern to use. May not be <code>null</code>.
+   * @return <code>null</code> if the pattern is not purely numeric.
+   */
+  @Nullable
+  static PDTNumericPatternValidator getOrNull (@Nonnull final String sPattern)
+  {
+    PDTNumericPatternValidator ret = s_aCache.get (sPattern);
+    if (ret == null)
+    {
+      ret = _create (sPattern);
+      if (ret == null)
+        ret = NOT_SUPPORTED;
+      s_aCache.putIfAbsent (sPattern, ret);
+    }
+    return ret == NOT_SUPPORTED ? null : ret;
+  }
+
+  private static boolean _equalsIgnoreCase (final char c1, final char c2)
+  {
+    // Same as Joda's character literal parsing
+    if (c1 == c2)
+      return true;
+    final char u1 = Character.toUpperCase (c1);
+    final char u2 = Character.toUpperCase (c2);
+    return u1 == u2 || Character.toLowerCase (u1) == Character.toLowerCase (u2);
+  }
+
+  /**
+   * Check if the passed value matches this pattern and if all field values are
+   * in range.
+   * 
+   * @param aValue
+   *        The value to check. May not be <code>null</code>.
+   * @param aChronology
+   *        The chronology to check the date against. May not be
+   *        <code>null</code>.
+   * @return <code>true</code> if parsing the value with the same pattern would
+   *         succeed.
+   */
+  boolean isValid (@Nonnull final CharSequence aValue, @Nonnull final Chronology aChronology)
+  {
+    int nYear = DEFAULT_YEAR;
+    int nMonth = DateTimeConstants.JANUARY;
+    int nDay = 1;
+    int nHour = 0;
+    int nMinute = 0;
+    int nSecond = 0;
+
+    final int nLen = aValue.length ();
+    int nPos = 0;
+    for (int i = 0; i < m_aFields.length; ++i)
+    {
+      final int nField = m_aFields[i];
+      if (nField == LITERAL)
+      {
+        if (nPos >= nLen || !_equalsIgnoreCase (aValue.charAt (nPos), m_aLiterals[i]))
+          return false;
+        ++nPos;
+        continue;
+      }
+
+      // Optional sign for years only
+      boolean bNegative = false;
+      int nLimit = Math.min (m_aMaxDigits[i], nLen - nPos);
+      if (nField == FIELD_YEAR && nPos < nLen)
+      {
+        final char cSign = aValue.charAt (nPos);
+        if ((cSign == '-' || cSign == '+') && nLimit > 1)
+        {
+          final char cNext = aValue.charAt (nPos + 1);
+          if (cNext >= '0' && cNext <= '9')
+          {
+            bNegative = cSign == '-';
+            ++nPos;
+            nLimit = Math.min (m_aMaxDigits[i], nLen - nPos);
+          }
+        }
+      }
+
+      long nValue = 0;
+      int nDigits = 0;
+      while (nDigits < nLimit)
+      {
+        final char c = aValue.charAt (nPos + nDigits);
+        if (c < '0' || c > '9')
+          break;
+        nValue = nValue * 10 + (c - '0');
+        ++nDigits;
+      }
+      if (nDigits == 0)
+        return false;
+      nPos += nDigits;
+
+      switch (nField)
+      {
+        case FIELD_YEAR:
+          if (bNegative)
+            nValue = -nValue;
+          if (nValue < aChronology.year ().getMinimumValue () || nValue > aChronology.year ().getMaximumValue ())
+            return false;
+          nYear = (int) nValue;
+          break;
+        case FIELD_MONTH:
+          nMonth = (int) nValue;
+          break;
+        case FIELD_DAY:
+          nDay = (int) nValue;
+          break;
+        case FIELD_HOUR:
+          nHour = (int) nValue;
+          break;
+        case FIELD_MINUTE:
+          nMinute = (int) nValue;
+          break;
+        case FIELD_SECOND:
+          nSecond = (int) nValue;
+          break;
+        default:
+          // Any fraction is valid
+          break;
+      }
+    }
+
+    // Trailing text?
+    if (nPos != nLen)
+      return false;
+
+    return nHour < DateTimeConstants.HOURS_PER_DAY &&
+           nMinute < DateTimeConstants.MINUTES_PER_HOUR &&
+           nSecond < DateTimeConstants.SECONDS_PER_MINUTE &&
+           PDTUtils.isValidDate (nYear, nMonth, nDay, aChronology);
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("pattern", m_sPattern).toString ();
+  }
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.joda.time.DateTime;
+
+import com.phloc.commons.equals.EqualsUtils;
+import com.phloc.commons.hash.HashCodeGenerator;
+import com.phloc.commons.string.ToStringGenerator;
+
+/**
+ * The result of a non-throwing parse operation as performed by
+ * {@link PDTFromString#parseDateTime(String, org.joda.time.format.DateTimeFormatter)}
+ * . It contains the status, the parsed value in case of success and the index
+ * of the erroneous character otherwise.
+ * 
+ * @author Philip Helger
+ */
+@Immutable
+public final class PDTParseResult
+{
+  public static enum EStatus
+  {
+    /** Successfully parsed */
+    SUCCESS (true),
+    /** Parsed, but corrected to the start of the day because of a DST gap */
+    CORRECTED_DST_GAP (true),
+    /** The input was <code>null</code> or did not contain any text */
+    EMPTY (false),
+    /** The input does not match the formatter */
+    SYNTAX_ERROR (false),
+    /** The input contains unparsed text after the value */
+    TRAILING_TEXT (false),
+    /** The input is syntactically fine, but a field value is invalid */
+    INVALID_FIELD_VALUE (false);
+
+    private final boolean m_bSuccess;
+
+    private EStatus (final boolean bSuccess)
+    {
+      m_bSuccess = bSuccess;
+    }
+
+    /**
+     * @return <code>true</code> if a value is present for this status.
+     */
+    public boolean isSuccess ()
+    {
+      return m_bSuccess;
+    }
+  }
+
+  /** The error index if no error index is available */
+  public static final int NO_ERROR_INDEX = -1;
+
+  private static final PDTParseResult EMPTY = new PDTParseResult (EStatus.EMPTY, null, NO_ERROR_INDEX);
+
+  private final EStatus m_eStatus;
+  private final DateTime m_aDateTime;
+  private final int m_nErrorIndex;
+
+  private PDTParseResult (@Nonnull final EStatus eStatus,
+                          @Nullable final DateTime aDateTime,
+                          final int nErrorIndex)
+  {
+    m_eStatus = eStatus;
+    m_aDateTime = aDateTime;
+    m_nErrorIndex = nErrorIndex;
+  }
+
+  /**
+   * @return The parse status. Never <code>null</code>.
+   */
+  @Nonnull
+  public EStatus getStatus ()
+  {
+    return m_eStatus;
+  }
+
+  /**
+   * @return <code>true</code> if a value was parsed (optionally corrected),
+   *         <code>false</code> otherwise.
+   */
+  public boolean isSuccess ()
+  {
+    return m_eStatus.isSuccess ();
+  }
+
+  /**
+   * @return <code>true</code> if parsing failed, <code>false</code> otherwise.
+   */
+  public boolean isFailure ()
+  {
+    return !m_eStatus.isSuccess ();
+  }
+
+  /**
+   * @return The parsed value. Only non-<code>null</code> if
+   *         {@link #isSuccess()} is <code>true</code>.
+   */
+  @Nullable
+  public DateTime getDateTime ()
+  {
+    return m_aDateTime;
+  }
+
+  /**
+   * @return The index within the input where the error was detected or
+   *         {@link #NO_ERROR_INDEX} if not applicable.
+   */
+  public int getErrorIndex ()
+  {
+    return m_nErrorIndex;
+  }
+
+  @Override
+  public boolean equals (final Object o)
+  {
+    if (o == this)
+      return true;
+    if (!(o instanceof PDTParseResult))
+      return false;
+    final PDTParseResult rhs = (PDTParseResult) o;
+    return m_eStatus.equals (rhs.m_eStatus) &&
+           EqualsUtils.equals (m_aDateTime, rhs.m_aDateTime) &&
+           m_nErrorIndex == rhs.m_nErrorIndex;
+  }
+
+  @Override
+  public int hashCode ()
+  {
+    return new HashCodeGenerator (this).append (m_eStatus)
+                                       .append (m_aDateTime)
+                                       .append (m_nErrorIndex)
+                                       .getHashCode ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("status", m_eStatus)
+                                       .appendIfNotNull ("dateTime", m_aDateTime)
+                                       .append ("errorIndex", m_nErrorIndex)
+                                       .toString ();
+  }
+
+  @Nonnull
+  public static PDTParseResult createSuccess (@Nonnull final DateTime aDateTime)
+  {
+    if (aDateTime == null)
+      throw new NullPointerException ("dateTime");
+    return new PDTParseResult (EStatus.SUCCESS, aDateTime, NO_ERROR_INDEX);
+  }
+
+  @Nonnull
+  public static PDTParseResult createCorrectedDSTGap (@Nonnull final DateTime aDateTime)
+  {
+    if (aDateTime == null)
+      throw new NullPointerException ("dateTime");
+    return new PDTParseResult (EStatus.CORRECTED_DST_GAP, aDateTime, NO_ERROR_INDEX);
+  }
+
+  @Nonnull
+  public static PDTParseResult createEmpty ()
+  {
+    return EMPTY;
+  }
+
+  /**
+   * Create a failure result.
+   * 
+   * @param eStatus
+   *        The failure status. May not be <code>null</code> and may not be a
+   *        success status.
+   * @param nErrorIndex
+   *        The index within the input where the error was detected or
+   *        {@link #NO_ERROR_INDEX} if no specific position is known.
+   * @return Never <code>null</code>.
+   */
+  @Nonnull
+  public static PDTParseResult createFailure (@Nonnull final EStatus eStatus, final int nErrorIndex)
+  {
+    if (eStatus == null)
+      throw new NullPointerException ("status");
+    if (eStatus.isSuccess ())
+      throw new IllegalArgumentException ("Status is not a failure: " + eStatus);
+    return new PDTParseResult (eStatus, null, nErrorIndex);
+  }
+}
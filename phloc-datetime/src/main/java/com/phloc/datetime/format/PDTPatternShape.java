@@ -0,0 +1,256 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.phloc.commons.string.ToStringGenerator;
+
+/**
+ * The shape of a Joda date time pattern: the sequence of digit runs, alpha runs
+ * and literal characters it produces and accepts. Adjacent characters of the
+ * same class are collapsed, because Joda accepts numeric fields with fewer
+ * digits than specified (e.g. "d" and "dd" both accept "6" and "06"). The shape
+ * is represented as a hash value that can be compared with
+ * {@link #getInputShape(CharSequence)} of an input string.<br>
+ * A pattern is "strict" if it contains only numeric fields and literals. For
+ * non-strict patterns (text fields, time zones etc.) the shape depends on the
+ * locale and the input and is therefore not reliable.
+ * 
+ * @author Philip Helger
+ */
+@Immutable
+final class PDTPatternShape
+{
+  /** Class code of a run of digits */
+  static final int CLASS_DIGIT = -1;
+  /** Class code of a run of letters */
+  static final int CLASS_ALPHA = -2;
+
+  private static final long HASH_INITIAL = 17;
+  private static final int HASH_MULTIPLIER = 31;
+
+  private final String m_sPattern;
+  private final long m_nShape;
+  private final boolean m_bStrict;
+
+  /**
+   * Helper class to incrementally build the shape hash
+   */
+  private static final class Builder
+  {
+    private long m_nHash = HASH_INITIAL;
+    private int m_nLastClass = 0;
+
+    void add (final int nClass)
+    {
+      if (nClass < 0 && nClass == m_nLastClass)
+        return;
+      m_nHash = m_nHash * HASH_MULTIPLIER + nClass;
+      m_nLastClass = nClass;
+    }
+
+    void addLiteral (final char c)
+    {
+      add (getCharClass (c));
+    }
+
+    long getHash ()
+    {
+      return m_nHash;
+    }
+  }
+
+  PDTPatternShape (@Nonnull final String sPattern)
+  {
+    if (sPattern == null)
+      throw new NullPointerException ("pattern");
+
+    final Builder aBuilder = new Builder ();
+    boolean bStrict = true;
+    final int nLen = sPattern.length ();
+    int i = 0;
+    while (i < nLen)
+    {
+      final char c = sPattern.charAt (i);
+      if (c == '\'')
+      {
+        if (i + 1 < nLen && sPattern.charAt (i + 1) == '\'')
+        {
+          // Escaped single quote
+          aBuilder.addLiteral ('\'');
+          i += 2;
+        }
+        else
+        {
+          // Quoted literal text
+          ++i;
+          while (i < nLen)
+          {
+            final char cQuoted = sPattern.charAt (i);
+            if (cQuoted == '\'')
+            {
+              if (i + 1 < nLen && sPattern.charAt (i + 1) == '\'')
+              {
+                aBuilder.addLiteral ('\'');
+                i += 2;
+                continue;
+              }
+              break;
+            }
+            aBuilder.addLiteral (cQuoted);
+            ++i;
+          }
+          // Skip closing quote
+          ++i;
+        }
+      }
+      else
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))
+        {
+          int nCount = 1;
+          while (i + nCount < nLen && sPattern.charAt (i + nCount) == c)
+            ++nCount;
+          if (isNumericField (c, nCount))
+            aBuilder.add (CLASS_DIGIT);
+          else
+          {
+            // Text, zone or unknown field
+            aBuilder.add (CLASS_ALPHA);
+            bStrict = false;
+          }
+          i += nCount;
+        }
+        else
+        {
+          aBuilder.addLiteral (c);
+          ++i;
+        }
+    }
+    m_sPattern = sPattern;
+    m_nShape = aBuilder.getHash ();
+    m_bStrict = bStrict;
+  }
+
+  /**
+   * @param cLetter
+   *        Joda pattern letter
+   * @param nCount
+   *        Number of consecutive repetitions of the letter
+   * @return <code>true</code> if the field is printed and parsed as a number
+   */
+  static boolean isNumericField (final char cLetter, final int nCount)
+  {
+    switch (cLetter)
+    {
+      case 'C':
+      case 'Y':
+      case 'x':
+      case 'w':
+      case 'e':
+      case 'y':
+      case 'D':
+      case 'd':
+      case 'K':
+      case 'h':
+      case 'H':
+      case 'k':
+      case 'm':
+      case 's':
+      case 'S':
+        return true;
+      case 'M':
+        return nCount <= 2;
+      default:
+        return false;
+    }
+  }
+
+  static int getCharClass (final char c)
+  {
+    if (c >= '0' && c <= '9')
+      return CLASS_DIGIT;
+    if (Character.isLetter (c))
+      return CLASS_ALPHA;
+    return c;
+  }
+
+  /**
+   * @return The underlying pattern. Never <code>null</code>.
+   */
+  @Nonnull
+  String getPattern ()
+  {
+    return m_sPattern;
+  }
+
+  /**
+   * @return The shape hash of the pattern.
+   */
+  long getShape ()
+  {
+    return m_nShape;
+  }
+
+  /**
+   * @return <code>true</code> if the pattern contains only numeric fields and
+   *         literals, so that the shape is reliable.
+   */
+  boolean isStrict ()
+  {
+    return m_bStrict;
+  }
+
+  /**
+   * Get the shape hash of an input string. No object is created.
+   * 
+   * @param aInput
+   *        The input to be analyzed. May be <code>null</code>.
+   * @return The shape hash comparable with {@link #getShape()}.
+   */
+  static long getInputShape (@Nullable final CharSequence aInput)
+  {
+    long nHash = HASH_INITIAL;
+    if (aInput != null)
+    {
+      int nLastClass = 0;
+      final int nLen = aInput.length ();
+      for (int i = 0; i < nLen; ++i)
+      {
+        final int nClass = getCharClass (aInput.charAt (i));
+        if (nClass >= 0 || nClass != nLastClass)
+        {
+          nHash = nHash * HASH_MULTIPLIER + nClass;
+          nLastClass = nClass;
+        }
+      }
+    }
+    return nHash;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("pattern", m_sPattern)
+                                       .append ("shape", m_nShape)
+                                       .append ("strict", m_bStrict)
+                                       .toString ();
+  }
+}
@@ -0,0 +1,372 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import java.util.Locale;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTimeUtils;
+import org.joda.time.DateTimeZone;
+import org.joda.time.IllegalInstantException;
+import org.joda.time.LocalDate;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.DateTimeParser;
+import org.joda.time.format.DateTimeParserBucket;
+
+import com.phloc.commons.string.ToStringGenerator;
+import com.phloc.datetime.config.PDTConfig;
+import com.phloc.datetime.io.PDTIOFixedWidthCodec;
+import com.phloc.datetime.io.PDTIOHelper;
+
+/**
+ * Parses date and time values directly from slices of a {@link CharSequence}
+ * (e.g. a {@link java.nio.CharBuffer} window of a file that is streamed in),
+ * without creating a {@link String} per value, and pushes the results as epoch
+ * milliseconds into an {@link IEpochMillisSink}.<br>
+ * Values are parsed either by a {@link DateTimeFormatter} or - for the
+ * patterns of {@link PDTIOHelper} - by {@link PDTIOFixedWidthCodec}. Local
+ * values are interpreted in the time zone of the formatter resp. the default
+ * time zone; a local time within a DST gap is corrected to the start of the day
+ * like in {@link PDTFromString}.<br>
+ * Instances keep a parse state and must not be shared between threads. Use one
+ * instance per stream.
+ * 
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class PDTStreamingParser
+{
+  /**
+   * The fixed width patterns of {@link PDTIOHelper}
+   */
+  private static enum EIOPattern
+  {
+    DATE,
+    TIME,
+    DATETIME;
+  }
+
+  /**
+   * A reusable view on a part of a {@link CharSequence}.
+   */
+  private static final class Slice implements CharSequence
+  {
+    private CharSequence m_aSource;
+    private int m_nOfs;
+    private int m_nLen;
+
+    void set (@Nonnull final CharSequence aSource, final int nOfs, final int nLen)
+    {
+      m_aSource = aSource;
+      m_nOfs = nOfs;
+      m_nLen = nLen;
+    }
+
+    void clear ()
+    {
+      m_aSource = null;
+    }
+
+    public int length ()
+    {
+      return m_nLen;
+    }
+
+    public char charAt (final int nIndex)
+    {
+      if (nIndex < 0 || nIndex >= m_nLen)
+        throw new IndexOutOfBoundsException ("Index " + nIndex + " is out of range [0," + m_nLen + ")");
+      return m_aSource.charAt (m_nOfs + nIndex);
+    }
+
+    public CharSequence subSequence (final int nStart, final int nEnd)
+    {
+      return m_aSource.subSequence (m_nOfs + nStart, m_nOfs + nEnd);
+    }
+
+    @Override
+    public String toString ()
+    {
+      return subSequence (0, m_nLen).toString ();
+    }
+  }
+
+  private final DateTimeFormatter m_aDF;
+  private final DateTimeParser m_aParser;
+  private final PDTPatternShape m_aShape;
+  private final EIOPattern m_eIOPattern;
+  private final Chronology m_aChronology;
+  private final Chronology m_aChronologyUTC;
+  private final Slice m_aSlice = new Slice ();
+  private final DateTimeParserBucket m_aBucket;
+  private DateTimeParserBucket m_aLocalBucket;
+  private long m_nRecordIndex = 0;
+
+  private PDTStreamingParser (@Nullable final DateTimeFormatter aDF,
+                              @Nullable final PDTPatternShape aShape,
+                              @Nullable final EIOPattern eIOPattern)
+  {
+    m_aDF = aDF;
+    m_aShape = aShape;
+    m_eIOPattern = eIOPattern;
+    if (aDF != null)
+    {
+      m_aParser = aDF.getParser ();
+      if (m_aParser == null)
+        throw new UnsupportedOperationException ("Parsing not supported by " + aDF);
+      // Same chronology selection as in DateTimeFormatter
+      Chronology aChrono = DateTimeUtils.getChronology (aDF.getChronology ());
+      if (aDF.getZone () != null)
+        aChrono = aChrono.withZone (aDF.getZone ());
+      m_aChronology = aChrono;
+      m_aBucket = _createBucket (aChrono);
+    }
+    else
+    {
+      m_aParser = null;
+      m_aChronology = PDTConfig.getDefaultChronology ();
+      m_aBucket = null;
+    }
+    m_aChronologyUTC = m_aChronology.withUTC ();
+  }
+
+  @Nonnull
+  private DateTimeParserBucket _createBucket (@Nonnull final Chronology aChronology)
+  {
+    return new DateTimeParserBucket (0L,
+                                     aChronology,
+                                     m_aDF.getLocale (),
+                                     m_aDF.getPivotYear (),
+                                     m_aDF.getDefaultYear ());
+  }
+
+  /**
+   * @return The number of values parsed so far, which is also the record index
+   *         of the next value.
+   */
+  @Nonnegative
+  public long getRecordCount ()
+  {
+    return m_nRecordIndex;
+  }
+
+  /**
+   * Reset the record counter, so that the next value has the record index 0.
+   */
+  public void resetRecordCount ()
+  {
+    m_nRecordIndex = 0;
+  }
+
+  /**
+   * Convert local millis to UTC millis by offset lookup in the zone of the used
+   * chronology. Gaps are corrected to the start of the day in the default time
+   * zone.
+   */
+  private long _getUTCMillis (final long nLocalMillis)
+  {
+    final DateTimeZone aZone = m_aChronology.getZone ();
+    final int nOffset = aZone.getOffsetFromLocal (nLocalMillis);
+    final long nUTCMillis = nLocalMillis - nOffset;
+    if (aZone.getOffset (nUTCMillis) == nOffset)
+      return nUTCMillis;
+    return _getStartOfDayMillis (nLocalMillis);
+  }
+
+  private long _getStartOfDayMillis (final long nLocalMillis)
+  {
+    final LocalDate aLD = new LocalDate (new LocalDate (nLocalMillis, m_aChronologyUTC),
+                                         PDTConfig.getDefaultChronology ());
+    return aLD.toDateTimeAtStartOfDay (PDTConfig.getDefaultDateTimeZone ()).getMillis ();
+  }
+
+  /**
+   * @return The parsed local millis or {@link PDTASCIICodec#ILLEGAL_MILLIS} if
+   *         parsing failed.
+   */
+  private long _parseIOPatternLocal (@Nonnull final Slice aSlice)
+  {
+    // Exact lengths only - the codec ignores trailing characters
+    switch (m_eIOPattern)
+    {
+      case DATE:
+        if (aSlice.length () != PDTIOFixedWidthCodec.LENGTH_DATE)
+          return PDTASCIICodec.ILLEGAL_MILLIS;
+        return PDTIOFixedWidthCodec.parseDateLocalMillis (aSlice, 0, m_aChronologyUTC);
+      case TIME:
+        if (aSlice.length () != PDTIOFixedWidthCodec.LENGTH_TIME)
+          return PDTASCIICodec.ILLEGAL_MILLIS;
+        return PDTIOFixedWidthCodec.parseTimeLocalMillis (aSlice, 0, m_aChronologyUTC);
+      default:
+        if (aSlice.length () != PDTIOFixedWidthCodec.LENGTH_DATETIME)
+          return PDTASCIICodec.ILLEGAL_MILLIS;
+        return PDTIOFixedWidthCodec.parseDateTimeLocalMillis (aSlice, 0, m_aChronologyUTC);
+    }
+  }
+
+  /**
+   * @return The parsed epoch millis or {@link PDTASCIICodec#ILLEGAL_MILLIS} if
+   *         parsing failed.
+   */
+  private long _parseFormatter (@Nonnull final Slice aSlice)
+  {
+    // Quick check to avoid exceptions for malformed values
+    if (m_aShape != null && m_aShape.isStrict () && m_aShape.getShape () != PDTPatternShape.getInputShape (aSlice))
+      return PDTASCIICodec.ILLEGAL_MILLIS;
+
+    try
+    {
+      return m_aBucket.parseMillis (m_aParser, aSlice);
+    }
+    catch (final IllegalInstantException ex)
+    {
+      // DST gap - parse again without a time zone to get the local value
+      if (m_aLocalBucket == null)
+        m_aLocalBucket = _createBucket (m_aChronologyUTC);
+      return _getStartOfDayMillis (m_aLocalBucket.parseMillis (m_aParser, aSlice));
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      return PDTASCIICodec.ILLEGAL_MILLIS;
+    }
+  }
+
+  /**
+   * Parse a single value and push the result to the passed sink. The record
+   * index is increased by one.
+   * 
+   * @param aBuffer
+   *        The buffer containing the value. May not be <code>null</code>. For a
+   *        {@link java.nio.CharBuffer} the offset is relative to its current
+   *        position.
+   * @param nOfs
+   *        The offset of the value within the buffer.
+   * @param nLen
+   *        The length of the value.
+   * @param aSink
+   *        The sink to push the result to. May not be <code>null</code>.
+   * @return <code>true</code> if the value was parsed successfully,
+   *         <code>false</code> if it is invalid.
+   */
+  public boolean parse (@Nonnull final CharSequence aBuffer,
+                        @Nonnegative final int nOfs,
+                        @Nonnegative final int nLen,
+                        @Nonnull final IEpochMillisSink aSink)
+  {
+    if (aBuffer == null)
+      throw new NullPointerException ("buffer");
+    if (aSink == null)
+      throw new NullPointerException ("sink");
+    if (nOfs < 0 || nLen < 0 || nOfs + nLen > aBuffer.length ())
+      throw new IllegalArgumentException ("Invalid slice " +
+                                          nOfs +
+                                          "/" +
+                                          nLen +
+                                          " for buffer of length " +
+                                          aBuffer.length ());
+
+    final long nRecordIndex = m_nRecordIndex++;
+    long nMillis = PDTASCIICodec.ILLEGAL_MILLIS;
+    if (nLen > 0)
+    {
+      m_aSlice.set (aBuffer, nOfs, nLen);
+      try
+      {
+        if (m_eIOPattern != null)
+        {
+          final long nLocalMillis = _parseIOPatternLocal (m_aSlice);
+          if (nLocalMillis != PDTASCIICodec.ILLEGAL_MILLIS)
+            nMillis = _getUTCMillis (nLocalMillis);
+        }
+        else
+          nMillis = _parseFormatter (m_aSlice);
+      }
+      finally
+      {
+        // Don't keep a reference to the buffer
+        m_aSlice.clear ();
+      }
+    }
+
+    if (nMillis == PDTASCIICodec.ILLEGAL_MILLIS)
+    {
+      aSink.onInvalid (nRecordIndex, aBuffer, nOfs, nLen);
+      return false;
+    }
+    aSink.onValue (nRecordIndex, nMillis);
+    return true;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).appendIfNotNull ("formatter", m_aDF)
+                                       .appendIfNotNull ("shape", m_aShape)
+                                       .appendIfNotNull ("ioPattern", m_eIOPattern)
+                                       .append ("recordIndex", m_nRecordIndex)
+                                       .toString ();
+  }
+
+  /**
+   * Create a streaming parser using the passed formatter.
+   * 
+   * @param aDF
+   *        The formatter to use. May not be <code>null</code>.
+   * @return The new parser. Never <code>null</code>.
+   */
+  @Nonnull
+  public static PDTStreamingParser createForFormatter (@Nonnull final DateTimeFormatter aDF)
+  {
+    if (aDF == null)
+      throw new NullPointerException ("dateTimeFormatter");
+    return new PDTStreamingParser (aDF, null, null);
+  }
+
+  /**
+   * Create a streaming parser for the passed pattern. For the patterns of
+   * {@link PDTIOHelper} the arithmetic {@link PDTIOFixedWidthCodec} is used,
+   * for all other patterns the cached formatter of {@link PDTFormatter}.
+   * 
+   * @param sPattern
+   *        The pattern to use. May not be <code>null</code>.
+   * @param aParseLocale
+   *        The locale to use. May be <code>null</code>.
+   * @return The new parser. Never <code>null</code>.
+   */
+  @Nonnull
+  public static PDTStreamingParser createForPattern (@Nonnull final String sPattern,
+                                                     @Nullable final Locale aParseLocale)
+  {
+    if (sPattern == null)
+      throw new NullPointerException ("pattern");
+    if (sPattern.equals (PDTIOHelper.PATTERN_DATE))
+      return new PDTStreamingParser (null, null, EIOPattern.DATE);
+    if (sPattern.equals (PDTIOHelper.PATTERN_TIME))
+      return new PDTStreamingParser (null, null, EIOPattern.TIME);
+    if (sPattern.equals (PDTIOHelper.PATTERN_DATETIME))
+      return new PDTStreamingParser (null, null, EIOPattern.DATETIME);
+    return new PDTStreamingParser (PDTFormatter.getForPattern (sPattern, aParseLocale),
+                                   new PDTPatternShape (sPattern),
+                                   null);
+  }
+}
@@ -17,6 +17,7 @@
  */
 package com.phloc.datetime.format;
 
+import java.io.IOException;
 import java.util.Locale;
 
 import javax.annotation.Nonnull;
@@ -33,7 +34,11 @@ import org.joda.time.ReadablePartial;
 import com.phloc.commons.annotations.PresentForCodeCoverage;
 
 /**
- * Standard API to convert a date, time or date time to a {@link String}.
+ * Standard API to convert a date, time or date time to a {@link String}.<br>
+ * The <code>printTo</code> methods print directly into a {@link StringBuilder}
+ * or another {@link Appendable} without creating an intermediate
+ * {@link String}. If the value to be printed is <code>null</code>, nothing is
+ * appended.
  * 
  * @author Philip Helger
  */
@@ -98,4 +103,146 @@ public final class PDTToString
   {
     return aInstant == null ? null : PDTFormatter.getForPattern (sFormatPattern, aDisplayLocale).print (aInstant);
   }
+
+  @Nonnull
+  public static StringBuilder printTo (@Nonnull final StringBuilder aSB,
+                                       @Nullable final LocalDate aDate,
+                                       @Nonnull final Locale aDisplayLocale)
+  {
+    if (aDate != null)
+      PDTFormatter.getDefaultFormatterDate (aDisplayLocale).printTo (aSB, aDate);
+    return aSB;
+  }
+
+  public static void printTo (@Nonnull final Appendable aAppendable,
+                              @Nullable final LocalDate aDate,
+                              @Nonnull final Locale aDisplayLocale) throws IOException
+  {
+    if (aDate != null)
+      PDTFormatter.getDefaultFormatterDate (aDisplayLocale).printTo (aAppendable, aDate);
+  }
+
+  @Nonnull
+  public static StringBuilder printTo (@Nonnull final StringBuilder aSB,
+                                       @Nullable final LocalTime aTime,
+                                       @Nonnull final Locale aDisplayLocale)
+  {
+    if (aTime != null)
+      PDTFormatter.getDefaultFormatterTime (aDisplayLocale).printTo (aSB, aTime);
+    return aSB;
+  }
+
+  public static void printTo (@Nonnull final Appendable aAppendable,
+                              @Nullable final LocalTime aTime,
+                              @Nonnull final Locale aDisplayLocale) throws IOException
+  {
+    if (aTime != null)
+      PDTFormatter.getDefaultFormatterTime (aDisplayLocale).printTo (aAppendable, aTime);
+  }
+
+  @Nonnull
+  public static StringBuilder printTo (@Nonnull final StringBuilder aSB,
+                                       @Nullable final LocalDateTime aDateTime,
+                                       @Nonnull final Locale aDisplayLocale)
+  {
+    if (aDateTime != null)
+      PDTFormatter.getDefaultFormatterDateTime (aDisplayLocale).printTo (aSB, aDateTime);
+    return aSB;
+  }
+
+  public static void printTo (@Nonnull final Appendable aAppendable,
+                              @Nullable final LocalDateTime aDateTime,
+                              @Nonnull final Locale aDisplayLocale) throws IOException
+  {
+    if (aDateTime != null)
+      PDTFormatter.getDefaultFormatterDateTime (aDisplayLocale).printTo (aAppendable, aDateTime);
+  }
+
+  @Nonnull
+  public static StringBuilder printTo (@Nonnull final StringBuilder aSB,
+                                       @Nullable final DateTime aDateTime,
+                                       @Nonnull final Locale aDisplayLocale)
+  {
+    if (aDateTime != null)
+      PDTFormatter.getDefaultFormatterDateTime (aDisplayLocale).printTo (aSB, aDateTime);
+    return aSB;
+  }
+
+  public static void printTo (@Nonnull final Appendable aAppendable,
+                              @Nullable final DateTime aDateTime,
+                              @Nonnull final Locale aDisplayLocale) throws IOException
+  {
+    if (aDateTime != null)
+      PDTFormatter.getDefaultFormatterDateTime (aDisplayLocale).printTo (aAppendable, aDateTime);
+  }
+
+  @Nonnull
+  public static StringBuilder printTo (@Nonnull final StringBuilder aSB,
+                                       @Nonnull final String sFormatPattern,
+                                       @Nullable final ReadablePartial aPartial)
+  {
+    return printTo (aSB, sFormatPattern, aPartial, (Locale) null);
+  }
+
+  @Nonnull
+  public static StringBuilder printTo (@Nonnull final StringBuilder aSB,
+                                       @Nonnull final String sFormatPattern,
+                                       @Nullable final ReadablePartial aPartial,
+                                       @Nullable final Locale aDisplayLocale)
+  {
+    if (aPartial != null)
+      PDTFormatter.getForPattern (sFormatPattern, aDisplayLocale).printTo (aSB, aPartial);
+    return aSB;
+  }
+
+  public static void printTo (@Nonnull final Appendable aAppendable,
+                              @Nonnull final String sFormatPattern,
+                              @Nullable final ReadablePartial aPartial) throws IOException
+  {
+    printTo (aAppendable, sFormatPattern, aPartial, (Locale) null);
+  }
+
+  public static void printTo (@Nonnull final Appendable aAppendable,
+                              @Nonnull final String sFormatPattern,
+                              @Nullable final ReadablePartial aPartial,
+                              @Nullable final Locale aDisplayLocale) throws IOException
+  {
+    if (aPartial != null)
+      PDTFormatter.getForPattern (sFormatPattern, aDisplayLocale).printTo (aAppendable, aPartial);
+  }
+
+  @Nonnull
+  public static StringBuilder printTo (@Nonnull final StringBuilder aSB,
+                                       @Nonnull final String sFormatPattern,
+                                       @Nullable final ReadableInstant aInstant)
+  {
+    return printTo (aSB, sFormatPattern, aInstant, (Locale) null);
+  }
+
+  @Nonnull
+  public static StringBuilder printTo (@Nonnull final StringBuilder aSB,
+                                       @Nonnull final String sFormatPattern,
+                                       @Nullable final ReadableInstant aInstant,
+                                       @Nullable final Locale aDisplayLocale)
+  {
+    if (aInstant != null)
+      PDTFormatter.getForPattern (sFormatPattern, aDisplayLocale).printTo (aSB, aInstant);
+    return aSB;
+  }
+
+  public static void printTo (@Nonnull final Appendable aAppendable,
+                              @Nonnull final String sFormatPattern,
+                              @Nullable final ReadableInstant aInstant) throws IOException
+  {
+    printTo (aAppendable, sFormatPattern, aInstant, (Locale) null);
+  }
+
+  public static void printTo (@Nonnull final Appendable aAppendable,
+                              @Nonnull final String sFormatPattern,
+                              @Nullable final ReadableInstant aInstant,
+                              @Nullable final Locale aDisplayLocale) throws IOException
+  {
+    if (aInstant != null)
+      PDTFormatter.getForPattern (sFormatPattern, aDisplayLocale).printTo (aAppendable, aInstant);
+  }
 }
@@ -18,9 +18,11 @@
 package com.phloc.datetime.format;
 
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.Nonnull;
-import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
 
 import org.joda.time.format.PeriodFormatter;
 import org.joda.time.format.PeriodFormatterBuilder;
@@ -38,11 +40,12 @@ import com.phloc.commons.text.resolve.DefaultTextResolver;
  * Period formatting is performed by the {@link PeriodFormatter} class.
  * <p>
  * PeriodFormat is thread-safe and immutable, and the formatters it returns are
- * as well.
+ * as well. The created formatters and the resolved texts are cached per
+ * locale.
  * 
  * @author Philip Helger
  */
-@NotThreadSafe
+@ThreadSafe
 public final class PeriodFormatMultilingual
 {
   @Translatable
@@ -88,6 +91,99 @@ public final class PeriodFormatMultilingual
     }
   }
 
+  /**
+   * The resolved texts of a single locale. Also used by
+   * {@link PeriodPrinterMultilingual}. The field indices are in the order
+   * years, months, weeks, days, hours, minutes, seconds and milliseconds.
+   */
+  static final class Texts
+  {
+    private static final EText [] LONG_SINGULAR = { EText.LONG_YEAR_SINGULAR,
+                                                    EText.LONG_MONTH_SINGULAR,
+                                                    EText.LONG_WEEK_SINGULAR,
+                                                    EText.LONG_DAY_SINGULAR,
+                                                    EText.LONG_HOUR_SINGULAR,
+                                                    EText.LONG_MINUTE_SINGULAR,
+                                                    EText.LONG_SECOND_SINGULAR,
+                                                    EText.LONG_MILLISECOND_SINGULAR };
+    private static final EText [] LONG_PLURAL = { EText.LONG_YEAR_PLURAL,
+                                                  EText.LONG_MONTH_PLURAL,
+                                                  EText.LONG_WEEK_PLURAL,
+                                                  EText.LONG_DAY_PLURAL,
+                                                  EText.LONG_HOUR_PLURAL,
+                                                  EText.LONG_MINUTE_PLURAL,
+                                                  EText.LONG_SECOND_PLURAL,
+                                                  EText.LONG_MILLISECOND_PLURAL };
+    private static final EText [] SHORT = { EText.SHORT_YEAR,
+                                            EText.SHORT_MONTH,
+                                            EText.SHORT_WEEK,
+                                            EText.SHORT_DAY,
+                                            EText.SHORT_HOUR,
+                                            EText.SHORT_MINUTE,
+                                            EText.SHORT_SECOND,
+                                            EText.SHORT_MILLISECOND };
+
+    private final String [] m_aTexts;
+    private final String [] m_aSeparatorVariants;
+
+    Texts (@Nonnull final Locale aContentLocale)
+    {
+      final EText [] aAll = EText.values ();
+      m_aTexts = new String [aAll.length];
+      for (final EText eText : aAll)
+        m_aTexts[eText.ordinal ()] = eText.getDisplayText (aContentLocale);
+
+      final String sSepFront = get (EText.LONG_SEPARATOR_FRONT);
+      final String sSepFinal = get (EText.LONG_SEPARATOR_LAST);
+      m_aSeparatorVariants = new String [] { " ",
+                                            sSepFront.trim (),
+                                            sSepFront.trim () + sSepFinal.trim () + " ",
+                                            sSepFront.trim () + sSepFinal };
+    }
+
+    @Nonnull
+    String get (@Nonnull final EText eText)
+    {
+      return m_aTexts[eText.ordinal ()];
+    }
+
+    @Nonnull
+    String [] getSeparatorVariants ()
+    {
+      // Joda copies the array
+      return m_aSeparatorVariants;
+    }
+
+    @Nonnull
+    String getLongSuffix (final int nFieldIndex, final long nValue)
+    {
+      return get (nValue == 1 ? LONG_SINGULAR[nFieldIndex] : LONG_PLURAL[nFieldIndex]);
+    }
+
+    @Nonnull
+    String getShortSuffix (final int nFieldIndex)
+    {
+      return get (SHORT[nFieldIndex]);
+    }
+
+    @Nonnull
+    String getLongSeparatorFront ()
+    {
+      return get (EText.LONG_SEPARATOR_FRONT);
+    }
+
+    @Nonnull
+    String getLongSeparatorLast ()
+    {
+      return get (EText.LONG_SEPARATOR_LAST);
+    }
+  }
+
+  private static final ConcurrentMap <Locale, Texts> s_aTexts = new ConcurrentHashMap <Locale, Texts> ();
+  private static final ConcurrentMap <Locale, PeriodFormatter> s_aLongCache = new ConcurrentHashMap <Locale, PeriodFormatter> ();
+  private static final ConcurrentMap <Locale, PeriodFormatter> s_aShortCache = new ConcurrentHashMap <Locale, PeriodFormatter> ();
+  private static final ConcurrentMap <Locale, PeriodFormatter> s_aVeryShortCache = new ConcurrentHashMap <Locale, PeriodFormatter> ();
+
   @PresentForCodeCoverage
   @SuppressWarnings ("unused")
   private static final PeriodFormatMultilingual s_aInstance = new PeriodFormatMultilingual ();
@@ -98,54 +194,94 @@ public final class PeriodFormatMultilingual
   private PeriodFormatMultilingual ()
   {}
 
+  /**
+   * Remove all cached formatters and texts.
+   */
+  public static void clearCache ()
+  {
+    s_aLongCache.clear ();
+    s_aShortCache.clear ();
+    s_aVeryShortCache.clear ();
+    s_aTexts.clear ();
+  }
+
   @Nonnull
-  private static String [] _getSeparatorVariants (final Locale aContentLocale)
+  static Texts getTexts (@Nonnull final Locale aContentLocale)
   {
-    final String sSepFront = EText.LONG_SEPARATOR_FRONT.getDisplayText (aContentLocale);
-    final String sSepFinal = EText.LONG_SEPARATOR_LAST.getDisplayText (aContentLocale);
-    return new String [] { " ",
-                          sSepFront.trim (),
-                          sSepFront.trim () + sSepFinal.trim () + " ",
-                          sSepFront.trim () + sSepFinal };
+    Texts ret = s_aTexts.get (aContentLocale);
+    if (ret == null)
+    {
+      ret = new Texts (aContentLocale);
+      final Texts aOld = s_aTexts.putIfAbsent (aContentLocale, ret);
+      if (aOld != null)
+        ret = aOld;
+    }
+    return ret;
   }
 
+  @Nonnull
+  private static PeriodFormatter _put (@Nonnull final ConcurrentMap <Locale, PeriodFormatter> aCache,
+                                       @Nonnull final Locale aContentLocale,
+                                       @Nonnull final PeriodFormatter aFormatter)
+  {
+    final PeriodFormatter aOld = aCache.putIfAbsent (aContentLocale, aFormatter);
+    return aOld != null ? aOld : aFormatter;
+  }
+
+  /**
+   * Gets the long {@link PeriodFormatter}.
+   * 
+   * @param aContentLocale
+   *        The content locale for which the formatter is requested. May not be
+   *        <code>null</code>.
+   * @return the formatter
+   */
   @Nonnull
   public static PeriodFormatter getFormatterLong (@Nonnull final Locale aContentLocale)
   {
-    final String sSepFront = EText.LONG_SEPARATOR_FRONT.getDisplayText (aContentLocale);
-    final String sSepFinal = EText.LONG_SEPARATOR_LAST.getDisplayText (aContentLocale);
-    final String [] aVariants = _getSeparatorVariants (aContentLocale);
+    if (aContentLocale == null)
+      throw new NullPointerException ("contentLocale");
+    final PeriodFormatter ret = s_aLongCache.get (aContentLocale);
+    return ret != null ? ret : _put (s_aLongCache, aContentLocale, _createFormatterLong (getTexts (aContentLocale)));
+  }
+
+  @Nonnull
+  private static PeriodFormatter _createFormatterLong (@Nonnull final Texts aTexts)
+  {
+    final String sSepFront = aTexts.get (EText.LONG_SEPARATOR_FRONT);
+    final String sSepFinal = aTexts.get (EText.LONG_SEPARATOR_LAST);
+    final String [] aVariants = aTexts.getSeparatorVariants ();
     return new PeriodFormatterBuilder ().appendYears ()
-                                        .appendSuffix (EText.LONG_YEAR_SINGULAR.getDisplayText (aContentLocale),
-                                                       EText.LONG_YEAR_PLURAL.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.LONG_YEAR_SINGULAR),
+                                                       aTexts.get (EText.LONG_YEAR_PLURAL))
                                         .appendSeparator (sSepFront, sSepFinal, aVariants)
                                         .appendMonths ()
-                                        .appendSuffix (EText.LONG_MONTH_SINGULAR.getDisplayText (aContentLocale),
-                                                       EText.LONG_MONTH_PLURAL.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.LONG_MONTH_SINGULAR),
+                                                       aTexts.get (EText.LONG_MONTH_PLURAL))
                                         .appendSeparator (sSepFront, sSepFinal, aVariants)
                                         .appendWeeks ()
-                                        .appendSuffix (EText.LONG_WEEK_SINGULAR.getDisplayText (aContentLocale),
-                                                       EText.LONG_WEEK_PLURAL.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.LONG_WEEK_SINGULAR),
+                                                       aTexts.get (EText.LONG_WEEK_PLURAL))
                                         .appendSeparator (sSepFront, sSepFinal, aVariants)
                                         .appendDays ()
-                                        .appendSuffix (EText.LONG_DAY_SINGULAR.getDisplayText (aContentLocale),
-                                                       EText.LONG_DAY_PLURAL.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.LONG_DAY_SINGULAR),
+                                                       aTexts.get (EText.LONG_DAY_PLURAL))
                                         .appendSeparator (sSepFront, sSepFinal, aVariants)
                                         .appendHours ()
-                                        .appendSuffix (EText.LONG_HOUR_SINGULAR.getDisplayText (aContentLocale),
-                                                       EText.LONG_HOUR_PLURAL.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.LONG_HOUR_SINGULAR),
+                                                       aTexts.get (EText.LONG_HOUR_PLURAL))
                                         .appendSeparator (sSepFront, sSepFinal, aVariants)
                                         .appendMinutes ()
-                                        .appendSuffix (EText.LONG_MINUTE_SINGULAR.getDisplayText (aContentLocale),
-                                                       EText.LONG_MINUTE_PLURAL.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.LONG_MINUTE_SINGULAR),
+                                                       aTexts.get (EText.LONG_MINUTE_PLURAL))
                                         .appendSeparator (sSepFront, sSepFinal, aVariants)
                                         .appendSeconds ()
-                                        .appendSuffix (EText.LONG_SECOND_SINGULAR.getDisplayText (aContentLocale),
-                                                       EText.LONG_SECOND_PLURAL.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.LONG_SECOND_SINGULAR),
+                                                       aTexts.get (EText.LONG_SECOND_PLURAL))
                                         .appendSeparator (sSepFront, sSepFinal, aVariants)
                                         .appendMillis ()
-                                        .appendSuffix (EText.LONG_MILLISECOND_SINGULAR.getDisplayText (aContentLocale),
-                                                       EText.LONG_MILLISECOND_PLURAL.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.LONG_MILLISECOND_SINGULAR),
+                                                       aTexts.get (EText.LONG_MILLISECOND_PLURAL))
                                         .toFormatter ();
   }
 
@@ -160,32 +296,41 @@ public final class PeriodFormatMultilingual
   @Nonnull
   public static PeriodFormatter getFormatterShort (@Nonnull final Locale aContentLocale)
   {
-    final String sSepFront = EText.LONG_SEPARATOR_FRONT.getDisplayText (aContentLocale);
-    final String sSepFinal = EText.LONG_SEPARATOR_LAST.getDisplayText (aContentLocale);
-    final String [] aVariants = _getSeparatorVariants (aContentLocale);
+    if (aContentLocale == null)
+      throw new NullPointerException ("contentLocale");
+    final PeriodFormatter ret = s_aShortCache.get (aContentLocale);
+    return ret != null ? ret : _put (s_aShortCache, aContentLocale, _createFormatterShort (getTexts (aContentLocale)));
+  }
+
+  @Nonnull
+  private static PeriodFormatter _createFormatterShort (@Nonnull final Texts aTexts)
+  {
+    final String sSepFront = aTexts.get (EText.LONG_SEPARATOR_FRONT);
+    final String sSepFinal = aTexts.get (EText.LONG_SEPARATOR_LAST);
+    final String [] aVariants = aTexts.getSeparatorVariants ();
     return new PeriodFormatterBuilder ().appendYears ()
-                                        .appendSuffix (EText.SHORT_YEAR.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.SHORT_YEAR))
                                         .appendSeparator (sSepFront, sSepFinal, aVariants)
                                         .appendMonths ()
-                                        .appendSuffix (EText.SHORT_MONTH.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.SHORT_MONTH))
                                         .appendSeparator (sSepFront, sSepFinal, aVariants)
                                         .appendWeeks ()
-                                        .appendSuffix (EText.SHORT_WEEK.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.SHORT_WEEK))
                                         .appendSeparator (sSepFront, sSepFinal, aVariants)
                                         .appendDays ()
-                                        .appendSuffix (EText.SHORT_DAY.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.SHORT_DAY))
                                         .appendSeparator (sSepFront, sSepFinal, aVariants)
                                         .appendHours ()
-                                        .appendSuffix (EText.SHORT_HOUR.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.SHORT_HOUR))
                                         .appendSeparator (sSepFront, sSepFinal, aVariants)
                                         .appendMinutes ()
-                                        .appendSuffix (EText.SHORT_MINUTE.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.SHORT_MINUTE))
                                         .appendSeparator (sSepFront, sSepFinal, aVariants)
                                         .appendSeconds ()
-                                        .appendSuffix (EText.SHORT_SECOND.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.SHORT_SECOND))
                                         .appendSeparator (sSepFront, sSepFinal, aVariants)
                                         .appendMillis ()
-                                        .appendSuffix (EText.SHORT_MILLISECOND.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.SHORT_MILLISECOND))
                                         .toFormatter ();
   }
 
@@ -199,31 +344,40 @@ public final class PeriodFormatMultilingual
    */
   @Nonnull
   public static PeriodFormatter getFormatterVeryShort (@Nonnull final Locale aContentLocale)
+  {
+    if (aContentLocale == null)
+      throw new NullPointerException ("contentLocale");
+    final PeriodFormatter ret = s_aVeryShortCache.get (aContentLocale);
+    return ret != null ? ret : _put (s_aVeryShortCache, aContentLocale, _createFormatterVeryShort (getTexts (aContentLocale)));
+  }
+
+  @Nonnull
+  private static PeriodFormatter _createFormatterVeryShort (@Nonnull final Texts aTexts)
   {
     final String [] aVariants = { " ", ",", ", " };
     return new PeriodFormatterBuilder ().appendYears ()
-                                        .appendSuffix (EText.SHORT_YEAR.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.SHORT_YEAR))
                                         .appendSeparator (" ", " ", aVariants)
                                         .appendMonths ()
-                                        .appendSuffix (EText.SHORT_MONTH.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.SHORT_MONTH))
                                         .appendSeparator (" ", " ", aVariants)
                                         .appendWeeks ()
-                                        .appendSuffix (EText.SHORT_WEEK.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.SHORT_WEEK))
                                         .appendSeparator (" ", " ", aVariants)
                                         .appendDays ()
-                                        .appendSuffix (EText.SHORT_DAY.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.SHORT_DAY))
                                         .appendSeparator (" ", " ", aVariants)
                                         .appendHours ()
-                                        .appendSuffix (EText.SHORT_HOUR.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.SHORT_HOUR))
                                         .appendSeparator (" ", " ", aVariants)
                                         .appendMinutes ()
-                                        .appendSuffix (EText.SHORT_MINUTE.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.SHORT_MINUTE))
                                         .appendSeparator (" ", " ", aVariants)
                                         .appendSeconds ()
-                                        .appendSuffix (EText.SHORT_SECOND.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.SHORT_SECOND))
                                         .appendSeparator (" ", " ", aVariants)
                                         .appendMillis ()
-                                        .appendSuffix (EText.SHORT_MILLISECOND.getDisplayText (aContentLocale))
+                                        .appendSuffix (aTexts.get (EText.SHORT_MILLISECOND))
                                         .toFormatter ();
   }
 }
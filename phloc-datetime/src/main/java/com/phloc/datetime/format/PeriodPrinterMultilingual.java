@@ -0,0 +1,291 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import java.util.Locale;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.joda.time.DateTimeConstants;
+import org.joda.time.DurationFieldType;
+import org.joda.time.ReadableDuration;
+import org.joda.time.ReadablePeriod;
+import org.joda.time.field.FieldUtils;
+
+import com.phloc.commons.annotations.PresentForCodeCoverage;
+
+/**
+ * Prints periods and durations in the same human readable way as the
+ * formatters of {@link PeriodFormatMultilingual}, but directly into a
+ * {@link StringBuilder}. No {@link org.joda.time.format.PeriodFormatter} is
+ * involved and no intermediate objects are created - the field values are read
+ * one by one and zero fields are skipped.
+ * 
+ * @author Philip Helger
+ */
+@Immutable
+public final class PeriodPrinterMultilingual
+{
+  /**
+   * The available output styles. They correspond to the formatters of
+   * {@link PeriodFormatMultilingual}.
+   */
+  public static enum EStyle
+  {
+    /** Like {@link PeriodFormatMultilingual#getFormatterLong(Locale)} */
+    LONG,
+    /** Like {@link PeriodFormatMultilingual#getFormatterShort(Locale)} */
+    SHORT,
+    /** Like {@link PeriodFormatMultilingual#getFormatterVeryShort(Locale)} */
+    VERY_SHORT;
+  }
+
+  /** The printed fields in the order of the texts */
+  private static final DurationFieldType [] FIELD_TYPES = { DurationFieldType.years (),
+                                                            DurationFieldType.months (),
+                                                            DurationFieldType.weeks (),
+                                                            DurationFieldType.days (),
+                                                            DurationFieldType.hours (),
+                                                            DurationFieldType.minutes (),
+                                                            DurationFieldType.seconds (),
+                                                            DurationFieldType.millis () };
+  private static final int FIELD_COUNT = FIELD_TYPES.length;
+  private static final int INDEX_HOURS = 4;
+  private static final int INDEX_MINUTES = 5;
+  private static final int INDEX_SECONDS = 6;
+  private static final int INDEX_MILLIS = 7;
+  private static final String VERY_SHORT_SEPARATOR = " ";
+
+  @PresentForCodeCoverage
+  @SuppressWarnings ("unused")
+  private static final PeriodPrinterMultilingual s_aInstance = new PeriodPrinterMultilingual ();
+
+  private PeriodPrinterMultilingual ()
+  {}
+
+  private static void _appendField (@Nonnull final StringBuilder aSB,
+                                    @Nonnull final PeriodFormatMultilingual.Texts aTexts,
+                                    @Nonnull final EStyle eStyle,
+                                    final int nFieldIndex,
+                                    final int nValue)
+  {
+    aSB.append (nValue);
+    aSB.append (eStyle == EStyle.LONG ? aTexts.getLongSuffix (nFieldIndex, nValue)
+                                      : aTexts.getShortSuffix (nFieldIndex));
+  }
+
+  private static boolean _isSupported (@Nullable final ReadablePeriod aPeriod, final int nFieldIndex)
+  {
+    // Durations use the standard period type which supports all fields
+    return aPeriod == null || aPeriod.getPeriodType ().isSupported (FIELD_TYPES[nFieldIndex]);
+  }
+
+  private static int _getValue (@Nullable final ReadablePeriod aPeriod,
+                                final long nDurationMillis,
+                                final int nFieldIndex)
+  {
+    if (aPeriod != null)
+      return aPeriod.get (FIELD_TYPES[nFieldIndex]);
+
+    // Like "new Period (long)" only the precise time fields are filled
+    switch (nFieldIndex)
+    {
+      case INDEX_HOURS:
+        return (int) (nDurationMillis / DateTimeConstants.MILLIS_PER_HOUR);
+      case INDEX_MINUTES:
+        return (int) (nDurationMillis / DateTimeConstants.MILLIS_PER_MINUTE % DateTimeConstants.MINUTES_PER_HOUR);
+      case INDEX_SECONDS:
+        return (int) (nDurationMillis / DateTimeConstants.MILLIS_PER_SECOND % DateTimeConstants.SECONDS_PER_MINUTE);
+      case INDEX_MILLIS:
+        return (int) (nDurationMillis % DateTimeConstants.MILLIS_PER_SECOND);
+      default:
+        return 0;
+    }
+  }
+
+  @Nonnull
+  private static StringBuilder _printTo (@Nonnull final StringBuilder aSB,
+                                         @Nullable final ReadablePeriod aPeriod,
+                                         final long nDurationMillis,
+                                         @Nonnull final EStyle eStyle,
+                                         @Nonnull final Locale aContentLocale)
+  {
+    if (aSB == null)
+      throw new NullPointerException ("stringBuilder");
+    if (eStyle == null)
+      throw new NullPointerException ("style");
+    if (aContentLocale == null)
+      throw new NullPointerException ("contentLocale");
+
+    final PeriodFormatMultilingual.Texts aTexts = PeriodFormatMultilingual.getTexts (aContentLocale);
+
+    // Count the fields to print
+    int nRemaining = 0;
+    int nLastSupported = -1;
+    for (int i = 0; i < FIELD_COUNT; ++i)
+      if (_isSupported (aPeriod, i))
+      {
+        nLastSupported = i;
+        if (_getValue (aPeriod, nDurationMillis, i) != 0)
+          nRemaining++;
+      }
+
+    if (nRemaining == 0)
+    {
+      // All zero: print only the last supported field (if any)
+      if (nLastSupported >= 0)
+        _appendField (aSB, aTexts, eStyle, nLastSupported, 0);
+      return aSB;
+    }
+
+    final String sSepFront = eStyle == EStyle.VERY_SHORT ? VERY_SHORT_SEPARATOR : aTexts.getLongSeparatorFront ();
+    final String sSepLast = eStyle == EStyle.VERY_SHORT ? VERY_SHORT_SEPARATOR : aTexts.getLongSeparatorLast ();
+    boolean bFirst = true;
+    for (int i = 0; i < FIELD_COUNT && nRemaining > 0; ++i)
+    {
+      final int nValue = _getValue (aPeriod, nDurationMillis, i);
+      if (nValue != 0 && _isSupported (aPeriod, i))
+      {
+        if (bFirst)
+          bFirst = false;
+        else
+          aSB.append (nRemaining > 1 ? sSepFront : sSepLast);
+        _appendField (aSB, aTexts, eStyle, i, nValue);
+        nRemaining--;
+      }
+    }
+    return aSB;
+  }
+
+  /**
+   * Print the passed period to the passed {@link StringBuilder}.
+   * 
+   * @param aSB
+   *        The string builder to append to. May not be <code>null</code>.
+   * @param aPeriod
+   *        The period to print. May not be <code>null</code>.
+   * @param eStyle
+   *        The style to use. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The content locale to use. May not be <code>null</code>.
+   * @return The passed string builder
+   */
+  @Nonnull
+  public static StringBuilder printTo (@Nonnull final StringBuilder aSB,
+                                       @Nonnull final ReadablePeriod aPeriod,
+                                       @Nonnull final EStyle eStyle,
+                                       @Nonnull final Locale aContentLocale)
+  {
+    if (aPeriod == null)
+      throw new NullPointerException ("period");
+    return _printTo (aSB, aPeriod, 0, eStyle, aContentLocale);
+  }
+
+  /**
+   * Print the passed duration in milliseconds to the passed
+   * {@link StringBuilder}. Like <code>new Period (nDurationMillis)</code> only
+   * the precise fields hours, minutes, seconds and milliseconds are filled.
+   * 
+   * @param aSB
+   *        The string builder to append to. May not be <code>null</code>.
+   * @param nDurationMillis
+   *        The duration in milliseconds.
+   * @param eStyle
+   *        The style to use. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The content locale to use. May not be <code>null</code>.
+   * @return The passed string builder
+   * @throws ArithmeticException
+   *         If the number of hours exceeds the integer range
+   */
+  @Nonnull
+  public static StringBuilder printTo (@Nonnull final StringBuilder aSB,
+                                       final long nDurationMillis,
+                                       @Nonnull final EStyle eStyle,
+                                       @Nonnull final Locale aContentLocale)
+  {
+    // Same overflow check as in Joda
+    FieldUtils.safeToInt (nDurationMillis / DateTimeConstants.MILLIS_PER_HOUR);
+    return _printTo (aSB, null, nDurationMillis, eStyle, aContentLocale);
+  }
+
+  /**
+   * Print the passed duration to the passed {@link StringBuilder}.
+   * 
+   * @param aSB
+   *        The string builder to append to. May not be <code>null</code>.
+   * @param aDuration
+   *        The duration to print. May not be <code>null</code>.
+   * @param eStyle
+   *        The style to use. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The content locale to use. May not be <code>null</code>.
+   * @return The passed string builder
+   * @see #printTo(StringBuilder, long, EStyle, Locale)
+   */
+  @Nonnull
+  public static StringBuilder printTo (@Nonnull final StringBuilder aSB,
+                                       @Nonnull final ReadableDuration aDuration,
+                                       @Nonnull final EStyle eStyle,
+                                       @Nonnull final Locale aContentLocale)
+  {
+    if (aDuration == null)
+      throw new NullPointerException ("duration");
+    return printTo (aSB, aDuration.getMillis (), eStyle, aContentLocale);
+  }
+
+  /**
+   * Get the passed period as a string.
+   * 
+   * @param aPeriod
+   *        The period to print. May not be <code>null</code>.
+   * @param eStyle
+   *        The style to use. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The content locale to use. May not be <code>null</code>.
+   * @return The printed period. Never <code>null</code>.
+   */
+  @Nonnull
+  public static String getAsString (@Nonnull final ReadablePeriod aPeriod,
+                                    @Nonnull final EStyle eStyle,
+                                    @Nonnull final Locale aContentLocale)
+  {
+    return printTo (new StringBuilder (), aPeriod, eStyle, aContentLocale).toString ();
+  }
+
+  /**
+   * Get the passed duration as a string.
+   * 
+   * @param aDuration
+   *        The duration to print. May not be <code>null</code>.
+   * @param eStyle
+   *        The style to use. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The content locale to use. May not be <code>null</code>.
+   * @return The printed duration. Never <code>null</code>.
+   */
+  @Nonnull
+  public static String getAsString (@Nonnull final ReadableDuration aDuration,
+                                    @Nonnull final EStyle eStyle,
+                                    @Nonnull final Locale aContentLocale)
+  {
+    return printTo (new StringBuilder (), aDuration, eStyle, aContentLocale).toString ();
+  }
+}
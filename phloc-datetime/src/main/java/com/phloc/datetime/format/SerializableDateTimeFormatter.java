@@ -17,23 +17,30 @@
  */
 package com.phloc.datetime.format;
 
+import java.io.Externalizable;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.Serializable;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.ObjectStreamException;
 import java.text.DateFormat;
 import java.util.Locale;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import org.joda.time.Chronology;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
 import com.phloc.commons.annotations.Nonempty;
+import com.phloc.commons.annotations.UsedViaReflection;
 import com.phloc.commons.equals.EqualsUtils;
 import com.phloc.commons.hash.HashCodeGenerator;
 import com.phloc.commons.string.ToStringGenerator;
+import com.phloc.datetime.cache.LRUCache;
+import com.phloc.datetime.config.PDTConfig;
 
 /**
  * This class wraps a {@link DateTimeFormatter} and makes it serializable by
@@ -41,10 +48,20 @@ import com.phloc.commons.string.ToStringGenerator;
  * serializable, this is a bloody workaround, handling either the style creation
  * parameters (short/medium/long/full/none) or the pattern string plus the
  * respective optional locale that was used on creation.
+ * <p>
+ * All instances created by the factory methods or by deserialization are
+ * interned, so that equal descriptors with the same default chronology share
+ * one instance and therefore one {@link DateTimeFormatter}. The pool is keyed
+ * by the chronology as well, so that a configuration change can never hand out
+ * a formatter with an outdated chronology. It is bounded to
+ * {@link #MAX_POOL_SIZE} entries. The serialized form only contains the style
+ * codes, the optional pattern and the optional locale as a BCP 47 language
+ * tag. This form is not compatible with the one of versions before 3.2.3,
+ * where this class was {@link java.io.Serializable} only.
  * 
  * @author Philip Helger
  */
-public final class SerializableDateTimeFormatter implements Serializable
+public final class SerializableDateTimeFormatter implements Externalizable
 {
   private static final long serialVersionUID = 582607745264511789L;
 
@@ -83,62 +100,201 @@ public final class SerializableDateTimeFormatter implements Serializable
     {
       return m_nFormat;
     }
+
+    @Nullable
+    public static EFormatStyle getFromStyleStringOrNull (@Nullable final String sFormat)
+    {
+      for (final EFormatStyle e : values ())
+        if (e.m_sFormat.equals (sFormat))
+          return e;
+      return null;
+    }
+  }
+
+  /** The maximum number of pooled instances */
+  public static final int MAX_POOL_SIZE = 1000;
+
+  /**
+   * The key of the pool: the descriptor plus the chronology of the formatter
+   */
+  private static final class PoolKey
+  {
+    private final SerializableDateTimeFormatter m_aDescriptor;
+    private final Chronology m_aChronology;
+
+    PoolKey (@Nonnull final SerializableDateTimeFormatter aDescriptor, @Nonnull final Chronology aChronology)
+    {
+      m_aDescriptor = aDescriptor;
+      m_aChronology = aChronology;
+    }
+
+    @Override
+    public boolean equals (final Object o)
+    {
+      if (o == this)
+        return true;
+      if (!(o instanceof PoolKey))
+        return false;
+      final PoolKey rhs = (PoolKey) o;
+      return m_aDescriptor.equals (rhs.m_aDescriptor) && m_aChronology.equals (rhs.m_aChronology);
+    }
+
+    @Override
+    public int hashCode ()
+    {
+      return new HashCodeGenerator (this).append (m_aDescriptor).append (m_aChronology).getHashCode ();
+    }
   }
 
+  /** Wire code for "no style" */
+  private static final byte NO_STYLE = 0;
+  /** Wire string for "no pattern" and "no locale" */
+  private static final String NONE = "";
+
+  private static final LRUCache <PoolKey, SerializableDateTimeFormatter> s_aPool = new LRUCache <PoolKey, SerializableDateTimeFormatter> (MAX_POOL_SIZE);
+
   private transient DateTimeFormatter m_aFormatter;
   private EFormatStyle m_eDateStyle;
   private EFormatStyle m_eTimeStyle;
   private Locale m_aLocale;
   private String m_sPattern;
 
-  private SerializableDateTimeFormatter (@Nonnull final DateTimeFormatter aFormatter,
-                                         @Nullable final EFormatStyle eDateStyle,
+  /**
+   * Only for deserialization - required by {@link Externalizable}. The created
+   * instance has no formatter until it was read via
+   * {@link #readExternal(ObjectInput)} and resolved to the pooled instance, so
+   * {@link #getFormatter()} returns <code>null</code> on it. Use the static
+   * factory methods instead.
+   */
+  @UsedViaReflection
+  public SerializableDateTimeFormatter ()
+  {}
+
+  private SerializableDateTimeFormatter (@Nullable final EFormatStyle eDateStyle,
                                          @Nullable final EFormatStyle eTimeStyle,
                                          @Nullable final String sPattern,
                                          @Nullable final Locale aLocale)
   {
-    if (aFormatter == null)
-      throw new NullPointerException ("formatter");
     if (eDateStyle == null && eTimeStyle == null && sPattern == null)
       throw new IllegalArgumentException ("At least on descriptor must be present!");
     if ((eDateStyle != null && eTimeStyle == null) || (eDateStyle == null && eTimeStyle != null))
       throw new IllegalArgumentException ("Either both or no date and time style must be present!");
-    m_aFormatter = aFormatter;
     m_eDateStyle = eDateStyle;
     m_eTimeStyle = eTimeStyle;
     m_sPattern = sPattern;
     m_aLocale = aLocale;
   }
 
-  private void writeObject (final ObjectOutputStream aOOS) throws IOException
+  private static byte _getStyleCode (@Nullable final EFormatStyle eStyle)
+  {
+    return eStyle == null ? NO_STYLE : (byte) eStyle.getStyleString ().charAt (0);
+  }
+
+  @Nullable
+  private static EFormatStyle _getStyle (final byte nCode) throws InvalidObjectException
+  {
+    if (nCode == NO_STYLE)
+      return null;
+    final EFormatStyle ret = EFormatStyle.getFromStyleStringOrNull (Character.toString ((char) nCode));
+    if (ret == null)
+      throw new InvalidObjectException ("Invalid format style code " + nCode);
+    return ret;
+  }
+
+  public void writeExternal (@Nonnull final ObjectOutput aOut) throws IOException
   {
-    aOOS.writeObject (m_eDateStyle);
-    aOOS.writeObject (m_eTimeStyle);
-    aOOS.writeObject (m_sPattern);
-    aOOS.writeObject (m_aLocale);
+    aOut.writeByte (_getStyleCode (m_eDateStyle));
+    aOut.writeByte (_getStyleCode (m_eTimeStyle));
+    aOut.writeUTF (m_sPattern == null ? NONE : m_sPattern);
+    // E.g. "de-AT" or "sr-RS-Latn"
+    aOut.writeUTF (m_aLocale == null ? NONE : m_aLocale.toLanguageTag ());
   }
 
-  private void readObject (final ObjectInputStream aOIS) throws IOException, ClassNotFoundException
+  public void readExternal (@Nonnull final ObjectInput aIn) throws IOException
+  {
+    m_eDateStyle = _getStyle (aIn.readByte ());
+    m_eTimeStyle = _getStyle (aIn.readByte ());
+    final String sPattern = aIn.readUTF ();
+    m_sPattern = sPattern.length () == 0 ? null : sPattern;
+    final String sLocale = aIn.readUTF ();
+    if (sLocale.length () == 0)
+      m_aLocale = null;
+    else
+      m_aLocale = Locale.forLanguageTag (sLocale);
+
+    if ((m_eDateStyle == null || m_eTimeStyle == null) && m_sPattern == null)
+      throw new InvalidObjectException ("Don't know how to rebuild the formatter from " +
+                                        m_eDateStyle +
+                                        "/" +
+                                        m_eTimeStyle +
+                                        "/" +
+                                        m_sPattern +
+                                        "/" +
+                                        m_aLocale);
+  }
+
+  /**
+   * Replace the deserialized object with the interned instance.
+   * 
+   * @return The interned instance. Never <code>null</code>.
+   * @throws ObjectStreamException
+   *         Never
+   */
+  private Object readResolve () throws ObjectStreamException
   {
-    m_eDateStyle = (EFormatStyle) aOIS.readObject ();
-    m_eTimeStyle = (EFormatStyle) aOIS.readObject ();
-    m_sPattern = (String) aOIS.readObject ();
-    m_aLocale = (Locale) aOIS.readObject ();
+    return _intern (this);
+  }
 
+  private void _initFormatter ()
+  {
     if (m_eDateStyle != null && m_eTimeStyle != null)
       m_aFormatter = _createFormatter (m_eDateStyle, m_eTimeStyle, m_aLocale);
     else
-      if (m_sPattern != null)
-        m_aFormatter = _createFormatter (m_sPattern, m_aLocale);
-      else
-        throw new IllegalStateException ("Don't know how to revuild the formatter from " +
-                                         m_eDateStyle +
-                                         "/" +
-                                         m_eTimeStyle +
-                                         "/" +
-                                         m_sPattern +
-                                         "/" +
-                                         m_aLocale);
+      m_aFormatter = _createFormatter (m_sPattern, m_aLocale);
+  }
+
+  /**
+   * Get the pooled instance equal to the passed one for the current default
+   * chronology or pool the passed one after creating its formatter.
+   * 
+   * @param aCandidate
+   *        The instance without a formatter. May not be <code>null</code>.
+   * @return The pooled instance. Never <code>null</code>.
+   */
+  @Nonnull
+  private static SerializableDateTimeFormatter _intern (@Nonnull final SerializableDateTimeFormatter aCandidate)
+  {
+    // Also considers an open PDTConfigScope
+    final Chronology aChronology = PDTConfig.getDefaultChronology ();
+    final PoolKey aKey = new PoolKey (aCandidate, aChronology);
+    final SerializableDateTimeFormatter ret = s_aPool.get (aKey);
+    if (ret != null)
+      return ret;
+
+    aCandidate._initFormatter ();
+    if (!aChronology.equals (aCandidate.m_aFormatter.getChronology ()))
+    {
+      // The configuration was changed in the meantime - don't pool it
+      return aCandidate;
+    }
+    return s_aPool.putIfAbsent (aKey, aCandidate);
+  }
+
+  /**
+   * @return The number of distinct formatters currently pooled.
+   */
+  @Nonnegative
+  public static int getPoolSize ()
+  {
+    return s_aPool.getSize ();
+  }
+
+  /**
+   * Remove all pooled instances. Existing instances stay valid.
+   */
+  public static void clearPool ()
+  {
+    s_aPool.clear ();
   }
 
   /**
@@ -267,11 +423,7 @@ public final class SerializableDateTimeFormatter implements Serializable
       throw new NullPointerException ("dateStyle");
     if (eTimeStyle == null)
       throw new NullPointerException ("timeStyle");
-    return new SerializableDateTimeFormatter (_createFormatter (eDateStyle, eTimeStyle, aLocale),
-                                              eDateStyle,
-                                              eTimeStyle,
-                                              null,
-                                              aLocale);
+    return _intern (new SerializableDateTimeFormatter (eDateStyle, eTimeStyle, null, aLocale));
   }
 
   @Nonnull
@@ -285,6 +437,6 @@ public final class SerializableDateTimeFormatter implements Serializable
   {
     if (sPattern == null)
       throw new NullPointerException ("pattern");
-    return new SerializableDateTimeFormatter (_createFormatter (sPattern, aLocale), null, null, sPattern, aLocale);
+    return _intern (new SerializableDateTimeFormatter (null, null, sPattern, aLocale));
   }
 }
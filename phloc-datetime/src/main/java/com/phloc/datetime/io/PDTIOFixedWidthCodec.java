@@ -0,0 +1,568 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.io;
+
+import java.nio.CharBuffer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.joda.time.LocalTime;
+
+import com.phloc.commons.annotations.PresentForCodeCoverage;
+import com.phloc.datetime.PDTFactory;
+import com.phloc.datetime.PDTUtils;
+import com.phloc.datetime.format.PDTASCIICodec;
+
+/**
+ * Fixed width codec for the digit only patterns
+ * {@link PDTIOHelper#PATTERN_DATE}, {@link PDTIOHelper#PATTERN_TIME} and
+ * {@link PDTIOHelper#PATTERN_DATETIME}. Formatting and parsing is done with
+ * plain integer arithmetic, so no {@link org.joda.time.format.DateTimeFormatter}
+ * is involved. The <code>byte[]</code> methods delegate to
+ * {@link PDTASCIICodec}.<br>
+ * Only years between 0 and 9999 can be formatted - use
+ * {@link #isSupportedYear(int)} to check upfront. All parse methods return
+ * <code>null</code> if the input does not match the pattern or is not a valid
+ * date or time.
+ * 
+ * @author Philip Helger
+ */
+@Immutable
+public final class PDTIOFixedWidthCodec
+{
+  /** Length of {@link PDTIOHelper#PATTERN_DATE} */
+  public static final int LENGTH_DATE = PDTASCIICodec.LENGTH_FILENAME_DATE;
+  /** Length of {@link PDTIOHelper#PATTERN_TIME} */
+  public static final int LENGTH_TIME = PDTASCIICodec.LENGTH_FILENAME_TIME;
+  /** Length of {@link PDTIOHelper#PATTERN_DATETIME} */
+  public static final int LENGTH_DATETIME = PDTASCIICodec.LENGTH_FILENAME_DATETIME;
+
+  private static final char SEPARATOR = '_';
+  private static final int ILLEGAL = -1;
+
+  @PresentForCodeCoverage
+  @SuppressWarnings ("unused")
+  private static final PDTIOFixedWidthCodec s_aInstance = new PDTIOFixedWidthCodec ();
+
+  private PDTIOFixedWidthCodec ()
+  {}
+
+  /**
+   * @param nYear
+   *        The year to check
+   * @return <code>true</code> if the passed year can be formatted by this
+   *         class, <code>false</code> otherwise.
+   */
+  public static boolean isSupportedYear (final int nYear)
+  {
+    return nYear >= 0 && nYear <= 9999;
+  }
+
+  private static int _write2 (@Nonnull final char [] aBuf, final int nOfs, final int nValue)
+  {
+    aBuf[nOfs] = (char) ('0' + nValue / 10);
+    aBuf[nOfs + 1] = (char) ('0' + nValue % 10);
+    return nOfs + 2;
+  }
+
+  private static int _writeDate (@Nonnull final char [] aBuf,
+                                 final int nOfs,
+                                 final int nYear,
+                                 final int nMonth,
+                                 final int nDay)
+  {
+    if (!isSupportedYear (nYear))
+      throw new IllegalArgumentException ("Only years between 0 and 9999 can be formatted: " + nYear);
+    int nIndex = _write2 (aBuf, nOfs, nYear / 100);
+    nIndex = _write2 (aBuf, nIndex, nYear % 100);
+    nIndex = _write2 (aBuf, nIndex, nMonth);
+    return _write2 (aBuf, nIndex, nDay);
+  }
+
+  private static int _writeTime (@Nonnull final char [] aBuf,
+                                 final int nOfs,
+                                 final int nHour,
+                                 final int nMinute,
+                                 final int nSecond)
+  {
+    return _write2 (aBuf, _write2 (aBuf, _write2 (aBuf, nOfs, nHour), nMinute), nSecond);
+  }
+
+  private static int _read2 (@Nonnull final CharSequence aCS, final int nOfs)
+  {
+    final int n1 = aCS.charAt (nOfs) - '0';
+    final int n2 = aCS.charAt (nOfs + 1) - '0';
+    if (n1 < 0 || n1 > 9 || n2 < 0 || n2 > 9)
+      return ILLEGAL;
+    return n1 * 10 + n2;
+  }
+
+  /**
+   * @return The date packed as <code>yyyyMMdd</code> or {@link #ILLEGAL}
+   */
+  private static int _readDate (@Nonnull final CharSequence aCS,
+                                final int nOfs,
+                                @Nonnull final Chronology aChronology)
+  {
+    final int nCentury = _read2 (aCS, nOfs);
+    final int nYearOfCentury = _read2 (aCS, nOfs + 2);
+    final int nMonth = _read2 (aCS, nOfs + 4);
+    final int nDay = _read2 (aCS, nOfs + 6);
+    if (nCentury < 0 || nYearOfCentury < 0)
+      return ILLEGAL;
+    final int nYear = nCentury * 100 + nYearOfCentury;
+    if (!PDTUtils.isValidDate (nYear, nMonth, nDay, aChronology))
+      return ILLEGAL;
+    return nYear * 10000 + nMonth * 100 + nDay;
+  }
+
+  /**
+   * @return The seconds of the day or {@link #ILLEGAL}
+   */
+  private static int _readTime (@Nonnull final CharSequence aCS, final int nOfs)
+  {
+    final int nHour = _read2 (aCS, nOfs);
+    final int nMinute = _read2 (aCS, nOfs + 2);
+    final int nSecond = _read2 (aCS, nOfs + 4);
+    if (nHour < 0 || nHour > 23 || nMinute < 0 || nMinute > 59 || nSecond < 0 || nSecond > 59)
+      return ILLEGAL;
+    return (nHour * 60 + nMinute) * 60 + nSecond;
+  }
+
+  private static boolean _hasLength (@Nullable final CharSequence aCS, final int nOfs, final int nLength)
+  {
+    return aCS != null && nOfs >= 0 && aCS.length () - nOfs >= nLength;
+  }
+
+  // --- date ---
+
+  /**
+   * Format the passed date as {@link PDTIOHelper#PATTERN_DATE} into the passed
+   * char array.
+   * 
+   * @param aDate
+   *        The date to format. May not be <code>null</code>.
+   * @param aBuf
+   *        The target buffer. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first char to write.
+   * @return The index after the last written char.
+   */
+  public static int formatDate (@Nonnull final LocalDate aDate, @Nonnull final char [] aBuf, final int nOfs)
+  {
+    return _writeDate (aBuf, nOfs, aDate.getYear (), aDate.getMonthOfYear (), aDate.getDayOfMonth ());
+  }
+
+  public static int formatDate (@Nonnull final LocalDate aDate, @Nonnull final byte [] aBuf, final int nOfs)
+  {
+    return PDTASCIICodec.writeDateForFilename (aDate, aBuf, nOfs);
+  }
+
+  @Nonnull
+  public static String formatDate (@Nonnull final LocalDate aDate)
+  {
+    final char [] aBuf = new char [LENGTH_DATE];
+    formatDate (aDate, aBuf, 0);
+    return new String (aBuf);
+  }
+
+  /**
+   * Parse a date in the format {@link PDTIOHelper#PATTERN_DATE} starting at the
+   * passed offset. Trailing characters are ignored.
+   * 
+   * @param aCS
+   *        The source to parse. May be <code>null</code>.
+   * @param nOfs
+   *        The index of the first char to parse.
+   * @return <code>null</code> if no valid date is present.
+   */
+  @Nullable
+  public static LocalDate parseDate (@Nullable final CharSequence aCS, final int nOfs)
+  {
+    if (!_hasLength (aCS, nOfs, LENGTH_DATE))
+      return null;
+    final Chronology aChronology = PDTFactory.getLocalChronology ();
+    final int nDate = _readDate (aCS, nOfs, aChronology);
+    if (nDate == ILLEGAL)
+      return null;
+    return new LocalDate (nDate / 10000, (nDate / 100) % 100, nDate % 100, aChronology);
+  }
+
+  /**
+   * Parse a date in the format {@link PDTIOHelper#PATTERN_DATE}.
+   * 
+   * @param sText
+   *        The text to parse. May be <code>null</code>.
+   * @return <code>null</code> if the text is not a valid date in the expected
+   *         format.
+   */
+  @Nullable
+  public static LocalDate parseDate (@Nullable final String sText)
+  {
+    return sText != null && sText.length () == LENGTH_DATE ? parseDate (sText, 0) : null;
+  }
+
+  @Nullable
+  public static LocalDate parseDate (@Nonnull final char [] aBuf, final int nOfs)
+  {
+    return parseDate (CharBuffer.wrap (aBuf), nOfs);
+  }
+
+  @Nullable
+  public static LocalDate parseDate (@Nonnull final byte [] aBuf, final int nOfs)
+  {
+    if (nOfs < 0 || aBuf.length - nOfs < LENGTH_DATE)
+      return null;
+    return PDTASCIICodec.readDateForFilename (aBuf, nOfs);
+  }
+
+  // --- time ---
+
+  /**
+   * Format the passed time as {@link PDTIOHelper#PATTERN_TIME} into the passed
+   * char array.
+   * 
+   * @param aTime
+   *        The time to format. May not be <code>null</code>.
+   * @param aBuf
+   *        The target buffer. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first char to write.
+   * @return The index after the last written char.
+   */
+  public static int formatTime (@Nonnull final LocalTime aTime, @Nonnull final char [] aBuf, final int nOfs)
+  {
+    return _writeTime (aBuf, nOfs, aTime.getHourOfDay (), aTime.getMinuteOfHour (), aTime.getSecondOfMinute ());
+  }
+
+  public static int formatTime (@Nonnull final LocalTime aTime, @Nonnull final byte [] aBuf, final int nOfs)
+  {
+    return PDTASCIICodec.writeTimeForFilename (aTime, aBuf, nOfs);
+  }
+
+  @Nonnull
+  public static String formatTime (@Nonnull final LocalTime aTime)
+  {
+    final char [] aBuf = new char [LENGTH_TIME];
+    formatTime (aTime, aBuf, 0);
+    return new String (aBuf);
+  }
+
+  /**
+   * Parse a time in the format {@link PDTIOHelper#PATTERN_TIME} starting at the
+   * passed offset. Trailing characters are ignored.
+   * 
+   * @param aCS
+   *        The source to parse. May be <code>null</code>.
+   * @param nOfs
+   *        The index of the first char to parse.
+   * @return <code>null</code> if no valid time is present.
+   */
+  @Nullable
+  public static LocalTime parseTime (@Nullable final CharSequence aCS, final int nOfs)
+  {
+    if (!_hasLength (aCS, nOfs, LENGTH_TIME))
+      return null;
+    final int nSecondOfDay = _readTime (aCS, nOfs);
+    if (nSecondOfDay == ILLEGAL)
+      return null;
+    return new LocalTime (nSecondOfDay / 3600,
+                          (nSecondOfDay / 60) % 60,
+                          nSecondOfDay % 60,
+                          0,
+                          PDTFactory.getLocalChronology ());
+  }
+
+  /**
+   * Parse a time in the format {@link PDTIOHelper#PATTERN_TIME}.
+   * 
+   * @param sText
+   *        The text to parse. May be <code>null</code>.
+   * @return <code>null</code> if the text is not a valid time in the expected
+   *         format.
+   */
+  @Nullable
+  public static LocalTime parseTime (@Nullable final String sText)
+  {
+    return sText != null && sText.length () == LENGTH_TIME ? parseTime (sText, 0) : null;
+  }
+
+  @Nullable
+  public static LocalTime parseTime (@Nonnull final char [] aBuf, final int nOfs)
+  {
+    return parseTime (CharBuffer.wrap (aBuf), nOfs);
+  }
+
+  @Nullable
+  public static LocalTime parseTime (@Nonnull final byte [] aBuf, final int nOfs)
+  {
+    if (nOfs < 0 || aBuf.length - nOfs < LENGTH_TIME)
+      return null;
+    return PDTASCIICodec.readTimeForFilename (aBuf, nOfs);
+  }
+
+  // --- date time ---
+
+  private static int _formatDateTime (@Nonnull final char [] aBuf,
+                                      final int nOfs,
+                                      final int nYear,
+                                      final int nMonth,
+                                      final int nDay,
+                                      final int nHour,
+                                      final int nMinute,
+                                      final int nSecond)
+  {
+    final int nIndex = _writeDate (aBuf, nOfs, nYear, nMonth, nDay);
+    aBuf[nIndex] = SEPARATOR;
+    return _writeTime (aBuf, nIndex + 1, nHour, nMinute, nSecond);
+  }
+
+  /**
+   * Format the passed local date time as {@link PDTIOHelper#PATTERN_DATETIME}
+   * into the passed char array.
+   * 
+   * @param aDateTime
+   *        The local date time to format. May not be <code>null</code>.
+   * @param aBuf
+   *        The target buffer. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first char to write.
+   * @return The index after the last written char.
+   */
+  public static int formatDateTime (@Nonnull final LocalDateTime aDateTime,
+                                    @Nonnull final char [] aBuf,
+                                    final int nOfs)
+  {
+    return _formatDateTime (aBuf,
+                            nOfs,
+                            aDateTime.getYear (),
+                            aDateTime.getMonthOfYear (),
+                            aDateTime.getDayOfMonth (),
+                            aDateTime.getHourOfDay (),
+                            aDateTime.getMinuteOfHour (),
+                            aDateTime.getSecondOfMinute ());
+  }
+
+  /**
+   * Format the passed date time as {@link PDTIOHelper#PATTERN_DATETIME} into
+   * the passed char array. The fields are taken in the time zone of the passed
+   * object.
+   * 
+   * @param aDateTime
+   *        The date time to format. May not be <code>null</code>.
+   * @param aBuf
+   *        The target buffer. May not be <code>null</code>.
+   * @param nOfs
+   *        The index of the first char to write.
+   * @return The index after the last written char.
+   */
+  public static int formatDateTime (@Nonnull final DateTime aDateTime, @Nonnull final char [] aBuf, final int nOfs)
+  {
+    return _formatDateTime (aBuf,
+                            nOfs,
+                            aDateTime.getYear (),
+                            aDateTime.getMonthOfYear (),
+                            aDateTime.getDayOfMonth (),
+                            aDateTime.getHourOfDay (),
+                            aDateTime.getMinuteOfHour (),
+                            aDateTime.getSecondOfMinute ());
+  }
+
+  public static int formatDateTime (@Nonnull final LocalDateTime aDateTime,
+                                    @Nonnull final byte [] aBuf,
+                                    final int nOfs)
+  {
+    return PDTASCIICodec.writeDateTimeForFilename (aDateTime, aBuf, nOfs);
+  }
+
+  public static int formatDateTime (@Nonnull final DateTime aDateTime, @Nonnull final byte [] aBuf, final int nOfs)
+  {
+    return PDTASCIICodec.writeDateTimeForFilename (aDateTime, aBuf, nOfs);
+  }
+
+  @Nonnull
+  public static String formatDateTime (@Nonnull final LocalDateTime aDateTime)
+  {
+    final char [] aBuf = new char [LENGTH_DATETIME];
+    formatDateTime (aDateTime, aBuf, 0);
+    return new String (aBuf);
+  }
+
+  @Nonnull
+  public static String formatDateTime (@Nonnull final DateTime aDateTime)
+  {
+    final char [] aBuf = new char [LENGTH_DATETIME];
+    formatDateTime (aDateTime, aBuf, 0);
+    return new String (aBuf);
+  }
+
+  /**
+   * Parse a local date time in the format {@link PDTIOHelper#PATTERN_DATETIME}
+   * starting at the passed offset. Trailing characters are ignored.
+   * 
+   * @param aCS
+   *        The source to parse. May be <code>null</code>.
+   * @param nOfs
+   *        The index of the first char to parse.
+   * @return <code>null</code> if no valid local date time is present.
+   */
+  @Nullable
+  public static LocalDateTime parseDateTime (@Nullable final CharSequence aCS, final int nOfs)
+  {
+    if (!_hasLength (aCS, nOfs, LENGTH_DATETIME) || aCS.charAt (nOfs + LENGTH_DATE) != SEPARATOR)
+      return null;
+    final Chronology aChronology = PDTFactory.getLocalChronology ();
+    final int nDate = _readDate (aCS, nOfs, aChronology);
+    if (nDate == ILLEGAL)
+      return null;
+    final int nSecondOfDay = _readTime (aCS, nOfs + LENGTH_DATE + 1);
+    if (nSecondOfDay == ILLEGAL)
+      return null;
+    return new LocalDateTime (nDate / 10000,
+                              (nDate / 100) % 100,
+                              nDate % 100,
+                              nSecondOfDay / 3600,
+                              (nSecondOfDay / 60) % 60,
+                              nSecondOfDay % 60,
+                              0,
+                              aChronology);
+  }
+
+  /**
+   * Parse a local date time in the format {@link PDTIOHelper#PATTERN_DATETIME}.
+   * 
+   * @param sText
+   *        The text to parse. May be <code>null</code>.
+   * @return <code>null</code> if the text is not a valid local date time in
+   *         the expected format.
+   */
+  @Nullable
+  public static LocalDateTime parseDateTime (@Nullable final String sText)
+  {
+    return sText != null && sText.length () == LENGTH_DATETIME ? parseDateTime (sText, 0) : null;
+  }
+
+  @Nullable
+  public static LocalDateTime parseDateTime (@Nonnull final char [] aBuf, final int nOfs)
+  {
+    return parseDateTime (CharBuffer.wrap (aBuf), nOfs);
+  }
+
+  @Nullable
+  public static LocalDateTime parseDateTime (@Nonnull final byte [] aBuf, final int nOfs)
+  {
+    if (nOfs < 0 || aBuf.length - nOfs < LENGTH_DATETIME)
+      return null;
+    return PDTASCIICodec.readDateTimeForFilename (aBuf, nOfs);
+  }
+
+  // --- local millis ---
+
+  /**
+   * Parse a date in the format {@link PDTIOHelper#PATTERN_DATE} starting at the
+   * passed offset directly into local milliseconds, without creating any
+   * intermediate object. Trailing characters are ignored.
+   * 
+   * @param aCS
+   *        The source to parse. May be <code>null</code>.
+   * @param nOfs
+   *        The index of the first char to parse.
+   * @param aChronology
+   *        The chronology used for validation and for the millisecond
+   *        computation. Should be a UTC chronology. May not be
+   *        <code>null</code>.
+   * @return The milliseconds of the start of the day or
+   *         {@link PDTASCIICodec#ILLEGAL_MILLIS} if no valid date is present.
+   */
+  public static long parseDateLocalMillis (@Nullable final CharSequence aCS,
+                                           final int nOfs,
+                                           @Nonnull final Chronology aChronology)
+  {
+    if (!_hasLength (aCS, nOfs, LENGTH_DATE))
+      return PDTASCIICodec.ILLEGAL_MILLIS;
+    final int nDate = _readDate (aCS, nOfs, aChronology);
+    if (nDate == ILLEGAL)
+      return PDTASCIICodec.ILLEGAL_MILLIS;
+    return aChronology.getDateTimeMillis (nDate / 10000, (nDate / 100) % 100, nDate % 100, 0);
+  }
+
+  /**
+   * Parse a time in the format {@link PDTIOHelper#PATTERN_TIME} starting at the
+   * passed offset directly into local milliseconds of 1970-01-01 (the default
+   * date of Joda), without creating any intermediate object. Trailing
+   * characters are ignored.
+   * 
+   * @param aCS
+   *        The source to parse. May be <code>null</code>.
+   * @param nOfs
+   *        The index of the first char to parse.
+   * @param aChronology
+   *        The chronology used for the millisecond computation. Should be a
+   *        UTC chronology. May not be <code>null</code>.
+   * @return The local milliseconds or {@link PDTASCIICodec#ILLEGAL_MILLIS} if
+   *         no valid time is present.
+   */
+  public static long parseTimeLocalMillis (@Nullable final CharSequence aCS,
+                                           final int nOfs,
+                                           @Nonnull final Chronology aChronology)
+  {
+    if (!_hasLength (aCS, nOfs, LENGTH_TIME))
+      return PDTASCIICodec.ILLEGAL_MILLIS;
+    final int nSecondOfDay = _readTime (aCS, nOfs);
+    if (nSecondOfDay == ILLEGAL)
+      return PDTASCIICodec.ILLEGAL_MILLIS;
+    return aChronology.getDateTimeMillis (1970, 1, 1, nSecondOfDay * 1000);
+  }
+
+  /**
+   * Parse a local date time in the format {@link PDTIOHelper#PATTERN_DATETIME}
+   * starting at the passed offset directly into local milliseconds, without
+   * creating any intermediate object. Trailing characters are ignored.
+   * 
+   * @param aCS
+   *        The source to parse. May be <code>null</code>.
+   * @param nOfs
+   *        The index of the first char to parse.
+   * @param aChronology
+   *        The chronology used for validation and for the millisecond
+   *        computation. Should be a UTC chronology. May not be
+   *        <code>null</code>.
+   * @return The local milliseconds or {@link PDTASCIICodec#ILLEGAL_MILLIS} if
+   *         no valid local date time is present.
+   */
+  public static long parseDateTimeLocalMillis (@Nullable final CharSequence aCS,
+                                               final int nOfs,
+                                               @Nonnull final Chronology aChronology)
+  {
+    if (!_hasLength (aCS, nOfs, LENGTH_DATETIME) || aCS.charAt (nOfs + LENGTH_DATE) != SEPARATOR)
+      return PDTASCIICodec.ILLEGAL_MILLIS;
+    final int nDate = _readDate (aCS, nOfs, aChronology);
+    if (nDate == ILLEGAL)
+      return PDTASCIICodec.ILLEGAL_MILLIS;
+    final int nSecondOfDay = _readTime (aCS, nOfs + LENGTH_DATE + 1);
+    if (nSecondOfDay == ILLEGAL)
+      return PDTASCIICodec.ILLEGAL_MILLIS;
+    return aChronology.getDateTimeMillis (nDate / 10000, (nDate / 100) % 100, nDate % 100, nSecondOfDay * 1000);
+  }
+}
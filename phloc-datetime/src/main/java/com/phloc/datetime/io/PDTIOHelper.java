@@ -18,19 +18,24 @@
 package com.phloc.datetime.io;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
 import org.joda.time.DateTime;
+import org.joda.time.IllegalInstantException;
 import org.joda.time.LocalDate;
 import org.joda.time.LocalDateTime;
 import org.joda.time.LocalTime;
 
 import com.phloc.commons.annotations.PresentForCodeCoverage;
 import com.phloc.datetime.PDTFactory;
+import com.phloc.datetime.config.PDTConfig;
 import com.phloc.datetime.format.PDTToString;
 
 /**
- * Some date time specific routines especially helpful for IO.
+ * Some date time specific routines especially helpful for IO. Formatting and
+ * parsing is done via {@link PDTIOFixedWidthCodec} for all years between 0 and
+ * 9999.
  * 
  * @author Philip Helger
  */
@@ -70,6 +75,10 @@ public final class PDTIOHelper
   @Nonnull
   public static String getDateTimeForFilename (@Nonnull final DateTime aDT)
   {
+    // Fields are printed in the default chronology, like the pattern formatter
+    final DateTime aRealDT = aDT.toDateTime (PDTConfig.getDefaultChronology ());
+    if (PDTIOFixedWidthCodec.isSupportedYear (aRealDT.getYear ()))
+      return PDTIOFixedWidthCodec.formatDateTime (aRealDT);
     return PDTToString.getAsString (PATTERN_DATETIME, aDT);
   }
 
@@ -92,6 +101,8 @@ public final class PDTIOHelper
   @Nonnull
   public static String getLocalDateTimeForFilename (@Nonnull final LocalDateTime aDT)
   {
+    if (PDTIOFixedWidthCodec.isSupportedYear (aDT.getYear ()))
+      return PDTIOFixedWidthCodec.formatDateTime (aDT);
     return PDTToString.getAsString (PATTERN_DATETIME, aDT);
   }
 
@@ -112,6 +123,8 @@ public final class PDTIOHelper
    */
   public static String getDateForFilename (@Nonnull final LocalDate aLocalDate)
   {
+    if (PDTIOFixedWidthCodec.isSupportedYear (aLocalDate.getYear ()))
+      return PDTIOFixedWidthCodec.formatDate (aLocalDate);
     return PDTToString.getAsString (PATTERN_DATE, aLocalDate);
   }
 
@@ -132,6 +145,73 @@ public final class PDTIOHelper
    */
   public static String getTimeForFilename (@Nonnull final LocalTime aLocalTime)
   {
-    return PDTToString.getAsString (PATTERN_TIME, aLocalTime);
+    return PDTIOFixedWidthCodec.formatTime (aLocalTime);
+  }
+
+  /**
+   * Parse a date time previously created by
+   * {@link #getDateTimeForFilename(DateTime)}.
+   * 
+   * @param sText
+   *        The text to parse. May be <code>null</code>.
+   * @return <code>null</code> if the text could not be parsed or if it denotes
+   *         a local time that does not exist in the default time zone (DST
+   *         gap).
+   */
+  @Nullable
+  public static DateTime getDateTimeFromFilename (@Nullable final String sText)
+  {
+    final LocalDateTime aLDT = PDTIOFixedWidthCodec.parseDateTime (sText);
+    if (aLDT == null)
+      return null;
+    try
+    {
+      return PDTFactory.createDateTime (aLDT);
+    }
+    catch (final IllegalInstantException ex)
+    {
+      // Cannot have been created by getDateTimeForFilename
+      return null;
+    }
+  }
+
+  /**
+   * Parse a local date time previously created by
+   * {@link #getLocalDateTimeForFilename(LocalDateTime)}.
+   * 
+   * @param sText
+   *        The text to parse. May be <code>null</code>.
+   * @return <code>null</code> if the text could not be parsed.
+   */
+  @Nullable
+  public static LocalDateTime getLocalDateTimeFromFilename (@Nullable final String sText)
+  {
+    return PDTIOFixedWidthCodec.parseDateTime (sText);
+  }
+
+  /**
+   * Parse a date previously created by {@link #getDateForFilename(LocalDate)}.
+   * 
+   * @param sText
+   *        The text to parse. May be <code>null</code>.
+   * @return <code>null</code> if the text could not be parsed.
+   */
+  @Nullable
+  public static LocalDate getDateFromFilename (@Nullable final String sText)
+  {
+    return PDTIOFixedWidthCodec.parseDate (sText);
+  }
+
+  /**
+   * Parse a time previously created by {@link #getTimeForFilename(LocalTime)}.
+   * 
+   * @param sText
+   *        The text to parse. May be <code>null</code>.
+   * @return <code>null</code> if the text could not be parsed.
+   */
+  @Nullable
+  public static LocalTime getTimeFromFilename (@Nullable final String sText)
+  {
+    return PDTIOFixedWidthCodec.parseTime (sText);
   }
 }
@@ -18,6 +18,7 @@
 package com.phloc.datetime;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
 import java.util.Locale;
@@ -41,4 +42,23 @@ public final class EDayOfWeekTest
       assertNotNull (e.getWeekdayShortName (Locale.GERMANY));
     }
   }
+
+  @Test
+  public void testGetFromName ()
+  {
+    for (final Locale aLocale : new Locale [] { Locale.GERMANY, Locale.US, Locale.FRANCE })
+      for (final EDayOfWeek e : EDayOfWeek.values ())
+      {
+        assertSame (e.getWeekdayName (aLocale), e.getWeekdayName (aLocale));
+        assertSame (e, EDayOfWeek.getFromNameOrNull (e.getWeekdayName (aLocale), aLocale));
+        assertSame (e, EDayOfWeek.getFromNameOrNull (e.getWeekdayName (aLocale).toUpperCase (aLocale), aLocale));
+        assertSame (e, EDayOfWeek.getFromNameOrNull (e.getWeekdayShortName (aLocale), aLocale));
+      }
+    assertSame (EDayOfWeek.WEDNESDAY, EDayOfWeek.getFromNameOrNull ("Mittwoch", Locale.GERMANY));
+    assertSame (EDayOfWeek.SUNDAY, EDayOfWeek.getFromNameOrNull ("sunday", Locale.US));
+    assertSame (EDayOfWeek.MONDAY, EDayOfWeek.getFromNameOrNull ("xMoNtAgx", 1, 6, Locale.GERMANY));
+    assertNull (EDayOfWeek.getFromNameOrNull ("sunday", Locale.GERMANY));
+    assertNull (EDayOfWeek.getFromNameOrNull ("", Locale.GERMANY));
+    assertNull (EDayOfWeek.getFromNameOrNull (null, Locale.GERMANY));
+  }
 }
@@ -18,6 +18,7 @@
 package com.phloc.datetime;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
 import java.util.Locale;
@@ -41,4 +42,23 @@ public final class EMonthTest
       assertNotNull (e.getMonthShortName (Locale.GERMANY));
     }
   }
+
+  @Test
+  public void testGetFromName ()
+  {
+    for (final Locale aLocale : new Locale [] { Locale.GERMANY, Locale.US, Locale.FRANCE })
+      for (final EMonth e : EMonth.values ())
+      {
+        assertSame (e.getMonthName (aLocale), e.getMonthName (aLocale));
+        assertSame (e, EMonth.getFromNameOrNull (e.getMonthName (aLocale), aLocale));
+        assertSame (e, EMonth.getFromNameOrNull (e.getMonthName (aLocale).toUpperCase (aLocale), aLocale));
+        assertSame (e, EMonth.getFromNameOrNull (e.getMonthShortName (aLocale), aLocale));
+      }
+    assertSame (EMonth.MARCH, EMonth.getFromNameOrNull ("März", Locale.GERMANY));
+    assertSame (EMonth.DECEMBER, EMonth.getFromNameOrNull ("december", Locale.US));
+    assertSame (EMonth.MAY, EMonth.getFromNameOrNull ("xMAIx", 1, 3, Locale.GERMANY));
+    assertNull (EMonth.getFromNameOrNull ("december", Locale.GERMANY));
+    assertNull (EMonth.getFromNameOrNull ("", Locale.GERMANY));
+    assertNull (EMonth.getFromNameOrNull (null, Locale.GERMANY));
+  }
 }
@@ -20,21 +20,27 @@ package com.phloc.datetime;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.concurrent.Callable;
 
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeZone;
 import org.joda.time.LocalDate;
 import org.joda.time.LocalDateTime;
 import org.joda.time.LocalTime;
 import org.joda.time.Period;
 import org.junit.Test;
 
+import com.phloc.datetime.clock.FixedClock;
+import com.phloc.datetime.clock.SystemClock;
 import com.phloc.datetime.config.PDTConfig;
+import com.phloc.datetime.config.PDTConfigScope;
 
 /**
  * Test class for class {@link PDTFactory}.
@@ -162,4 +168,117 @@ public final class PDTFactoryTest
     assertNotNull (aDT);
     assertEquals (aDT, PDTFactory.createDateTime (2012, DateTimeConstants.JANUARY, 31, 12, 13, 58, 966));
   }
+
+  @Test
+  public void testGetCurrentLocalDate ()
+  {
+    // Vienna midnight
+    final DateTime aMidnight = new DateTime (2015, 3, 2, 0, 0, 0, 0, PDTConfig.getDefaultChronology ());
+    try
+    {
+      PDTConfig.setClock (new FixedClock (aMidnight.getMillis () - 1));
+      assertEquals (PDTFactory.createLocalDate (2015, 3, 1), PDTFactory.getCurrentLocalDate ());
+      assertSame (PDTFactory.getCurrentLocalDate (), PDTFactory.getCurrentLocalDate ());
+      PDTConfig.setClock (new FixedClock (aMidnight.getMillis ()));
+      assertEquals (PDTFactory.createLocalDate (2015, 3, 2), PDTFactory.getCurrentLocalDate ());
+      // Clock going backwards
+      PDTConfig.setClock (new FixedClock (aMidnight.getMillis () - 1));
+      assertEquals (PDTFactory.createLocalDate (2015, 3, 1), PDTFactory.getCurrentLocalDate ());
+
+      // Same instant in a zone 9 hours ahead is already the next day
+      final PDTConfigScope aScope = PDTConfigScope.open (DateTimeZone.forID ("Asia/Tokyo"));
+      try
+      {
+        assertEquals (PDTFactory.createLocalDate (2015, 3, 2), PDTFactory.getCurrentLocalDate ());
+      }
+      finally
+      {
+        aScope.close ();
+      }
+      assertEquals (PDTFactory.createLocalDate (2015, 3, 1), PDTFactory.getCurrentLocalDate ());
+
+      // In Sao Paulo 2014-10-19 started at 01:00 because of DST
+      final DateTimeZone aSaoPaulo = DateTimeZone.forID ("America/Sao_Paulo");
+      final DateTime aDSTStart = PDTFactory.createLocalDate (2014, 10, 19).toDateTimeAtStartOfDay (aSaoPaulo);
+      assertEquals (1, aDSTStart.withZone (aSaoPaulo).getHourOfDay ());
+      final PDTConfigScope aScope2 = PDTConfigScope.open (aSaoPaulo);
+      try
+      {
+        PDTConfig.setClock (new FixedClock (aDSTStart.getMillis () - 1));
+        assertEquals (PDTFactory.createLocalDate (2014, 10, 18), PDTFactory.getCurrentLocalDate ());
+        PDTConfig.setClock (new FixedClock (aDSTStart.getMillis ()));
+        assertEquals (PDTFactory.createLocalDate (2014, 10, 19), PDTFactory.getCurrentLocalDate ());
+        PDTConfig.setClock (new FixedClock (aDSTStart.getMillis () + 23 * DateTimeConstants.MILLIS_PER_HOUR - 1));
+        assertEquals (PDTFactory.createLocalDate (2014, 10, 19), PDTFactory.getCurrentLocalDate ());
+        PDTConfig.setClock (new FixedClock (aDSTStart.getMillis () + 23 * DateTimeConstants.MILLIS_PER_HOUR));
+        assertEquals (PDTFactory.createLocalDate (2014, 10, 20), PDTFactory.getCurrentLocalDate ());
+      }
+      finally
+      {
+        aScope2.close ();
+      }
+    }
+    finally
+    {
+      PDTConfig.setClock (SystemClock.getInstance ());
+    }
+    assertEquals (new LocalDate (PDTConfig.getDefaultChronology ()), PDTFactory.getCurrentLocalDate ());
+  }
+
+  @Test
+  public void testGetCurrentLocalDateAlternatingScopes () throws Exception
+  {
+    final DateTime aMidnight = new DateTime (2015, 3, 2, 0, 0, 0, 0, PDTConfig.getDefaultChronology ());
+    final Callable <LocalDate> aGetter = new Callable <LocalDate> ()
+    {
+      public LocalDate call ()
+      {
+        return PDTFactory.getCurrentLocalDate ();
+      }
+    };
+    try
+    {
+      PDTConfig.setClock (new FixedClock (aMidnight.getMillis () - 1));
+
+      // Wrapping reuses the settings of the scope each time
+      Callable <LocalDate> aTokyo;
+      final PDTConfigScope aScope = PDTConfigScope.open (DateTimeZone.forID ("Asia/Tokyo"));
+      try
+      {
+        aTokyo = PDTConfigScope.wrap (aGetter);
+      }
+      finally
+      {
+        aScope.close ();
+      }
+      Callable <LocalDate> aNewYork;
+      final PDTConfigScope aScope2 = PDTConfigScope.open (DateTimeZone.forID ("America/New_York"));
+      try
+      {
+        aNewYork = PDTConfigScope.wrap (aGetter);
+      }
+      finally
+      {
+        aScope2.close ();
+      }
+
+      final LocalDate aGlobalDate = aGetter.call ();
+      final LocalDate aTokyoDate = aTokyo.call ();
+      final LocalDate aNewYorkDate = aNewYork.call ();
+      assertEquals (PDTFactory.createLocalDate (2015, 3, 1), aGlobalDate);
+      assertEquals (PDTFactory.createLocalDate (2015, 3, 2), aTokyoDate);
+      assertEquals (PDTFactory.createLocalDate (2015, 3, 1), aNewYorkDate);
+      for (int i = 0; i < 10; ++i)
+      {
+        // Each configuration keeps its own cached date
+        assertSame (aTokyoDate, aTokyo.call ());
+        assertSame (aNewYorkDate, aNewYork.call ());
+        assertSame (aGlobalDate, aGetter.call ());
+      }
+    }
+    finally
+    {
+      PDTConfig.setClock (SystemClock.getInstance ());
+    }
+  }
 }
@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link PDTNameTrie}.
+ * 
+ * @author Philip Helger
+ */
+public final class PDTNameTrieTest
+{
+  @Test
+  public void testBasic ()
+  {
+    final PDTNameTrie <Integer> aTrie = new PDTNameTrie <Integer> ();
+    aTrie.add ("Jan", Integer.valueOf (1));
+    aTrie.add ("Januar", Integer.valueOf (1));
+    aTrie.add ("Juni", Integer.valueOf (6));
+    aTrie.add ("Juli", Integer.valueOf (7));
+    aTrie.add ("Jän", Integer.valueOf (1));
+    aTrie.add (null, Integer.valueOf (0));
+    aTrie.add ("", Integer.valueOf (0));
+    // Ambiguous
+    aTrie.add ("x", Integer.valueOf (1));
+    aTrie.add ("X", Integer.valueOf (2));
+
+    assertEquals (Integer.valueOf (1), aTrie.get ("jan", 0, 3));
+    assertEquals (Integer.valueOf (1), aTrie.get ("JANUAR", 0, 6));
+    assertEquals (Integer.valueOf (1), aTrie.get ("JÄN", 0, 3));
+    assertEquals (Integer.valueOf (6), aTrie.get ("Juni", 0, 4));
+    assertEquals (Integer.valueOf (7), aTrie.get ("am 3. Juli", 6, 4));
+    assertNull (aTrie.get ("Janu", 0, 4));
+    assertNull (aTrie.get ("Ju", 0, 2));
+    assertNull (aTrie.get ("", 0, 0));
+    assertNull (aTrie.get ("x", 0, 1));
+    assertNull (aTrie.get ("Julius", 0, 6));
+  }
+}
@@ -23,11 +23,14 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import org.joda.time.Chronology;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeConstants;
 import org.joda.time.LocalDate;
 import org.joda.time.LocalTime;
 import org.joda.time.Period;
+import org.joda.time.chrono.GJChronology;
+import org.joda.time.chrono.ISOChronology;
 import org.junit.Test;
 
 import com.phloc.commons.collections.pair.IReadonlyPair;
@@ -240,4 +243,22 @@ public final class PDTUtilsTest
     assertEquals (9, PDTUtils.getDifferenceDays (new LocalDate (2019, 8, 30), new LocalDate (2019, 9, 8)));
     assertEquals (8, PDTUtils.getDifferenceDays (new LocalDate (2019, 12, 28), new LocalDate (2020, 1, 5)));
   }
+
+  @Test
+  public void testIsValidDate ()
+  {
+    final Chronology aChrono = GJChronology.getInstanceUTC ();
+    assertTrue (PDTUtils.isValidDate (2012, 2, 29, aChrono));
+    assertFalse (PDTUtils.isValidDate (2013, 2, 29, aChrono));
+    assertFalse (PDTUtils.isValidDate (1900, 2, 29, aChrono));
+    assertTrue (PDTUtils.isValidDate (2000, 2, 29, aChrono));
+    assertFalse (PDTUtils.isValidDate (2013, 4, 31, aChrono));
+    assertTrue (PDTUtils.isValidDate (2013, 12, 31, aChrono));
+    assertFalse (PDTUtils.isValidDate (2013, 13, 1, aChrono));
+    assertFalse (PDTUtils.isValidDate (2013, 1, 0, aChrono));
+    // No year 0 in GJ chronology
+    assertTrue (PDTUtils.isValidDate (1500, 2, 28, aChrono));
+    assertFalse (PDTUtils.isValidDate (0, 1, 1, aChrono));
+    assertTrue (PDTUtils.isValidDate (0, 1, 1, ISOChronology.getInstanceUTC ()));
+  }
 }
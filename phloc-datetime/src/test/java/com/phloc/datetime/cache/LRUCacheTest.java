@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link LRUCache}.
+ * 
+ * @author Philip Helger
+ */
+public final class LRUCacheTest
+{
+  @Test
+  public void testBasic ()
+  {
+    final LRUCache <String, String> aCache = new LRUCache <String, String> (3);
+    assertEquals (0, aCache.getSize ());
+    assertEquals (3, aCache.getMaxSize ());
+    assertNull (aCache.get ("a"));
+    assertEquals (1, aCache.getMissCount ());
+
+    assertEquals ("A", aCache.putIfAbsent ("a", "A"));
+    assertEquals ("A", aCache.putIfAbsent ("a", "A2"));
+    aCache.putIfAbsent ("b", "B");
+    aCache.putIfAbsent ("c", "C");
+    assertEquals (3, aCache.getSize ());
+
+    // Touch "a" so that "b" is the eldest
+    assertEquals ("A", aCache.get ("a"));
+    assertEquals (1, aCache.getHitCount ());
+    aCache.putIfAbsent ("d", "D");
+    assertEquals (3, aCache.getSize ());
+    assertEquals (1, aCache.getEvictionCount ());
+    assertNull (aCache.get ("b"));
+    assertEquals ("A", aCache.get ("a"));
+    assertEquals ("C", aCache.get ("c"));
+    assertEquals ("D", aCache.get ("d"));
+
+    // Shrink - all remaining entries were referenced, so the hand clears all
+    // marks and any one of them may be kept
+    aCache.setMaxSize (1);
+    assertEquals (1, aCache.getSize ());
+    assertEquals (3, aCache.getEvictionCount ());
+    int nRemaining = 0;
+    for (final String sKey : new String [] { "a", "c", "d" })
+      if (aCache.get (sKey) != null)
+        nRemaining++;
+    assertEquals (1, nRemaining);
+
+    aCache.clear ();
+    assertEquals (0, aCache.getSize ());
+    aCache.resetStatistics ();
+    assertEquals (0, aCache.getHitCount ());
+    assertEquals (0, aCache.getMissCount ());
+    assertEquals (0, aCache.getEvictionCount ());
+  }
+
+  @Test
+  public void testPutIfAbsentConcurrent () throws InterruptedException
+  {
+    final LRUCache <Integer, Integer> aCache = new LRUCache <Integer, Integer> (50);
+    final Thread [] aThreads = new Thread [4];
+    for (int i = 0; i < aThreads.length; ++i)
+    {
+      aThreads[i] = new Thread (new Runnable ()
+      {
+        public void run ()
+        {
+          for (int j = 0; j < 1000; ++j)
+          {
+            final Integer aKey = Integer.valueOf (j % 100);
+            if (aCache.get (aKey) == null)
+              aCache.putIfAbsent (aKey, aKey);
+          }
+        }
+      });
+      aThreads[i].start ();
+    }
+    for (final Thread aThread : aThreads)
+      aThread.join ();
+    assertEquals (50, aCache.getSize ());
+    assertEquals (4000, aCache.getHitCount () + aCache.getMissCount ());
+  }
+
+  @Test
+  public void testInvalid ()
+  {
+    try
+    {
+      new LRUCache <String, String> (0);
+      fail ();
+    }
+    catch (final IllegalArgumentException ex)
+    {}
+
+    final LRUCache <String, String> aCache = new LRUCache <String, String> (5);
+    try
+    {
+      aCache.setMaxSize (0);
+      fail ();
+    }
+    catch (final IllegalArgumentException ex)
+    {}
+    try
+    {
+      aCache.putIfAbsent ("a", null);
+      fail ();
+    }
+    catch (final NullPointerException ex)
+    {}
+  }
+
+  @Test
+  public void testColdEntriesAreEvictedEverywhere ()
+  {
+    final LRUCache <Integer, String> aCache = new LRUCache <Integer, String> (100);
+    // Entries late in the hash order of the underlying map
+    for (int i = 156; i < 256; ++i)
+      aCache.putIfAbsent (Integer.valueOf (i), "old");
+    // Many new entries early in the hash order, that are never looked up
+    for (int i = 0; i < 100; ++i)
+      for (int j = 0; j < 100; ++j)
+        aCache.putIfAbsent (Integer.valueOf (1000 + i * 256 + j), "new");
+    assertEquals (100, aCache.getSize ());
+
+    // The clock hand reached the old entries as well
+    for (int i = 156; i < 256; ++i)
+      assertNull (aCache.get (Integer.valueOf (i)));
+  }
+}
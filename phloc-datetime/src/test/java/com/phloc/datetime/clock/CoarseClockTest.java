@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.clock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link CoarseClock}.
+ * 
+ * @author Philip Helger
+ */
+public final class CoarseClockTest
+{
+  private static final class MutableClock implements IClock
+  {
+    private volatile long m_nMillis;
+
+    public long getCurrentMillis ()
+    {
+      return m_nMillis;
+    }
+  }
+
+  @Test
+  public void testTick () throws InterruptedException
+  {
+    final MutableClock aBase = new MutableClock ();
+    aBase.m_nMillis = 1000;
+    final CoarseClock aClock = new CoarseClock (aBase, 1);
+    try
+    {
+      assertEquals (1000, aClock.getCurrentMillis ());
+      aBase.m_nMillis = 2000;
+      // Wait until the ticker picked up the new value
+      for (int i = 0; i < 5000 && aClock.getCurrentMillis () != 2000; ++i)
+        Thread.sleep (1);
+      assertEquals (2000, aClock.getCurrentMillis ());
+    }
+    finally
+    {
+      aClock.close ();
+    }
+    assertTrue (aClock.isClosed ());
+  }
+
+  @Test
+  public void testSystem ()
+  {
+    final CoarseClock aClock = new CoarseClock ();
+    try
+    {
+      final long nDiff = SystemClock.getInstance ().getCurrentMillis () - aClock.getCurrentMillis ();
+      assertTrue (Long.toString (nDiff), nDiff >= 0 && nDiff < 1000);
+    }
+    finally
+    {
+      aClock.close ();
+    }
+
+    try
+    {
+      new CoarseClock (SystemClock.getInstance (), 0);
+      fail ();
+    }
+    catch (final IllegalArgumentException ex)
+    {}
+  }
+}
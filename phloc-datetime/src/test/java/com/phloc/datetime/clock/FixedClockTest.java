@@ -0,0 +1,42 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.clock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link FixedClock}.
+ * 
+ * @author Philip Helger
+ */
+public final class FixedClockTest
+{
+  @Test
+  public void testBasic ()
+  {
+    final FixedClock aClock = new FixedClock (123456789L);
+    assertEquals (123456789L, aClock.getCurrentMillis ());
+    assertEquals (123456789L, aClock.getCurrentMillis ());
+    assertEquals (aClock, new FixedClock (123456789L));
+    assertEquals (aClock.hashCode (), new FixedClock (123456789L).hashCode ());
+    assertFalse (aClock.equals (new FixedClock (0)));
+  }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.clock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link OffsetClock}.
+ * 
+ * @author Philip Helger
+ */
+public final class OffsetClockTest
+{
+  @Test
+  public void testBasic ()
+  {
+    final FixedClock aBase = new FixedClock (1000000);
+    assertEquals (1000500, new OffsetClock (aBase, 500).getCurrentMillis ());
+    assertEquals (999000, new OffsetClock (aBase, -1000).getCurrentMillis ());
+    assertEquals (new OffsetClock (aBase, 5), new OffsetClock (new FixedClock (1000000), 5));
+
+    final OffsetClock aClock = new OffsetClock (3600000);
+    assertSame (SystemClock.getInstance (), aClock.getBaseClock ());
+    assertTrue (aClock.getCurrentMillis () - SystemClock.getInstance ().getCurrentMillis () >= 3600000 - 1000);
+
+    try
+    {
+      new OffsetClock (null, 0);
+      fail ();
+    }
+    catch (final NullPointerException ex)
+    {}
+  }
+}
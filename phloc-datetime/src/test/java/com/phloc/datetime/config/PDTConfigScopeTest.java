@@ -0,0 +1,221 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.chrono.ISOChronology;
+import org.junit.Test;
+
+import com.phloc.datetime.PDTFactory;
+import com.phloc.datetime.format.PDTFromString;
+
+/**
+ * Test class for class {@link PDTConfigScope}.
+ * 
+ * @author Philip Helger
+ */
+public final class PDTConfigScopeTest
+{
+  private static final DateTimeZone TOKYO = DateTimeZone.forID ("Asia/Tokyo");
+  private static final DateTimeZone NEW_YORK = DateTimeZone.forID ("America/New_York");
+
+  @Test
+  public void testOpenClose ()
+  {
+    final DateTimeZone aGlobal = PDTConfig.getDefaultDateTimeZone ();
+    assertNull (PDTConfigScope.getCurrentOrNull ());
+
+    final PDTConfigScope aScope = PDTConfigScope.open (TOKYO);
+    try
+    {
+      assertSame (aScope, PDTConfigScope.getCurrentOrNull ());
+      assertEquals (TOKYO, PDTConfig.getDefaultDateTimeZone ());
+      assertEquals (TOKYO, PDTConfig.getDefaultChronology ().getZone ());
+      assertEquals (TOKYO, PDTFactory.getCurrentDateTime ().getZone ());
+      final DateTime aDT = PDTFromString.getDateTimeFromString ("2015-03-01 10:00", "yyyy-MM-dd HH:mm");
+      assertEquals (TOKYO, aDT.getZone ());
+      assertEquals (9 * 3600000, aDT.getZone ().getOffset (aDT));
+
+      // Nested
+      final PDTConfigScope aNested = PDTConfigScope.open (NEW_YORK, true);
+      try
+      {
+        assertEquals (NEW_YORK, PDTConfig.getDefaultDateTimeZone ());
+        assertTrue (PDTConfig.isUseISOChronology ());
+        assertSame (ISOChronology.getInstance (NEW_YORK), PDTConfig.getDefaultChronology ());
+        assertSame (ISOChronology.getInstanceUTC (), PDTConfig.getDefaultChronologyUTC ());
+
+        try
+        {
+          // Outer scope cannot be closed while the nested one is open
+          aScope.close ();
+          fail ();
+        }
+        catch (final IllegalStateException ex)
+        {}
+      }
+      finally
+      {
+        aNested.close ();
+      }
+      assertTrue (aNested.isClosed ());
+      assertEquals (TOKYO, PDTConfig.getDefaultDateTimeZone ());
+    }
+    finally
+    {
+      aScope.close ();
+    }
+    // Closing twice has no effect
+    aScope.close ();
+    assertNull (PDTConfigScope.getCurrentOrNull ());
+    assertEquals (aGlobal, PDTConfig.getDefaultDateTimeZone ());
+  }
+
+  @Test
+  public void testCallAndWrap () throws Exception
+  {
+    assertEquals (TOKYO, PDTConfigScope.call (TOKYO, new Callable <DateTimeZone> ()
+    {
+      public DateTimeZone call ()
+      {
+        return PDTFactory.getCurrentDateTime ().getZone ();
+      }
+    }));
+
+    final Callable <DateTimeZone> aTask = new Callable <DateTimeZone> ()
+    {
+      public DateTimeZone call ()
+      {
+        return PDTConfig.getDefaultDateTimeZone ();
+      }
+    };
+    // Without an open scope, nothing is wrapped
+    assertSame (aTask, PDTConfigScope.wrap (aTask));
+
+    final ExecutorService aES = Executors.newSingleThreadExecutor ();
+    try
+    {
+      final PDTConfigScope aScope = PDTConfigScope.open (NEW_YORK);
+      try
+      {
+        assertEquals (NEW_YORK, aES.submit (PDTConfigScope.wrap (aTask)).get ());
+        // Not propagated without wrapping
+        assertEquals (PDTConfig.DEFAULT_DATETIMEZONEID, aES.submit (aTask).get ().getID ());
+      }
+      finally
+      {
+        aScope.close ();
+      }
+    }
+    finally
+    {
+      aES.shutdown ();
+    }
+  }
+
+  @Test
+  public void testCloseFromOtherThread () throws Exception
+  {
+    final PDTConfigScope aScope = PDTConfigScope.open (TOKYO);
+    try
+    {
+      final ExecutorService aES = Executors.newSingleThreadExecutor ();
+      try
+      {
+        assertFalse (aES.submit (new Callable <Boolean> ()
+        {
+          public Boolean call ()
+          {
+            try
+            {
+              aScope.close ();
+              return Boolean.TRUE;
+            }
+            catch (final IllegalStateException ex)
+            {
+              return Boolean.FALSE;
+            }
+          }
+        }).get ().booleanValue ());
+      }
+      finally
+      {
+        aES.shutdown ();
+      }
+    }
+    finally
+    {
+      aScope.close ();
+    }
+  }
+
+  @Test
+  public void testTryWithResources () throws Exception
+  {
+    final DateTimeZone aGlobal = PDTConfig.getDefaultDateTimeZone ();
+    final Thread [] aThreads = new Thread [4];
+    final Throwable [] aErrors = new Throwable [aThreads.length];
+    for (int i = 0; i < aThreads.length; ++i)
+    {
+      final int nIndex = i;
+      final DateTimeZone aZone = nIndex % 2 == 0 ? TOKYO : NEW_YORK;
+      aThreads[i] = new Thread (new Runnable ()
+      {
+        public void run ()
+        {
+          try
+          {
+            for (int j = 0; j < 1000; ++j)
+            {
+              try (final PDTConfigScope aScope = PDTConfigScope.open (aZone))
+              {
+                assertSame (aScope, PDTConfigScope.getCurrentOrNull ());
+                assertEquals (aZone, PDTConfig.getDefaultDateTimeZone ());
+              }
+              assertNull (PDTConfigScope.getCurrentOrNull ());
+            }
+          }
+          catch (final Throwable t)
+          {
+            aErrors[nIndex] = t;
+          }
+        }
+      });
+      aThreads[i].start ();
+    }
+    for (final Thread aThread : aThreads)
+      aThread.join ();
+    for (final Throwable t : aErrors)
+      assertNull (t);
+    // Scopes of other threads never leak into this thread
+    assertNull (PDTConfigScope.getCurrentOrNull ());
+    assertEquals (aGlobal, PDTConfig.getDefaultDateTimeZone ());
+  }
+}
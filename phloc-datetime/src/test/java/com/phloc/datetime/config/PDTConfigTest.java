@@ -20,11 +20,21 @@ package com.phloc.datetime.config;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
+import org.joda.time.chrono.GJChronology;
+import org.joda.time.chrono.ISOChronology;
 import org.junit.Test;
 
+import com.phloc.datetime.PDTFactory;
+import com.phloc.datetime.clock.FixedClock;
+import com.phloc.datetime.clock.SystemClock;
+import com.phloc.datetime.expiration.Expirable;
+import com.phloc.datetime.period.DateTimePeriod;
+
 /**
  * Test class for class {@link PDTConfig}.
  * 
@@ -76,4 +86,81 @@ public final class PDTConfigTest
       assertTrue (PDTConfig.setDefaultDateTimeZoneID (PDTConfig.DEFAULT_DATETIMEZONEID).isSuccess ());
     }
   }
+
+  @Test
+  public void testChronology ()
+  {
+    final boolean bOld = PDTConfig.isUseISOChronology ();
+    try
+    {
+      PDTConfig.setUseISOChronology (false);
+      assertTrue (PDTConfig.getDefaultChronology () instanceof GJChronology);
+      assertEquals (PDTConfig.getDefaultDateTimeZone (), PDTConfig.getDefaultChronology ().getZone ());
+      assertSame (GJChronology.getInstanceUTC (), PDTConfig.getDefaultChronologyUTC ());
+
+      PDTConfig.setUseISOChronology (true);
+      assertTrue (PDTConfig.isUseISOChronology ());
+      assertSame (ISOChronology.getInstance (PDTConfig.getDefaultDateTimeZone ()), PDTConfig.getDefaultChronology ());
+      assertSame (ISOChronology.getInstanceUTC (), PDTConfig.getDefaultChronologyUTC ());
+
+      // Changing the time zone keeps the chronology type
+      assertTrue (PDTConfig.setDefaultDateTimeZoneID ("Europe/Berlin").isSuccess ());
+      assertSame (ISOChronology.getInstance (DateTimeZone.forID ("Europe/Berlin")), PDTConfig.getDefaultChronology ());
+    }
+    finally
+    {
+      PDTConfig.setUseISOChronology (bOld);
+      assertTrue (PDTConfig.setDefaultDateTimeZoneID (PDTConfig.DEFAULT_DATETIMEZONEID).isSuccess ());
+    }
+  }
+
+  @Test
+  public void testPrecomputedChronology ()
+  {
+    assertSame (PDTConfig.getDefaultChronology (), PDTConfig.getDefaultChronology (PDTConfig.getDefaultDateTimeZone ()));
+    assertSame (PDTConfig.getDefaultChronologyUTC (), PDTConfig.getDefaultChronology (DateTimeZone.UTC));
+    final DateTimeZone aZone = DateTimeZone.forID ("America/New_York");
+    assertEquals (PDTConfig.getDefaultChronology ().withZone (aZone), PDTConfig.getDefaultChronology (aZone));
+
+    // Changing the system date time zone is considered
+    final DateTimeZone aOldDefault = DateTimeZone.getDefault ();
+    try
+    {
+      DateTimeZone.setDefault (aZone);
+      assertEquals (aZone, PDTConfig.getDefaultChronologyWithoutDateTimeZone ().getZone ());
+      assertSame (PDTConfig.getDefaultChronologyWithoutDateTimeZone (),
+                  PDTConfig.getDefaultChronologyWithoutDateTimeZone ());
+    }
+    finally
+    {
+      DateTimeZone.setDefault (aOldDefault);
+    }
+    assertEquals (aOldDefault, PDTConfig.getDefaultChronologyWithoutDateTimeZone ().getZone ());
+  }
+
+  @Test
+  public void testClock ()
+  {
+    assertSame (SystemClock.getInstance (), PDTConfig.getClock ());
+    final long nMillis = new DateTime (2015, 2, 3, 4, 5, 6, 7, PDTConfig.getDefaultChronology ()).getMillis ();
+    PDTConfig.setClock (new FixedClock (nMillis));
+    try
+    {
+      assertEquals (nMillis, PDTFactory.getCurrentMillis ());
+      assertEquals (nMillis, PDTFactory.getCurrentDateTime ().getMillis ());
+      assertEquals (nMillis, PDTFactory.getCurrentDateTimeUTC ().getMillis ());
+      assertEquals (PDTFactory.createLocalDate (2015, 2, 3), PDTFactory.getCurrentLocalDate ());
+      assertEquals (PDTFactory.createLocalTime (4, 5, 6, 7), PDTFactory.getCurrentLocalTime ());
+      assertEquals (2015, PDTFactory.getCurrentYear ());
+
+      assertFalse (new Expirable (new DateTime (nMillis)).isExpired ());
+      assertTrue (new Expirable (new DateTime (nMillis - 1)).isExpired ());
+      assertTrue (new DateTimePeriod (new DateTime (nMillis), null).isValidForNow ());
+      assertFalse (new DateTimePeriod (new DateTime (nMillis + 1), null).isValidForNow ());
+    }
+    finally
+    {
+      PDTConfig.setClock (SystemClock.getInstance ());
+    }
+  }
 }
@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.phloc.commons.locale.LocaleCache;
+import com.phloc.datetime.format.PDTFormatPatterns;
+import com.phloc.datetime.format.PDTFormatter;
+import com.phloc.datetime.format.SerializableDateTimeFormatter.EFormatStyle;
+
+/**
+ * Test class for class {@link PDTWarmup}.
+ * 
+ * @author Philip Helger
+ */
+public final class PDTWarmupTest
+{
+  private static final List <Locale> LOCALES = Arrays.asList (LocaleCache.getLocale ("de", "AT"), Locale.ENGLISH);
+  private static final List <String> PATTERNS = Arrays.asList ("dd.MM.yyyy", "yyyy-MM-dd HH:mm");
+  private static final List <EFormatStyle> STYLES = Arrays.asList (EFormatStyle.values ());
+
+  @Test
+  public void testPrepare ()
+  {
+    PDTFormatPatterns.clearCache ();
+    final Map <PDTWarmup.EStep, Long> aTimings = PDTWarmup.prepare (LOCALES, PATTERNS, STYLES);
+    assertEquals (PDTWarmup.EStep.values ().length, aTimings.size ());
+    for (final Long aDuration : aTimings.values ())
+      assertTrue (aDuration.longValue () >= 0);
+    assertNotNull (aTimings.get (PDTWarmup.EStep.NAMES));
+    assertTrue (PDTFormatPatterns.getCacheSize () > 0);
+    assertTrue (PDTFormatter.getPatternCacheStatistics ().getSize () >= PATTERNS.size () * LOCALES.size ());
+  }
+
+  @Test
+  public void testPrepareInBackground () throws Exception
+  {
+    final Map <PDTWarmup.EStep, Long> aTimings = PDTWarmup.prepareInBackground (LOCALES, PATTERNS, STYLES).get ();
+    assertNotNull (aTimings);
+    assertEquals (PDTWarmup.EStep.values ().length, aTimings.size ());
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testInvalidPattern ()
+  {
+    PDTWarmup.prepare (LOCALES, Arrays.asList ("yyyy-bb"), STYLES);
+  }
+}
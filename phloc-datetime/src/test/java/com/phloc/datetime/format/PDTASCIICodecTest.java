@@ -0,0 +1,254 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.joda.time.LocalTime;
+import org.joda.time.format.ISODateTimeFormat;
+import org.junit.Test;
+
+import com.phloc.datetime.PDTFactory;
+import com.phloc.datetime.config.PDTConfig;
+import com.phloc.datetime.io.PDTIOHelper;
+
+/**
+ * Test class for class {@link PDTASCIICodec}.
+ * 
+ * @author Philip Helger
+ */
+public final class PDTASCIICodecTest
+{
+  private static final Charset ASCII = Charset.forName ("US-ASCII");
+
+  private static byte [] _bytes (final String s)
+  {
+    return s.getBytes (ASCII);
+  }
+
+  private static String _string (final byte [] aBuf, final int nOfs, final int nLen)
+  {
+    return new String (aBuf, nOfs, nLen, ASCII);
+  }
+
+  @Test
+  public void testISODate ()
+  {
+    final LocalDate aLD = PDTFactory.createLocalDate (2012, DateTimeConstants.FEBRUARY, 29);
+    final byte [] aBuf = new byte [20];
+    assertEquals (12, PDTASCIICodec.writeISODate (aLD, aBuf, 2));
+    assertEquals ("2012-02-29", _string (aBuf, 2, PDTASCIICodec.LENGTH_ISO_DATE));
+    assertEquals (aLD, PDTASCIICodec.readISODate (aBuf, 2));
+
+    final ByteBuffer aBB = ByteBuffer.allocate (PDTASCIICodec.LENGTH_ISO_DATE);
+    PDTASCIICodec.writeISODate (aLD, aBB);
+    assertEquals (PDTASCIICodec.LENGTH_ISO_DATE, aBB.position ());
+    aBB.flip ();
+    assertEquals (aLD, PDTASCIICodec.readISODate (aBB));
+
+    assertNull (PDTASCIICodec.readISODate (_bytes ("2013-02-29"), 0));
+    assertNull (PDTASCIICodec.readISODate (_bytes ("2013-13-01"), 0));
+    assertNull (PDTASCIICodec.readISODate (_bytes ("2013/01/01"), 0));
+    assertNull (PDTASCIICodec.readISODate (_bytes ("2013-0a-01"), 0));
+
+    try
+    {
+      PDTASCIICodec.writeISODate (PDTFactory.createLocalDate (10000, 1, 1), aBuf, 0);
+      fail ();
+    }
+    catch (final IllegalArgumentException ex)
+    {}
+  }
+
+  @Test
+  public void testISOTime ()
+  {
+    final LocalTime aLT = PDTFactory.createLocalTime (7, 5, 9, 45);
+    final byte [] aBuf = new byte [PDTASCIICodec.LENGTH_ISO_TIME];
+    assertEquals (PDTASCIICodec.LENGTH_ISO_TIME, PDTASCIICodec.writeISOTime (aLT, aBuf, 0));
+    assertEquals ("07:05:09.045", _string (aBuf, 0, aBuf.length));
+    assertEquals (aLT, PDTASCIICodec.readISOTime (aBuf, 0));
+    assertNull (PDTASCIICodec.readISOTime (_bytes ("24:00:00.000"), 0));
+    assertNull (PDTASCIICodec.readISOTime (_bytes ("12:60:00.000"), 0));
+  }
+
+  @Test
+  public void testISOLocalDateTime ()
+  {
+    final LocalDateTime aLDT = PDTFactory.createLocalDateTime (2014, DateTimeConstants.DECEMBER, 31, 23, 59, 58, 999);
+    final ByteBuffer aBB = ByteBuffer.allocate (64);
+    PDTASCIICodec.writeISOLocalDateTime (aLDT, aBB);
+    aBB.flip ();
+    assertEquals ("2014-12-31T23:59:58.999",
+                  _string (aBB.array (), 0, PDTASCIICodec.LENGTH_ISO_LOCAL_DATETIME));
+    assertEquals (aLDT, PDTASCIICodec.readISOLocalDateTime (aBB));
+    assertEquals (0, aBB.remaining ());
+    assertNull (PDTASCIICodec.readISOLocalDateTime (_bytes ("2014-12-31 23:59:58.999"), 0));
+  }
+
+  @Test
+  public void testISODateTime ()
+  {
+    final DateTime aUTC = new DateTime (2014, 6, 1, 10, 20, 30, 400, PDTConfig.getDefaultChronologyUTC ());
+    final byte [] aBuf = new byte [PDTASCIICodec.LENGTH_ISO_DATETIME_OFFSET];
+    assertEquals (PDTASCIICodec.LENGTH_ISO_DATETIME_UTC, PDTASCIICodec.writeISODateTime (aUTC, aBuf, 0));
+    assertEquals ("2014-06-01T10:20:30.400Z", _string (aBuf, 0, PDTASCIICodec.LENGTH_ISO_DATETIME_UTC));
+    DateTime aRead = PDTASCIICodec.readISODateTime (aBuf, 0, PDTASCIICodec.LENGTH_ISO_DATETIME_UTC);
+    assertEquals (aUTC.getMillis (), aRead.getMillis ());
+
+    final DateTime aOfs = aUTC.withZone (DateTimeZone.forOffsetHoursMinutes (-3, -30));
+    assertEquals (PDTASCIICodec.LENGTH_ISO_DATETIME_OFFSET, PDTASCIICodec.writeISODateTime (aOfs, aBuf, 0));
+    assertEquals ("2014-06-01T06:50:30.400-03:30", _string (aBuf, 0, PDTASCIICodec.LENGTH_ISO_DATETIME_OFFSET));
+    aRead = PDTASCIICodec.readISODateTime (ByteBuffer.wrap (aBuf));
+    assertEquals (aUTC.getMillis (), aRead.getMillis ());
+    assertEquals (aUTC.getMillis (), ISODateTimeFormat.dateTime ().parseMillis (_string (aBuf, 0, aBuf.length)));
+
+    assertNull (PDTASCIICodec.readISODateTime (_bytes ("2014-06-01T06:50:30.400X03:30"), 0, 29));
+    assertNull (PDTASCIICodec.readISODateTime (_bytes ("2014-06-01T06:50:30.400+03:30"), 0, 26));
+  }
+
+  @Test
+  public void testISODateTimeMillis ()
+  {
+    final DateTime aUTC = new DateTime (2014, 6, 1, 10, 20, 30, 400, PDTConfig.getDefaultChronologyUTC ());
+    final byte [] aBuf = _bytes ("xx2014-06-01T06:50:30.400-03:30");
+    assertEquals (aUTC.getMillis (),
+                  PDTASCIICodec.readISODateTimeMillis (aBuf, 2, PDTASCIICodec.LENGTH_ISO_DATETIME_OFFSET));
+
+    // Heap buffer with array offset, read in place
+    ByteBuffer aBB = ByteBuffer.wrap (aBuf);
+    aBB.position (2);
+    aBB = aBB.slice ();
+    assertEquals (aUTC.getMillis (), PDTASCIICodec.readISODateTimeMillis (aBB));
+    assertEquals (0, aBB.remaining ());
+
+    // Direct buffer
+    aBB = ByteBuffer.allocateDirect (PDTASCIICodec.LENGTH_ISO_DATETIME_UTC);
+    aBB.put (_bytes ("2014-06-01T10:20:30.400Z"));
+    aBB.flip ();
+    assertEquals (aUTC.getMillis (), PDTASCIICodec.readISODateTimeMillis (aBB));
+    assertEquals (0, aBB.remaining ());
+
+    // Each non-digit neighbour of '0' and '9' at each digit position
+    final String sValid = "2014-06-01T10:20:30.400Z";
+    for (int i = 0; i < sValid.length (); ++i)
+      if (Character.isDigit (sValid.charAt (i)))
+        for (final char c : new char [] { '/', ':', ' ', 'a', '\u00e9' })
+        {
+          final byte [] aInvalid = _bytes (sValid);
+          aInvalid[i] = (byte) c;
+          assertEquals (sValid + "@" + i,
+                        PDTASCIICodec.ILLEGAL_MILLIS,
+                        PDTASCIICodec.readISODateTimeMillis (aInvalid, 0, aInvalid.length));
+        }
+    assertEquals (PDTASCIICodec.ILLEGAL_MILLIS,
+                  PDTASCIICodec.readISODateTimeMillis (_bytes ("2014-06-01T10-20:30.400Z"), 0, 24));
+    assertEquals (PDTASCIICodec.ILLEGAL_MILLIS,
+                  PDTASCIICodec.readISODateTimeMillis (_bytes ("2014-06-01T10:20:30,400Z"), 0, 24));
+    assertEquals (PDTASCIICodec.ILLEGAL_MILLIS,
+                  PDTASCIICodec.readISODateTimeMillis (_bytes ("2014-06-31T10:20:30.400Z"), 0, 24));
+
+    // Compare with the String based parser
+    final byte [] aOut = new byte [PDTASCIICodec.LENGTH_ISO_DATETIME_OFFSET];
+    final Random aRandom = new Random (4711);
+    for (int i = 0; i < 1000; ++i)
+    {
+      final long nMillis = (aRandom.nextLong () >>> 1) % 253402300799999L;
+      final DateTime aDT = new DateTime (nMillis, PDTConfig.getDefaultChronologyUTC ());
+      final int nLen = PDTASCIICodec.writeISODateTime (aDT, aOut, 0);
+      assertEquals (ISODateTimeFormat.dateTime ().parseMillis (_string (aOut, 0, nLen)),
+                    PDTASCIICodec.readISODateTimeMillis (aOut, 0, nLen));
+    }
+  }
+
+  @Test
+  public void testISODateTimeMillisTruncated ()
+  {
+    final byte [] aUTC = _bytes ("2014-06-01T10:20:30.400Z");
+    final byte [] aOfs = _bytes ("2014-06-01T06:50:30.400-03:30");
+    // No suffix, partial offset
+    for (final ByteBuffer aBB : new ByteBuffer [] { ByteBuffer.wrap (aUTC, 0, PDTASCIICodec.LENGTH_ISO_LOCAL_DATETIME),
+                                                    ByteBuffer.wrap (aUTC, 0, 5),
+                                                    ByteBuffer.wrap (aOfs, 0, PDTASCIICodec.LENGTH_ISO_DATETIME_OFFSET - 1) })
+    {
+      final ByteBuffer aDirect = ByteBuffer.allocateDirect (aBB.remaining ());
+      aDirect.put (aBB.duplicate ());
+      aDirect.flip ();
+      for (final ByteBuffer aTruncated : new ByteBuffer [] { aBB, aDirect })
+      {
+        final int nPos = aTruncated.position ();
+        try
+        {
+          PDTASCIICodec.readISODateTimeMillis (aTruncated);
+          fail ();
+        }
+        catch (final BufferUnderflowException ex)
+        {}
+        assertEquals (nPos, aTruncated.position ());
+        try
+        {
+          PDTASCIICodec.readISODateTime (aTruncated);
+          fail ();
+        }
+        catch (final BufferUnderflowException ex)
+        {}
+      }
+    }
+  }
+
+  @Test
+  public void testForFilename ()
+  {
+    final LocalDateTime aLDT = PDTFactory.createLocalDateTime (2009, DateTimeConstants.MARCH, 4, 5, 6, 7);
+    final byte [] aBuf = new byte [PDTASCIICodec.LENGTH_FILENAME_DATETIME];
+
+    assertEquals (8, PDTASCIICodec.writeDateForFilename (aLDT.toLocalDate (), aBuf, 0));
+    assertEquals (PDTIOHelper.getDateForFilename (aLDT.toLocalDate ()), _string (aBuf, 0, 8));
+    assertEquals (aLDT.toLocalDate (), PDTASCIICodec.readDateForFilename (aBuf, 0));
+
+    assertEquals (6, PDTASCIICodec.writeTimeForFilename (aLDT.toLocalTime (), aBuf, 0));
+    assertEquals (PDTIOHelper.getTimeForFilename (aLDT.toLocalTime ()), _string (aBuf, 0, 6));
+    assertEquals (aLDT.toLocalTime (), PDTASCIICodec.readTimeForFilename (aBuf, 0));
+
+    assertEquals (15, PDTASCIICodec.writeDateTimeForFilename (aLDT, aBuf, 0));
+    assertEquals (PDTIOHelper.getLocalDateTimeForFilename (aLDT), _string (aBuf, 0, 15));
+    assertEquals (aLDT, PDTASCIICodec.readDateTimeForFilename (aBuf, 0));
+
+    final DateTime aDT = PDTFactory.createDateTime (aLDT);
+    final ByteBuffer aBB = ByteBuffer.allocate (15);
+    PDTASCIICodec.writeDateTimeForFilename (aDT, aBB);
+    aBB.flip ();
+    assertEquals (PDTIOHelper.getDateTimeForFilename (aDT), _string (aBB.array (), 0, 15));
+    assertEquals (aLDT, PDTASCIICodec.readDateTimeForFilename (aBB));
+
+    assertNull (PDTASCIICodec.readDateTimeForFilename (_bytes ("20090304-050607"), 0));
+    assertNull (PDTASCIICodec.readDateForFilename (_bytes ("20090230"), 0));
+  }
+}
@@ -0,0 +1,309 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import org.joda.time.DateTime;
+import org.joda.time.Days;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.joda.time.format.DateTimeFormatter;
+import org.junit.Test;
+
+import com.phloc.datetime.PDTFactory;
+import com.phloc.datetime.config.PDTConfigScope;
+
+/**
+ * Test class for class {@link PDTBulkParser}.
+ * 
+ * @author Philip Helger
+ */
+public final class PDTBulkParserTest
+{
+  private static final String PATTERN = "yyyy-MM-dd";
+
+  @Test
+  public void testEpochDay ()
+  {
+    assertEquals (0, PDTBulkParser.getEpochDay (PDTFactory.createDateTime (1970, 1, 1)));
+    assertEquals (-1, PDTBulkParser.getEpochDay (PDTFactory.createDateTime (1969, 12, 31, 23, 59, 59)));
+    final LocalDate aLD = PDTFactory.createLocalDate (2015, 3, 29);
+    assertEquals (Days.daysBetween (new LocalDate (1970, 1, 1, aLD.getChronology ()), aLD).getDays (),
+                  PDTBulkParser.getEpochDay (PDTFactory.createDateTime (aLD)));
+  }
+
+  @Test
+  public void testSequential ()
+  {
+    final String [] aValues = new String [] { "2015-01-01", null, "2015-02-30", "1969-12-31", "" };
+    final long [] aMillis = new long [aValues.length];
+    BitSet aInvalid = PDTBulkParser.parseEpochMillis (aValues, PATTERN, aMillis);
+    assertEquals (3, aInvalid.cardinality ());
+    assertTrue (aInvalid.get (1));
+    assertTrue (aInvalid.get (2));
+    assertTrue (aInvalid.get (4));
+    final DateTime aDT = PDTFromString.getDateTimeFromString ("2015-01-01", PATTERN);
+    assertEquals (aDT.getMillis (), aMillis[0]);
+    assertEquals (0, aMillis[1]);
+
+    final int [] aDays = new int [aValues.length];
+    aInvalid = PDTBulkParser.parseEpochDays (aValues, PATTERN, aDays);
+    assertEquals (3, aInvalid.cardinality ());
+    assertEquals (PDTBulkParser.getEpochDay (aDT), aDays[0]);
+    assertEquals (-1, aDays[3]);
+  }
+
+  @Test
+  public void testParallel ()
+  {
+    final List <String> aValues = new ArrayList <String> ();
+    LocalDate aLD = PDTFactory.createLocalDate (2000, 1, 1);
+    for (int i = 0; i < 10000; ++i)
+    {
+      aValues.add (i % 100 == 0 ? "invalid" : PDTToString.getAsString (PATTERN, aLD));
+      aLD = aLD.plusDays (1);
+    }
+
+    final int [] aExpected = new int [aValues.size ()];
+    final BitSet aExpectedInvalid = PDTBulkParser.parseEpochDays (aValues, PATTERN, aExpected);
+    assertEquals (100, aExpectedInvalid.cardinality ());
+
+    final ExecutorService aES = Executors.newFixedThreadPool (4);
+    try
+    {
+      final int [] aDays = new int [aValues.size ()];
+      final BitSet aInvalid = PDTBulkParser.parseEpochDays (aValues, PDTFormatter.getForPattern (PATTERN), aDays, aES);
+      assertEquals (aExpectedInvalid, aInvalid);
+      assertArrayEquals (aExpected, aDays);
+    }
+    finally
+    {
+      aES.shutdown ();
+    }
+  }
+
+  @Test
+  public void testForkJoin ()
+  {
+    final List <String> aValues = new ArrayList <String> ();
+    LocalDate aLD = PDTFactory.createLocalDate (2000, 1, 1);
+    for (int i = 0; i < 10000; ++i)
+    {
+      aValues.add (i % 100 == 0 ? "invalid" : PDTToString.getAsString (PATTERN, aLD));
+      aLD = aLD.plusDays (1);
+    }
+
+    final long [] aExpected = new long [aValues.size ()];
+    final BitSet aExpectedInvalid = PDTBulkParser.parseEpochMillis (aValues, PATTERN, aExpected);
+
+    final ForkJoinPool aPool = new ForkJoinPool (4);
+    try
+    {
+      final long [] aMillis = new long [aValues.size ()];
+      final BitSet aInvalid = PDTBulkParser.parseEpochMillis (aValues,
+                                                              PDTFormatter.getForPattern (PATTERN),
+                                                              aMillis,
+                                                              aPool);
+      assertEquals (aExpectedInvalid, aInvalid);
+      assertArrayEquals (aExpected, aMillis);
+    }
+    finally
+    {
+      aPool.shutdown ();
+    }
+
+    // Lists without random access are copied
+    final long [] aLinkedMillis = new long [aValues.size ()];
+    assertEquals (aExpectedInvalid,
+                  PDTBulkParser.parseEpochMillis (new LinkedList <String> (aValues),
+                                                  PDTFormatter.getForPattern (PATTERN),
+                                                  aLinkedMillis,
+                                                  null));
+    assertArrayEquals (aExpected, aLinkedMillis);
+
+    // Sequential and parallel streams
+    final DateTimeFormatter aDF = PDTFormatter.getForPattern (PATTERN);
+    long [] aMillis = new long [aValues.size ()];
+    assertEquals (aExpectedInvalid, PDTBulkParser.parseEpochMillis (aValues.stream (), aDF, aMillis));
+    assertArrayEquals (aExpected, aMillis);
+    aMillis = new long [aValues.size ()];
+    assertEquals (aExpectedInvalid, PDTBulkParser.parseEpochMillis (aValues.parallelStream (), aDF, aMillis));
+    assertArrayEquals (aExpected, aMillis);
+    final int [] aDays = new int [aValues.size ()];
+    assertEquals (aExpectedInvalid, PDTBulkParser.parseEpochDays (aValues.parallelStream (), aDF, aDays));
+    for (int i = 0; i < aDays.length; ++i)
+      if (!aExpectedInvalid.get (i))
+        assertEquals (PDTBulkParser.getEpochDay (PDTFromString.getDateTimeFromString (aValues.get (i), aDF)),
+                      aDays[i]);
+  }
+
+  private static void _assertSameAsPDTFromString (final String [] aValues, final DateTimeFormatter aDF)
+  {
+    final long [] aMillis = new long [aValues.length];
+    final int [] aDays = new int [aValues.length];
+    final BitSet aInvalid = PDTBulkParser.parseEpochMillis (aValues, aDF, aMillis, null);
+    assertEquals (aInvalid, PDTBulkParser.parseEpochDays (aValues, aDF, aDays, null));
+    for (int i = 0; i < aValues.length; ++i)
+    {
+      final PDTParseResult aResult = PDTFromString.parseDateTime (aValues[i], aDF);
+      assertEquals (aValues[i], !aResult.isSuccess (), aInvalid.get (i));
+      if (aResult.isSuccess ())
+      {
+        final DateTime aDT = aResult.getDateTime ();
+        assertEquals (aValues[i], aDT.getMillis (), aMillis[i]);
+        assertEquals (aValues[i], PDTBulkParser.getEpochDay (aDT), aDays[i]);
+      }
+    }
+  }
+
+  @Test
+  public void testSameAsPDTFromString ()
+  {
+    final PDTConfigScope aScope = PDTConfigScope.open (DateTimeZone.forID ("Europe/Vienna"));
+    try
+    {
+      // Parsed offset, with and without offset parsed
+      final String [] aOffsetValues = new String [] { "2015-01-01T23:30:00+01:00",
+                                                      "2015-01-01T23:30:00-05:00",
+                                                      "2015-01-01T00:30:00Z",
+                                                      "2015-01-01T00:30:00" };
+      final DateTimeFormatter aOffsetDF = PDTFormatter.getForPattern ("yyyy-MM-dd'T'HH:mm:ssZZ");
+      _assertSameAsPDTFromString (aOffsetValues, aOffsetDF);
+      _assertSameAsPDTFromString (aOffsetValues, aOffsetDF.withOffsetParsed ());
+      _assertSameAsPDTFromString (aOffsetValues, aOffsetDF.withZone (DateTimeZone.forID ("Asia/Tokyo")));
+
+      // Parsed zone
+      _assertSameAsPDTFromString (new String [] { "2015-01-01 23:30 America/New_York", "2015-01-01 23:30 UTC" },
+                                  PDTFormatter.getForPattern ("yyyy-MM-dd HH:mm ZZZ"));
+
+      // Local values including the DST gap and trailing text
+      final String [] aLocalValues = new String [] { "2015-03-29 02:30",
+                                                     "2015-03-29 03:30",
+                                                     "2015-10-25 02:30",
+                                                     "2015-10-25 02:30x",
+                                                     "2015-13-01 00:00" };
+      final DateTimeFormatter aLocalDF = PDTFormatter.getForPattern ("yyyy-MM-dd HH:mm");
+      _assertSameAsPDTFromString (aLocalValues, aLocalDF);
+      _assertSameAsPDTFromString (aLocalValues, aLocalDF.withZone (DateTimeZone.forID ("America/Sao_Paulo")));
+    }
+    finally
+    {
+      aScope.close ();
+    }
+  }
+
+  @Test
+  public void testChunkBitSetsAreSmall ()
+  {
+    final java.lang.management.ThreadMXBean aMXBean = ManagementFactory.getThreadMXBean ();
+    if (!(aMXBean instanceof com.sun.management.ThreadMXBean))
+      return;
+    final com.sun.management.ThreadMXBean aSunMXBean = (com.sun.management.ThreadMXBean) aMXBean;
+    if (!aSunMXBean.isThreadAllocatedMemorySupported () || !aSunMXBean.isThreadAllocatedMemoryEnabled ())
+    {
+      // Allocation cannot be measured on this VM
+      return;
+    }
+
+    // All values are invalid, so every chunk has all bits set
+    final int nCount = 2 * 1000 * 1000;
+    final List <String> aValues = Collections.nCopies (nCount, (String) null);
+    final long [] aMillis = new long [nCount];
+
+    final List <ForkJoinWorkerThread> aThreads = Collections.synchronizedList (new ArrayList <ForkJoinWorkerThread> ());
+    final ForkJoinPool aPool = new ForkJoinPool (2, new ForkJoinPool.ForkJoinWorkerThreadFactory ()
+    {
+      public ForkJoinWorkerThread newThread (final ForkJoinPool aOwner)
+      {
+        final ForkJoinWorkerThread ret = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread (aOwner);
+        aThreads.add (ret);
+        return ret;
+      }
+    }, null, false);
+    try
+    {
+      final BitSet aInvalid = PDTBulkParser.parseEpochMillis (aValues, PDTFormatter.getForPattern (PATTERN), aMillis, aPool);
+      assertEquals (nCount, aInvalid.cardinality ());
+
+      long nAllocated = 0;
+      synchronized (aThreads)
+      {
+        for (final ForkJoinWorkerThread aThread : aThreads)
+          nAllocated += Math.max (0, aSunMXBean.getThreadAllocatedBytes (aThread.getId ()));
+      }
+      // Chunk sized bit sets need about 250 KB in total - bit sets sized to
+      // the absolute end index would need about 250 MB
+      assertTrue ("Allocated " + nAllocated + " bytes", nAllocated < 32 * 1024 * 1024);
+    }
+    finally
+    {
+      aPool.shutdown ();
+    }
+  }
+
+  @Test
+  public void testDSTGapUsesCallerScope () throws Exception
+  {
+    // 02:30 does not exist in Vienna on 2015-03-29
+    final DateTimeFormatter aDF = PDTFormatter.getForPattern ("yyyy-MM-dd HH:mm")
+                                              .withZone (DateTimeZone.forID ("Europe/Vienna"));
+    final List <String> aValues = Collections.nCopies (5000, "2015-03-29 02:30");
+    final ForkJoinPool aPool = new ForkJoinPool (2);
+    final ExecutorService aES = Executors.newFixedThreadPool (2);
+    final PDTConfigScope aScope = PDTConfigScope.open (DateTimeZone.forID ("America/Sao_Paulo"));
+    try
+    {
+      // Corrected to the start of the day in the default time zone of the scope
+      final PDTParseResult aResult = PDTFromString.parseDateTime ("2015-03-29 02:30", aDF);
+      assertEquals (PDTParseResult.EStatus.CORRECTED_DST_GAP, aResult.getStatus ());
+      final long nExpected = aResult.getDateTime ().getMillis ();
+
+      for (final ExecutorService aExecutor : new ExecutorService [] { null, aPool, aES })
+      {
+        final long [] aMillis = new long [aValues.size ()];
+        assertEquals (0, PDTBulkParser.parseEpochMillis (aValues, aDF, aMillis, aExecutor).cardinality ());
+        for (final long nMillis : aMillis)
+          assertEquals (String.valueOf (aExecutor), nExpected, nMillis);
+      }
+      final long [] aMillis = new long [aValues.size ()];
+      assertEquals (0, PDTBulkParser.parseEpochMillis (aValues.parallelStream (), aDF, aMillis).cardinality ());
+      for (final long nMillis : aMillis)
+        assertEquals (nExpected, nMillis);
+    }
+    finally
+    {
+      aScope.close ();
+      aPool.shutdown ();
+      aES.shutdown ();
+    }
+  }
+}
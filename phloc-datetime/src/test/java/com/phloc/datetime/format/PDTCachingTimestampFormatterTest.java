@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.Locale;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import com.phloc.datetime.PDTFactory;
+import com.phloc.datetime.config.PDTConfigScope;
+
+/**
+ * Test class for class {@link PDTCachingTimestampFormatter}.
+ * 
+ * @author Philip Helger
+ */
+public final class PDTCachingTimestampFormatterTest
+{
+  @Test
+  public void testGetTrailingFractionDigits ()
+  {
+    assertEquals (3, PDTCachingTimestampFormatter.getTrailingFractionDigits ("yyyy-MM-dd HH:mm:ss.SSS"));
+    assertEquals (1, PDTCachingTimestampFormatter.getTrailingFractionDigits ("HH:mm:ss,S"));
+    assertEquals (2, PDTCachingTimestampFormatter.getTrailingFractionDigits ("'S'ss.SS"));
+    assertEquals (0, PDTCachingTimestampFormatter.getTrailingFractionDigits ("HH:mm:ss"));
+    assertEquals (0, PDTCachingTimestampFormatter.getTrailingFractionDigits ("SSS HH:mm:ss.SSS"));
+    assertEquals (0, PDTCachingTimestampFormatter.getTrailingFractionDigits ("ss.SSS'Z'"));
+    assertEquals (0, PDTCachingTimestampFormatter.getTrailingFractionDigits ("ss.'SSS"));
+  }
+
+  @Test
+  public void testSameAsPDTToString ()
+  {
+    final DateTime aBase = PDTFactory.createDateTime (2015, 3, 29, 1, 59, 58, 0);
+    for (final String sPattern : new String [] { "yyyy-MM-dd HH:mm:ss.SSS",
+                                                 "HH:mm:ss,S",
+                                                 "ss.SS",
+                                                 "EEE, dd MMM yyyy HH:mm:ss.SSSSS",
+                                                 "yyyyMMddHHmmssSSS" })
+    {
+      final PDTCachingTimestampFormatter aFormatter = new PDTCachingTimestampFormatter (sPattern, Locale.GERMAN);
+      // Crosses several seconds and the DST switch
+      for (int i = 0; i < 5000; i += 7)
+      {
+        final DateTime aDT = aBase.plusMillis (i);
+        assertEquals (sPattern,
+                      PDTToString.getAsString (sPattern, aDT, Locale.GERMAN),
+                      aFormatter.getAsString (aDT));
+      }
+      // Before 1970
+      for (final long nMillis : new long [] { -1, -999, -1000, -1001, -123456789 })
+        assertEquals (PDTToString.getAsString (sPattern, PDTFactory.createDateTimeFromMillis (nMillis), Locale.GERMAN),
+                      aFormatter.getAsString (nMillis));
+    }
+    assertNull (new PDTCachingTimestampFormatter ("ss.SSS").getAsString (null));
+  }
+
+  @Test
+  public void testChronologyChange ()
+  {
+    final String sPattern = "yyyy-MM-dd HH:mm:ss.SSS";
+    final PDTCachingTimestampFormatter aFormatter = new PDTCachingTimestampFormatter (sPattern);
+    final long nMillis = PDTFactory.createDateTime (2015, 6, 1, 12, 0, 0, 0).getMillis ();
+    final String sDefault = aFormatter.getAsString (nMillis);
+    assertEquals (PDTToString.getAsString (sPattern, PDTFactory.createDateTimeFromMillis (nMillis), null), sDefault);
+
+    // Same second, but a different zone
+    final PDTConfigScope aScope = PDTConfigScope.open (DateTimeZone.forID ("Asia/Tokyo"));
+    try
+    {
+      final String sTokyo = aFormatter.getAsString (nMillis + 1);
+      assertEquals (PDTToString.getAsString (sPattern, PDTFactory.createDateTimeFromMillis (nMillis + 1), null),
+                    sTokyo);
+      assertFalse (sTokyo.substring (0, 19).equals (sDefault.substring (0, 19)));
+    }
+    finally
+    {
+      aScope.close ();
+    }
+    assertEquals (sDefault, aFormatter.getAsString (nMillis));
+  }
+
+  @Test
+  public void testInvalid ()
+  {
+    try
+    {
+      new PDTCachingTimestampFormatter ("HH:mm:ss");
+      fail ();
+    }
+    catch (final IllegalArgumentException ex)
+    {}
+    try
+    {
+      new PDTCachingTimestampFormatter ("ss.SSS'x'");
+      fail ();
+    }
+    catch (final IllegalArgumentException ex)
+    {}
+  }
+}
@@ -20,9 +20,14 @@ package com.phloc.datetime.format;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Locale;
 
 import org.junit.Test;
@@ -118,4 +123,24 @@ public final class PDTFormatPatternsTest
     catch (final NullPointerException ex)
     {}
   }
+
+  @Test
+  public void testCache ()
+  {
+    PDTFormatPatterns.clearCache ();
+    assertEquals (0, PDTFormatPatterns.getCacheSize ());
+    PDTFormatPatterns.warmUp (Arrays.asList (Locale.GERMANY, Locale.US));
+    assertEquals (2 * 3 * 4, PDTFormatPatterns.getCacheSize ());
+
+    final String sPattern = PDTFormatPatterns.getShortPatternDate (Locale.GERMANY);
+    assertEquals (((SimpleDateFormat) DateFormat.getDateInstance (DateFormat.SHORT, Locale.GERMANY)).toPattern (),
+                  sPattern);
+    assertSame (sPattern, PDTFormatPatterns.getShortPatternDate (Locale.GERMANY));
+    assertEquals (((SimpleDateFormat) DateFormat.getDateTimeInstance (DateFormat.LONG, DateFormat.LONG, Locale.US)).toPattern (),
+                  PDTFormatPatterns.getLongPatternDateTime (Locale.US));
+    assertEquals (2 * 3 * 4, PDTFormatPatterns.getCacheSize ());
+
+    PDTFormatPatterns.clearCache ();
+    assertEquals (0, PDTFormatPatterns.getCacheSize ());
+  }
 }
@@ -17,14 +17,21 @@
  */
 package com.phloc.datetime.format;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.Locale;
 
+import org.joda.time.format.DateTimeFormatter;
 import org.junit.Test;
 
 import com.phloc.commons.locale.LocaleCache;
+import com.phloc.datetime.cache.ICacheStatistics;
+import com.phloc.datetime.config.PDTConfig;
 
 /**
  * Test class for class {@link PDTFormatter}.
@@ -64,4 +71,58 @@ public final class PDTFormatterTest
     catch (final IllegalArgumentException ex)
     {}
   }
+
+  @Test
+  public void testStyleFormatterCache ()
+  {
+    final Locale aLocale = Locale.GERMANY;
+    final DateTimeFormatter aDF = PDTFormatter.getShortFormatterDate (aLocale);
+    assertSame (aDF, PDTFormatter.getShortFormatterDate (aLocale));
+    assertNotSame (aDF, PDTFormatter.getShortFormatterDate (Locale.US));
+    assertNotSame (aDF, PDTFormatter.getShortFormatterTime (aLocale));
+    assertEquals (aLocale, aDF.getLocale ());
+    assertEquals (PDTConfig.getDefaultChronology (), aDF.getChronology ());
+
+    try
+    {
+      assertTrue (PDTConfig.setDefaultDateTimeZoneID ("UTC").isSuccess ());
+      final DateTimeFormatter aDF2 = PDTFormatter.getShortFormatterDate (aLocale);
+      assertNotSame (aDF, aDF2);
+      assertEquals (PDTConfig.getDefaultChronology (), aDF2.getChronology ());
+      assertSame (aDF2, PDTFormatter.getShortFormatterDate (aLocale));
+    }
+    finally
+    {
+      assertTrue (PDTConfig.setDefaultDateTimeZoneID (PDTConfig.DEFAULT_DATETIMEZONEID).isSuccess ());
+    }
+    // Changing the settings does not clear the cache
+    assertSame (aDF, PDTFormatter.getShortFormatterDate (aLocale));
+  }
+
+  @Test
+  public void testPatternFormatterCache ()
+  {
+    final ICacheStatistics aStats = PDTFormatter.getPatternCacheStatistics ();
+    final long nHits = aStats.getHitCount ();
+    final DateTimeFormatter aDF = PDTFormatter.getForPattern ("dd.MM.yyyy HH:mm", Locale.GERMANY);
+    assertSame (aDF, PDTFormatter.getForPattern ("dd.MM.yyyy HH:mm", Locale.GERMANY));
+    assertEquals (nHits + 1, aStats.getHitCount ());
+    assertNotSame (aDF, PDTFormatter.getForPattern ("dd.MM.yyyy HH:mm", Locale.US));
+    assertEquals (Locale.GERMANY, aDF.getLocale ());
+    assertEquals (PDTConfig.getDefaultChronology (), aDF.getChronology ());
+
+    try
+    {
+      PDTFormatter.setPatternCacheMaxSize (2);
+      PDTFormatter.getForPattern ("yyyy");
+      PDTFormatter.getForPattern ("yyyyMM");
+      PDTFormatter.getForPattern ("yyyyMMdd");
+      assertEquals (2, aStats.getSize ());
+      assertTrue (aStats.getEvictionCount () > 0);
+    }
+    finally
+    {
+      PDTFormatter.setPatternCacheMaxSize (PDTFormatter.DEFAULT_PATTERN_CACHE_MAX_SIZE);
+    }
+  }
 }
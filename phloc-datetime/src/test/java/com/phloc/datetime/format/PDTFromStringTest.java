@@ -18,14 +18,17 @@
 package com.phloc.datetime.format;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.Locale;
 
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeZone;
 import org.joda.time.LocalDate;
 import org.joda.time.LocalDateTime;
 import org.joda.time.LocalTime;
@@ -193,4 +196,118 @@ public final class PDTFromStringTest
     sDT = aLT.toString ();
     assertEquals (aLT, PDTFactory.createLocalTime (sDT));
   }
+
+  @Test
+  public void testParseDateTime ()
+  {
+    PDTParseResult aRes = PDTFromString.parseDateTime ("2009/03/28 15:06:34", "yyyy/MM/dd HH:mm:ss");
+    assertEquals (PDTParseResult.EStatus.SUCCESS, aRes.getStatus ());
+    assertEquals (PDTFactory.createDateTime (2009, DateTimeConstants.MARCH, 28, 15, 6, 34), aRes.getDateTime ());
+
+    aRes = PDTFromString.parseDateTime (null, "yyyy/MM/dd");
+    assertEquals (PDTParseResult.EStatus.EMPTY, aRes.getStatus ());
+    assertNull (aRes.getDateTime ());
+
+    aRes = PDTFromString.parseDateTime ("2009/0x/28", "yyyy/MM/dd");
+    assertEquals (PDTParseResult.EStatus.SYNTAX_ERROR, aRes.getStatus ());
+    assertEquals (6, aRes.getErrorIndex ());
+
+    aRes = PDTFromString.parseDateTime ("2009/03/28 abc", "yyyy/MM/dd");
+    assertEquals (PDTParseResult.EStatus.TRAILING_TEXT, aRes.getStatus ());
+    assertEquals (10, aRes.getErrorIndex ());
+
+    aRes = PDTFromString.parseDateTime ("2009/02/30", "yyyy/MM/dd");
+    assertEquals (PDTParseResult.EStatus.INVALID_FIELD_VALUE, aRes.getStatus ());
+    assertEquals (PDTParseResult.NO_ERROR_INDEX, aRes.getErrorIndex ());
+    assertTrue (aRes.isFailure ());
+  }
+
+  @Test
+  public void testParseDateTimeSameAsJoda ()
+  {
+    final String [] aPatterns = new String [] { "yyyy-MM-dd'T'HH:mm:ss.SSSZZ", "yyyy-MM-dd HH:mm ZZZ", "dd.MM.yyyy" };
+    final String [] aValues = new String [] { "2012-06-01T10:20:30.400+02:00",
+                                              "2012-06-01 10:20 America/New_York",
+                                              "07.04.1980" };
+    for (int i = 0; i < aPatterns.length; ++i)
+    {
+      final DateTimeFormatter aDTF = PDTFormatter.getForPattern (aPatterns[i]);
+      assertEquals (aDTF.parseDateTime (aValues[i]), PDTFromString.parseDateTime (aValues[i], aDTF).getDateTime ());
+      assertEquals (aDTF.withOffsetParsed ().parseDateTime (aValues[i]),
+                    PDTFromString.parseDateTime (aValues[i], aDTF.withOffsetParsed ()).getDateTime ());
+      final DateTimeFormatter aUTC = aDTF.withZoneUTC ();
+      assertEquals (aUTC.parseDateTime (aValues[i]), PDTFromString.parseDateTime (aValues[i], aUTC).getDateTime ());
+    }
+  }
+
+  @Test
+  public void testParseDateTimeDSTGap ()
+  {
+    final DateTimeZone aOldZone = PDTConfig.getDefaultDateTimeZone ();
+    PDTConfig.setDefaultDateTimeZoneID ("Europe/Vienna");
+    try
+    {
+      // 2015-03-29 02:30 does not exist in Vienna
+      final PDTParseResult aRes = PDTFromString.parseDateTime ("2015-03-29 02:30", "yyyy-MM-dd HH:mm");
+      assertEquals (PDTParseResult.EStatus.CORRECTED_DST_GAP, aRes.getStatus ());
+      assertEquals (PDTFactory.createDateTime (2015, DateTimeConstants.MARCH, 29), aRes.getDateTime ());
+      assertEquals (PDTFactory.createDateTime (2015, DateTimeConstants.MARCH, 29),
+                    PDTFromString.getDateTimeFromString ("2015-03-29 02:30", "yyyy-MM-dd HH:mm"));
+    }
+    finally
+    {
+      PDTConfig.setDefaultDateTimeZoneID (aOldZone.getID ());
+    }
+  }
+
+  @Test
+  public void testIsValid ()
+  {
+    final String [] aPatterns = { "dd.MM.yyyy",
+                                  "d.M.yyyy",
+                                  "yyyyMMdd",
+                                  "yyyy-MM-dd'T'HH:mm:ss.SSS",
+                                  "yyyy-MM-dd HH:mm",
+                                  "MM-dd",
+                                  "dd.MM.yy",
+                                  "dd MMM yyyy" };
+    final String [] aValues = { "06.01.2015",
+                                "6.1.2015",
+                                "006.1.2015",
+                                "29.02.2016",
+                                "29.02.2015",
+                                "31.04.2015",
+                                "06.13.2015",
+                                "00.01.2015",
+                                "06.01.-2015",
+                                "06.01.+2015",
+                                "06.01.0",
+                                "06.01.123456789",
+                                "06.01.2015 ",
+                                "06.01.",
+                                "20150716",
+                                "2015716",
+                                "+20150716",
+                                "2015-07-16T23:59:59.1",
+                                "2015-07-16t23:59:59.1234",
+                                "2015-07-16T24:00:00.000",
+                                "2015-07-16 12:60",
+                                "2015-03-29 02:30",
+                                "02-29",
+                                "06.01.15",
+                                "06 Jan 2015",
+                                "06 Foo 2015",
+                                "",
+                                null };
+    for (final String sPattern : aPatterns)
+      for (final String sValue : aValues)
+        assertEquals (sPattern + " - " + sValue,
+                      PDTFromString.getDateTimeFromString (sValue, sPattern) != null,
+                      PDTFromString.isValid (sValue, sPattern));
+
+    assertTrue (PDTFromString.isValid (new StringBuilder ("29.02.2016"), "dd.MM.yyyy"));
+    assertTrue (PDTFromString.isValid ("29.02.2016", PDTFormatter.getForPattern ("dd.MM.yyyy")));
+    assertFalse (PDTFromString.isValid ("29.02.2015", PDTFormatter.getForPattern ("dd.MM.yyyy")));
+    assertFalse (PDTFromString.isValid ("29.02.2016x", PDTFormatter.getForPattern ("dd.MM.yyyy")));
+  }
 }
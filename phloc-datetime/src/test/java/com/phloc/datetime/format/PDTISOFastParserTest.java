@@ -0,0 +1,197 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.joda.time.LocalTime;
+import org.joda.time.chrono.ISOChronology;
+import org.junit.Test;
+
+import com.phloc.datetime.PDTFactory;
+import com.phloc.datetime.config.PDTConfig;
+
+/**
+ * Test class for class {@link PDTISOFastParser}.
+ * 
+ * @author Philip Helger
+ */
+public final class PDTISOFastParserTest
+{
+  private static final Chronology [] CHRONOS = { PDTConfig.getDefaultChronology (),
+                                                ISOChronology.getInstance (PDTConfig.getDefaultDateTimeZone ()),
+                                                ISOChronology.getInstanceUTC () };
+
+  @Test
+  public void testLocalDate ()
+  {
+    for (final Chronology aChrono : CHRONOS)
+      for (final String s : new String [] { "2011-07-31", "1999-12-31", "2000-02-29", "0100-01-01", "9999-12-31" })
+      {
+        final LocalDate aLD = PDTISOFastParser.parseLocalDate (s, aChrono);
+        assertNotNull (s, aLD);
+        assertEquals (s, new LocalDate (s, aChrono), aLD);
+      }
+
+    final Chronology aChrono = PDTConfig.getDefaultChronology ();
+    for (final String s : new String [] { null,
+                                         "",
+                                         "2011-7-31",
+                                         "2011/07/31",
+                                         "2011-07-31T",
+                                         "2011-13-01",
+                                         "2011-00-01",
+                                         "2011-01-32",
+                                         "2011-01-00",
+                                         "20110731",
+                                         "+2011-07-31",
+                                         "2011-07-3a" })
+      assertNull (s, PDTISOFastParser.parseLocalDate (s, aChrono));
+  }
+
+  @Test
+  public void testDayOfMonthOutOfRange ()
+  {
+    for (final Chronology aChrono : CHRONOS)
+    {
+      for (final String s : new String [] { "2015-02-30", "2015-04-31", "2015-02-29", "1900-02-29", "2015-11-31" })
+      {
+        assertNull (s, PDTISOFastParser.parseLocalDate (s, aChrono));
+        assertNull (s, PDTISOFastParser.parseLocalDateTime (s + "T12:00", aChrono));
+        assertNull (s, PDTISOFastParser.parseDateTime (s + "T12:00Z", aChrono));
+      }
+
+      // Leap years
+      for (final String s : new String [] { "2016-02-29", "2000-02-29", "2015-04-30" })
+      {
+        assertEquals (s, new LocalDate (s, aChrono), PDTISOFastParser.parseLocalDate (s, aChrono));
+        assertNotNull (s, PDTISOFastParser.parseLocalDateTime (s + "T12:00", aChrono));
+        assertNotNull (s, PDTISOFastParser.parseDateTime (s + "T12:00Z", aChrono));
+      }
+    }
+  }
+
+  @Test
+  public void testLocalTime ()
+  {
+    for (final Chronology aChrono : CHRONOS)
+      for (final String s : new String [] { "00:00",
+                                           "12:34",
+                                           "23:59:59",
+                                           "12:34:56.7",
+                                           "12:34:56.78",
+                                           "12:34:56.789",
+                                           "00:00:00.001" })
+      {
+        final LocalTime aLT = PDTISOFastParser.parseLocalTime (s, aChrono);
+        assertNotNull (s, aLT);
+        assertEquals (s, new LocalTime (s, aChrono), aLT);
+      }
+
+    final Chronology aChrono = PDTConfig.getDefaultChronology ();
+    for (final String s : new String [] { null,
+                                         "",
+                                         "12",
+                                         "24:00",
+                                         "12:60",
+                                         "12:00:60",
+                                         "12:00:00.",
+                                         "12:00:00.1234",
+                                         "12:00:00,123",
+                                         "T12:00",
+                                         "12:00Z",
+                                         "1200" })
+      assertNull (s, PDTISOFastParser.parseLocalTime (s, aChrono));
+  }
+
+  @Test
+  public void testLocalDateTime ()
+  {
+    for (final Chronology aChrono : CHRONOS)
+      for (final String s : new String [] { "2011-07-31",
+                                           "2011-07-31T00:00",
+                                           "2011-07-31T12:34:56",
+                                           "2011-07-31T12:34:56.789",
+                                           "2011-03-27T02:30" })
+      {
+        final LocalDateTime aLDT = PDTISOFastParser.parseLocalDateTime (s, aChrono);
+        assertNotNull (s, aLDT);
+        assertEquals (s, new LocalDateTime (s, aChrono), aLDT);
+      }
+
+    final Chronology aChrono = PDTConfig.getDefaultChronology ();
+    for (final String s : new String [] { null, "", "2011-07-31 12:00", "2011-07-31T12:00Z", "2011-07-31T12" })
+      assertNull (s, PDTISOFastParser.parseLocalDateTime (s, aChrono));
+  }
+
+  @Test
+  public void testDateTime ()
+  {
+    for (final Chronology aChrono : CHRONOS)
+      for (final String s : new String [] { "2011-07-31",
+                                           "2011-07-31T00:00",
+                                           "2011-07-31T12:34:56",
+                                           "2011-07-31T12:34:56.789",
+                                           "2011-07-31T12:34:56.789Z",
+                                           "2011-07-31T12:34Z",
+                                           "2011-07-31T12:34:56+02:00",
+                                           "2011-07-31T12:34:56.1-05:30",
+                                           "2011-10-30T02:30",
+                                           "2011-12-31T23:59:59.999+14:00" })
+      {
+        final DateTime aDT = PDTISOFastParser.parseDateTime (s, aChrono);
+        assertNotNull (s, aDT);
+        assertEquals (s, new DateTime (s, aChrono), aDT);
+      }
+
+    final Chronology aChrono = PDTConfig.getDefaultChronology ();
+    for (final String s : new String [] { null,
+                                         "",
+                                         "2011-07-31 12:00",
+                                         "2011-07-31T12",
+                                         "2011-07-31T12:00+0200",
+                                         "2011-07-31T12:00+02",
+                                         "2011-07-31T12:00:00+24:00",
+                                         "2011-07-31T" })
+      assertNull (s, PDTISOFastParser.parseDateTime (s, aChrono));
+  }
+
+  @Test
+  public void testPDTFactory ()
+  {
+    assertEquals (new LocalDate ("2011-07-31", PDTFactory.getLocalChronology ()),
+                  PDTFactory.createLocalDate ("2011-07-31"));
+    assertEquals (new LocalTime ("12:00:56", PDTFactory.getLocalChronology ()), PDTFactory.createLocalTime ("12:00:56"));
+    assertEquals (new LocalDateTime ("2011-07-31T12:00:56", PDTFactory.getLocalChronology ()),
+                  PDTFactory.createLocalDateTime ("2011-07-31T12:00:56"));
+    assertEquals (new DateTime ("2011-07-31T12:00:56+02:00", PDTConfig.getDefaultChronology ()),
+                  PDTFactory.createDateTime ("2011-07-31T12:00:56+02:00"));
+
+    // Fallback to Joda
+    assertEquals (new LocalDateTime ("1234567", PDTFactory.getLocalChronology ()),
+                  PDTFactory.createLocalDateTime ("1234567"));
+    assertEquals (new DateTime ("2011-W30-7", PDTConfig.getDefaultChronology ()),
+                  PDTFactory.createDateTime ("2011-W30-7"));
+  }
+}
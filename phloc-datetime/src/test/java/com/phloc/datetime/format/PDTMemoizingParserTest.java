@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+
+import com.phloc.datetime.PDTFactory;
+import com.phloc.datetime.config.PDTConfigScope;
+
+/**
+ * Test class for class {@link PDTMemoizingParser}.
+ * 
+ * @author Philip Helger
+ */
+public final class PDTMemoizingParserTest
+{
+  @Test
+  public void testBasic ()
+  {
+    final PDTMemoizingParser aParser = new PDTMemoizingParser (PDTFormatter.getForPattern ("yyyy-MM-dd"), 100);
+    assertEquals (4, aParser.getStripeCount ());
+    assertEquals (100, aParser.getMaxSize ());
+    assertEquals (0, aParser.getHitRate (), 0);
+
+    final PDTParseResult aRes = aParser.parseDateTime ("2015-04-01");
+    assertTrue (aRes.isSuccess ());
+    assertSame (aRes, aParser.parseDateTime ("2015-04-01"));
+    assertEquals (PDTFactory.createLocalDate (2015, DateTimeConstants.APRIL, 1),
+                  aParser.getLocalDateFromString ("2015-04-01"));
+    assertEquals (2, aParser.getHitCount ());
+    assertEquals (1, aParser.getMissCount ());
+    assertEquals (1, aParser.getSize ());
+
+    // Failures are cached as well
+    assertNull (aParser.getLocalDateFromString ("2015-04-31"));
+    assertNull (aParser.getLocalDateFromString ("2015-04-31"));
+    assertEquals (3, aParser.getHitCount ());
+    assertEquals (2, aParser.getMissCount ());
+    assertEquals (0.6, aParser.getHitRate (), 0.0001);
+
+    // Empty values are not cached
+    assertNull (aParser.getLocalDateFromString (null));
+    assertNull (aParser.getLocalDateFromString (""));
+    assertEquals (2, aParser.getSize ());
+
+    aParser.resetStatistics ();
+    assertEquals (0, aParser.getHitCount ());
+    aParser.clear ();
+    assertEquals (0, aParser.getSize ());
+  }
+
+  @Test
+  public void testBounded ()
+  {
+    final PDTMemoizingParser aParser = new PDTMemoizingParser (PDTFormatter.getForPattern ("yyyy-MM-dd"), 64);
+    for (int i = 1; i <= 365; ++i)
+      aParser.getLocalDateFromString (PDTToString.getAsString ("yyyy-MM-dd", PDTFactory.createLocalDate (2015, 1, 1)
+                                                                                       .plusDays (i)));
+    assertTrue (aParser.getSize () <= 64);
+    assertEquals (365 - aParser.getSize (), aParser.getEvictionCount ());
+  }
+
+  @Test
+  public void testLocalValuesAreCached ()
+  {
+    final PDTMemoizingParser aParser = new PDTMemoizingParser (PDTFormatter.getForPattern ("yyyy-MM-dd HH:mm"), 100);
+    final LocalDate aLD = aParser.getLocalDateFromString ("2015-04-01 12:30");
+    assertNotNull (aLD);
+    assertSame (aLD, aParser.getLocalDateFromString ("2015-04-01 12:30"));
+    assertSame (aParser.getLocalDateTimeFromString ("2015-04-01 12:30"),
+                aParser.getLocalDateTimeFromString ("2015-04-01 12:30"));
+    assertSame (aParser.getLocalTimeFromString ("2015-04-01 12:30"),
+                aParser.getLocalTimeFromString ("2015-04-01 12:30"));
+    assertEquals (1, aParser.getSize ());
+  }
+
+  @Test
+  public void testDSTGapIsNotCached ()
+  {
+    final PDTMemoizingParser aParser = new PDTMemoizingParser (PDTFormatter.getForPattern ("yyyy-MM-dd HH:mm"), 100);
+    final PDTConfigScope aScope = PDTConfigScope.open (DateTimeZone.forID ("Europe/Vienna"));
+    try
+    {
+      final PDTParseResult aRes = aParser.parseDateTime ("2015-03-29 02:30");
+      assertEquals (PDTParseResult.EStatus.CORRECTED_DST_GAP, aRes.getStatus ());
+      assertEquals (PDTFactory.createLocalDate (2015, DateTimeConstants.MARCH, 29),
+                    aParser.getLocalDateFromString ("2015-03-29 02:30"));
+      assertEquals (0, aParser.getSize ());
+      assertEquals (0, aParser.getHitCount ());
+      assertEquals (2, aParser.getMissCount ());
+    }
+    finally
+    {
+      aScope.close ();
+    }
+  }
+}
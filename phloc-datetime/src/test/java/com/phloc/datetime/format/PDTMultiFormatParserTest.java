@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Locale;
+
+import org.joda.time.DateTimeConstants;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+
+import com.phloc.datetime.PDTFactory;
+
+/**
+ * Test class for class {@link PDTMultiFormatParser}.
+ * 
+ * @author Philip Helger
+ */
+public final class PDTMultiFormatParserTest
+{
+  @Test
+  public void testShape ()
+  {
+    final PDTPatternShape aShape = new PDTPatternShape ("dd.MM.yyyy");
+    assertTrue (aShape.isStrict ());
+    assertEquals (aShape.getShape (), PDTPatternShape.getInputShape ("01.02.2015"));
+    assertEquals (aShape.getShape (), PDTPatternShape.getInputShape ("1.2.2015"));
+    assertEquals (aShape.getShape (), new PDTPatternShape ("d.M.yy").getShape ());
+    assertFalse (aShape.getShape () == PDTPatternShape.getInputShape ("01/02/2015"));
+    assertFalse (aShape.getShape () == PDTPatternShape.getInputShape ("2015-02-01"));
+
+    final PDTPatternShape aISO = new PDTPatternShape ("yyyy-MM-dd'T'HH:mm");
+    assertTrue (aISO.isStrict ());
+    assertEquals (aISO.getShape (), PDTPatternShape.getInputShape ("2015-02-01T10:11"));
+    assertEquals (new PDTPatternShape ("yyyyMMdd").getShape (), PDTPatternShape.getInputShape ("20150201"));
+    assertEquals (new PDTPatternShape ("HH 'o''clock'").getShape (), PDTPatternShape.getInputShape ("10 o'clock"));
+
+    assertFalse (new PDTPatternShape ("dd MMM yyyy").isStrict ());
+    assertFalse (new PDTPatternShape ("yyyy-MM-dd ZZ").isStrict ());
+  }
+
+  @Test
+  public void testParse ()
+  {
+    final PDTMultiFormatParser aParser = new PDTMultiFormatParser (Locale.US,
+                                                                   "yyyy-MM-dd",
+                                                                   "dd.MM.yyyy",
+                                                                   "MM/dd/yyyy",
+                                                                   "yyyyMMdd",
+                                                                   "dd MMM yyyy");
+    assertNull (aParser.getLastMatchingPattern ());
+    final LocalDate aExpected = PDTFactory.createLocalDate (2015, DateTimeConstants.FEBRUARY, 3);
+
+    assertEquals (aExpected, aParser.getLocalDateFromString ("2015-02-03"));
+    assertEquals ("yyyy-MM-dd", aParser.getLastMatchingPattern ());
+    assertEquals (aExpected, aParser.getLocalDateFromString ("3.2.2015"));
+    assertEquals ("dd.MM.yyyy", aParser.getLastMatchingPattern ());
+    assertEquals (aExpected, aParser.getLocalDateFromString ("02/03/2015"));
+    assertEquals (aExpected, aParser.getLocalDateFromString ("20150203"));
+    assertEquals ("yyyyMMdd", aParser.getLastMatchingPattern ());
+    assertEquals (aExpected, aParser.getLocalDateFromString ("03 Feb 2015"));
+    assertEquals ("dd MMM yyyy", aParser.getLastMatchingPattern ());
+
+    // Invalid values
+    assertNull (aParser.getLocalDateFromString (null));
+    assertNull (aParser.getLocalDateFromString ("2015-02-30"));
+    assertNull (aParser.getLocalDateFromString ("2015_02_03"));
+    assertNull (aParser.getLocalDateFromString ("abc"));
+    assertEquals (PDTParseResult.EStatus.EMPTY, aParser.parse ("").getStatus ());
+    assertTrue (aParser.parse ("2015_02_03").isFailure ());
+    // Only numeric patterns: no pattern shape matches at all
+    final PDTParseResult aNoShape = new PDTMultiFormatParser (Locale.US, "yyyy-MM-dd", "dd.MM.yyyy").parse ("abc");
+    assertEquals (PDTParseResult.EStatus.SYNTAX_ERROR, aNoShape.getStatus ());
+    assertEquals (PDTParseResult.NO_ERROR_INDEX, aNoShape.getErrorIndex ());
+    // Last winner unchanged
+    assertEquals ("dd MMM yyyy", aParser.getLastMatchingPattern ());
+  }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import com.phloc.datetime.PDTFactory;
+import com.phloc.datetime.config.PDTConfig;
+import com.phloc.datetime.io.PDTIOHelper;
+
+/**
+ * Test class for class {@link PDTStreamingParser}.
+ * 
+ * @author Philip Helger
+ */
+public final class PDTStreamingParserTest
+{
+  private static final class CollectingSink implements IEpochMillisSink
+  {
+    final List <Long> m_aValues = new ArrayList <Long> ();
+    final List <String> m_aInvalid = new ArrayList <String> ();
+
+    public void onValue (final long nRecordIndex, final long nEpochMillis)
+    {
+      assertEquals (m_aValues.size () + m_aInvalid.size (), nRecordIndex);
+      m_aValues.add (Long.valueOf (nEpochMillis));
+    }
+
+    public void onInvalid (final long nRecordIndex, final CharSequence aBuffer, final int nOfs, final int nLen)
+    {
+      assertEquals (m_aValues.size () + m_aInvalid.size (), nRecordIndex);
+      m_aInvalid.add (aBuffer.subSequence (nOfs, nOfs + nLen).toString ());
+    }
+  }
+
+  private static void _parseCSV (final PDTStreamingParser aParser, final CharSequence aCSV, final IEpochMillisSink aSink)
+  {
+    int nStart = 0;
+    for (int i = 0; i <= aCSV.length (); ++i)
+      if (i == aCSV.length () || aCSV.charAt (i) == ',')
+      {
+        aParser.parse (aCSV, nStart, i - nStart, aSink);
+        nStart = i + 1;
+      }
+  }
+
+  @Test
+  public void testFormatter ()
+  {
+    final String sPattern = "dd.MM.yyyy HH:mm";
+    final PDTStreamingParser aParser = PDTStreamingParser.createForPattern (sPattern, Locale.GERMAN);
+    final CollectingSink aSink = new CollectingSink ();
+    _parseCSV (aParser, CharBuffer.wrap ("01.02.2015 10:11,x,31.02.2015 10:11,,3.4.2015 1:02,01.02.2015 10:11 "), aSink);
+    assertEquals (6, aParser.getRecordCount ());
+    assertEquals (2, aSink.m_aValues.size ());
+    assertEquals (PDTFromString.getDateTimeFromString ("01.02.2015 10:11", sPattern).getMillis (),
+                  aSink.m_aValues.get (0).longValue ());
+    assertEquals (PDTFromString.getDateTimeFromString ("3.4.2015 1:02", sPattern).getMillis (),
+                  aSink.m_aValues.get (1).longValue ());
+    assertEquals ("x", aSink.m_aInvalid.get (0));
+    assertEquals ("31.02.2015 10:11", aSink.m_aInvalid.get (1));
+    assertEquals ("", aSink.m_aInvalid.get (2));
+
+    aParser.resetRecordCount ();
+    assertEquals (0, aParser.getRecordCount ());
+
+    // Formatter with offset
+    final PDTStreamingParser aParser2 = PDTStreamingParser.createForFormatter (PDTFormatter.getForPattern ("yyyy-MM-dd'T'HH:mmZZ"));
+    final CollectingSink aSink2 = new CollectingSink ();
+    assertTrue (aParser2.parse ("2015-06-01T10:00+02:00", 0, 22, aSink2));
+    assertEquals (PDTFactory.createDateTime (2015, 6, 1, 8, 0, 0).withZoneRetainFields (DateTimeZone.UTC).getMillis (),
+                  aSink2.m_aValues.get (0).longValue ());
+  }
+
+  @Test
+  public void testIOPatterns ()
+  {
+    final CollectingSink aSink = new CollectingSink ();
+    PDTStreamingParser aParser = PDTStreamingParser.createForPattern (PDTIOHelper.PATTERN_DATETIME, null);
+    _parseCSV (aParser, "20150201_101112,20150229_101112,20150201_1011120", aSink);
+    assertEquals (1, aSink.m_aValues.size ());
+    assertEquals (PDTFromString.getDateTimeFromString ("20150201_101112", PDTIOHelper.PATTERN_DATETIME).getMillis (),
+                  aSink.m_aValues.get (0).longValue ());
+
+    aParser = PDTStreamingParser.createForPattern (PDTIOHelper.PATTERN_DATE, null);
+    final CollectingSink aSinkDate = new CollectingSink ();
+    assertTrue (aParser.parse ("x20150201x", 1, 8, aSinkDate));
+    assertEquals (PDTFromString.getDateTimeFromString ("20150201", PDTIOHelper.PATTERN_DATE).getMillis (),
+                  aSinkDate.m_aValues.get (0).longValue ());
+
+    aParser = PDTStreamingParser.createForPattern (PDTIOHelper.PATTERN_TIME, null);
+    final CollectingSink aSinkTime = new CollectingSink ();
+    assertTrue (aParser.parse ("235959", 0, 6, aSinkTime));
+    assertEquals (PDTFromString.getDateTimeFromString ("235959", PDTIOHelper.PATTERN_TIME).getMillis (),
+                  aSinkTime.m_aValues.get (0).longValue ());
+    assertFalse (aParser.parse ("245959", 0, 6, aSinkTime));
+  }
+
+  @Test
+  public void testDSTGap ()
+  {
+    final DateTimeZone aOldZone = PDTConfig.getDefaultDateTimeZone ();
+    PDTConfig.setDefaultDateTimeZoneID ("Europe/Vienna");
+    try
+    {
+      final long nExpected = PDTFactory.createDateTime (2015, 3, 29).getMillis ();
+      CollectingSink aSink = new CollectingSink ();
+      PDTStreamingParser aParser = PDTStreamingParser.createForPattern ("yyyy-MM-dd HH:mm", null);
+      assertTrue (aParser.parse ("2015-03-29 02:30", 0, 16, aSink));
+      assertEquals (nExpected, aSink.m_aValues.get (0).longValue ());
+
+      aSink = new CollectingSink ();
+      aParser = PDTStreamingParser.createForPattern (PDTIOHelper.PATTERN_DATETIME, null);
+      assertTrue (aParser.parse ("20150329_023000", 0, 15, aSink));
+      assertEquals (nExpected, aSink.m_aValues.get (0).longValue ());
+    }
+    finally
+    {
+      PDTConfig.setDefaultDateTimeZoneID (aOldZone.getID ());
+    }
+  }
+}
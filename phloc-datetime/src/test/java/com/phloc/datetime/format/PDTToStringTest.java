@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Locale;
+
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.joda.time.LocalTime;
+import org.junit.Test;
+
+import com.phloc.datetime.PDTFactory;
+
+/**
+ * Test class for class {@link PDTToString}.
+ * 
+ * @author Philip Helger
+ */
+public final class PDTToStringTest
+{
+  @Test
+  public void testPrintToStringBuilder ()
+  {
+    final Locale aLocale = Locale.GERMANY;
+    final LocalDate aLD = PDTFactory.createLocalDate (2011, 7, 31);
+    final LocalTime aLT = PDTFactory.createLocalTime (12, 34, 56);
+    final LocalDateTime aLDT = PDTFactory.createLocalDateTime (2011, 7, 31, 12, 34, 56);
+    final DateTime aDT = PDTFactory.createDateTime (2011, 7, 31, 12, 34, 56);
+
+    final StringBuilder aSB = new StringBuilder ("x");
+    assertSame (aSB, PDTToString.printTo (aSB, aLD, aLocale));
+    assertEquals ("x" + PDTToString.getAsString (aLD, aLocale), aSB.toString ());
+
+    aSB.setLength (0);
+    PDTToString.printTo (aSB, aLT, aLocale).append (';');
+    PDTToString.printTo (aSB, aLDT, aLocale).append (';');
+    PDTToString.printTo (aSB, aDT, aLocale);
+    assertEquals (PDTToString.getAsString (aLT, aLocale) +
+                  ";" +
+                  PDTToString.getAsString (aLDT, aLocale) +
+                  ";" +
+                  PDTToString.getAsString (aDT, aLocale), aSB.toString ());
+
+    aSB.setLength (0);
+    PDTToString.printTo (aSB, "yyyyMMdd", aLD);
+    PDTToString.printTo (aSB, "-HHmmss", aDT);
+    PDTToString.printTo (aSB, " MMMM", aLD, aLocale);
+    PDTToString.printTo (aSB, " EEEE", aDT, aLocale);
+    assertEquals ("20110731-123456 Juli Sonntag", aSB.toString ());
+
+    // null values append nothing
+    aSB.setLength (0);
+    PDTToString.printTo (aSB, (LocalDate) null, aLocale);
+    PDTToString.printTo (aSB, "yyyy", (LocalDate) null);
+    PDTToString.printTo (aSB, "yyyy", (DateTime) null);
+    assertEquals (0, aSB.length ());
+    assertNull (PDTToString.getAsString ((LocalDate) null, aLocale));
+  }
+
+  @Test
+  public void testPrintToAppendable () throws IOException
+  {
+    final Locale aLocale = Locale.GERMANY;
+    final LocalDate aLD = PDTFactory.createLocalDate (2011, 7, 31);
+    final DateTime aDT = PDTFactory.createDateTime (2011, 7, 31, 12, 34, 56);
+
+    final StringWriter aSW = new StringWriter ();
+    PDTToString.printTo (aSW, aLD, aLocale);
+    aSW.write (';');
+    PDTToString.printTo (aSW, aDT, aLocale);
+    aSW.write (';');
+    PDTToString.printTo (aSW, "yyyyMMdd", aLD);
+    PDTToString.printTo (aSW, "_HHmmss", aDT, aLocale);
+    PDTToString.printTo (aSW, (LocalTime) null, aLocale);
+    assertEquals (PDTToString.getAsString (aLD, aLocale) +
+                  ";" +
+                  PDTToString.getAsString (aDT, aLocale) +
+                  ";20110731_123456", aSW.toString ());
+  }
+}
@@ -17,11 +17,15 @@
  */
 package com.phloc.datetime.format;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 import java.util.Locale;
 
 import org.joda.time.Period;
+import org.joda.time.format.PeriodFormatter;
 import org.junit.Test;
 
 import com.phloc.commons.locale.LocaleCache;
@@ -42,4 +46,25 @@ public final class PeriodFormatMultilingualTest
     assertNotNull (PeriodFormatMultilingual.getFormatterShort (DE).print (aPeriod));
     assertNotNull (PeriodFormatMultilingual.getFormatterVeryShort (DE).print (aPeriod));
   }
+
+  @Test
+  public void testCache ()
+  {
+    final Locale DE = LocaleCache.getLocale ("de", "AT");
+    final Period aPeriod = new Period (1, 2, 0, 3, 4, 5, 6, 7);
+    final PeriodFormatter aLong = PeriodFormatMultilingual.getFormatterLong (DE);
+    assertSame (aLong, PeriodFormatMultilingual.getFormatterLong (DE));
+    assertSame (PeriodFormatMultilingual.getFormatterShort (DE), PeriodFormatMultilingual.getFormatterShort (DE));
+    assertSame (PeriodFormatMultilingual.getFormatterVeryShort (DE),
+                PeriodFormatMultilingual.getFormatterVeryShort (DE));
+    assertNotSame (aLong, PeriodFormatMultilingual.getFormatterLong (Locale.ENGLISH));
+    assertEquals ("1 Jahr, 2 Monate, 3 Tage, 4 Stunden, 5 Minuten, 6 Sekunden und 7 Millisekunden",
+                  aLong.print (aPeriod));
+    assertEquals ("1 J 2 M 3 T 4 Std 5 Min 6 Sek 7 Millisek",
+                  PeriodFormatMultilingual.getFormatterVeryShort (DE).print (aPeriod));
+
+    PeriodFormatMultilingual.clearCache ();
+    assertNotSame (aLong, PeriodFormatMultilingual.getFormatterLong (DE));
+    assertEquals (aLong.print (aPeriod), PeriodFormatMultilingual.getFormatterLong (DE).print (aPeriod));
+  }
 }
@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Locale;
+
+import org.joda.time.Duration;
+import org.joda.time.Period;
+import org.joda.time.PeriodType;
+import org.joda.time.format.PeriodFormatter;
+import org.junit.Test;
+
+import com.phloc.commons.locale.LocaleCache;
+
+/**
+ * Test class for class {@link PeriodPrinterMultilingual}.
+ * 
+ * @author Philip Helger
+ */
+public final class PeriodPrinterMultilingualTest
+{
+  private static final Locale DE = LocaleCache.getLocale ("de", "AT");
+
+  private static final Period [] PERIODS = { new Period (1, 2, 0, 3, 4, 5, 6, 7),
+                                             new Period (1, 1, 1, 1, 1, 1, 1, 1),
+                                             new Period (0, 0, 0, 0, 0, 0, 0, 0),
+                                             new Period (0, 0, 0, 1, 0, 0, 0, 0),
+                                             new Period (0, 0, 2, 0, 0, 0, 0, 1),
+                                             new Period (5, 0, 0, 0, 0, 0, 0, 0),
+                                             new Period (-3, 0, 0, -1, 0, 0, 12, 0),
+                                             new Period (123456),
+                                             new Period (0, 0, 0, 0, 0, 0, 0, 0, PeriodType.yearMonthDay ()),
+                                             new Period (1, 2, 0, 3, 0, 0, 0, 0, PeriodType.yearMonthDay ()),
+                                             new Period (0, 0, 0, 0, 0, 0, 0, 0, PeriodType.time ()),
+                                             new Period (0, 0, 0, 0, 0, 0, 0, 0, PeriodType.weeks ()) };
+
+  private static final long [] DURATIONS = { 0, 1, 999, 1000, 61001, 3600000, 90061001L, -5025, 123456789012L };
+
+  private static void _check (final PeriodFormatter aFormatter,
+                              final PeriodPrinterMultilingual.EStyle eStyle,
+                              final Locale aLocale)
+  {
+    for (final Period aPeriod : PERIODS)
+      assertEquals (aPeriod.toString (),
+                    aFormatter.print (aPeriod),
+                    PeriodPrinterMultilingual.getAsString (aPeriod, eStyle, aLocale));
+    for (final long nMillis : DURATIONS)
+    {
+      final Duration aDuration = new Duration (nMillis);
+      assertEquals (aDuration.toString (),
+                    aFormatter.print (aDuration.toPeriod ()),
+                    PeriodPrinterMultilingual.getAsString (aDuration, eStyle, aLocale));
+    }
+  }
+
+  @Test
+  public void testSameAsFormatter ()
+  {
+    for (final Locale aLocale : new Locale [] { DE, Locale.ENGLISH })
+    {
+      _check (PeriodFormatMultilingual.getFormatterLong (aLocale), PeriodPrinterMultilingual.EStyle.LONG, aLocale);
+      _check (PeriodFormatMultilingual.getFormatterShort (aLocale), PeriodPrinterMultilingual.EStyle.SHORT, aLocale);
+      _check (PeriodFormatMultilingual.getFormatterVeryShort (aLocale),
+              PeriodPrinterMultilingual.EStyle.VERY_SHORT,
+              aLocale);
+    }
+  }
+
+  @Test
+  public void testPrintTo ()
+  {
+    final StringBuilder aSB = new StringBuilder ("Dauer: ");
+    assertSame (aSB,
+                PeriodPrinterMultilingual.printTo (aSB,
+                                                   new Period (0, 0, 0, 2, 1, 0, 0, 0),
+                                                   PeriodPrinterMultilingual.EStyle.LONG,
+                                                   DE));
+    assertEquals ("Dauer: 2 Tage und 1 Stunde", aSB.toString ());
+
+    aSB.setLength (0);
+    PeriodPrinterMultilingual.printTo (aSB, 90061001L, PeriodPrinterMultilingual.EStyle.VERY_SHORT, DE);
+    assertEquals ("25 Std 1 Min 1 Sek 1 Millisek", aSB.toString ());
+  }
+}
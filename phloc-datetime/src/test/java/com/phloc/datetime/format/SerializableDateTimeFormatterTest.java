@@ -19,14 +19,19 @@ package com.phloc.datetime.format;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Locale;
 
+import org.joda.time.DateTimeZone;
 import org.junit.Test;
 
 import com.phloc.commons.mock.PhlocTestUtils;
+import com.phloc.datetime.config.PDTConfig;
+import com.phloc.datetime.config.PDTConfigScope;
 import com.phloc.datetime.format.SerializableDateTimeFormatter.EFormatStyle;
 
 /**
@@ -63,4 +68,84 @@ public final class SerializableDateTimeFormatterTest
     assertSame (Locale.US, s.getLocale ());
     PhlocTestUtils.testDefaultSerialization (s);
   }
+
+  @Test
+  public void testPool ()
+  {
+    SerializableDateTimeFormatter.clearPool ();
+    final SerializableDateTimeFormatter s = SerializableDateTimeFormatter.create ("dd.MM.yyyy", Locale.GERMANY);
+    assertSame (s, SerializableDateTimeFormatter.create ("dd.MM.yyyy", Locale.GERMANY));
+    assertSame (s.getFormatter (), SerializableDateTimeFormatter.create ("dd.MM.yyyy", Locale.GERMANY).getFormatter ());
+    assertNotSame (s, SerializableDateTimeFormatter.create ("dd.MM.yyyy", Locale.US));
+    assertNotSame (s, SerializableDateTimeFormatter.create ("dd.MM.yy", Locale.GERMANY));
+    assertSame (SerializableDateTimeFormatter.createForDate (EFormatStyle.SHORT),
+                SerializableDateTimeFormatter.create (EFormatStyle.SHORT, EFormatStyle.NONE));
+    assertTrue (SerializableDateTimeFormatter.getPoolSize () > 0);
+
+    // Deserialization resolves to the pooled instance
+    assertSame (s, PhlocTestUtils.testDefaultSerialization (s));
+    final SerializableDateTimeFormatter s2 = SerializableDateTimeFormatter.createForTime (EFormatStyle.FULL,
+                                                                                         new Locale ("de", "AT", "x"));
+    assertSame (s2, PhlocTestUtils.testDefaultSerialization (s2));
+
+    SerializableDateTimeFormatter.clearPool ();
+    assertEquals (0, SerializableDateTimeFormatter.getPoolSize ());
+    final SerializableDateTimeFormatter s3 = PhlocTestUtils.testDefaultSerialization (s);
+    assertNotSame (s, s3);
+    assertNotNull (s3.getFormatter ());
+    assertSame (s3, SerializableDateTimeFormatter.create ("dd.MM.yyyy", Locale.GERMANY));
+  }
+
+  @Test
+  public void testLocaleWithScriptAndExtension ()
+  {
+    for (final Locale aLocale : new Locale [] { new Locale.Builder ().setLanguage ("sr")
+                                                                     .setRegion ("RS")
+                                                                     .setScript ("Latn")
+                                                                     .build (),
+                                                new Locale ("ja", "JP", "JP"),
+                                                new Locale ("th", "TH", "TH"),
+                                                Locale.forLanguageTag ("de-AT-u-ca-gregory") })
+    {
+      SerializableDateTimeFormatter.clearPool ();
+      final SerializableDateTimeFormatter s = SerializableDateTimeFormatter.create ("dd.MM.yyyy", aLocale);
+      SerializableDateTimeFormatter.clearPool ();
+      final SerializableDateTimeFormatter s2 = PhlocTestUtils.testDefaultSerialization (s);
+      assertNotSame (s, s2);
+      assertEquals (aLocale.toString (), aLocale, s2.getLocale ());
+    }
+  }
+
+  @Test
+  public void testPoolPerChronology ()
+  {
+    final SerializableDateTimeFormatter s = SerializableDateTimeFormatter.create ("dd.MM.yyyy HH:mm", Locale.GERMANY);
+    assertSame (PDTConfig.getDefaultChronology (), s.getFormatter ().getChronology ());
+
+    final PDTConfigScope aScope = PDTConfigScope.open (DateTimeZone.forID ("Asia/Tokyo"));
+    try
+    {
+      final SerializableDateTimeFormatter s2 = SerializableDateTimeFormatter.create ("dd.MM.yyyy HH:mm",
+                                                                                     Locale.GERMANY);
+      assertNotSame (s, s2);
+      assertEquals (DateTimeZone.forID ("Asia/Tokyo"), s2.getFormatter ().getChronology ().getZone ());
+      // Pooled for the scoped chronology
+      assertSame (s2, SerializableDateTimeFormatter.create ("dd.MM.yyyy HH:mm", Locale.GERMANY));
+    }
+    finally
+    {
+      aScope.close ();
+    }
+    assertSame (s, SerializableDateTimeFormatter.create ("dd.MM.yyyy HH:mm", Locale.GERMANY));
+  }
+
+  @Test
+  public void testPoolIsBounded ()
+  {
+    SerializableDateTimeFormatter.clearPool ();
+    for (int i = 0; i < SerializableDateTimeFormatter.MAX_POOL_SIZE + 100; ++i)
+      SerializableDateTimeFormatter.create ("dd.MM.yyyy '" + i + "'");
+    assertTrue (SerializableDateTimeFormatter.getPoolSize () <= SerializableDateTimeFormatter.MAX_POOL_SIZE);
+    SerializableDateTimeFormatter.clearPool ();
+  }
 }
@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.joda.time.LocalTime;
+import org.junit.Test;
+
+import com.phloc.datetime.PDTFactory;
+import com.phloc.datetime.format.PDTASCIICodec;
+import com.phloc.datetime.format.PDTToString;
+
+/**
+ * Test class for class {@link PDTIOFixedWidthCodec}.
+ * 
+ * @author Philip Helger
+ */
+public final class PDTIOFixedWidthCodecTest
+{
+  @Test
+  public void testDate ()
+  {
+    final LocalDate aLD = PDTFactory.createLocalDate (2008, DateTimeConstants.FEBRUARY, 29);
+    assertEquals (PDTToString.getAsString (PDTIOHelper.PATTERN_DATE, aLD), PDTIOFixedWidthCodec.formatDate (aLD));
+    assertEquals ("00050102", PDTIOFixedWidthCodec.formatDate (PDTFactory.createLocalDate (5, 1, 2)));
+    assertEquals (aLD, PDTIOFixedWidthCodec.parseDate ("20080229"));
+
+    final char [] aChars = new char [12];
+    assertEquals (10, PDTIOFixedWidthCodec.formatDate (aLD, aChars, 2));
+    assertEquals (aLD, PDTIOFixedWidthCodec.parseDate (aChars, 2));
+    final byte [] aBytes = new byte [8];
+    assertEquals (8, PDTIOFixedWidthCodec.formatDate (aLD, aBytes, 0));
+    assertEquals (aLD, PDTIOFixedWidthCodec.parseDate (aBytes, 0));
+
+    assertNull (PDTIOFixedWidthCodec.parseDate ((String) null));
+    assertNull (PDTIOFixedWidthCodec.parseDate ("2008022"));
+    assertNull (PDTIOFixedWidthCodec.parseDate ("200802290"));
+    assertNull (PDTIOFixedWidthCodec.parseDate ("20090229"));
+    assertNull (PDTIOFixedWidthCodec.parseDate ("2009x201"));
+    assertNull (PDTIOFixedWidthCodec.parseDate (aBytes, 1));
+    assertEquals (aLD, PDTIOFixedWidthCodec.parseDate ("file-20080229.log", 5));
+  }
+
+  @Test
+  public void testTime ()
+  {
+    final LocalTime aLT = PDTFactory.createLocalTime (9, 8, 7);
+    assertEquals (PDTToString.getAsString (PDTIOHelper.PATTERN_TIME, aLT), PDTIOFixedWidthCodec.formatTime (aLT));
+    assertEquals (aLT, PDTIOFixedWidthCodec.parseTime ("090807"));
+    final char [] aChars = new char [6];
+    PDTIOFixedWidthCodec.formatTime (aLT, aChars, 0);
+    assertEquals (aLT, PDTIOFixedWidthCodec.parseTime (aChars, 0));
+    assertNull (PDTIOFixedWidthCodec.parseTime ("240000"));
+    assertNull (PDTIOFixedWidthCodec.parseTime ("235960"));
+    assertNull (PDTIOFixedWidthCodec.parseTime ("23:59"));
+  }
+
+  @Test
+  public void testDateTime ()
+  {
+    final LocalDateTime aLDT = PDTFactory.createLocalDateTime (2015, DateTimeConstants.OCTOBER, 11, 23, 4, 5);
+    final String s = PDTIOFixedWidthCodec.formatDateTime (aLDT);
+    assertEquals ("20151011_230405", s);
+    assertEquals (PDTToString.getAsString (PDTIOHelper.PATTERN_DATETIME, aLDT), s);
+    assertEquals (aLDT, PDTIOFixedWidthCodec.parseDateTime (s));
+
+    final DateTime aDT = PDTFactory.createDateTime (aLDT);
+    assertEquals (s, PDTIOFixedWidthCodec.formatDateTime (aDT));
+    final byte [] aBytes = new byte [15];
+    PDTIOFixedWidthCodec.formatDateTime (aDT, aBytes, 0);
+    assertEquals (aLDT, PDTIOFixedWidthCodec.parseDateTime (aBytes, 0));
+
+    assertNull (PDTIOFixedWidthCodec.parseDateTime ("20151011-230405"));
+    assertNull (PDTIOFixedWidthCodec.parseDateTime ("20151311_230405"));
+  }
+
+  @Test
+  public void testLocalMillis ()
+  {
+    final Chronology aChronoUTC = PDTFactory.getLocalChronology ().withUTC ();
+    final LocalDateTime aLDT = PDTFactory.createLocalDateTime (2015, DateTimeConstants.OCTOBER, 11, 23, 4, 5);
+    assertEquals (aLDT.toDateTime (aChronoUTC.getZone ()).getMillis (),
+                  PDTIOFixedWidthCodec.parseDateTimeLocalMillis ("x20151011_230405", 1, aChronoUTC));
+    assertEquals (aLDT.toLocalDate ().toDateTimeAtStartOfDay (aChronoUTC.getZone ()).getMillis (),
+                  PDTIOFixedWidthCodec.parseDateLocalMillis ("20151011", 0, aChronoUTC));
+    assertEquals (aLDT.getMillisOfDay (), PDTIOFixedWidthCodec.parseTimeLocalMillis ("230405", 0, aChronoUTC));
+
+    assertEquals (PDTASCIICodec.ILLEGAL_MILLIS, PDTIOFixedWidthCodec.parseDateTimeLocalMillis (null, 0, aChronoUTC));
+    assertEquals (PDTASCIICodec.ILLEGAL_MILLIS,
+                  PDTIOFixedWidthCodec.parseDateTimeLocalMillis ("20151011-230405", 0, aChronoUTC));
+    assertEquals (PDTASCIICodec.ILLEGAL_MILLIS,
+                  PDTIOFixedWidthCodec.parseDateTimeLocalMillis ("20151011_240405", 0, aChronoUTC));
+    assertEquals (PDTASCIICodec.ILLEGAL_MILLIS, PDTIOFixedWidthCodec.parseDateLocalMillis ("20150229", 0, aChronoUTC));
+    assertEquals (PDTASCIICodec.ILLEGAL_MILLIS, PDTIOFixedWidthCodec.parseDateLocalMillis ("2015022", 0, aChronoUTC));
+    assertEquals (PDTASCIICodec.ILLEGAL_MILLIS, PDTIOFixedWidthCodec.parseTimeLocalMillis ("23x405", 0, aChronoUTC));
+  }
+}
@@ -17,10 +17,20 @@
  */
 package com.phloc.datetime.io;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.joda.time.LocalTime;
 import org.junit.Test;
 
+import com.phloc.datetime.PDTFactory;
+import com.phloc.datetime.config.PDTConfigScope;
+
 /**
  * Test class for class {@link PDTIOHelper}.
  * 
@@ -36,4 +46,41 @@ public final class PDTIOHelperTest
     assertNotNull (PDTIOHelper.getCurrentTimeForFilename ());
     assertNotNull (PDTIOHelper.getCurrentLocalDateTimeForFilename ());
   }
+
+  @Test
+  public void testRoundTrip ()
+  {
+    final DateTime aDT = PDTFactory.getCurrentDateTime ().withMillisOfSecond (0);
+    assertEquals (aDT, PDTIOHelper.getDateTimeFromFilename (PDTIOHelper.getDateTimeForFilename (aDT)));
+
+    final LocalDateTime aLDT = aDT.toLocalDateTime ();
+    assertEquals (aLDT, PDTIOHelper.getLocalDateTimeFromFilename (PDTIOHelper.getLocalDateTimeForFilename (aLDT)));
+
+    final LocalDate aLD = aLDT.toLocalDate ();
+    assertEquals (aLD, PDTIOHelper.getDateFromFilename (PDTIOHelper.getDateForFilename (aLD)));
+
+    final LocalTime aLT = aLDT.toLocalTime ();
+    assertEquals (aLT, PDTIOHelper.getTimeFromFilename (PDTIOHelper.getTimeForFilename (aLT)));
+
+    assertNull (PDTIOHelper.getDateTimeFromFilename ("foo"));
+    assertNull (PDTIOHelper.getDateFromFilename (null));
+  }
+
+  @Test
+  public void testDSTGap ()
+  {
+    final PDTConfigScope aScope = PDTConfigScope.open (DateTimeZone.forID ("Europe/Vienna"));
+    try
+    {
+      // 2015-03-29 02:30 does not exist in Vienna
+      assertNull (PDTIOHelper.getDateTimeFromFilename ("20150329_023000"));
+      // But the local date time does
+      assertNotNull (PDTIOHelper.getLocalDateTimeFromFilename ("20150329_023000"));
+      assertNotNull (PDTIOHelper.getDateTimeFromFilename ("20150329_033000"));
+    }
+    finally
+    {
+      aScope.close ();
+    }
+  }
 }
@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.supplementary.main;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import org.joda.time.DateTime;
+
+import com.phloc.datetime.PDTFactory;
+import com.phloc.datetime.config.PDTConfig;
+import com.phloc.datetime.format.PDTASCIICodec;
+
+/**
+ * Compare reading ISO date times from ASCII bytes via {@link PDTASCIICodec}
+ * with decoding the bytes to a {@link String} and parsing that with
+ * {@link PDTFactory#createDateTime(String)}.
+ * 
+ * @author Philip Helger
+ */
+public class MainBenchmarkISODateTimeReading
+{
+  private static final Charset ASCII = Charset.forName ("US-ASCII");
+  private static final int VALUES = 1024;
+  private static final int RUNS = 500;
+
+  private static long s_nBlackhole = 0;
+
+  private static byte [][] _createValues ()
+  {
+    final byte [][] ret = new byte [VALUES][];
+    DateTime aDT = new DateTime (2015, 1, 1, 0, 0, 0, 0, PDTConfig.getDefaultChronologyUTC ());
+    for (int i = 0; i < VALUES; ++i)
+    {
+      final byte [] aBuf = new byte [PDTASCIICodec.LENGTH_ISO_DATETIME_OFFSET];
+      final int nLen = PDTASCIICodec.writeISODateTime (aDT, aBuf, 0);
+      ret[i] = new byte [nLen];
+      System.arraycopy (aBuf, 0, ret[i], 0, nLen);
+      aDT = aDT.plusMillis (7919 * 1013 * (i + 1));
+    }
+    return ret;
+  }
+
+  private static void _runString (final byte [][] aValues)
+  {
+    for (final byte [] aValue : aValues)
+      s_nBlackhole += PDTFactory.createDateTime (new String (aValue, ASCII)).getMillis ();
+  }
+
+  private static void _runBytes (final byte [][] aValues)
+  {
+    for (final byte [] aValue : aValues)
+      s_nBlackhole += PDTASCIICodec.readISODateTimeMillis (aValue, 0, aValue.length);
+  }
+
+  private static void _runByteBuffer (final ByteBuffer [] aValues)
+  {
+    for (final ByteBuffer aValue : aValues)
+    {
+      aValue.rewind ();
+      s_nBlackhole += PDTASCIICodec.readISODateTimeMillis (aValue);
+    }
+  }
+
+  public static void main (final String [] args)
+  {
+    final byte [][] aValues = _createValues ();
+    final ByteBuffer [] aDirect = new ByteBuffer [VALUES];
+    for (int i = 0; i < VALUES; ++i)
+    {
+      aDirect[i] = ByteBuffer.allocateDirect (aValues[i].length);
+      aDirect[i].put (aValues[i]);
+    }
+
+    // Two rounds: the first one is the warm-up
+    for (int nRound = 0; nRound < 2; ++nRound)
+    {
+      long nStart = System.nanoTime ();
+      for (int i = 0; i < RUNS; ++i)
+        _runString (aValues);
+      final long nString = System.nanoTime () - nStart;
+
+      nStart = System.nanoTime ();
+      for (int i = 0; i < RUNS; ++i)
+        _runBytes (aValues);
+      final long nBytes = System.nanoTime () - nStart;
+
+      nStart = System.nanoTime ();
+      for (int i = 0; i < RUNS; ++i)
+        _runByteBuffer (aDirect);
+      final long nByteBuffer = System.nanoTime () - nStart;
+
+      final double dOps = (double) RUNS * VALUES;
+      System.out.println ((nRound == 0 ? "Warm-up" : "Measured") +
+                          ": String " +
+                          (nString / dOps) +
+                          " ns/op; byte[] " +
+                          (nBytes / dOps) +
+                          " ns/op; direct ByteBuffer " +
+                          (nByteBuffer / dOps) +
+                          " ns/op");
+    }
+    System.out.println ("Checksum " + s_nBlackhole);
+  }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2006-2015 phloc systems
+ * http://www.phloc.com
+ * office[at]phloc[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.phloc.datetime.supplementary.main;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.joda.time.DateTimeZone;
+
+import com.phloc.datetime.config.PDTConfig;
+
+/**
+ * Measure the throughput of reading the default date time zone from many
+ * threads at once. The lock free {@link PDTConfig} is compared with the
+ * previously used read-write lock.
+ * 
+ * @author Philip Helger
+ */
+public class MainBenchmarkPDTConfigContention
+{
+  private static final int CALLS_PER_THREAD = 2000000;
+
+  private static final ReadWriteLock s_aRWLock = new ReentrantReadWriteLock ();
+  private static DateTimeZone s_aDateTimeZone = DateTimeZone.forID (PDTConfig.DEFAULT_DATETIMEZONEID);
+
+  private static DateTimeZone _getLocked ()
+  {
+    s_aRWLock.readLock ().lock ();
+    try
+    {
+      return s_aDateTimeZone;
+    }
+    finally
+    {
+      s_aRWLock.readLock ().unlock ();
+    }
+  }
+
+  private static long _run (final int nThreads, final boolean bLocked) throws InterruptedException
+  {
+    final CountDownLatch aStart = new CountDownLatch (1);
+    final CountDownLatch aDone = new CountDownLatch (nThreads);
+    final AtomicLong aBlackhole = new AtomicLong ();
+    for (int i = 0; i < nThreads; ++i)
+    {
+      final Thread aThread = new Thread (new Runnable ()
+      {
+        public void run ()
+        {
+          try
+          {
+            aStart.await ();
+            int nSum = 0;
+            for (int j = 0; j < CALLS_PER_THREAD; ++j)
+              nSum += (bLocked ? _getLocked () : PDTConfig.getDefaultDateTimeZone ()).hashCode ();
+            aBlackhole.addAndGet (nSum);
+          }
+          catch (final InterruptedException ex)
+          {
+            Thread.currentThread ().interrupt ();
+          }
+          finally
+          {
+            aDone.countDown ();
+          }
+        }
+      });
+      aThread.start ();
+    }
+    final long nStart = System.nanoTime ();
+    aStart.countDown ();
+    aDone.await ();
+    final long nDuration = System.nanoTime () - nStart;
+    if (aBlackhole.get () == 42)
+      System.out.println ("Unlikely");
+    return nDuration;
+  }
+
+  public static void main (final String [] args) throws InterruptedException
+  {
+    final int nMaxThreads = args.length > 0 ? Integer.parseInt (args[0]) : 64;
+
+    // Warm-up
+    _run (4, true);
+    _run (4, false);
+
+    for (int nThreads = 1; nThreads <= nMaxThreads; nThreads *= 2)
+    {
+      final double dOps = (double) nThreads * CALLS_PER_THREAD;
+      final long nLocked = _run (nThreads, true);
+      final long nLockFree = _run (nThreads, false);
+      System.out.println (nThreads +
+                          " threads: read-write lock " +
+                          (long) (dOps * 1000 / nLocked) +
+                          " ops/us; lock free " +
+                          (long) (dOps * 1000 / nLockFree) +
+                          " ops/us");
+    }
+  }
+}